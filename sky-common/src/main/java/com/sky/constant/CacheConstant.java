@@ -0,0 +1,64 @@
+package com.sky.constant;
+
+/**
+ * 缓存相关常量
+ * 集中管理 Spring Cache 使用的缓存名称与缓存键前缀，
+ * 保证 {@code @Cacheable} 注解与按键精确清除缓存的代码使用一致的命名。
+ */
+public class CacheConstant {
+
+    /**
+     * 用户端菜品列表缓存，键为分类ID
+     */
+    public static final String DISH_CACHE = "dish";
+
+    /**
+     * 用户端套餐缓存：套餐列表以分类ID为键，套餐内菜品以 {@link #SETMEAL_DISH_ITEMS_KEY_PREFIX} + 套餐ID 为键
+     */
+    public static final String SETMEAL_CACHE = "setmealCache";
+
+    /**
+     * 用户端分类列表缓存，键为 {@link #CATEGORY_TYPE_KEY_PREFIX} + 分类类型（类型为空时为 "type:null"）
+     */
+    public static final String CATEGORY_CACHE = "categoryCache";
+
+    /**
+     * 店铺营业状态的响应缓存名称，营业状态不经过 Spring Cache，修改时直接按该名称清除响应缓存
+     */
+    public static final String SHOP_STATUS_CACHE = "shopStatus";
+
+    /**
+     * 商品目录的失效广播名称，键为 {@link #CATALOG_DISH_KEY_PREFIX} 或 {@link #CATALOG_SETMEAL_KEY_PREFIX} + 商品ID
+     */
+    public static final String ITEM_CATALOG = "itemCatalog";
+
+    /**
+     * 商品目录中菜品的失效键前缀
+     */
+    public static final String CATALOG_DISH_KEY_PREFIX = "dish:";
+
+    /**
+     * 商品目录中套餐的失效键前缀
+     */
+    public static final String CATALOG_SETMEAL_KEY_PREFIX = "setmeal:";
+
+    /**
+     * 套餐内菜品缓存键前缀，避免与同一缓存中以分类ID为键的套餐列表冲突
+     */
+    public static final String SETMEAL_DISH_ITEMS_KEY_PREFIX = "dishItems:";
+
+    /**
+     * 分类列表缓存键前缀
+     */
+    public static final String CATEGORY_TYPE_KEY_PREFIX = "type:";
+
+    /**
+     * 分页总数缓存的失效广播名称，键为表名
+     */
+    public static final String PAGE_COUNT = "pageCount";
+
+    /**
+     * 菜单快照版本号的 Redis 键，每次菜单变更提交后自增一次，随失效消息下发到各节点
+     */
+    public static final String MENU_SNAPSHOT_VERSION_KEY = "sky:menu:snapshot:version";
+}
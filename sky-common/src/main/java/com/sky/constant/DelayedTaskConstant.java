@@ -0,0 +1,37 @@
+package com.sky.constant;
+
+/**
+ * 延时任务相关常量
+ */
+public class DelayedTaskConstant {
+
+    /**
+     * 延时队列键前缀，待执行任务键为 前缀 + 主题，已领取任务键为 前缀 + 主题 + {@link #PROCESSING_SUFFIX}
+     */
+    public static final String QUEUE_KEY_PREFIX = "sky:delay:";
+
+    /**
+     * 已领取任务键后缀
+     */
+    public static final String PROCESSING_SUFFIX = ":processing";
+
+    /**
+     * 领取次数哈希键后缀，字段为任务内容，值为已领取次数
+     */
+    public static final String ATTEMPTS_SUFFIX = ":attempts";
+
+    /**
+     * 死信集合键后缀，分值为转入死信的时间
+     */
+    public static final String DEAD_SUFFIX = ":dead";
+
+    /**
+     * 待付款订单支付超时，任务内容为订单ID
+     */
+    public static final String ORDER_PAY_TIMEOUT = "order:pay-timeout";
+
+    /**
+     * 派送中订单送达超时，任务内容为订单ID
+     */
+    public static final String ORDER_DELIVERY_TIMEOUT = "order:delivery-timeout";
+}
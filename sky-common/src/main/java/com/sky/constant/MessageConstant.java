@@ -61,6 +61,16 @@ public class MessageConstant {
      */
     public static final String LOGIN_FAILED = "登录失败";
 
+    /**
+     * 等待调用微信登录接口的请求过多提示
+     */
+    public static final String LOGIN_BUSY = "登录人数较多，请稍后重试";
+
+    /**
+     * 微信登录接口超时或不可用提示
+     */
+    public static final String LOGIN_SERVICE_UNAVAILABLE = "微信登录服务暂不可用，请稍后重试";
+
     /**
      * 文件上传失败提示
      */
@@ -106,4 +116,44 @@ public class MessageConstant {
      */
     public static final String DISH_NOT_FOUND = "菜品不存在";
 
+    /**
+     * 套餐不存在提示
+     */
+    public static final String SETMEAL_NOT_FOUND = "套餐不存在";
+
+    /**
+     * 菜品已停售提示
+     */
+    public static final String DISH_DISABLED = "菜品已停售";
+
+    /**
+     * 套餐已停售提示
+     */
+    public static final String SETMEAL_DISABLED = "套餐已停售";
+
+    /**
+     * 订单支付超时自动取消原因
+     */
+    public static final String ORDER_PAY_TIMEOUT = "支付超时，自动取消";
+
+    /**
+     * 订单分页游标无效提示
+     */
+    public static final String ORDER_CURSOR_INVALID = "分页游标无效";
+
+    /**
+     * 客户端提交的订单金额与服务端计价不一致提示
+     */
+    public static final String ORDER_AMOUNT_CHANGED = "商品价格已变化，请刷新后重新下单";
+
+    /**
+     * 报表日期范围不合法提示
+     */
+    public static final String REPORT_DATE_RANGE_INVALID = "开始日期不能晚于结束日期";
+
+    /**
+     * 导出日期范围过大提示
+     */
+    public static final String REPORT_EXPORT_RANGE_TOO_LARGE = "导出日期范围超过上限";
+
 }
@@ -0,0 +1,17 @@
+package com.sky.constant;
+
+/**
+ * 订单相关常量
+ */
+public class OrderConstant {
+
+    /**
+     * 订单状态计数 Hash 键，字段为订单状态值，值为处于该状态的订单数
+     */
+    public static final String STATUS_COUNTER_KEY = "sky:order:status-count";
+
+    /**
+     * 订单状态计数校准锁键，保证集群内同一周期只有一个节点执行校准
+     */
+    public static final String STATUS_COUNTER_RECONCILE_LOCK_KEY = "sky:order:status-count:reconcile";
+}
@@ -0,0 +1,37 @@
+package com.sky.constant;
+
+/**
+ * 购物车相关常量
+ */
+public class ShoppingCartConstant {
+
+    /**
+     * Redis 购物车键前缀，完整键为 前缀 + 用户ID
+     */
+    public static final String CART_KEY_PREFIX = "sky:cart:";
+
+    /**
+     * 购物车商品快照字段后缀，快照字段名为 商品字段名 + 后缀
+     */
+    public static final String ITEM_INFO_SUFFIX = "#info";
+
+    /**
+     * 写合并待写缓冲键前缀，完整键为 前缀 + 用户ID
+     */
+    public static final String PENDING_KEY_PREFIX = "sky:cart:pending:";
+
+    /**
+     * 存在待写缓冲的用户集合（ZSET，分值为到期写入时间的毫秒时间戳）
+     */
+    public static final String DIRTY_USERS_KEY = "sky:cart:dirty";
+
+    /**
+     * 写合并缓冲中记录数据库已有份数的字段后缀，完整字段为 行字段 + 后缀
+     */
+    public static final String BASE_SUFFIX = "#base";
+
+    /**
+     * 写合并单用户写入锁键前缀，完整键为 前缀 + 用户ID
+     */
+    public static final String FLUSH_LOCK_KEY_PREFIX = "sky:cart:flushing:";
+}
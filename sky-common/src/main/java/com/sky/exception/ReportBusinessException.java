@@ -0,0 +1,18 @@
+package com.sky.exception;
+
+/**
+ * 报表业务异常
+ * 用于封装数据统计报表相关业务逻辑抛出的异常信息
+ */
+public class ReportBusinessException extends BaseException {
+
+    /**
+     * 构造报表业务异常
+     *
+     * @param msg 异常提示信息
+     */
+    public ReportBusinessException(String msg) {
+        super(msg);
+    }
+
+}
@@ -0,0 +1,293 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存配置属性类
+ * 用于统一管理 Spring Cache 的两级缓存（Caffeine 本地 L1 + Redis L2）参数、
+ * Redis 缓存值的编码方式、每个缓存的过期时间与空值策略，以及跨节点失效广播所使用的 Redis 频道
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.cache")
+@Data
+public class SkyCacheProperties {
+
+    /**
+     * 本地一级缓存配置
+     */
+    private Local local = new Local();
+
+    /**
+     * 缓存失效广播频道
+     * 任一节点清除缓存后，通过该 Redis 频道通知其他节点同步清除本地缓存
+     */
+    private String invalidationChannel = "sky:cache:invalidation";
+
+    /**
+     * 缓存未命中时的回源合并（single-flight）配置
+     */
+    private SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 陈旧条目异步刷新线程池配置
+     */
+    private Refresh refresh = new Refresh();
+
+    /**
+     * 用户端接口响应体缓存配置
+     */
+    private Response response = new Response();
+
+    /**
+     * 分页查询总记录数缓存配置
+     */
+    private PageCount pageCount = new PageCount();
+
+    /**
+     * Redis 缓存值的编码方式
+     */
+    private Codec codec = Codec.JSON;
+
+    /**
+     * 默认过期时间，未在 {@link #specs} 中单独配置的缓存使用该值；为 0 表示永不过期
+     */
+    private Duration defaultTtl = Duration.ZERO;
+
+    /**
+     * 默认是否缓存空值，未在 {@link #specs} 中单独配置的缓存使用该值
+     */
+    private boolean cacheNullValues = true;
+
+    /**
+     * 默认 XFetch 提前刷新系数，未在 {@link #specs} 中单独配置的缓存使用该值；为 0 表示关闭提前刷新
+     */
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * 按缓存名称单独配置的策略，键为缓存名称
+     */
+    private Map<String, Spec> specs = new HashMap<>();
+
+    /**
+     * 获取指定缓存的过期时间，未单独配置时返回默认值
+     *
+     * @param cacheName 缓存名称
+     * @return 过期时间，为 0 表示永不过期
+     */
+    public Duration ttlOf(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getTtl() != null ? spec.getTtl() : defaultTtl;
+    }
+
+    /**
+     * 获取指定缓存是否缓存空值，未单独配置时返回默认值
+     *
+     * @param cacheName 缓存名称
+     * @return 是否缓存空值
+     */
+    public boolean cacheNullValuesOf(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getCacheNullValues() != null ? spec.getCacheNullValues() : cacheNullValues;
+    }
+
+    /**
+     * 获取指定缓存在新鲜期过后仍可返回旧值的时间，未单独配置时为 0（过期即回源）
+     *
+     * @param cacheName 缓存名称
+     * @return 陈旧期
+     */
+    public Duration maxStaleOf(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getMaxStale() != null ? spec.getMaxStale() : Duration.ZERO;
+    }
+
+    /**
+     * 获取指定缓存的 XFetch 提前刷新系数，未单独配置时返回默认值
+     *
+     * @param cacheName 缓存名称
+     * @return 提前刷新系数，为 0 表示关闭提前刷新
+     */
+    public double earlyRefreshBetaOf(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        return spec != null && spec.getEarlyRefreshBeta() != null ? spec.getEarlyRefreshBeta() : earlyRefreshBeta;
+    }
+
+    /**
+     * Redis 缓存值编码方式
+     */
+    public enum Codec {
+
+        /**
+         * 基于项目 JacksonObjectMapper 的 JSON 编码，可读且对类结构变化更宽容；值类型固定的缓存按类型编码，
+         * 编解码快于 JDK 序列化，但因逐个对象重复字段名，体积约为 JDK 序列化的 1.5 倍
+         */
+        JSON,
+
+        /**
+         * JDK 原生序列化，仅用于兼容旧数据或回退
+         */
+        JDK
+    }
+
+    /**
+     * 回源合并配置
+     * 本节点内同一缓存键的并发未命中始终只执行一次加载；开启分布式模式后，
+     * 集群内各节点通过 Redis 短期锁竞争加载权，未获得锁的节点按抖动间隔重试读取缓存
+     */
+    @Data
+    public static class SingleFlight {
+
+        /**
+         * 是否启用集群级（Redis 锁）回源合并
+         */
+        private boolean distributed = false;
+
+        /**
+         * 回源锁的存活时间，应略大于一次回源加载的耗时
+         */
+        private Duration lockTtl = Duration.ofSeconds(5);
+
+        /**
+         * 未获得锁时的基础重试间隔，实际间隔在此基础上随机抖动 0~100%
+         */
+        private Duration retryInterval = Duration.ofMillis(50);
+
+        /**
+         * 等待其他节点加载的最长时间，超时后本节点直接回源
+         */
+        private Duration maxWait = Duration.ofSeconds(3);
+    }
+
+    /**
+     * 单个缓存的策略配置
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 过期时间，为空时使用默认过期时间，为 0 表示永不过期
+         */
+        private Duration ttl;
+
+        /**
+         * 是否缓存空值，为空时使用默认策略
+         */
+        private Boolean cacheNullValues;
+
+        /**
+         * 新鲜期过后仍可返回旧值并异步刷新的时间，为空表示 0
+         * Redis 中条目的实际存活时间为 ttl + maxStale
+         */
+        private Duration maxStale;
+
+        /**
+         * XFetch 提前刷新系数，为空时使用默认值
+         */
+        private Double earlyRefreshBeta;
+    }
+
+    /**
+     * 异步刷新线程池配置
+     * 线程池与队列均有界，队列满时放弃本次刷新并继续返回旧值，避免刷新任务堆积
+     */
+    @Data
+    public static class Refresh {
+
+        /**
+         * 刷新线程数
+         */
+        private int poolSize = 2;
+
+        /**
+         * 等待刷新的任务队列容量
+         */
+        private int queueCapacity = 100;
+    }
+
+    /**
+     * 响应体缓存配置
+     * 缓存用户端读接口编码后的 JSON 字节及 ETag，依赖的数据缓存失效时清除
+     */
+    @Data
+    public static class Response {
+
+        /**
+         * 是否启用响应体缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大条目数
+         */
+        private long maximumSize = 2000;
+
+        /**
+         * 条目写入后的存活时间，作为失效广播丢失时的兜底
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 分页总数缓存配置
+     * 按“表名 + 查询条件”缓存 COUNT 结果，表被写入时（本节点或其他节点广播）清除该表的全部条目
+     */
+    @Data
+    public static class PageCount {
+
+        /**
+         * 是否启用分页总数缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大条目数
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 条目写入后的存活时间，作为失效广播丢失或绕过 MyBatis 的写入时的兜底
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * 缓存总数的表名列表，只有这些表被写入时才清除并广播，其他表的写入不产生额外开销
+         */
+        private List<String> tables = new ArrayList<>(List.of("employee", "category", "dish", "setmeal"));
+    }
+
+    /**
+     * 本地一级缓存（Caffeine）配置
+     */
+    @Data
+    public static class Local {
+
+        /**
+         * 是否启用本地一级缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 启用本地一级缓存的缓存名称列表，未列出的缓存仅使用 Redis
+         */
+        private List<String> cacheNames = new ArrayList<>(List.of("dish", "setmealCache", "categoryCache"));
+
+        /**
+         * 每个缓存的本地最大条目数，超出后按 W-TinyLFU 策略淘汰
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 本地条目写入后的存活时间
+         * 作为失效广播丢失时的兜底，保证本地数据最终与 Redis 一致
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 购物车配置属性类
+ * 用于选择购物车的存储方式（Redis 或 MySQL）、Redis 购物车的存活时间，以及 MySQL 购物车的写合并（write-behind）参数
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.cart")
+@Data
+public class SkyCartProperties {
+
+    /**
+     * 购物车存储方式
+     */
+    private StoreType store = StoreType.REDIS;
+
+    /**
+     * Redis 购物车的存活时间，每次修改后重新计时
+     */
+    private Duration ttl = Duration.ofDays(7);
+
+    /**
+     * MySQL 购物车写合并配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 购物车存储方式
+     */
+    public enum StoreType {
+
+        /**
+         * 每个用户一个 Redis Hash，加减份数为原子 HINCRBY，不访问数据库
+         */
+        REDIS,
+
+        /**
+         * 直接读写 shopping_cart 表
+         */
+        MYSQL
+    }
+
+    /**
+     * 写合并配置（仅 store=mysql 时生效）
+     * 份数变化先累加到 Redis 中的用户待写缓冲，防抖窗口结束后合并为每行一条语句写入数据库；
+     * 查看购物车、下单读取前会立即写入该用户的缓冲
+     */
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * 是否启用写合并
+         */
+        private boolean enabled = false;
+
+        /**
+         * 防抖窗口：用户首次修改后等待该时间再写入数据库，窗口内的多次点击合并为一次写入
+         */
+        private Duration debounce = Duration.ofMillis(500);
+
+        /**
+         * 扫描到期缓冲的间隔
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * 每轮最多写入的用户数
+         */
+        private int batchSize = 200;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP 客户端连接池配置属性类
+ * 用于配置调用微信登录、微信支付等外部接口的共享连接池：连接数上限、超时、长连接保持与空闲连接清理
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.http-client")
+@Data
+public class SkyHttpClientProperties {
+
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+
+    /**
+     * 每个目标主机（路由）的默认最大连接数
+     */
+    private int maxPerRoute = 50;
+
+    /**
+     * 按主机名单独配置的最大连接数，键为主机名（如 api.weixin.qq.com）
+     */
+    private Map<String, Integer> maxPerHost = new HashMap<>();
+
+    /**
+     * 建立 TCP 连接的超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * 从连接池获取连接的超时时间，连接池耗尽时快速失败
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 读取响应的超时时间
+     */
+    private Duration socketTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 长连接保持时间：服务端未通过 Keep-Alive 响应头指定时使用该值，服务端指定更短时以服务端为准
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * 空闲超过该时间的连接由后台线程关闭
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * 连接空闲超过该时间后再次使用前先检查是否仍可用，避免复用已被服务端关闭的连接
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
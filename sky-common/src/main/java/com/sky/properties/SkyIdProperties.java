@@ -0,0 +1,38 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * ID 生成器配置属性类
+ * 用于配置订单号、退款单号等使用的雪花算法 ID 生成器：工作节点号的分配方式、纪元与时钟回拨容忍上限
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.id")
+@Data
+public class SkyIdProperties {
+
+    /**
+     * 固定的工作节点号（0 ~ 1023）；不配置时启动时通过 Redis 租约自动分配
+     */
+    private Integer workerId;
+
+    /**
+     * 纪元日期（东八区零点），上线后不可修改，否则可能与已有 ID 重复
+     */
+    private LocalDate epoch = LocalDate.of(2025, 1, 1);
+
+    /**
+     * 可容忍的时钟回拨时长，回拨期间沿用已分配的最大时间戳，超过该值时分配失败
+     */
+    private Duration maxBackward = Duration.ofSeconds(5);
+
+    /**
+     * Redis 自动分配的工作节点号租约时长，持有期间按三分之一周期续期，节点宕机后到期释放
+     */
+    private Duration workerLeaseTtl = Duration.ofMinutes(1);
+}
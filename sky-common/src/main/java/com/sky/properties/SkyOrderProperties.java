@@ -0,0 +1,86 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * 订单配置属性类
+ * 用于配置下单计价的打包费与配送费、订单超时自动流转的时限、执行超时任务的 Redis 延时队列参数，以及订单状态计数的校准间隔
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.order")
+@Data
+public class SkyOrderProperties {
+
+    /**
+     * 每份商品的打包费（元），订单打包费 = 商品总份数 × 该值
+     */
+    private int packFeePerItem = 1;
+
+    /**
+     * 每单配送费（元）
+     */
+    private BigDecimal deliveryFee = new BigDecimal("6");
+
+    /**
+     * 待付款订单的支付时限，超时自动取消
+     */
+    private Duration payTimeout = Duration.ofMinutes(15);
+
+    /**
+     * 派送中订单的送达时限，超时自动完成
+     */
+    private Duration deliveryTimeout = Duration.ofHours(2);
+
+    /**
+     * 订单状态计数与数据库的校准间隔
+     */
+    private Duration statusCountReconcileInterval = Duration.ofMinutes(5);
+
+    /**
+     * 延时队列配置
+     */
+    private DelayQueue delayQueue = new DelayQueue();
+
+    /**
+     * 延时队列配置
+     * 到期任务按批领取后交给有界线程池执行，执行成功后确认；领取后超过可见超时仍未确认的任务重新投递
+     */
+    @Data
+    public static class DelayQueue {
+
+        /**
+         * 轮询到期任务的间隔
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * 每次最多领取的任务数
+         */
+        private int batchSize = 100;
+
+        /**
+         * 领取后未确认的任务重新投递的超时时间
+         */
+        private Duration visibilityTimeout = Duration.ofMinutes(1);
+
+        /**
+         * 同一任务最多领取次数，超过后转入死信集合不再重试
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * 执行任务的线程数
+         */
+        private int poolSize = 4;
+
+        /**
+         * 等待执行的任务队列容量
+         */
+        private int queueCapacity = 500;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 报表配置属性类
+ * 用于配置报表日汇总增量的合并写入间隔、由原始订单、用户数据回填报表日汇总时的分段大小与并行度，以及运营数据导出的流式写入参数
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.report")
+@Data
+public class SkyReportProperties {
+
+    /**
+     * 增量汇总配置
+     */
+    private Rollup rollup = new Rollup();
+
+    /**
+     * 回填配置
+     */
+    private Backfill backfill = new Backfill();
+
+    /**
+     * 导出配置
+     */
+    private Export export = new Export();
+
+    @Data
+    public static class Rollup {
+
+        /**
+         * 内存中的汇总增量合并写入数据库的间隔，报表最多滞后该时间
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Backfill {
+
+        /**
+         * 每段包含的天数，每段在一个事务中重建
+         */
+        private int chunkDays = 7;
+
+        /**
+         * 并行重建的线程数
+         */
+        private int poolSize = 4;
+    }
+
+    @Data
+    public static class Export {
+
+        /**
+         * 内存中保留的行数，超出的行写入临时文件，内存占用与导出行数无关
+         */
+        private int rowAccessWindow = 100;
+
+        /**
+         * 是否压缩临时文件，以少量 CPU 换取临时磁盘空间
+         */
+        private boolean compressTempFiles = true;
+
+        /**
+         * 单次导出的最大天数
+         */
+        private int maxDays = 92;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sky.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 微信登录配置属性类
+ * 用于配置调用微信 jscode2session 接口的地址、单次调用时限、并发上限（隔离舱）与熔断参数
+ */
+@Component
+@ConfigurationProperties(prefix = "sky.wechat-login")
+@Data
+public class SkyWeChatLoginProperties {
+
+    /**
+     * jscode2session 接口地址，本地联调或压测时可指向桩服务
+     */
+    private String url = "https://api.weixin.qq.com/sns/jscode2session";
+
+    /**
+     * 单次调用时限，包含排队、获取连接与读取响应，超过后中止请求并按失败处理
+     */
+    private Duration deadline = Duration.ofSeconds(3);
+
+    /**
+     * 同时调用微信接口的最大线程数
+     */
+    private int concurrency = 20;
+
+    /**
+     * 等待调用的最大请求数，超过后直接返回登录繁忙
+     */
+    private int queueCapacity = 50;
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * 统计最近多少次调用
+         */
+        private int windowSize = 20;
+
+        /**
+         * 调用次数达到该值后才计算失败率
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * 打开熔断的失败率（百分比）
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 熔断打开后经过多久放行一次试探调用
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sky.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 封装游标（keyset）分页查询结果
+ * 下一页以 {@link #nextCursor} 定位，查询代价与页码深度无关；总记录数可按需省略或以估算值返回
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResult implements Serializable {
+
+    /**
+     * 总记录数
+     * 未统计时为 {@code null}
+     */
+    private Long total;
+
+    /**
+     * 总记录数是否为估算值
+     */
+    private boolean totalApproximate;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 下一页游标
+     * 原样传回即可查询下一页，没有下一页时为 {@code null}
+     */
+    private String nextCursor;
+
+    /**
+     * 当前页数据集合
+     */
+    private List<?> records;
+
+}
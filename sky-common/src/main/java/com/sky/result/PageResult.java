@@ -18,7 +18,7 @@ public class PageResult implements Serializable {
 
     /**
      * 总记录数
-     * 数据库中符合条件的全部记录数量
+     * 数据库中符合条件的全部记录数量；只判断是否有下一页时为已知下限
      */
     private long total;
 
@@ -28,4 +28,15 @@ public class PageResult implements Serializable {
      */
     private List<?> records;
 
+    /**
+     * 是否还有下一页
+     * 未判断时为 {@code null}
+     */
+    private Boolean hasNext;
+
+    public PageResult(long total, List<?> records) {
+        this.total = total;
+        this.records = records;
+    }
+
 }
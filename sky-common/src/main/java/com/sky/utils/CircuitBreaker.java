@@ -0,0 +1,184 @@
+package com.sky.utils;
+
+/**
+ * 熔断器
+ * <p>
+ * 按最近 {@code windowSize} 次调用的失败率判断外部服务是否可用：调用次数达到 {@code minimumCalls} 且失败率达到阈值时打开，
+ * 打开期间所有调用直接失败，不再占用线程和连接等待已经不可用的服务；打开 {@code openMillis} 后进入半开状态，
+ * 只放行一次试探调用，成功则关闭并清空统计，失败则重新打开。
+ * </p>
+ * <p>
+ * 调用方先 {@link #tryAcquire()}，获得许可后在调用结束时调用 {@link #onSuccess()} 或 {@link #onFailure()}；
+ * 获得许可但最终没有发起调用（如线程池已满被拒绝）时调用 {@link #release()}，该次不计入统计。
+ * </p>
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭：正常放行
+         */
+        CLOSED,
+        /**
+         * 打开：直接拒绝
+         */
+        OPEN,
+        /**
+         * 半开：放行一次试探调用
+         */
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+
+    private final int failureRateThreshold;
+
+    private final long openMillis;
+
+    /**
+     * 最近调用结果的环形缓冲区，{@code true} 表示失败
+     */
+    private final boolean[] window;
+
+    private int position;
+
+    private int calls;
+
+    private int failures;
+
+    private State state = State.CLOSED;
+
+    private long openedAt;
+
+    /**
+     * 半开状态下试探调用是否正在进行
+     */
+    private boolean probing;
+
+    /**
+     * 创建熔断器
+     *
+     * @param windowSize           统计最近多少次调用
+     * @param minimumCalls         调用次数达到该值后才计算失败率
+     * @param failureRateThreshold 打开熔断的失败率（百分比，1 ~ 100）
+     * @param openMillis           打开后经过多少毫秒进入半开状态
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openMillis) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("统计窗口须大于 0，最小调用次数须在 1 ~ 统计窗口之间");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("失败率阈值须在 1 ~ 100 之间：" + failureRateThreshold);
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @return 允许调用返回 {@code true}；熔断打开或半开状态下已有试探调用时返回 {@code false}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probing) {
+                return false;
+            }
+            probing = true;
+        }
+        return true;
+    }
+
+    /**
+     * 记录一次成功调用
+     */
+    public synchronized void onSuccess() {
+        if (state == State.OPEN) {
+            // 打开前发起、打开后才结束的调用不计入统计
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            reset(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录一次失败调用
+     *
+     * @return 本次失败使熔断打开时返回 {@code true}
+     */
+    public synchronized boolean onFailure() {
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return true;
+        }
+        record(true);
+        if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 放弃已获得的许可，不计入统计
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * 当前状态；打开时间已到但尚无调用时仍返回 {@link State#OPEN}
+     *
+     * @return 熔断器状态
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        reset(State.OPEN);
+        openedAt = System.currentTimeMillis();
+    }
+
+    private void reset(State newState) {
+        state = newState;
+        probing = false;
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
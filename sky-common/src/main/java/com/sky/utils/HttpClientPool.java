@@ -0,0 +1,121 @@
+package com.sky.utils;
+
+import com.sky.properties.SkyHttpClientProperties;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享 HTTP 连接池
+ * <p>
+ * 持有一个连接池及基于它的 {@link CloseableHttpClient}，连接在请求之间保持并复用，
+ * 同一主机的后续请求无需重新进行 TCP 与 TLS 握手。后台线程定期关闭过期和空闲过久的连接。
+ * </p>
+ * <p>
+ * 需要定制请求处理的客户端（如带签名与验签的微信支付客户端）可通过 {@link #share(HttpClientBuilder)}
+ * 复用同一连接池与超时配置，其关闭不会影响连接池。
+ * </p>
+ */
+public class HttpClientPool implements Closeable {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final RequestConfig requestConfig;
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * 按配置创建连接池
+     *
+     * @param properties 连接池配置
+     */
+    public HttpClientPool(SkyHttpClientProperties properties) {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        for (Map.Entry<String, Integer> entry : properties.getMaxPerHost().entrySet()) {
+            // 与 HTTPS 请求实际使用的路由一致：443 端口、经 TLS 加密
+            HttpRoute route = new HttpRoute(new HttpHost(entry.getKey(), 443, "https"), null, true);
+            connectionManager.setMaxPerRoute(route, entry.getValue());
+        }
+
+        requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .setSocketTimeout((int) properties.getSocketTimeout().toMillis())
+                .build();
+
+        long keepAliveMillis = properties.getKeepAlive().toMillis();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                // 连接池由本客户端持有，清理线程随客户端关闭而停止
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 共享的 HTTP 客户端
+     *
+     * @return HTTP 客户端，调用方不应关闭
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * 连接池，用于读取连接使用统计
+     *
+     * @return 连接池
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 默认请求配置，需要单独设置超时的请求以此为基础复制
+     *
+     * @return 请求配置
+     */
+    public RequestConfig getRequestConfig() {
+        return requestConfig;
+    }
+
+    /**
+     * 让定制的客户端构建器使用本连接池与超时配置
+     *
+     * @param builder 客户端构建器
+     * @param <B>     构建器类型
+     * @return 同一构建器
+     */
+    public <B extends HttpClientBuilder> B share(B builder) {
+        builder.setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(requestConfig);
+        return builder;
+    }
+
+    /**
+     * 关闭客户端与连接池
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -1,8 +1,8 @@
 package com.sky.utils;
 
 import com.alibaba.fastjson2.JSONObject;
+import com.sky.properties.SkyHttpClientProperties;
 import org.apache.http.NameValuePair;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -10,7 +10,6 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 
@@ -23,14 +22,37 @@ import java.util.Map;
 /**
  * Http工具类
  * 基于 Apache HttpClient 封装，提供 GET/POST（表单 & JSON）常用请求能力
- * 统一设置超时时间（5 秒），简化外部调用
+ * 所有请求共用一个连接池（{@link HttpClientPool}），连接在请求之间保持并复用；超时时间由连接池配置统一设置
  */
 public class HttpClientUtil {
 
     /**
-     * 默认超时时间：5 秒（毫秒）
+     * 共享连接池，应用启动时由配置类注入；未注入时（如单独使用本工具类）首次请求按默认配置创建
      */
-    private static final int TIMEOUT_MSEC = 5 * 1000;
+    private static volatile HttpClientPool pool;
+
+    /**
+     * 设置共享连接池
+     *
+     * @param httpClientPool 连接池，由调用方负责关闭
+     */
+    public static void setPool(HttpClientPool httpClientPool) {
+        pool = httpClientPool;
+    }
+
+    private static CloseableHttpClient httpClient() {
+        HttpClientPool current = pool;
+        if (current == null) {
+            synchronized (HttpClientUtil.class) {
+                current = pool;
+                if (current == null) {
+                    current = new HttpClientPool(new SkyHttpClientProperties());
+                    pool = current;
+                }
+            }
+        }
+        return current.getHttpClient();
+    }
 
     /**
      * 发送 GET 请求，参数拼接到 URL 后
@@ -40,8 +62,6 @@ public class HttpClientUtil {
      * @return 响应正文，若请求失败或异常则返回空字符串
      */
     public static String doGet(String url, Map<String, String> paramMap) {
-        // 创建 HttpClient 实例
-        CloseableHttpClient httpClient = HttpClients.createDefault();
         CloseableHttpResponse response = null;
         String result = "";
 
@@ -57,25 +77,25 @@ public class HttpClientUtil {
 
             // 创建 GET 请求
             HttpGet httpGet = new HttpGet(uri);
-            httpGet.setConfig(builderRequestConfig());
 
             // 发送请求
-            response = httpClient.execute(httpGet);
+            response = httpClient().execute(httpGet);
 
-            // 仅当 200 才读取响应体
+            // 仅当 200 才读取响应体；其他状态码也读完响应体，连接才能归还连接池复用
             if (response.getStatusLine().getStatusCode() == 200) {
                 result = EntityUtils.toString(response.getEntity(), "UTF-8");
+            } else {
+                EntityUtils.consume(response.getEntity());
             }
         } catch (Exception e) {
             // 异常打印堆栈，不向上抛出，保证外部无感知
             e.printStackTrace();
         } finally {
-            // 关闭资源，避免连接泄漏
+            // 关闭响应，连接归还连接池；共享的 HttpClient 不关闭
             try {
                 if (response != null) {
                     response.close();
                 }
-                httpClient.close();
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -93,7 +113,6 @@ public class HttpClientUtil {
      * @throws IOException 网络或 IO 异常向上抛出，由调用方处理
      */
     public static String doPost(String url, Map<String, String> paramMap) throws IOException {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
         CloseableHttpResponse response = null;
         String resultString = "";
 
@@ -110,16 +129,13 @@ public class HttpClientUtil {
                 httpPost.setEntity(entity);
             }
 
-            // 统一超时配置
-            httpPost.setConfig(builderRequestConfig());
-
-            response = httpClient.execute(httpPost);
+            response = httpClient().execute(httpPost);
             resultString = EntityUtils.toString(response.getEntity(), "UTF-8");
         } catch (Exception e) {
             // 将异常原样抛出，方便调用方感知
             throw e;
         } finally {
-            // 只关闭 response，HttpClient 由调用方决定是否复用
+            // 只关闭 response，连接归还连接池
             if (response != null) {
                 try {
                     response.close();
@@ -141,7 +157,6 @@ public class HttpClientUtil {
      * @throws IOException 网络或 IO 异常向上抛出
      */
     public static String doPost4Json(String url, Map<String, String> paramMap) throws IOException {
-        CloseableHttpClient httpClient = HttpClients.createDefault();
         CloseableHttpResponse response = null;
         String resultString = "";
 
@@ -160,9 +175,7 @@ public class HttpClientUtil {
                 httpPost.setEntity(entity);
             }
 
-            httpPost.setConfig(builderRequestConfig());
-
-            response = httpClient.execute(httpPost);
+            response = httpClient().execute(httpPost);
             resultString = EntityUtils.toString(response.getEntity(), "UTF-8");
         } catch (Exception e) {
             throw e;
@@ -178,17 +191,4 @@ public class HttpClientUtil {
 
         return resultString;
     }
-
-    /**
-     * 构造统一超时配置
-     *
-     * @return RequestConfig 实例
-     */
-    private static RequestConfig builderRequestConfig() {
-        return RequestConfig.custom()
-                .setConnectTimeout(TIMEOUT_MSEC)      // 建立连接超时
-                .setConnectionRequestTimeout(TIMEOUT_MSEC) // 从连接池获取连接超时
-                .setSocketTimeout(TIMEOUT_MSEC)      // 读取数据超时
-                .build();
-    }
 }
@@ -0,0 +1,166 @@
+package com.sky.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法 ID 生成器
+ * <p>
+ * 生成 63 位正整数 ID：41 位相对纪元的毫秒时间戳 + 10 位工作节点号 + 12 位毫秒内序列号，
+ * 同一节点生成的 ID 严格递增，不同节点的 ID 不会重复；按时间有序，作为索引列时写入集中在 B+ 树右侧。
+ * </p>
+ * <p>
+ * “时间戳 + 序列号”打包保存在一个 {@link AtomicLong} 中，通过 CAS 分配，无锁；
+ * 同一毫秒内序列号用尽时借用下一毫秒，系统时钟回拨时沿用已分配的最大时间戳继续递增，不会产生重复 ID。
+ * 借用或回拨使逻辑时间领先系统时钟超过允许值时，调用线程等待系统时钟追上；超过回拨容忍上限时抛出异常。
+ * </p>
+ * <p>
+ * 工作节点号可由租约动态提供：租约失效期间提供方返回负数，此时拒绝分配，避免与重新占用该节点号的节点生成重复 ID。
+ * </p>
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 工作节点号位数
+     */
+    public static final int WORKER_ID_BITS = 10;
+
+    /**
+     * 序列号位数
+     */
+    public static final int SEQUENCE_BITS = 12;
+
+    /**
+     * 最大工作节点号
+     */
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    /**
+     * 逻辑时间领先系统时钟不超过该值（毫秒）时直接分配，不等待
+     */
+    private static final long MAX_LEAD_MILLIS = 5;
+
+    private final LongSupplier workerIdSupplier;
+
+    private final long epochMillis;
+
+    private final long maxBackwardMillis;
+
+    /**
+     * 最近分配的 (相对纪元的毫秒时间戳 << 序列号位数) | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    private final LongSupplier clock;
+
+    /**
+     * 创建使用固定工作节点号的 ID 生成器
+     *
+     * @param workerId          工作节点号，取值 0 ~ {@link #MAX_WORKER_ID}，集群内唯一
+     * @param epochMillis       纪元（毫秒时间戳），须早于当前时间
+     * @param maxBackwardMillis 可容忍的时钟回拨毫秒数，超过时分配失败
+     */
+    public SnowflakeIdGenerator(long workerId, long epochMillis, long maxBackwardMillis) {
+        this(checkWorkerId(workerId), epochMillis, maxBackwardMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * 创建 ID 生成器
+     *
+     * @param workerIdSupplier  工作节点号提供方，返回 0 ~ {@link #MAX_WORKER_ID} 的集群内唯一节点号，节点号不可用时返回负数
+     * @param epochMillis       纪元（毫秒时间戳），须早于当前时间
+     * @param maxBackwardMillis 可容忍的时钟回拨毫秒数，超过时分配失败
+     * @param clock             时钟（毫秒时间戳），一般为 {@code System::currentTimeMillis}
+     */
+    public SnowflakeIdGenerator(LongSupplier workerIdSupplier, long epochMillis, long maxBackwardMillis, LongSupplier clock) {
+        if (epochMillis > clock.getAsLong()) {
+            throw new IllegalArgumentException("纪元不能晚于当前时间");
+        }
+        this.workerIdSupplier = workerIdSupplier;
+        this.epochMillis = epochMillis;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 分配下一个 ID
+     *
+     * @return 63 位正整数 ID
+     * @throws IllegalStateException 系统时钟回拨超过容忍上限或工作节点号不可用时抛出
+     */
+    public long nextId() {
+        long workerId = workerIdSupplier.getAsLong();
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalStateException("工作节点号不可用，暂停分配 ID");
+        }
+        while (true) {
+            long now = clock.getAsLong() - epochMillis;
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒、序列号用尽借用后续毫秒或时钟回拨：在已分配的最大值上递增，保证单调
+                next = current + 1;
+                long lead = (next >>> SEQUENCE_BITS) - now;
+                if (lead > MAX_LEAD_MILLIS) {
+                    awaitClock(lead);
+                    continue;
+                }
+            }
+            if (state.compareAndSet(current, next)) {
+                return (next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT
+                        | workerId << SEQUENCE_BITS
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 分配下一个 ID 的字符串形式，用于订单号、退款单号等
+     *
+     * @return 十进制字符串
+     */
+    public String nextIdString() {
+        return Long.toString(nextId());
+    }
+
+    /**
+     * 当前工作节点号
+     *
+     * @return 工作节点号，不可用时为负数
+     */
+    public long getWorkerId() {
+        return workerIdSupplier.getAsLong();
+    }
+
+    /**
+     * 从 ID 中解析生成时间
+     *
+     * @param id 本生成器分配的 ID
+     * @return 毫秒时间戳
+     */
+    public long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + epochMillis;
+    }
+
+    private static LongSupplier checkWorkerId(long workerId) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("工作节点号须在 0 ~ " + MAX_WORKER_ID + " 之间：" + workerId);
+        }
+        return () -> workerId;
+    }
+
+    private void awaitClock(long lead) {
+        if (lead > maxBackwardMillis) {
+            throw new IllegalStateException("系统时钟回拨 " + lead + " 毫秒，超过容忍上限 " + maxBackwardMillis + " 毫秒");
+        }
+        LockSupport.parkNanos((lead - MAX_LEAD_MILLIS) * 1_000_000L);
+    }
+}
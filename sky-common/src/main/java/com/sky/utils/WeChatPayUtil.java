@@ -52,13 +52,50 @@ public class WeChatPayUtil {
     @Resource
     private WeChatProperties weChatProperties;
 
+    /**
+     * 退款单号生成器
+     */
+    @Resource
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    /**
+     * 共享 HTTP 连接池
+     */
+    @Resource
+    private HttpClientPool httpClientPool;
+
+    /**
+     * 微信支付专用HTTP客户端，首次调用时创建后复用
+     */
+    private volatile CloseableHttpClient client;
+
     /**
      * 获取调用微信接口的客户端工具对象
-     * 该方法会加载商户私钥和微信支付平台证书，构建具有自动签名和验签功能的HttpClient
+     * 首次调用时加载商户私钥和微信支付平台证书，构建具有自动签名和验签功能的HttpClient，之后复用；
+     * 客户端使用共享连接池，与微信支付服务器的连接在请求之间保持
      *
      * @return CloseableHttpClient 微信支付专用HTTP客户端，如果加载失败则返回null
      */
     private CloseableHttpClient getClient() {
+        CloseableHttpClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    current = buildClient();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 构建微信支付专用HTTP客户端
+     *
+     * @return CloseableHttpClient 微信支付专用HTTP客户端，如果加载失败则返回null
+     */
+    private CloseableHttpClient buildClient() {
         PrivateKey merchantPrivateKey = null;
         try {
             // 加载商户API私钥，用于请求签名
@@ -73,8 +110,8 @@ public class WeChatPayUtil {
                     .withMerchant(weChatProperties.getMchid(), weChatProperties.getMchSerialNo(), merchantPrivateKey)
                     .withWechatPay(wechatPayCertificates);
 
-            // 构建具有自动签名和验签功能的HttpClient
-            CloseableHttpClient httpClient = builder.build();
+            // 构建具有自动签名和验签功能的HttpClient，使用共享连接池与超时配置
+            CloseableHttpClient httpClient = httpClientPool.share(builder).build();
             return httpClient;
         } catch (FileNotFoundException e) {
             e.printStackTrace();
@@ -105,7 +142,7 @@ public class WeChatPayUtil {
             String bodyAsString = EntityUtils.toString(response.getEntity());
             return bodyAsString;
         } finally {
-            httpClient.close();
+            // 只关闭响应，连接归还连接池
             response.close();
         }
     }
@@ -131,7 +168,7 @@ public class WeChatPayUtil {
             String bodyAsString = EntityUtils.toString(response.getEntity());
             return bodyAsString;
         } finally {
-            httpClient.close();
+            // 只关闭响应，连接归还连接池
             response.close();
         }
     }
@@ -224,6 +261,19 @@ public class WeChatPayUtil {
         return jsonObject;
     }
 
+    /**
+     * 申请退款，退款单号由 ID 生成器分配
+     *
+     * @param outTradeNo 商户订单号，需与支付时一致
+     * @param refund     退款金额，单位为元，不能超过原订单金额
+     * @param total      原订单金额，单位为元
+     * @return 微信支付返回的JSON响应字符串（含 out_refund_no）
+     * @throws Exception 调用接口时可能抛出的异常
+     */
+    public String refund(String outTradeNo, BigDecimal refund, BigDecimal total) throws Exception {
+        return refund(outTradeNo, snowflakeIdGenerator.nextIdString(), refund, total);
+    }
+
     /**
      * 申请退款
      * 调用微信支付退款接口，对指定订单进行退款操作
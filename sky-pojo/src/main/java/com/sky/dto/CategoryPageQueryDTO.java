@@ -1,21 +1,17 @@
 package com.sky.dto;
 
 import lombok.Data;
-
-import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * 分类分页查询数据传输对象（DTO）
  * 用于在前端分页查询分类列表时传递查询条件，支持按名称模糊查询、按类型筛选等
  */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @Data
-public class CategoryPageQueryDTO implements Serializable {
-
-    //页码
-    private int page;
-
-    //每页记录数
-    private int pageSize;
+public class CategoryPageQueryDTO extends PageQueryDTO {
 
     //分类名称
     private String name;
@@ -1,19 +1,17 @@
 package com.sky.dto;
 
 import lombok.Data;
-
-import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * 菜品分页查询数据传输对象（DTO）
  * 用于在前端分页查询菜品列表时传递查询条件，支持按名称模糊查询、按分类筛选、按状态筛选等
  */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @Data
-public class DishPageQueryDTO implements Serializable {
-
-    private int page;
-
-    private int pageSize;
+public class DishPageQueryDTO extends PageQueryDTO {
 
     private String name;
 
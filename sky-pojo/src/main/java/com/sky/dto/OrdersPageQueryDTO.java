@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 /**
  * 订单分页查询数据传输对象（DTO）
  * 用于在前端分页查询订单列表时传递查询条件，支持按订单号、手机号、订单状态、时间范围等筛选
+ * 传入上一页返回的游标时按 (下单时间, 订单ID) 定位下一页，不使用 OFFSET
  */
 @Data
 public class OrdersPageQueryDTO implements Serializable {
@@ -31,4 +32,13 @@ public class OrdersPageQueryDTO implements Serializable {
 
     private Long userId;
 
+    //上一页返回的游标，为空时查询 page 指定的页
+    private String cursor;
+
+    //是否统计总记录数，默认统计；翻页时已知总数可传 false 省去 COUNT 查询
+    private Boolean searchCount;
+
+    //是否以执行计划的估算行数代替精确 COUNT
+    private Boolean approximateCount;
+
 }
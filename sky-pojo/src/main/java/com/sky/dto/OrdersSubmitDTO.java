@@ -28,8 +28,8 @@ public class OrdersSubmitDTO implements Serializable {
     private Integer tablewareNumber;
     //餐具数量状态  1按餐量提供  0选择具体数量
     private Integer tablewareStatus;
-    //打包费
+    //打包费（仅兼容旧客户端，服务端按商品份数计算）
     private Integer packAmount;
-    //总金额
+    //总金额（仅用于核对，服务端按商品目录单价计算，不一致时拒绝下单）
     private BigDecimal amount;
 }
@@ -0,0 +1,26 @@
+package com.sky.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 分页查询数据传输对象（DTO）基类
+ * 除页码与每页记录数外，客户端可传入已知的总记录数以省去 COUNT 查询，或只判断是否有下一页
+ */
+@Data
+public class PageQueryDTO implements Serializable {
+
+    //页码
+    private int page;
+
+    //每页记录数
+    private int pageSize;
+
+    //客户端已知的总记录数（如翻页时沿用首页返回值），传入时不再统计
+    private Long total;
+
+    //只判断是否有下一页：多读一行代替 COUNT 查询，返回的总记录数为已知下限
+    private Boolean hasNextOnly;
+
+}
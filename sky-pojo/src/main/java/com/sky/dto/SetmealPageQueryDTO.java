@@ -1,19 +1,17 @@
 package com.sky.dto;
 
 import lombok.Data;
-
-import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * 套餐分页查询数据传输对象（DTO）
  * 用于在前端分页查询套餐列表时传递查询条件，支持按名称、分类ID、状态等筛选
  */
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @Data
-public class SetmealPageQueryDTO implements Serializable {
-
-    private int page;
-
-    private int pageSize;
+public class SetmealPageQueryDTO extends PageQueryDTO {
 
     private String name;
 
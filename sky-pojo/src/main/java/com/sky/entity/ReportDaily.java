@@ -0,0 +1,43 @@
+package com.sky.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 报表日汇总实体类
+ * 按天保存营业额、订单数、有效订单数与新增用户数，供营业额、订单、用户统计报表查询
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("report_daily")
+public class ReportDaily implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    //统计日期
+    @TableId(value = "report_date", type = IdType.INPUT)
+    private LocalDate reportDate;
+
+    //营业额（已完成订单实收金额）
+    private BigDecimal turnover;
+
+    //订单数（按下单时间）
+    private Integer orderCount;
+
+    //有效订单数（已完成）
+    private Integer validOrderCount;
+
+    //新增用户数
+    private Integer newUserCount;
+}
@@ -0,0 +1,49 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 缓存统计数据传输对象（VO）
+ * 用于在管理端展示各缓存的本地一级缓存与 Redis 二级缓存的命中、未命中次数及本地条目数
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsVO implements Serializable {
+
+    //缓存名称
+    private String cacheName;
+
+    //本地缓存命中次数
+    private long localHits;
+
+    //本地缓存未命中次数
+    private long localMisses;
+
+    //本地缓存当前条目数（估算值）
+    private long localSize;
+
+    //Redis缓存命中次数
+    private long remoteHits;
+
+    //Redis缓存未命中次数
+    private long remoteMisses;
+
+    //实际回源加载次数
+    private long loads;
+
+    //因同一键已有加载在进行而合并等待的次数
+    private long coalescedLoads;
+
+    //新鲜期已过、在陈旧期内直接返回旧值的次数
+    private long staleHits;
+
+    //提交异步刷新（含提前刷新）的次数
+    private long refreshes;
+}
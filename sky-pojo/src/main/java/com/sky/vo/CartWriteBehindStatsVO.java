@@ -0,0 +1,37 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 购物车写合并统计数据传输对象（VO）
+ * 用于在管理端展示购物车份数变化被合并写入数据库的效果（本节点自启动以来的累计值）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartWriteBehindStatsVO implements Serializable {
+
+    //累加到缓冲的份数变化次数
+    private long mutations;
+
+    //完成写库的用户缓冲数
+    private long flushes;
+
+    //写库执行的语句数
+    private long statements;
+
+    //写库失败次数
+    private long failures;
+
+    //合并比：份数变化次数 / 写库语句数
+    private double coalescingRatio;
+
+    //当前存在待写缓冲的用户数（集群）
+    private long pendingUsers;
+}
@@ -0,0 +1,34 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * HTTP 连接池统计数据传输对象（VO）
+ * 用于在管理端展示共享 HTTP 连接池整体及每个目标主机的连接使用情况
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HttpClientPoolStatsVO implements Serializable {
+
+    //目标主机（如 https://api.weixin.qq.com:443），整体统计为 null
+    private String route;
+
+    //正在使用的连接数
+    private int leased;
+
+    //等待获取连接的请求数
+    private int pending;
+
+    //空闲可复用的连接数
+    private int available;
+
+    //最大连接数
+    private int max;
+}
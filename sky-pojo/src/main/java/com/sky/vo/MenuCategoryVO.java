@@ -0,0 +1,40 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单快照中的分类视图对象（VO）
+ * 菜品分类下挂启售菜品（含口味），套餐分类下挂启售套餐（含套餐内菜品）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuCategoryVO implements Serializable {
+
+    private Long id;
+
+    //类型: 1菜品分类 2套餐分类
+    private Integer type;
+
+    //分类名称
+    private String name;
+
+    //顺序
+    private Integer sort;
+
+    //启售菜品（仅菜品分类）
+    @Builder.Default
+    private List<DishVO> dishes = new ArrayList<>();
+
+    //启售套餐（仅套餐分类）
+    @Builder.Default
+    private List<MenuSetmealVO> setmeals = new ArrayList<>();
+}
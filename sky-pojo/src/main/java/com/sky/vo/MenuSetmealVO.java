@@ -0,0 +1,43 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单快照中的套餐视图对象（VO）
+ * 包含套餐基本信息及套餐内菜品，供小程序一次性展示
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSetmealVO implements Serializable {
+
+    private Long id;
+
+    //分类id
+    private Long categoryId;
+
+    //套餐名称
+    private String name;
+
+    //套餐价格
+    private BigDecimal price;
+
+    //图片
+    private String image;
+
+    //描述信息
+    private String description;
+
+    //套餐内菜品
+    @Builder.Default
+    private List<DishItemVO> dishItems = new ArrayList<>();
+}
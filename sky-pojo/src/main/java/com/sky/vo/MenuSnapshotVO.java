@@ -0,0 +1,32 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全量菜单快照视图对象（VO）
+ * 小程序打开时一次性获取全部启用分类、菜品及套餐，替代逐分类请求
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSnapshotVO implements Serializable {
+
+    //快照版本号，菜单内容每次变化后单调递增
+    private Long version;
+
+    //快照生成时间
+    private LocalDateTime buildTime;
+
+    //启用的分类，按排序字段升序
+    @Builder.Default
+    private List<MenuCategoryVO> categories = new ArrayList<>();
+}
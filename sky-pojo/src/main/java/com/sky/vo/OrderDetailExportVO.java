@@ -0,0 +1,54 @@
+package com.sky.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单明细导出数据传输对象（VO）
+ * 用于运营数据导出，每行为一条订单明细及其所属订单的基本信息
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDetailExportVO implements Serializable {
+
+    //订单号
+    private String number;
+
+    //下单时间
+    private LocalDateTime orderTime;
+
+    //订单状态 1待付款 2待接单 3已接单 4派送中 5已完成 6已取消 7退款
+    private Integer status;
+
+    //收货人
+    private String consignee;
+
+    //手机号
+    private String phone;
+
+    //地址
+    private String address;
+
+    //订单实收金额
+    private BigDecimal orderAmount;
+
+    //商品名称
+    private String name;
+
+    //口味
+    private String dishFlavor;
+
+    //数量
+    private Integer quantity;
+
+    //明细金额
+    private BigDecimal amount;
+}
@@ -0,0 +1,28 @@
+package com.sky.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 响应体缓存注解
+ * 标注在返回 {@code Result} 的 GET 接口上，成功响应编码后的 JSON 字节连同 ETag 一起缓存，
+ * 再次请求时直接输出字节或返回 304，不再经过控制器与 Jackson 序列化。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedResponse {
+
+    /**
+     * 响应所依赖的数据缓存名称，该缓存的任一条目失效时清除本接口的所有缓存响应
+     *
+     * @return 缓存名称
+     */
+    String value();
+}
@@ -0,0 +1,40 @@
+package com.sky.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 缓存条目包装
+ * <p>
+ * 两级缓存中实际存放的对象，在缓存值之外记录新鲜截止时间与本次加载耗时，
+ * 用于判断条目是否已过期但仍可返回（stale-while-revalidate），以及计算提前刷新的概率（XFetch）。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 已适配的缓存值（空值以 NullValue 表示）
+     */
+    private Object value;
+
+    /**
+     * 新鲜截止时间（毫秒时间戳），超过后条目视为陈旧；为 0 表示永不陈旧
+     */
+    private long freshUntil;
+
+    /**
+     * 加载该值的耗时（毫秒），为 0 表示未知
+     */
+    private long loadMillis;
+}
@@ -0,0 +1,60 @@
+package com.sky.cache;
+
+import com.alibaba.fastjson2.JSON;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 缓存失效广播监听器
+ * 订阅缓存失效频道，收到消息后仅清除本节点的本地一级缓存（Redis 已由发布方清除），
+ * 并以 {@link CacheInvalidationMessage} 发布应用事件。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    /**
+     * 将失效消息转发为应用事件，供依赖菜单缓存的派生数据（如菜单快照）同步失效
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager, ApplicationEventPublisher eventPublisher) {
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = JSON.parseObject(new String(message.getBody(), StandardCharsets.UTF_8),
+                    CacheInvalidationMessage.class);
+        } catch (Exception e) {
+            log.warn("无法解析缓存失效消息，已忽略", e);
+            return;
+        }
+        if (invalidation == null || invalidation.getCacheName() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(invalidation);
+
+        TwoLevelCache cache = cacheManager.getLocalCache(invalidation.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.getKey() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.getKey());
+        }
+        log.debug("已清除本地缓存，cacheName={}, key={}", invalidation.getCacheName(), invalidation.getKey());
+    }
+}
@@ -0,0 +1,37 @@
+package com.sky.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存失效广播消息
+ * 在 Redis 频道中以 JSON 形式传输，键为空时表示清空整个缓存；菜单写操作引起的失效同时携带本次变更的菜单版本号
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 字符串形式的缓存键，为 {@code null} 时表示清空整个缓存
+     */
+    private String key;
+
+    /**
+     * 菜单版本号：菜单写操作提交后自增一次，随本次变更的全部失效消息下发，其他失效为 {@code null}
+     */
+    private Long version;
+
+    public CacheInvalidationMessage(String cacheName, String key) {
+        this(cacheName, key, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sky.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.sky.properties.SkyCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 缓存失效广播发布器
+ * 当某个节点清除两级缓存时，通过 Redis 发布/订阅将失效消息广播到所有节点，
+ * 由 {@link CacheInvalidationListener} 清除各节点的本地一级缓存。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final SkyCacheProperties skyCacheProperties;
+
+    public CacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate, SkyCacheProperties skyCacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.skyCacheProperties = skyCacheProperties;
+    }
+
+    /**
+     * 广播缓存失效消息
+     *
+     * @param cacheName 缓存名称
+     * @param key       字符串形式的缓存键，为 {@code null} 时表示清空整个缓存
+     */
+    public void publish(String cacheName, String key) {
+        publish(cacheName, key, null);
+    }
+
+    /**
+     * 广播携带菜单版本号的缓存失效消息
+     *
+     * @param cacheName 缓存名称
+     * @param key       字符串形式的缓存键，为 {@code null} 时表示清空整个缓存
+     * @param version   菜单版本号，允许为 {@code null}
+     */
+    public void publish(String cacheName, String key, Long version) {
+        String message = JSON.toJSONString(new CacheInvalidationMessage(cacheName, key, version));
+        try {
+            stringRedisTemplate.convertAndSend(skyCacheProperties.getInvalidationChannel(), message);
+        } catch (Exception e) {
+            // 广播失败不影响本节点的清除结果，其他节点依赖本地过期时间兜底
+            log.warn("缓存失效广播发送失败，cacheName={}, key={}", cacheName, key, e);
+        }
+    }
+}
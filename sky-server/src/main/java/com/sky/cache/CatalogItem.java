@@ -0,0 +1,53 @@
+package com.sky.cache;
+
+import com.sky.constant.StatusConstant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * 商品目录条目
+ * 菜品或套餐在购物车、下单计价时需要的最小信息，创建后不可修改
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogItem {
+
+    /**
+     * 菜品ID或套餐ID
+     */
+    private final Long id;
+
+    /**
+     * 名称
+     */
+    private final String name;
+
+    /**
+     * 图片
+     */
+    private final String image;
+
+    /**
+     * 单价
+     */
+    private final BigDecimal price;
+
+    /**
+     * 状态：0-停售 1-起售
+     */
+    private final Integer status;
+
+    /**
+     * 是否起售
+     *
+     * @return 起售返回 {@code true}
+     */
+    public boolean isEnabled() {
+        return StatusConstant.ENABLE.equals(status);
+    }
+}
@@ -0,0 +1,111 @@
+package com.sky.cache;
+
+import com.sky.constant.CacheConstant;
+import com.sky.entity.Category;
+import com.sky.mapper.CategoryMapper;
+import com.sky.properties.SkyCacheProperties;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类字典
+ * <p>
+ * 分类表数据量小且极少变化，一次加载全部分类，在内存中提供 分类ID→分类名称 的查询，
+ * 供管理端菜品、套餐列表替代逐行查询分类。字典为不可变 Map，重新加载后整体替换引用。
+ * </p>
+ * <p>
+ * 分类写操作会清除分类列表缓存，收到该缓存的失效事件（本节点或其他节点广播）后标记字典过期，下次查询时重新加载；
+ * 另以本地缓存存活时间作为广播丢失时的兜底。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class CategoryDictionary {
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @Resource
+    private SkyCacheProperties skyCacheProperties;
+
+    /**
+     * 当前字典，未加载时为 {@code null}
+     */
+    private volatile Map<Long, String> names;
+
+    /**
+     * 当前字典的加载时间（毫秒时间戳）
+     */
+    private volatile long loadedAt;
+
+    /**
+     * 是否需要重新加载
+     */
+    private volatile boolean stale = true;
+
+    /**
+     * 查询分类名称
+     *
+     * @param categoryId 分类ID，允许为 {@code null}
+     * @return 分类名称，分类不存在时返回 {@code null}
+     */
+    public String getName(Long categoryId) {
+        return categoryId == null ? null : snapshot().get(categoryId);
+    }
+
+    /**
+     * 获取当前字典
+     *
+     * @return 不可变的 分类ID→分类名称 映射
+     */
+    public Map<Long, String> snapshot() {
+        Map<Long, String> current = names;
+        if (current != null && !stale && !expired()) {
+            return current;
+        }
+        synchronized (this) {
+            if (names == null || stale || expired()) {
+                reload();
+            }
+            return names;
+        }
+    }
+
+    /**
+     * 分类列表缓存失效时标记字典过期
+     *
+     * @param message 缓存失效消息
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidationMessage message) {
+        if (CacheConstant.CATEGORY_CACHE.equals(message.getCacheName())) {
+            stale = true;
+        }
+    }
+
+    private boolean expired() {
+        return System.currentTimeMillis() - loadedAt >= skyCacheProperties.getLocal().getExpireAfterWrite().toMillis();
+    }
+
+    private void reload() {
+        // 先清除标记，加载期间到达的失效事件会在下次查询时再次触发加载
+        stale = false;
+        List<Category> categories = categoryMapper.selectList(null);
+        Map<Long, String> loaded = new HashMap<>(categories.size() * 2);
+        for (Category category : categories) {
+            loaded.put(category.getId(), category.getName());
+        }
+        names = Map.copyOf(loaded);
+        loadedAt = System.currentTimeMillis();
+        log.debug("分类字典已加载，共 {} 个分类", loaded.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.sky.cache;
+
+import com.sky.properties.SkyCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 缓存回源分布式锁
+ * <p>
+ * 基于 Redis {@code SET NX PX} 实现的短期互斥锁，保证集群内同一缓存键同一时刻只有一个节点回源加载；
+ * 释放时通过 Lua 脚本比对持有者令牌，避免误删其他节点在锁过期后重新获得的锁。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class DistributedLoadLock {
+
+    /**
+     * 锁键前缀
+     */
+    private static final String LOCK_KEY_PREFIX = "lock:cache:";
+
+    /**
+     * 比对令牌后删除锁的 Lua 脚本
+     */
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final SkyCacheProperties skyCacheProperties;
+
+    public DistributedLoadLock(StringRedisTemplate stringRedisTemplate, SkyCacheProperties skyCacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.skyCacheProperties = skyCacheProperties;
+    }
+
+    /**
+     * 尝试获取指定缓存键的回源锁
+     *
+     * @param cacheName 缓存名称
+     * @param key       字符串形式的缓存键
+     * @return 获取成功返回持有者令牌，失败返回 {@code null}
+     */
+    public String tryLock(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token,
+                    skyCacheProperties.getSingleFlight().getLockTtl());
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            // Redis 不可用时退化为仅本节点合并，由调用方直接回源
+            log.warn("获取缓存回源锁失败，cacheName={}, key={}", cacheName, key, e);
+            return token;
+        }
+    }
+
+    /**
+     * 释放回源锁，仅当锁仍由当前令牌持有时才删除
+     *
+     * @param cacheName 缓存名称
+     * @param key       字符串形式的缓存键
+     * @param token     获取锁时返回的令牌
+     */
+    public void unlock(String cacheName, String key, String token) {
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey(cacheName, key)), token);
+        } catch (Exception e) {
+            // 释放失败时依赖锁过期时间自动释放
+            log.warn("释放缓存回源锁失败，cacheName={}, key={}", cacheName, key, e);
+        }
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return LOCK_KEY_PREFIX + cacheName + "::" + key;
+    }
+}
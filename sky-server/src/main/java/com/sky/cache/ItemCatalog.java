@@ -0,0 +1,280 @@
+package com.sky.cache;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.constant.CacheConstant;
+import com.sky.entity.Dish;
+import com.sky.entity.Setmeal;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.SetmealMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 商品目录
+ * <p>
+ * 在内存中保存全部菜品、套餐的 ID→名称、图片、单价、状态，供购物车新增商品、下单计价时查询，无需访问数据库。
+ * 启动时整体加载；管理端修改菜品、套餐后（事务提交之后）按ID重新加载受影响的条目，并通过缓存失效频道广播到其他节点。
+ * 另由后台定时任务按本地缓存存活时间整体重新加载，作为广播丢失时的兜底；查询只读取内存，从不在请求线程上整表加载。
+ * 目录始终是完整的，查不到的ID直接视为不存在，不再回查数据库，避免不存在的ID每次都穿透到数据库；
+ * 其他节点刚新增的商品由失效广播加入目录。
+ * </p>
+ * <p>
+ * 每次加载在查询数据库之前取一个递增序号，条目只被序号更大的加载结果覆盖：整体加载耗时较长，
+ * 期间按ID完成的更新（包括删除）不会被这份更早开始查询的整表结果覆盖或恢复。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class ItemCatalog {
+
+    @Resource
+    private DishMapper dishMapper;
+
+    @Resource
+    private SetmealMapper setmealMapper;
+
+    @Resource
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    private final Entries dishes = new Entries();
+
+    private final Entries setmeals = new Entries();
+
+    /**
+     * 加载序号，每次查询数据库之前自增
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 是否已完成过一次整体加载
+     */
+    private volatile boolean loaded;
+
+    /**
+     * 启动完成后整体加载；失败时由定时任务重试，其间按ID单独查询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            log.warn("商品目录加载失败，将由定时任务重试", e);
+        }
+    }
+
+    /**
+     * 定时整体重新加载，作为失效广播丢失时的兜底；加载期间查询继续读取现有目录
+     */
+    @Scheduled(initialDelayString = "#{@skyCacheProperties.local.expireAfterWrite.toMillis()}",
+            fixedDelayString = "#{@skyCacheProperties.local.expireAfterWrite.toMillis()}")
+    public void scheduledReload() {
+        try {
+            reloadAll();
+        } catch (RuntimeException e) {
+            log.warn("商品目录定时重新加载失败，继续使用现有目录", e);
+        }
+    }
+
+    /**
+     * 查询菜品
+     *
+     * @param dishId 菜品ID
+     * @return 目录条目，菜品不存在时返回 {@code null}
+     */
+    public CatalogItem getDish(Long dishId) {
+        CatalogItem item = dishes.get(dishId);
+        // 尚未完成整体加载时目录不完整，只按ID单独查询，不在请求线程上整表加载
+        return item != null || loaded ? item : loadDish(dishId);
+    }
+
+    /**
+     * 查询套餐
+     *
+     * @param setmealId 套餐ID
+     * @return 目录条目，套餐不存在时返回 {@code null}
+     */
+    public CatalogItem getSetmeal(Long setmealId) {
+        CatalogItem item = setmeals.get(setmealId);
+        return item != null || loaded ? item : loadSetmeal(setmealId);
+    }
+
+    /**
+     * 菜品被修改后重新加载，有事务时延迟到提交之后执行，并广播到其他节点
+     *
+     * @param dishIds 菜品ID集合，允许包含 {@code null}（将被忽略）
+     */
+    public void refreshDishes(Collection<Long> dishIds) {
+        afterCommit(CacheConstant.CATALOG_DISH_KEY_PREFIX, dishIds, this::loadDish);
+    }
+
+    /**
+     * 套餐被修改后重新加载，有事务时延迟到提交之后执行，并广播到其他节点
+     *
+     * @param setmealIds 套餐ID集合，允许包含 {@code null}（将被忽略）
+     */
+    public void refreshSetmeals(Collection<Long> setmealIds) {
+        afterCommit(CacheConstant.CATALOG_SETMEAL_KEY_PREFIX, setmealIds, this::loadSetmeal);
+    }
+
+    /**
+     * 收到其他节点的商品目录失效广播时重新加载对应条目
+     *
+     * @param message 缓存失效消息
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidationMessage message) {
+        if (!CacheConstant.ITEM_CATALOG.equals(message.getCacheName())) {
+            return;
+        }
+        String key = message.getKey();
+        try {
+            if (key == null) {
+                reloadAll();
+            } else if (key.startsWith(CacheConstant.CATALOG_DISH_KEY_PREFIX)) {
+                loadDish(Long.valueOf(key.substring(CacheConstant.CATALOG_DISH_KEY_PREFIX.length())));
+            } else if (key.startsWith(CacheConstant.CATALOG_SETMEAL_KEY_PREFIX)) {
+                loadSetmeal(Long.valueOf(key.substring(CacheConstant.CATALOG_SETMEAL_KEY_PREFIX.length())));
+            }
+        } catch (RuntimeException e) {
+            // 由定时整体重新加载修正
+            log.warn("商品目录更新失败，key={}", key, e);
+        }
+    }
+
+    private void afterCommit(String keyPrefix, Collection<Long> ids, Function<Long, CatalogItem> loader) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        if (distinct.isEmpty()) {
+            return;
+        }
+        Runnable action = () -> {
+            for (Long id : distinct) {
+                loader.apply(id);
+                cacheInvalidationPublisher.publish(CacheConstant.ITEM_CATALOG, keyPrefix + id);
+            }
+            log.debug("商品目录已更新，{}{}", keyPrefix, distinct);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void reloadAll() {
+        long stamp = sequence.incrementAndGet();
+        List<Dish> dishList = dishMapper.selectList(Wrappers.lambdaQuery(Dish.class)
+                .select(Dish::getId, Dish::getName, Dish::getImage, Dish::getPrice, Dish::getStatus));
+        List<Setmeal> setmealList = setmealMapper.selectList(Wrappers.lambdaQuery(Setmeal.class)
+                .select(Setmeal::getId, Setmeal::getName, Setmeal::getImage, Setmeal::getPrice, Setmeal::getStatus));
+        Map<Long, CatalogItem> loadedDishes = new HashMap<>();
+        dishList.forEach(dish -> loadedDishes.put(dish.getId(), itemOf(dish)));
+        Map<Long, CatalogItem> loadedSetmeals = new HashMap<>();
+        setmealList.forEach(setmeal -> loadedSetmeals.put(setmeal.getId(), itemOf(setmeal)));
+        dishes.putAll(loadedDishes, stamp);
+        setmeals.putAll(loadedSetmeals, stamp);
+        loaded = true;
+        log.info("商品目录已加载，菜品 {} 个，套餐 {} 个", dishes.size(), setmeals.size());
+    }
+
+    private CatalogItem loadDish(Long dishId) {
+        long stamp = sequence.incrementAndGet();
+        Dish dish = dishMapper.selectById(dishId);
+        CatalogItem item = dish == null ? null : itemOf(dish);
+        dishes.put(dishId, item, stamp);
+        return item;
+    }
+
+    private CatalogItem loadSetmeal(Long setmealId) {
+        long stamp = sequence.incrementAndGet();
+        Setmeal setmeal = setmealMapper.selectById(setmealId);
+        CatalogItem item = setmeal == null ? null : itemOf(setmeal);
+        setmeals.put(setmealId, item, stamp);
+        return item;
+    }
+
+    private static CatalogItem itemOf(Dish dish) {
+        return new CatalogItem(dish.getId(), dish.getName(), dish.getImage(), dish.getPrice(), dish.getStatus());
+    }
+
+    private static CatalogItem itemOf(Setmeal setmeal) {
+        return new CatalogItem(setmeal.getId(), setmeal.getName(), setmeal.getImage(), setmeal.getPrice(), setmeal.getStatus());
+    }
+
+    /**
+     * 一类商品的目录条目，记录每个ID最近一次生效的加载序号
+     */
+    private static final class Entries {
+
+        private final Map<Long, CatalogItem> items = new ConcurrentHashMap<>();
+
+        /**
+         * ID到生效加载序号，由 this 保护；删除的ID同样保留序号，防止被更早的整表结果恢复
+         */
+        private final Map<Long, Long> stamps = new HashMap<>();
+
+        private CatalogItem get(Long id) {
+            return items.get(id);
+        }
+
+        private int size() {
+            return items.size();
+        }
+
+        /**
+         * 写入单个条目，序号小于已生效序号时忽略
+         *
+         * @param item 条目，为 {@code null} 表示已删除
+         */
+        private synchronized void put(Long id, CatalogItem item, long stamp) {
+            if (stamps.getOrDefault(id, 0L) > stamp) {
+                return;
+            }
+            stamps.put(id, stamp);
+            if (item == null) {
+                items.remove(id);
+            } else {
+                items.put(id, item);
+            }
+        }
+
+        /**
+         * 以整表结果替换：先放入新条目再移除已删除的，替换过程中查询不会出现短暂缺失
+         */
+        private synchronized void putAll(Map<Long, CatalogItem> loaded, long stamp) {
+            loaded.forEach((id, item) -> put(id, item, stamp));
+            for (Long id : List.copyOf(items.keySet())) {
+                if (!loaded.containsKey(id)) {
+                    put(id, null, stamp);
+                }
+            }
+        }
+    }
+}
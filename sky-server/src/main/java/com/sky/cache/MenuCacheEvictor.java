@@ -0,0 +1,165 @@
+package com.sky.cache;
+
+import com.sky.constant.CacheConstant;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 菜单缓存精确清除器
+ * <p>
+ * 管理端写操作只清除受影响分类 / 套餐对应的缓存键，而不是清空整个缓存，避免一次修改导致全部分类同时回源。
+ * 若当前存在事务，清除动作延迟到事务提交之后执行，防止并发读请求在提交前把旧数据重新写回缓存。
+ * </p>
+ * <p>
+ * 每个提交的菜单变更（同一事务内的多次清除合并）在 Redis 中自增一次菜单版本号，并随本次变更的全部失效消息下发，
+ * 各节点的菜单快照以该版本号标记重建结果，集群内同一版本号对应同一次变更。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class MenuCacheEvictor {
+
+    @Resource
+    private CacheManager cacheManager;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 清除指定分类的用户端菜品列表缓存
+     *
+     * @param categoryIds 分类ID集合，允许包含 {@code null}（将被忽略）
+     */
+    public void evictDishCategories(Collection<Long> categoryIds) {
+        evict(CacheConstant.DISH_CACHE, distinct(categoryIds, ""));
+    }
+
+    /**
+     * 清除指定分类的用户端套餐列表缓存
+     *
+     * @param categoryIds 分类ID集合，允许包含 {@code null}（将被忽略）
+     */
+    public void evictSetmealCategories(Collection<Long> categoryIds) {
+        evict(CacheConstant.SETMEAL_CACHE, distinct(categoryIds, ""));
+    }
+
+    /**
+     * 清除指定套餐的套餐内菜品缓存
+     *
+     * @param setmealIds 套餐ID集合，允许包含 {@code null}（将被忽略）
+     */
+    public void evictSetmealDishItems(Collection<Long> setmealIds) {
+        evict(CacheConstant.SETMEAL_CACHE, distinct(setmealIds, CacheConstant.SETMEAL_DISH_ITEMS_KEY_PREFIX));
+    }
+
+    /**
+     * 清除指定类型的用户端分类列表缓存，同时清除“不限类型”的分类列表
+     *
+     * @param types 分类类型集合，允许包含 {@code null}
+     */
+    public void evictCategoryTypes(Collection<Integer> types) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Integer type : types) {
+            keys.add(CacheConstant.CATEGORY_TYPE_KEY_PREFIX + type);
+        }
+        keys.add(CacheConstant.CATEGORY_TYPE_KEY_PREFIX + null);
+        evict(CacheConstant.CATEGORY_CACHE, keys);
+    }
+
+    private void evict(String cacheName, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Map.of(cacheName, keys));
+            return;
+        }
+        // 同一事务内的多次清除合并为一次提交后执行，菜单版本号只自增一次
+        @SuppressWarnings("unchecked")
+        Map<String, Set<String>> pending = (Map<String, Set<String>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Set<String>> evictions = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, evictions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(evictions);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MenuCacheEvictor.this);
+                }
+            });
+            pending = evictions;
+        }
+        pending.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(keys);
+    }
+
+    /**
+     * 自增菜单版本号，清除缓存并以该版本号通知本节点及其他节点
+     *
+     * @param evictions 缓存名称到缓存键的映射
+     */
+    private void apply(Map<String, Set<String>> evictions) {
+        Long version = nextVersion();
+        evictions.forEach((cacheName, keys) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            for (String key : keys) {
+                if (cache instanceof TwoLevelCache twoLevelCache) {
+                    // 两级缓存清除时自行通知本节点派生数据
+                    twoLevelCache.evict(key, version);
+                } else {
+                    cache.evict(key);
+                    // 本节点直接通知派生数据，不依赖失效广播回环
+                    eventPublisher.publishEvent(new CacheInvalidationMessage(cacheName, key, version));
+                }
+            }
+            log.info("已清除缓存，cacheName={}, keys={}, version={}", cacheName, keys, version);
+        });
+    }
+
+    /**
+     * 菜单版本号在集群内自增；Redis 不可用时返回 {@code null}，各节点沿用已知的最大版本号
+     */
+    private Long nextVersion() {
+        try {
+            return stringRedisTemplate.opsForValue().increment(CacheConstant.MENU_SNAPSHOT_VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("菜单版本号自增失败", e);
+            return null;
+        }
+    }
+
+    private static Set<String> distinct(Collection<Long> ids, String prefix) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (ids == null) {
+            return keys;
+        }
+        ids.stream().filter(Objects::nonNull).forEach(id -> keys.add(prefix + id));
+        return keys;
+    }
+}
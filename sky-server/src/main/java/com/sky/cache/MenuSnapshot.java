@@ -0,0 +1,31 @@
+package com.sky.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 预序列化的菜单快照
+ * 响应体在构建时一次性编码为 JSON 字节，请求时直接输出，不再重复序列化。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Getter
+@AllArgsConstructor
+public class MenuSnapshot {
+
+    /**
+     * 快照版本号
+     */
+    private final long version;
+
+    /**
+     * 弱 ETag，由菜单内容摘要生成；内容相同的快照在各节点上 ETag 一致
+     */
+    private final String etag;
+
+    /**
+     * 已编码的响应体（{@code Result<MenuSnapshotVO>} 的 JSON 字节）
+     */
+    private final byte[] body;
+}
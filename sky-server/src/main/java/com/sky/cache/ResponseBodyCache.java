@@ -0,0 +1,138 @@
+package com.sky.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sky.properties.SkyCacheProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 响应体缓存
+ * <p>
+ * 以“请求方法 + URI + 查询串”为键，缓存接口最终输出的 UTF-8 JSON 字节及其强 ETag。
+ * 每个条目记录所依赖的数据缓存名称，收到该缓存的失效事件（本节点或其他节点广播）时清除全部相关条目。
+ * </p>
+ * <p>
+ * 每个数据缓存维护一个代次号，失效时递增。控制器执行前记录代次，写入前比对，
+ * 避免失效发生在查询与写入之间时把旧数据写回缓存。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class ResponseBodyCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, Entry> entries;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final CacheInvalidationPublisher publisher;
+
+    public ResponseBodyCache(SkyCacheProperties skyCacheProperties, CacheInvalidationPublisher publisher) {
+        SkyCacheProperties.Response response = skyCacheProperties.getResponse();
+        this.enabled = response.isEnabled();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(response.getMaximumSize())
+                .expireAfterWrite(response.getExpireAfterWrite())
+                .build();
+        this.publisher = publisher;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 查询缓存的响应
+     *
+     * @param key 请求键
+     * @return 缓存的响应，未命中返回 {@code null}
+     */
+    public Entry get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * 获取数据缓存当前的代次号
+     *
+     * @param cacheName 数据缓存名称
+     * @return 代次号
+     */
+    public long generation(String cacheName) {
+        return generations.computeIfAbsent(cacheName, name -> new AtomicLong()).get();
+    }
+
+    /**
+     * 写入响应；代次号已变化（期间发生过失效）时放弃写入
+     *
+     * @param key        请求键
+     * @param entry      响应
+     * @param generation 控制器执行前记录的代次号
+     */
+    public void put(String key, Entry entry, long generation) {
+        if (generation(entry.getCacheName()) == generation) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * 清除依赖指定数据缓存的全部响应，并广播到其他节点
+     * 用于不经过 Spring Cache 的数据（如店铺营业状态）
+     *
+     * @param cacheName 数据缓存名称
+     */
+    public void invalidate(String cacheName) {
+        clear(cacheName);
+        publisher.publish(cacheName, null);
+    }
+
+    /**
+     * 数据缓存失效时清除依赖它的响应
+     *
+     * @param message 缓存失效消息
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidationMessage message) {
+        clear(message.getCacheName());
+    }
+
+    private void clear(String cacheName) {
+        generations.computeIfAbsent(cacheName, name -> new AtomicLong()).incrementAndGet();
+        entries.asMap().values().removeIf(entry -> entry.getCacheName().equals(cacheName));
+        log.debug("已清除响应缓存，cacheName={}", cacheName);
+    }
+
+    /**
+     * 缓存的响应
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+
+        /**
+         * 所依赖的数据缓存名称
+         */
+        private final String cacheName;
+
+        /**
+         * 强 ETag（含双引号）
+         */
+        private final String etag;
+
+        /**
+         * 响应体 JSON 字节（UTF-8）
+         */
+        private final byte[] body;
+    }
+}
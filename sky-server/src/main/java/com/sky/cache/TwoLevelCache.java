@@ -0,0 +1,589 @@
+package com.sky.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sky.properties.SkyCacheProperties;
+import com.sky.vo.CacheStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级缓存实现
+ * <p>
+ * 一级（L1）为进程内 Caffeine 缓存，二级（L2）为 Redis 缓存。读取时先查 L1，未命中再查 L2 并回填 L1；
+ * 写入与清除同时作用于两级，清除后以 {@link CacheInvalidationMessage} 发布本节点应用事件，使依赖该缓存的派生数据
+ * （如响应体缓存）立即失效，并通过 {@link CacheInvalidationPublisher} 广播，使其他节点同步清除各自的 L1。
+ * </p>
+ * <p>
+ * L1 的键统一转换为字符串，与 Redis 中的键以及失效广播消息中的键保持一致。
+ * </p>
+ * <p>
+ * 配合 {@code @Cacheable(sync = true)} 使用时，同一键的并发未命中在本节点只执行一次加载（single-flight），
+ * 其余调用方等待该次加载的结果；若配置了 {@link DistributedLoadLock}，集群内同一键也只有一个节点回源。
+ * </p>
+ * <p>
+ * 两级缓存中存放的是 {@link CacheEnvelope}。条目超过新鲜期（ttl）后，在允许的陈旧期（max-stale）内仍直接返回旧值，
+ * 同时在有界线程池中异步刷新；新鲜期内则按 XFetch 算法以随剩余时间递增的概率提前刷新，使热点键在过期前完成更新。
+ * </p>
+ * <p>
+ * 写入、清除某个键（含其他节点广播的清除）时，把该键进行中的加载标记为已失效；清空整个缓存时整体代次号加一。
+ * 加载完成时已失效或整体代次号已变化则不写入缓存，避免在管理端修改提交之前开始的加载把旧数据写回两级缓存，
+ * 同时其他键的写入与清除不影响本键的加载。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    /**
+     * 缓存名称
+     */
+    private final String name;
+
+    /**
+     * 一级缓存：进程内 Caffeine 缓存，存放 {@link CacheEnvelope}
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+
+    /**
+     * 二级缓存：Redis 缓存
+     */
+    private final Cache remoteCache;
+
+    /**
+     * 失效广播发布器
+     */
+    private final CacheInvalidationPublisher publisher;
+
+    /**
+     * 本节点应用事件发布器，清除时直接通知派生数据（如响应体缓存、菜单快照），不依赖失效广播回环
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 二级缓存命中次数
+     */
+    private final LongAdder remoteHits = new LongAdder();
+
+    /**
+     * 二级缓存未命中次数
+     */
+    private final LongAdder remoteMisses = new LongAdder();
+
+    /**
+     * 实际回源加载次数
+     */
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * 合并到已有加载上的调用次数
+     */
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    /**
+     * 正在进行中的加载，按字符串键索引
+     */
+    private final Map<String, InFlightLoad> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 集群级回源锁，为 {@code null} 时仅在本节点内合并
+     */
+    private final DistributedLoadLock loadLock;
+
+    /**
+     * 集群级回源合并配置
+     */
+    private final SkyCacheProperties.SingleFlight singleFlight;
+
+    /**
+     * 新鲜期，为 0 表示永不陈旧（不启用陈旧返回与提前刷新）
+     */
+    private final Duration ttl;
+
+    /**
+     * 新鲜期过后仍可返回旧值的最长时间
+     */
+    private final Duration maxStale;
+
+    /**
+     * XFetch 提前刷新系数，越大越早刷新，为 0 表示关闭提前刷新
+     */
+    private final double earlyRefreshBeta;
+
+    /**
+     * 异步刷新线程池（有界）
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * 返回陈旧值的次数
+     */
+    private final LongAdder staleHits = new LongAdder();
+
+    /**
+     * 异步刷新（含提前刷新）提交次数
+     */
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * 整体代次号，每次清空整个缓存时加一
+     */
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    /**
+     * 时钟，用于新鲜期、陈旧期与提前刷新的判定
+     */
+    private final Clock clock;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher publisher,
+                         ApplicationEventPublisher eventPublisher,
+                         DistributedLoadLock loadLock,
+                         Executor refreshExecutor,
+                         SkyCacheProperties skyCacheProperties) {
+        this(name, localCache, remoteCache, publisher, eventPublisher, loadLock, refreshExecutor, skyCacheProperties,
+                Clock.systemUTC());
+    }
+
+    TwoLevelCache(String name,
+                  com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+                  Cache remoteCache,
+                  CacheInvalidationPublisher publisher,
+                  ApplicationEventPublisher eventPublisher,
+                  DistributedLoadLock loadLock,
+                  Executor refreshExecutor,
+                  SkyCacheProperties skyCacheProperties,
+                  Clock clock) {
+        super(skyCacheProperties.cacheNullValuesOf(name));
+        this.clock = clock;
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.publisher = publisher;
+        this.eventPublisher = eventPublisher;
+        this.loadLock = loadLock;
+        this.refreshExecutor = refreshExecutor;
+        this.singleFlight = skyCacheProperties.getSingleFlight();
+        this.ttl = skyCacheProperties.ttlOf(name);
+        this.maxStale = skyCacheProperties.maxStaleOf(name);
+        this.earlyRefreshBeta = skyCacheProperties.earlyRefreshBetaOf(name);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    /**
+     * 依次查询一级、二级缓存，二级命中时回填一级
+     *
+     * @param key 缓存键
+     * @return 已适配的缓存值，未命中返回 {@code null}
+     */
+    @Override
+    protected Object lookup(Object key) {
+        CacheEnvelope envelope = lookupEnvelope(key);
+        return envelope == null ? null : envelope.getValue();
+    }
+
+    /**
+     * 查询缓存条目，超过陈旧期的条目按未命中处理
+     */
+    private CacheEnvelope lookupEnvelope(Object key) {
+        String localKey = toLocalKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            CacheEnvelope envelope = toEnvelope(value);
+            if (!isExpired(envelope, clock.millis())) {
+                return envelope;
+            }
+            localCache.invalidate(localKey);
+        }
+
+        ValueWrapper wrapper;
+        try {
+            wrapper = remoteCache.get(key);
+        } catch (SerializationException e) {
+            // 旧编码或类结构变化导致无法解码时，视为未命中并清除该条目，由调用方重新加载
+            log.warn("缓存值解码失败，已清除该条目，cacheName={}, key={}", name, key, e);
+            remoteCache.evict(key);
+            wrapper = null;
+        }
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        CacheEnvelope envelope = toEnvelope(wrapper.get());
+        if (isExpired(envelope, clock.millis())) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        localCache.put(localKey, envelope);
+        return envelope;
+    }
+
+    /**
+     * 读取缓存，未命中时合并并发加载
+     * <p>
+     * 同一键同一时刻只有一个线程执行 {@code valueLoader}，其他线程等待其结果；加载异常同样传递给所有等待者。
+     * 命中陈旧值时直接返回，并在刷新线程池中异步重新加载。
+     * </p>
+     *
+     * @param key         缓存键
+     * @param valueLoader 回源加载逻辑
+     * @return 缓存值或加载结果
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = toLocalKey(key);
+        CacheEnvelope envelope = lookupEnvelope(key);
+        if (envelope != null) {
+            // 命中：陈旧或到达提前刷新时机时异步刷新，本次直接返回现有值
+            long now = clock.millis();
+            boolean stale = isStale(envelope, now);
+            if (stale) {
+                staleHits.increment();
+            }
+            if (stale || shouldRefreshEarly(envelope, now)) {
+                refreshAsync(key, localKey, envelope.getValue(), valueLoader);
+            }
+            return (T) fromStoreValue(envelope.getValue());
+        }
+
+        InFlightLoad load = new InFlightLoad(clearGeneration.get());
+        InFlightLoad existing = inFlightLoads.putIfAbsent(localKey, load);
+        if (existing != null) {
+            // 已有线程在加载该键，等待其结果
+            coalescedLoads.increment();
+            try {
+                return (T) fromStoreValue(existing.future.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Object storeValue = loadSingleFlight(key, localKey, valueLoader, load);
+            load.future.complete(storeValue);
+            return (T) fromStoreValue(storeValue);
+        } catch (RuntimeException e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(localKey, load);
+        }
+    }
+
+    /**
+     * 获得本节点加载权后执行加载；启用集群级合并时先竞争 Redis 回源锁，
+     * 未获得锁则按抖动间隔重试读取缓存，直到其他节点写入或等待超时
+     *
+     * @return 已适配的加载结果
+     */
+    private Object loadSingleFlight(Object key, String localKey, Callable<?> valueLoader, InFlightLoad load) {
+        // 获得加载权前可能已有其他线程完成加载，再检查一次
+        Object cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (loadLock == null) {
+            return loadAndPut(key, valueLoader, load);
+        }
+
+        long deadline = System.nanoTime() + singleFlight.getMaxWait().toNanos();
+        while (true) {
+            String token = loadLock.tryLock(name, localKey);
+            if (token != null) {
+                try {
+                    cached = lookup(key);
+                    return cached != null ? cached : loadAndPut(key, valueLoader, load);
+                } finally {
+                    loadLock.unlock(name, localKey, token);
+                }
+            }
+            if (System.nanoTime() >= deadline) {
+                log.warn("等待其他节点回源超时，直接加载，cacheName={}, key={}", name, key);
+                return loadAndPut(key, valueLoader, load);
+            }
+            sleepWithJitter(key, valueLoader);
+            cached = lookup(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+    }
+
+    /**
+     * 执行加载并写入两级缓存；加载期间该键被写入、清除或整个缓存被清空时只返回结果，不写入缓存
+     */
+    private Object loadAndPut(Object key, Callable<?> valueLoader, InFlightLoad load) {
+        loads.increment();
+        long start = clock.millis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        CacheEnvelope envelope = wrap(value, clock.millis() - start);
+        if (isInvalidated(load)) {
+            log.debug("加载期间缓存已被清除，放弃写入，cacheName={}, key={}", name, key);
+            return envelope.getValue();
+        }
+        String localKey = toLocalKey(key);
+        remoteCache.put(key, envelope);
+        localCache.put(localKey, envelope);
+        if (isInvalidated(load)) {
+            // 写入过程中发生了清除，撤销本次写入，下次读取重新加载
+            remoteCache.evict(key);
+            localCache.invalidate(localKey);
+        }
+        return envelope.getValue();
+    }
+
+    /**
+     * 在刷新线程池中异步重新加载，与同一键的其他加载合并；线程池已满时放弃本次刷新，继续返回现有值
+     *
+     * @param currentValue 当前已适配的缓存值，刷新被拒绝时用于完成等待中的调用
+     */
+    private void refreshAsync(Object key, String localKey, Object currentValue, Callable<?> valueLoader) {
+        InFlightLoad load = new InFlightLoad(clearGeneration.get());
+        CompletableFuture<Object> future = load.future;
+        if (inFlightLoads.putIfAbsent(localKey, load) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                // 启用集群级合并时，其他节点正在刷新则本节点跳过
+                String token = loadLock == null ? null : loadLock.tryLock(name, localKey);
+                try {
+                    if (loadLock != null && token == null) {
+                        future.complete(currentValue);
+                    } else {
+                        future.complete(loadAndPut(key, valueLoader, load));
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("缓存异步刷新失败，继续使用旧值，cacheName={}, key={}", name, key, e);
+                    future.complete(currentValue);
+                } finally {
+                    if (token != null) {
+                        loadLock.unlock(name, localKey, token);
+                    }
+                    inFlightLoads.remove(localKey, load);
+                }
+            });
+            refreshes.increment();
+        } catch (RejectedExecutionException e) {
+            log.debug("刷新线程池已满，跳过本次刷新，cacheName={}, key={}", name, key);
+            inFlightLoads.remove(localKey, load);
+            future.complete(currentValue);
+        }
+    }
+
+    /**
+     * 条目是否已过新鲜期
+     */
+    private boolean isStale(CacheEnvelope envelope, long now) {
+        return envelope.getFreshUntil() > 0 && now >= envelope.getFreshUntil();
+    }
+
+    /**
+     * 条目是否已超过陈旧期，不可再返回
+     */
+    private boolean isExpired(CacheEnvelope envelope, long now) {
+        return envelope.getFreshUntil() > 0 && now >= envelope.getFreshUntil() + maxStale.toMillis();
+    }
+
+    /**
+     * XFetch 提前刷新判定：now - loadMillis * beta * ln(rand) >= freshUntil。
+     * 加载越慢、越接近过期，提前刷新的概率越高
+     */
+    private boolean shouldRefreshEarly(CacheEnvelope envelope, long now) {
+        if (earlyRefreshBeta <= 0 || envelope.getFreshUntil() <= 0 || envelope.getLoadMillis() <= 0) {
+            return false;
+        }
+        double gap = -envelope.getLoadMillis() * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return now + gap >= envelope.getFreshUntil();
+    }
+
+    /**
+     * 将缓存值包装为带新鲜截止时间的条目
+     *
+     * @param value      原始缓存值
+     * @param loadMillis 加载耗时（毫秒），未知时为 0
+     */
+    private CacheEnvelope wrap(Object value, long loadMillis) {
+        long freshUntil = ttl.isZero() ? 0 : clock.millis() + ttl.toMillis();
+        return new CacheEnvelope(toStoreValue(value), freshUntil, loadMillis);
+    }
+
+    /**
+     * 兼容未包装的旧条目，视为永不陈旧
+     */
+    private static CacheEnvelope toEnvelope(Object stored) {
+        if (!(stored instanceof CacheEnvelope envelope)) {
+            return new CacheEnvelope(stored, 0, 0);
+        }
+        // JSON 解码时嵌套的空值会生成新的 NullValue 实例，需还原为单例以便 fromStoreValue 识别
+        if (envelope.getValue() instanceof NullValue && envelope.getValue() != NullValue.INSTANCE) {
+            envelope.setValue(NullValue.INSTANCE);
+        }
+        return envelope;
+    }
+
+    private void sleepWithJitter(Object key, Callable<?> valueLoader) {
+        long base = singleFlight.getRetryInterval().toMillis();
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        invalidateInFlight(toLocalKey(key));
+        CacheEnvelope envelope = wrap(value, 0);
+        remoteCache.put(key, envelope);
+        localCache.put(toLocalKey(key), envelope);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evict(key, null);
+    }
+
+    /**
+     * 清除指定键，失效广播携带菜单版本号，供 {@link MenuCacheEvictor} 调用
+     *
+     * @param key     缓存键
+     * @param version 菜单版本号，允许为 {@code null}
+     */
+    public void evict(Object key, Long version) {
+        // 先清除 Redis，再清除本地并广播，避免其他节点从 Redis 回填到旧值
+        invalidateInFlight(toLocalKey(key));
+        remoteCache.evict(key);
+        evictLocal(toLocalKey(key));
+        eventPublisher.publishEvent(new CacheInvalidationMessage(name, toLocalKey(key), version));
+        publisher.publish(name, toLocalKey(key), version);
+    }
+
+    @Override
+    public void clear() {
+        clearGeneration.incrementAndGet();
+        remoteCache.clear();
+        clearLocal();
+        eventPublisher.publishEvent(new CacheInvalidationMessage(name, null));
+        publisher.publish(name, null);
+    }
+
+    /**
+     * 仅清除本节点一级缓存中的指定键，供失效广播监听器调用
+     *
+     * @param localKey 字符串形式的缓存键
+     */
+    public void evictLocal(String localKey) {
+        invalidateInFlight(localKey);
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * 仅清空本节点一级缓存，供失效广播监听器调用
+     */
+    public void clearLocal() {
+        clearGeneration.incrementAndGet();
+        localCache.invalidateAll();
+    }
+
+    /**
+     * 获取当前缓存两级命中统计快照
+     *
+     * @return 缓存统计
+     */
+    public CacheStatsVO stats() {
+        CacheStats localStats = localCache.stats();
+        return CacheStatsVO.builder()
+                .cacheName(name)
+                .localHits(localStats.hitCount())
+                .localMisses(localStats.missCount())
+                .localSize(localCache.estimatedSize())
+                .remoteHits(remoteHits.sum())
+                .remoteMisses(remoteMisses.sum())
+                .loads(loads.sum())
+                .coalescedLoads(coalescedLoads.sum())
+                .staleHits(staleHits.sum())
+                .refreshes(refreshes.sum())
+                .build();
+    }
+
+    /**
+     * 把指定键进行中的加载标记为已失效，其结果不再写入缓存
+     */
+    private void invalidateInFlight(String localKey) {
+        InFlightLoad load = inFlightLoads.get(localKey);
+        if (load != null) {
+            load.invalidated = true;
+        }
+    }
+
+    private boolean isInvalidated(InFlightLoad load) {
+        return load.invalidated || clearGeneration.get() != load.clearGeneration;
+    }
+
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * 进行中的加载：等待者共享的结果，以及加载开始后该键是否已被写入或清除
+     */
+    private static final class InFlightLoad {
+
+        /**
+         * 已适配的加载结果
+         */
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        /**
+         * 加载开始时的整体代次号
+         */
+        private final long clearGeneration;
+
+        /**
+         * 加载开始后该键被写入或清除
+         */
+        private volatile boolean invalidated;
+
+        private InFlightLoad(long clearGeneration) {
+            this.clearGeneration = clearGeneration;
+        }
+    }
+}
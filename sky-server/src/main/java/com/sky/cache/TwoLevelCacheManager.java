@@ -0,0 +1,127 @@
+package com.sky.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sky.properties.SkyCacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 两级缓存管理器
+ * <p>
+ * 包装 Redis 缓存管理器：对配置中启用本地缓存的缓存名称返回 {@link TwoLevelCache}（Caffeine + Redis），
+ * 其余缓存直接返回 Redis 缓存。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    /**
+     * 二级缓存管理器（Redis）
+     */
+    private final CacheManager remoteCacheManager;
+
+    private final SkyCacheProperties skyCacheProperties;
+
+    private final CacheInvalidationPublisher publisher;
+
+    /**
+     * 本节点应用事件发布器
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 集群级回源锁
+     */
+    private final DistributedLoadLock loadLock;
+
+    /**
+     * 陈旧条目异步刷新线程池
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * 已创建的缓存实例，按缓存名称索引
+     */
+    private final Map<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                SkyCacheProperties skyCacheProperties,
+                                CacheInvalidationPublisher publisher,
+                                ApplicationEventPublisher eventPublisher,
+                                DistributedLoadLock loadLock,
+                                Executor refreshExecutor) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.skyCacheProperties = skyCacheProperties;
+        this.publisher = publisher;
+        this.eventPublisher = eventPublisher;
+        this.loadLock = loadLock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return cacheMap.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(remoteCacheManager.getCacheNames());
+        names.addAll(cacheMap.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 获取已创建的两级缓存，供失效广播监听器使用
+     *
+     * @param name 缓存名称
+     * @return 两级缓存实例；若该缓存尚未创建或未启用本地缓存，返回 {@code null}
+     */
+    public TwoLevelCache getLocalCache(String name) {
+        Cache cache = cacheMap.get(name);
+        return cache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+
+    /**
+     * 获取所有已创建的两级缓存
+     *
+     * @return 两级缓存列表
+     */
+    public List<TwoLevelCache> getLocalCaches() {
+        List<TwoLevelCache> caches = new ArrayList<>();
+        for (Cache cache : cacheMap.values()) {
+            if (cache instanceof TwoLevelCache twoLevelCache) {
+                caches.add(twoLevelCache);
+            }
+        }
+        return caches;
+    }
+
+    private Cache createCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        SkyCacheProperties.Local local = skyCacheProperties.getLocal();
+        if (remoteCache == null || !local.isEnabled() || !local.getCacheNames().contains(name)) {
+            return remoteCache;
+        }
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(local.getMaximumSize())
+                .expireAfterWrite(local.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        return new TwoLevelCache(name, localCache, remoteCache, publisher, eventPublisher,
+                skyCacheProperties.getSingleFlight().isDistributed() ? loadLock : null,
+                refreshExecutor, skyCacheProperties);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sky.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 按值类型编码的缓存条目序列化器
+ * <p>
+ * 用于值类型固定的缓存（如 {@code Result<List<DishVO>>}）：JSON 中不记录类名，解码时按构造时给定的类型还原，
+ * 体积与编解码开销均小于在每个对象上记录类型信息的通用编码。缓存的空值编码为 JSON null，解码时还原为 {@link NullValue}。
+ * </p>
+ * <p>
+ * 条目与通用编码不兼容，切换编码后 Redis 中的旧条目解码失败，由 {@link TwoLevelCache} 视为未命中并清除。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public class TypedCacheEnvelopeSerializer implements RedisSerializer<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader reader;
+
+    /**
+     * @param objectMapper 未启用默认类型信息的 ObjectMapper
+     * @param valueType    缓存值类型
+     */
+    public TypedCacheEnvelopeSerializer(ObjectMapper objectMapper, JavaType valueType) {
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(
+                objectMapper.getTypeFactory().constructParametricType(TypedEnvelope.class, valueType));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof CacheEnvelope envelope)) {
+            throw new SerializationException("仅支持编码 CacheEnvelope：" + (value == null ? null : value.getClass()));
+        }
+        TypedEnvelope<Object> typed = new TypedEnvelope<>();
+        typed.setValue(envelope.getValue() instanceof NullValue ? null : envelope.getValue());
+        typed.setFreshUntil(envelope.getFreshUntil());
+        typed.setLoadMillis(envelope.getLoadMillis());
+        try {
+            return objectMapper.writeValueAsBytes(typed);
+        } catch (Exception e) {
+            throw new SerializationException("缓存值编码失败", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        TypedEnvelope<?> typed;
+        try {
+            typed = reader.readValue(bytes);
+        } catch (Exception e) {
+            throw new SerializationException("缓存值解码失败", e);
+        }
+        Object value = typed.getValue() == null ? NullValue.INSTANCE : typed.getValue();
+        return new CacheEnvelope(value, typed.getFreshUntil(), typed.getLoadMillis());
+    }
+
+    /**
+     * 带值类型的条目结构，字段与 {@link CacheEnvelope} 一致
+     */
+    @Data
+    @NoArgsConstructor
+    private static class TypedEnvelope<T> {
+
+        private T value;
+
+        private long freshUntil;
+
+        private long loadMillis;
+    }
+}
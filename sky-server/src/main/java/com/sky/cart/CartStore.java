@@ -0,0 +1,56 @@
+package com.sky.cart;
+
+import com.sky.entity.ShoppingCart;
+
+import java.util.List;
+
+/**
+ * 购物车存储接口
+ * <p>
+ * 购物车的一行由 用户ID + 菜品ID/套餐ID + 口味 唯一确定。实现类可基于 Redis 或 MySQL，
+ * 由 sky.cart.store 选择，业务层只依赖本接口。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public interface CartStore {
+
+    /**
+     * 已存在的购物车行份数加一
+     *
+     * @param item 购物车行标识（userId、dishId/setmealId、dishFlavor）
+     * @return 已存在并完成加一返回 {@code true}；不存在返回 {@code false}，需调用 {@link #add} 新增
+     */
+    boolean increment(ShoppingCart item);
+
+    /**
+     * 新增购物车行，份数为 1；若并发下该行已被其他请求新增，则份数加一
+     *
+     * @param item 完整的购物车行（含名称、图片、单价快照）
+     */
+    void add(ShoppingCart item);
+
+    /**
+     * 购物车行份数减一，减到 0 时删除该行
+     *
+     * @param item 购物车行标识（userId、dishId/setmealId、dishFlavor）
+     */
+    void decrement(ShoppingCart item);
+
+    /**
+     * 查询用户的购物车，按加入时间排序
+     *
+     * @param userId 用户ID
+     * @return 购物车行列表
+     */
+    List<ShoppingCart> list(Long userId);
+
+    /**
+     * 清空用户的购物车
+     * 在事务内调用时随事务生效：MySQL 实现参与当前事务，Redis 实现在事务提交后清空
+     *
+     * @param userId 用户ID
+     */
+    void clear(Long userId);
+}
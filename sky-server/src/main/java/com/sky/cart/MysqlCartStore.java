@@ -0,0 +1,64 @@
+package com.sky.cart;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.entity.ShoppingCart;
+import com.sky.mapper.ShoppingCartMapper;
+import jakarta.annotation.Resource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 基于 shopping_cart 表的购物车存储
+ * 依赖唯一键 (user_id, line_key)：已有行加一为单条 UPDATE，新增为 INSERT ... ON DUPLICATE KEY UPDATE，
+ * 同一用户的并发点击不会丢失份数或产生重复行；清空按主键删除，只锁定该用户自己的行
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@ConditionalOnProperty(prefix = "sky.cart", name = "store", havingValue = "mysql")
+public class MysqlCartStore implements CartStore {
+
+    @Resource
+    private ShoppingCartMapper shoppingCartMapper;
+
+    @Override
+    public boolean increment(ShoppingCart item) {
+        return shoppingCartMapper.incrementNumber(item) > 0;
+    }
+
+    @Override
+    public void add(ShoppingCart item) {
+        // 并发新增同一行时由唯一键兜底，后到的请求转为份数加一
+        shoppingCartMapper.insertOrIncrement(item);
+    }
+
+    @Override
+    public void decrement(ShoppingCart item) {
+        // 份数大于 1 时减一，否则删除该行；两条语句各自原子，并发减少不会出现负数
+        if (shoppingCartMapper.decrementNumber(item) == 0) {
+            shoppingCartMapper.deleteLastOne(item);
+        }
+    }
+
+    @Override
+    public List<ShoppingCart> list(Long userId) {
+        return shoppingCartMapper.selectList(Wrappers.lambdaQuery(ShoppingCart.class)
+                .eq(ShoppingCart::getUserId, userId)
+                .orderByAsc(ShoppingCart::getCreateTime));
+    }
+
+    @Override
+    public void clear(Long userId) {
+        // 按主键删除：按 user_id 删除会在唯一索引上加临键锁，锁住相邻用户的间隙，
+        // 与相邻用户并发的 INSERT ... ON DUPLICATE KEY UPDATE 互相等待而死锁
+        List<Long> ids = shoppingCartMapper.selectObjs(Wrappers.lambdaQuery(ShoppingCart.class)
+                .select(ShoppingCart::getId)
+                .eq(ShoppingCart::getUserId, userId));
+        if (!ids.isEmpty()) {
+            shoppingCartMapper.deleteByIds(ids);
+        }
+    }
+}
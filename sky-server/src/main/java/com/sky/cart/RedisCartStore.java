@@ -0,0 +1,162 @@
+package com.sky.cart;
+
+import com.alibaba.fastjson2.JSON;
+import com.sky.constant.ShoppingCartConstant;
+import com.sky.entity.ShoppingCart;
+import com.sky.properties.SkyCartProperties;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Redis Hash 的购物车存储
+ * <p>
+ * 每个用户一个 Hash（键为 {@code sky:cart:<userId>}），每个购物车行占两个字段：
+ * 行字段（{@code d:<dishId>:<口味>} 或 {@code s:<setmealId>}）保存份数，通过 HINCRBY 原子加减；
+ * 行字段 + {@code #info} 保存加入时的名称、图片、单价快照（JSON）。
+ * 加减份数与快照写入均在 Lua 脚本中完成，每次点击只需一次 Redis 往返，不访问数据库。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@ConditionalOnProperty(prefix = "sky.cart", name = "store", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisCartStore implements CartStore {
+
+    /**
+     * 行已存在时份数加一，否则返回 -1
+     * KEYS[1] 购物车键；ARGV[1] 行字段；ARGV[2] 快照字段；ARGV[3] 存活秒数
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[2]) == 0 then return -1 end " +
+            "local n = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return n", Long.class);
+
+    /**
+     * 写入快照（已存在则保留原快照）并份数加一
+     * KEYS[1] 购物车键；ARGV[1] 行字段；ARGV[2] 快照字段；ARGV[3] 存活秒数；ARGV[4] 快照 JSON
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSETNX', KEYS[1], ARGV[2], ARGV[4]) " +
+            "local n = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return n", Long.class);
+
+    /**
+     * 行已存在时份数减一，减到 0 时删除该行；行不存在返回 -1
+     * KEYS[1] 购物车键；ARGV[1] 行字段；ARGV[2] 快照字段；ARGV[3] 存活秒数
+     */
+    private static final RedisScript<Long> DECREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return -1 end " +
+            "local n = redis.call('HINCRBY', KEYS[1], ARGV[1], -1) " +
+            "if n <= 0 then redis.call('HDEL', KEYS[1], ARGV[1], ARGV[2]) " +
+            "else redis.call('EXPIRE', KEYS[1], ARGV[3]) end " +
+            "return n", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private SkyCartProperties skyCartProperties;
+
+    @Override
+    public boolean increment(ShoppingCart item) {
+        String field = fieldOf(item);
+        Long number = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(keyOf(item.getUserId())),
+                field, field + ShoppingCartConstant.ITEM_INFO_SUFFIX, ttlSeconds());
+        return number != null && number > 0;
+    }
+
+    @Override
+    public void add(ShoppingCart item) {
+        String field = fieldOf(item);
+        ShoppingCart snapshot = ShoppingCart.builder()
+                .userId(item.getUserId())
+                .dishId(item.getDishId())
+                .setmealId(item.getSetmealId())
+                .dishFlavor(item.getDishFlavor())
+                .name(item.getName())
+                .image(item.getImage())
+                .amount(item.getAmount())
+                .createTime(item.getCreateTime())
+                .build();
+        stringRedisTemplate.execute(ADD_SCRIPT, List.of(keyOf(item.getUserId())),
+                field, field + ShoppingCartConstant.ITEM_INFO_SUFFIX, ttlSeconds(), JSON.toJSONString(snapshot));
+    }
+
+    @Override
+    public void decrement(ShoppingCart item) {
+        String field = fieldOf(item);
+        stringRedisTemplate.execute(DECREMENT_SCRIPT, List.of(keyOf(item.getUserId())),
+                field, field + ShoppingCartConstant.ITEM_INFO_SUFFIX, ttlSeconds());
+    }
+
+    @Override
+    public List<ShoppingCart> list(Long userId) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(keyOf(userId));
+        List<ShoppingCart> items = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = (String) entry.getKey();
+            if (!field.endsWith(ShoppingCartConstant.ITEM_INFO_SUFFIX)) {
+                continue;
+            }
+            Object number = entries.get(field.substring(0, field.length() - ShoppingCartConstant.ITEM_INFO_SUFFIX.length()));
+            if (number == null) {
+                continue;
+            }
+            ShoppingCart item = JSON.parseObject((String) entry.getValue(), ShoppingCart.class);
+            item.setNumber(Integer.parseInt((String) number));
+            items.add(item);
+        }
+        items.sort(Comparator.comparing(ShoppingCart::getCreateTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return items;
+    }
+
+    @Override
+    public void clear(Long userId) {
+        String key = keyOf(userId);
+        // 下单等事务内清空时延迟到提交之后，事务回滚时购物车保持不变
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stringRedisTemplate.delete(key);
+                }
+            });
+        } else {
+            stringRedisTemplate.delete(key);
+        }
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(skyCartProperties.getTtl().toSeconds());
+    }
+
+    private static String keyOf(Long userId) {
+        return ShoppingCartConstant.CART_KEY_PREFIX + userId;
+    }
+
+    /**
+     * 购物车行字段：菜品为 {@code d:<dishId>:<口味>}，套餐为 {@code s:<setmealId>}；写合并缓冲沿用同一格式
+     */
+    static String fieldOf(ShoppingCart item) {
+        if (item.getDishId() != null) {
+            return "d:" + item.getDishId() + ":" + (item.getDishFlavor() == null ? "" : item.getDishFlavor());
+        }
+        return "s:" + item.getSetmealId();
+    }
+}
@@ -0,0 +1,524 @@
+package com.sky.cart;
+
+import com.alibaba.fastjson2.JSON;
+import com.sky.constant.ShoppingCartConstant;
+import com.sky.entity.ShoppingCart;
+import com.sky.mapper.ShoppingCartMapper;
+import com.sky.properties.SkyCartProperties;
+import com.sky.vo.CartWriteBehindStatsVO;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 写合并（write-behind）购物车存储
+ * <p>
+ * 包装 {@link MysqlCartStore}：加减份数不直接写库，而是累加到 Redis 中该用户的待写缓冲
+ * （Hash，键为 {@code sky:cart:pending:<userId>}，行字段保存份数变化量，{@code #base} 保存数据库已有份数，
+ * 新增行的 {@code #info} 保存名称、图片、单价快照），并把用户登记到到期集合 {@code sky:cart:dirty}。
+ * 定时任务在防抖窗口结束后为每个用户加锁写库，每行一条语句写入净变化量；查看购物车、清空购物车前
+ * 立即写入该用户的缓冲，保证读取到的是最新数据。
+ * </p>
+ * <p>
+ * 写库在事务提交后才从缓冲中扣除已写入的变化量，写库失败时缓冲保持不变并在下一个窗口重试；
+ * 写库期间的新点击继续累加，不会丢失。应用关闭时写入全部缓冲。
+ * </p>
+ * <p>
+ * 在调用方事务中（如下单）读取或清空购物车时，写库加入该事务，扣除缓冲与删除缓冲都推迟到事务提交之后，
+ * 写入锁持有到事务结束（同一事务内重入），事务回滚时缓冲保持不变，不会丢失购物车修改，也不会被定时任务重复写入。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Primary
+@ConditionalOnExpression("'${sky.cart.store:redis}' == 'mysql' and ${sky.cart.write-behind.enabled:false}")
+@Slf4j
+public class WriteBehindCartStore implements CartStore {
+
+    /**
+     * 写入锁存活时间，持锁节点宕机时到期自动释放
+     */
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofSeconds(10);
+
+    /**
+     * 读取前等待其他节点写完的最长时间
+     */
+    private static final long FLUSH_LOCK_WAIT_MILLIS = 2000;
+
+    /**
+     * 份数加减：行不在缓冲中且未提供数据库份数时返回 -2；加减后份数小于 0 时不修改并返回 -1；否则返回加减后的份数
+     * KEYS[1] 待写缓冲键；KEYS[2] 到期集合键；
+     * ARGV[1] 行字段；ARGV[2] 变化量；ARGV[3] 已有份数字段；ARGV[4] 到期时间；ARGV[5] 用户ID；ARGV[6] 数据库份数（可选）
+     */
+    private static final RedisScript<Long> CHANGE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then " +
+            "  if ARGV[6] == nil then return -2 end " +
+            "  redis.call('HSET', KEYS[1], ARGV[1], 0, ARGV[3], ARGV[6]) " +
+            "end " +
+            "local n = tonumber(redis.call('HGET', KEYS[1], ARGV[1])) + tonumber(ARGV[2]) " +
+            "local b = tonumber(redis.call('HGET', KEYS[1], ARGV[3]) or '0') " +
+            "if b + n < 0 then return -1 end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], n) " +
+            "redis.call('ZADD', KEYS[2], 'NX', ARGV[4], ARGV[5]) " +
+            "return b + n", Long.class);
+
+    /**
+     * 新增行：写入快照（已存在则保留原快照）并份数加一
+     * KEYS[1] 待写缓冲键；KEYS[2] 到期集合键；
+     * ARGV[1] 行字段；ARGV[2] 快照字段；ARGV[3] 已有份数字段；ARGV[4] 到期时间；ARGV[5] 用户ID；ARGV[6] 快照 JSON
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSETNX', KEYS[1], ARGV[2], ARGV[6]) " +
+            "redis.call('HSETNX', KEYS[1], ARGV[3], 0) " +
+            "local n = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "redis.call('ZADD', KEYS[2], 'NX', ARGV[4], ARGV[5]) " +
+            "return n", Long.class);
+
+    /**
+     * 写库成功后扣除已写入的变化量：变化量归零的行删除其全部字段，否则计入已有份数；
+     * 缓冲为空时移出到期集合，否则按新的到期时间重新登记
+     * KEYS[1] 待写缓冲键；KEYS[2] 到期集合键；ARGV[1] 用户ID；ARGV[2] 到期时间；ARGV[3..] 行字段与已写入变化量成对出现
+     */
+    private static final RedisScript<Long> APPLIED_SCRIPT = new DefaultRedisScript<>(
+            "for i = 3, #ARGV, 2 do " +
+            "  local f = ARGV[i] " +
+            "  local d = tonumber(ARGV[i + 1]) " +
+            "  if redis.call('HINCRBY', KEYS[1], f, 0 - d) == 0 then " +
+            "    redis.call('HDEL', KEYS[1], f, f .. '" + ShoppingCartConstant.BASE_SUFFIX + "', f .. '"
+                    + ShoppingCartConstant.ITEM_INFO_SUFFIX + "') " +
+            "  else redis.call('HINCRBY', KEYS[1], f .. '" + ShoppingCartConstant.BASE_SUFFIX + "', d) end " +
+            "end " +
+            "if redis.call('HLEN', KEYS[1]) == 0 then redis.call('ZREM', KEYS[2], ARGV[1]) return 0 end " +
+            "redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1]) " +
+            "return 1", Long.class);
+
+    /**
+     * 比对令牌后删除锁
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Resource
+    private MysqlCartStore mysqlCartStore;
+
+    @Resource
+    private ShoppingCartMapper shoppingCartMapper;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private SkyCartProperties skyCartProperties;
+
+    /**
+     * 累加到缓冲的份数变化次数
+     */
+    private final LongAdder mutations = new LongAdder();
+
+    /**
+     * 完成写库的用户缓冲数
+     */
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * 写库执行的语句数
+     */
+    private final LongAdder statements = new LongAdder();
+
+    /**
+     * 写库失败次数
+     */
+    private final LongAdder failures = new LongAdder();
+
+    @Override
+    public boolean increment(ShoppingCart item) {
+        return change(item, 1);
+    }
+
+    @Override
+    public void add(ShoppingCart item) {
+        String field = RedisCartStore.fieldOf(item);
+        ShoppingCart snapshot = ShoppingCart.builder()
+                .userId(item.getUserId())
+                .dishId(item.getDishId())
+                .setmealId(item.getSetmealId())
+                .dishFlavor(item.getDishFlavor())
+                .name(item.getName())
+                .image(item.getImage())
+                .amount(item.getAmount())
+                .createTime(item.getCreateTime())
+                .build();
+        stringRedisTemplate.execute(ADD_SCRIPT, keysOf(item.getUserId()), field,
+                field + ShoppingCartConstant.ITEM_INFO_SUFFIX, field + ShoppingCartConstant.BASE_SUFFIX,
+                dueTime(), String.valueOf(item.getUserId()), JSON.toJSONString(snapshot));
+        mutations.increment();
+    }
+
+    @Override
+    public void decrement(ShoppingCart item) {
+        change(item, -1);
+    }
+
+    @Override
+    public List<ShoppingCart> list(Long userId) {
+        flushNow(userId);
+        return mysqlCartStore.list(userId);
+    }
+
+    /**
+     * 清空购物车：数据库中的行随调用方事务删除，缓冲在事务提交后删除
+     *
+     * @param userId 用户ID
+     */
+    @Override
+    public void clear(Long userId) {
+        TransactionLock transactionLock = lockForTransaction(userId);
+        String token = transactionLock != null ? transactionLock.token : lock(userId, FLUSH_LOCK_WAIT_MILLIS);
+        if (token == null) {
+            log.warn("等待购物车写入锁超时，仅清空数据库中的购物车，缓冲由持锁方写入，userId={}", userId);
+            mysqlCartStore.clear(userId);
+            return;
+        }
+        Runnable discard = () -> {
+            stringRedisTemplate.delete(pendingKey(userId));
+            stringRedisTemplate.opsForZSet().remove(ShoppingCartConstant.DIRTY_USERS_KEY, String.valueOf(userId));
+        };
+        if (transactionLock != null) {
+            mysqlCartStore.clear(userId);
+            afterCommit(discard);
+            return;
+        }
+        try {
+            mysqlCartStore.clear(userId);
+            discard.run();
+        } finally {
+            unlock(userId, token);
+        }
+    }
+
+    /**
+     * 立即写入指定用户的缓冲，供下单等需要读取数据库中最新购物车的场景调用；
+     * 在事务中调用时写库加入该事务，提交后才扣除缓冲，同一事务内只写入一次
+     *
+     * @param userId 用户ID
+     */
+    public void flushNow(Long userId) {
+        TransactionLock transactionLock = lockForTransaction(userId);
+        if (transactionLock != null) {
+            if (transactionLock.token == null) {
+                log.warn("等待购物车写入锁超时，按数据库现有数据读取，userId={}", userId);
+            } else if (!transactionLock.flushed) {
+                flush(userId, true);
+                transactionLock.flushed = true;
+            }
+            return;
+        }
+        String token = lock(userId, FLUSH_LOCK_WAIT_MILLIS);
+        if (token == null) {
+            log.warn("等待购物车写入锁超时，按数据库现有数据读取，userId={}", userId);
+            return;
+        }
+        try {
+            flush(userId, false);
+        } finally {
+            unlock(userId, token);
+        }
+    }
+
+    /**
+     * 定时写入防抖窗口已结束的用户缓冲；其他节点正在写入的用户跳过，由其写完后重新登记
+     */
+    @Scheduled(fixedDelayString = "${sky.cart.write-behind.flush-interval:200ms}")
+    public void flushDue() {
+        Set<String> userIds = stringRedisTemplate.opsForZSet().rangeByScore(ShoppingCartConstant.DIRTY_USERS_KEY,
+                0, System.currentTimeMillis(), 0, skyCartProperties.getWriteBehind().getBatchSize());
+        if (userIds == null) {
+            return;
+        }
+        for (String userId : userIds) {
+            Long id = Long.valueOf(userId);
+            String token = lock(id, 0);
+            if (token == null) {
+                continue;
+            }
+            try {
+                flush(id, false);
+            } catch (RuntimeException e) {
+                log.error("购物车缓冲写入异常，userId={}", userId, e);
+            } finally {
+                unlock(id, token);
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前写入全部缓冲
+     */
+    @PreDestroy
+    public void flushAll() {
+        Set<String> userIds = stringRedisTemplate.opsForZSet().range(ShoppingCartConstant.DIRTY_USERS_KEY, 0, -1);
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        log.info("应用关闭，写入 {} 个用户的购物车缓冲", userIds.size());
+        for (String userId : userIds) {
+            try {
+                flushNow(Long.valueOf(userId));
+            } catch (RuntimeException e) {
+                log.error("购物车缓冲写入异常，将由其他节点或下次启动后写入，userId={}", userId, e);
+            }
+        }
+    }
+
+    /**
+     * 获取写合并统计
+     *
+     * @return 变化次数、写库次数、语句数及合并比
+     */
+    public CartWriteBehindStatsVO stats() {
+        long mutationCount = mutations.sum();
+        long statementCount = statements.sum();
+        Long pendingUsers = stringRedisTemplate.opsForZSet().zCard(ShoppingCartConstant.DIRTY_USERS_KEY);
+        return CartWriteBehindStatsVO.builder()
+                .mutations(mutationCount)
+                .flushes(flushes.sum())
+                .statements(statementCount)
+                .failures(failures.sum())
+                .coalescingRatio(statementCount == 0 ? 0 : (double) mutationCount / statementCount)
+                .pendingUsers(pendingUsers == null ? 0 : pendingUsers)
+                .build();
+    }
+
+    /**
+     * 已存在行的份数加减：行不在缓冲中时查询数据库份数后登记到缓冲
+     *
+     * @return 该行存在并完成加减返回 {@code true}
+     */
+    private boolean change(ShoppingCart item, int delta) {
+        String field = RedisCartStore.fieldOf(item);
+        List<String> keys = keysOf(item.getUserId());
+        String baseField = field + ShoppingCartConstant.BASE_SUFFIX;
+        String userId = String.valueOf(item.getUserId());
+        Long number = stringRedisTemplate.execute(CHANGE_SCRIPT, keys, field, String.valueOf(delta), baseField,
+                dueTime(), userId);
+        if (number != null && number == -2) {
+            Integer stored = shoppingCartMapper.selectNumber(item);
+            if (stored == null) {
+                return false;
+            }
+            number = stringRedisTemplate.execute(CHANGE_SCRIPT, keys, field, String.valueOf(delta), baseField,
+                    dueTime(), userId, String.valueOf(stored));
+        }
+        if (number == null || number < 0) {
+            return false;
+        }
+        mutations.increment();
+        return true;
+    }
+
+    /**
+     * 写入一个用户的缓冲，调用方须持有该用户的写入锁
+     *
+     * @param deferApply 写库加入调用方事务，提交后再扣除缓冲
+     */
+    private void flush(Long userId, boolean deferApply) {
+        String pendingKey = pendingKey(userId);
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(pendingKey);
+        List<String> applied = new ArrayList<>();
+        List<ShoppingCart> changes = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = (String) entry.getKey();
+            if (field.endsWith(ShoppingCartConstant.ITEM_INFO_SUFFIX) || field.endsWith(ShoppingCartConstant.BASE_SUFFIX)) {
+                continue;
+            }
+            int delta = Integer.parseInt((String) entry.getValue());
+            applied.add(field);
+            applied.add(String.valueOf(delta));
+            if (delta != 0) {
+                changes.add(changeOf(userId, field, delta, (String) entries.get(field + ShoppingCartConstant.ITEM_INFO_SUFFIX)));
+            }
+        }
+        if (applied.isEmpty()) {
+            stringRedisTemplate.opsForZSet().remove(ShoppingCartConstant.DIRTY_USERS_KEY, String.valueOf(userId));
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> changes.forEach(this::write));
+        } catch (RuntimeException e) {
+            failures.increment();
+            // 缓冲未做修改，推迟到下一个窗口重试
+            stringRedisTemplate.opsForZSet().add(ShoppingCartConstant.DIRTY_USERS_KEY, String.valueOf(userId),
+                    Double.parseDouble(dueTime()));
+            throw e;
+        }
+        Runnable apply = () -> {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(userId));
+            args.add(dueTime());
+            args.addAll(applied);
+            stringRedisTemplate.execute(APPLIED_SCRIPT, keysOf(userId), args.toArray());
+            flushes.increment();
+        };
+        if (deferApply) {
+            // 调用方事务回滚时缓冲与到期登记保持不变，由下一个窗口重新写入
+            afterCommit(apply);
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * 写入一行的净变化量：新增行使用 INSERT ... ON DUPLICATE KEY UPDATE，已有行先尝试加减，结果不大于 0 时删除
+     */
+    private void write(ShoppingCart change) {
+        statements.increment();
+        if (change.getName() != null && change.getNumber() > 0) {
+            shoppingCartMapper.insertOrAddNumber(change);
+            return;
+        }
+        if (shoppingCartMapper.addNumber(change) == 0) {
+            statements.increment();
+            shoppingCartMapper.deleteIfNotPositive(change);
+        }
+    }
+
+    /**
+     * 由行字段还原购物车行标识；新增行附带快照
+     */
+    private static ShoppingCart changeOf(Long userId, String field, int delta, String info) {
+        ShoppingCart change = info == null ? new ShoppingCart() : JSON.parseObject(info, ShoppingCart.class);
+        change.setUserId(userId);
+        change.setNumber(delta);
+        if (field.startsWith("d:")) {
+            String[] parts = field.split(":", 3);
+            change.setDishId(Long.valueOf(parts[1]));
+            change.setDishFlavor(parts[2].isEmpty() ? null : parts[2]);
+        } else {
+            change.setSetmealId(Long.valueOf(field.substring(2)));
+        }
+        return change;
+    }
+
+    /**
+     * 在调用方事务中获取用户写入锁：同一事务内只获取一次，事务结束（提交或回滚）后释放
+     *
+     * @return 无事务时返回 {@code null}；获取超时时返回令牌为 {@code null} 的对象
+     */
+    private TransactionLock lockForTransaction(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        String resourceKey = ShoppingCartConstant.FLUSH_LOCK_KEY_PREFIX + userId;
+        TransactionLock transactionLock = (TransactionLock) TransactionSynchronizationManager.getResource(resourceKey);
+        if (transactionLock != null) {
+            return transactionLock;
+        }
+        TransactionLock acquired = new TransactionLock(lock(userId, FLUSH_LOCK_WAIT_MILLIS));
+        TransactionSynchronizationManager.bindResource(resourceKey, acquired);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                unlock(userId, acquired.token);
+            }
+        });
+        return acquired;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 获取用户写入锁，最多等待 waitMillis 毫秒
+     *
+     * @return 持有者令牌，超时返回 {@code null}
+     */
+    private String lock(Long userId, long waitMillis) {
+        String token = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(ShoppingCartConstant.FLUSH_LOCK_KEY_PREFIX + userId, token, FLUSH_LOCK_TTL);
+            if (Boolean.TRUE.equals(acquired)) {
+                return token;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    private void unlock(Long userId, String token) {
+        if (token != null) {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(ShoppingCartConstant.FLUSH_LOCK_KEY_PREFIX + userId), token);
+        }
+    }
+
+    private String dueTime() {
+        return String.valueOf(System.currentTimeMillis() + skyCartProperties.getWriteBehind().getDebounce().toMillis());
+    }
+
+    private static List<String> keysOf(Long userId) {
+        return List.of(pendingKey(userId), ShoppingCartConstant.DIRTY_USERS_KEY);
+    }
+
+    private static String pendingKey(Long userId) {
+        return ShoppingCartConstant.PENDING_KEY_PREFIX + userId;
+    }
+
+    /**
+     * 调用方事务持有的写入锁
+     */
+    private static final class TransactionLock {
+
+        /**
+         * 持有者令牌，获取超时为 {@code null}
+         */
+        private final String token;
+
+        /**
+         * 本事务是否已写入缓冲
+         */
+        private boolean flushed;
+
+        private TransactionLock(String token) {
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.sky.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.sky.cache.CacheInvalidationListener;
+import com.sky.cache.CacheInvalidationPublisher;
+import com.sky.cache.DistributedLoadLock;
+import com.sky.cache.TwoLevelCacheManager;
+import com.sky.cache.TypedCacheEnvelopeSerializer;
+import com.sky.constant.CacheConstant;
+import com.sky.entity.Category;
+import com.sky.json.JacksonObjectMapper;
+import com.sky.properties.SkyCacheProperties;
+import com.sky.result.Result;
+import com.sky.vo.DishVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Spring Cache 配置类
+ * 使用 Caffeine 本地缓存作为一级缓存、Redis 作为二级缓存组成两级缓存，
+ * Redis 缓存按缓存名称配置过期时间与空值策略，并订阅 Redis 失效频道，在多节点间同步清除本地缓存。
+ * 缓存值编码器只作用于 Spring Cache 的键，RedisTemplate 等其他键仍沿用各自原有的编码方式。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Configuration
+@Slf4j
+public class CacheConfiguration {
+
+    /**
+     * 值类型固定的缓存及其值类型，与对应 {@code @Cacheable} 方法的返回类型一致
+     */
+    private static final Map<String, Function<TypeFactory, JavaType>> CACHE_VALUE_TYPES = Map.of(
+            CacheConstant.DISH_CACHE, typeFactory -> resultListOf(typeFactory, DishVO.class),
+            CacheConstant.CATEGORY_CACHE, typeFactory -> resultListOf(typeFactory, Category.class));
+
+
+    /**
+     * 创建缓存失效广播发布器
+     *
+     * @param stringRedisTemplate Redis 字符串模板
+     * @param skyCacheProperties  缓存配置属性
+     * @return 失效广播发布器
+     */
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 SkyCacheProperties skyCacheProperties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, skyCacheProperties);
+    }
+
+    /**
+     * 创建缓存回源分布式锁，仅在 sky.cache.single-flight.distributed=true 时被两级缓存使用
+     *
+     * @param stringRedisTemplate Redis 字符串模板
+     * @param skyCacheProperties  缓存配置属性
+     * @return 缓存回源分布式锁
+     */
+    @Bean
+    public DistributedLoadLock distributedLoadLock(StringRedisTemplate stringRedisTemplate,
+                                                   SkyCacheProperties skyCacheProperties) {
+        return new DistributedLoadLock(stringRedisTemplate, skyCacheProperties);
+    }
+
+    /**
+     * 创建陈旧缓存条目的异步刷新线程池
+     * 队列满时直接拒绝，由两级缓存放弃本次刷新并继续返回旧值
+     *
+     * @param skyCacheProperties 缓存配置属性
+     * @return 刷新线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(SkyCacheProperties skyCacheProperties) {
+        SkyCacheProperties.Refresh refresh = skyCacheProperties.getRefresh();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refresh.getPoolSize());
+        executor.setMaxPoolSize(refresh.getPoolSize());
+        executor.setQueueCapacity(refresh.getQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * 创建两级缓存管理器，作为 Spring Cache 注解使用的缓存管理器
+     *
+     * @param redisConnectionFactory Redis 连接工厂
+     * @param skyCacheProperties     缓存配置属性
+     * @param publisher              失效广播发布器
+     * @param eventPublisher         本节点应用事件发布器
+     * @param distributedLoadLock    缓存回源分布式锁
+     * @param cacheRefreshExecutor   陈旧条目异步刷新线程池
+     * @return 两级缓存管理器
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             SkyCacheProperties skyCacheProperties,
+                                             CacheInvalidationPublisher publisher,
+                                             ApplicationEventPublisher eventPublisher,
+                                             DistributedLoadLock distributedLoadLock,
+                                             ThreadPoolTaskExecutor cacheRefreshExecutor) {
+        log.info("开始创建两级缓存管理器，本地缓存：{}", skyCacheProperties.getLocal().getCacheNames());
+        RedisSerializer<Object> redisValueSerializer = cacheValueSerializer(skyCacheProperties);
+        // 每个单独配置的缓存使用各自的过期时间与空值策略，值类型固定的缓存使用按类型编码，其余缓存使用默认配置
+        Set<String> cacheNames = new LinkedHashSet<>(skyCacheProperties.getSpecs().keySet());
+        cacheNames.addAll(CACHE_VALUE_TYPES.keySet());
+        Map<String, RedisCacheConfiguration> initialConfigurations = new HashMap<>();
+        for (String cacheName : cacheNames) {
+            initialConfigurations.put(cacheName, redisCacheConfiguration(
+                    cacheValueSerializer(skyCacheProperties, cacheName, redisValueSerializer),
+                    skyCacheProperties, cacheName));
+        }
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(redisCacheConfiguration(redisValueSerializer, skyCacheProperties, null))
+                .withInitialCacheConfigurations(initialConfigurations)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, skyCacheProperties, publisher, eventPublisher,
+                distributedLoadLock, cacheRefreshExecutor);
+    }
+
+    /**
+     * 构造单个缓存的值编码器
+     * JSON 编码下，值类型固定的缓存（见 {@link #CACHE_VALUE_TYPES}）按类型编码，JSON 中不记录类名；
+     * 其余缓存（如同时存放套餐列表与套餐内菜品的 setmealCache）使用记录类型信息的通用编码。
+     *
+     * @param skyCacheProperties 缓存配置属性
+     * @param cacheName          缓存名称
+     * @param defaultSerializer  通用值编码器
+     * @return 值编码器
+     */
+    static RedisSerializer<Object> cacheValueSerializer(SkyCacheProperties skyCacheProperties, String cacheName,
+                                                        RedisSerializer<Object> defaultSerializer) {
+        Function<TypeFactory, JavaType> valueType = CACHE_VALUE_TYPES.get(cacheName);
+        if (skyCacheProperties.getCodec() != SkyCacheProperties.Codec.JSON || valueType == null) {
+            return defaultSerializer;
+        }
+        ObjectMapper objectMapper = new JacksonObjectMapper();
+        return new TypedCacheEnvelopeSerializer(objectMapper, valueType.apply(objectMapper.getTypeFactory()));
+    }
+
+    /**
+     * 构造 Redis 缓存的值编码器
+     * 默认使用基于 {@link JacksonObjectMapper} 的 JSON 编码，并在 JSON 中记录类型信息以便还原泛型结构
+     * （如 {@code Result<List<DishVO>>}）；可通过 sky.cache.codec=jdk 回退为 JDK 序列化。
+     *
+     * @param skyCacheProperties 缓存配置属性
+     * @return 值编码器
+     */
+    static RedisSerializer<Object> cacheValueSerializer(SkyCacheProperties skyCacheProperties) {
+        log.info("Redis 缓存值编码方式：{}", skyCacheProperties.getCodec());
+        if (skyCacheProperties.getCodec() == SkyCacheProperties.Codec.JDK) {
+            return RedisSerializer.java();
+        }
+        ObjectMapper objectMapper = new JacksonObjectMapper();
+        // 仅允许还原项目自身及 JDK 常用类型，避免反序列化任意类
+        BasicPolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.sky.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.lang.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("org.springframework.cache.support.")
+                .build();
+        objectMapper.activateDefaultTyping(typeValidator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(objectMapper, null);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    /**
+     * 构造单个 Redis 缓存的配置
+     *
+     * @param redisValueSerializer Redis 值序列化器
+     * @param skyCacheProperties   缓存配置属性
+     * @param cacheName            缓存名称，为 {@code null} 时构造默认配置
+     * @return Redis 缓存配置
+     */
+    private RedisCacheConfiguration redisCacheConfiguration(RedisSerializer<Object> redisValueSerializer,
+                                                            SkyCacheProperties skyCacheProperties,
+                                                            String cacheName) {
+        // 允许返回陈旧值的缓存，Redis 中的条目需要在新鲜期之后继续保留 maxStale
+        Duration ttl = cacheName == null ? skyCacheProperties.getDefaultTtl() : skyCacheProperties.ttlOf(cacheName);
+        if (cacheName != null && !ttl.isZero()) {
+            ttl = ttl.plus(skyCacheProperties.maxStaleOf(cacheName));
+        }
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisValueSerializer))
+                .entryTtl(ttl);
+        boolean cacheNullValues = cacheName == null
+                ? skyCacheProperties.isCacheNullValues()
+                : skyCacheProperties.cacheNullValuesOf(cacheName);
+        return cacheNullValues ? configuration : configuration.disableCachingNullValues();
+    }
+
+    /**
+     * 创建缓存失效频道的监听容器
+     *
+     * @param redisConnectionFactory Redis 连接工厂
+     * @param cacheManager           两级缓存管理器
+     * @param skyCacheProperties     缓存配置属性
+     * @param eventPublisher         应用事件发布器
+     * @return Redis 消息监听容器
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            SkyCacheProperties skyCacheProperties,
+                                                                            ApplicationEventPublisher eventPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, eventPublisher),
+                new ChannelTopic(skyCacheProperties.getInvalidationChannel()));
+        return container;
+    }
+
+    private static JavaType resultListOf(TypeFactory typeFactory, Class<?> elementType) {
+        return typeFactory.constructParametricType(Result.class,
+                typeFactory.constructCollectionType(List.class, elementType));
+    }
+}
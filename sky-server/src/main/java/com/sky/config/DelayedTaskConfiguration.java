@@ -0,0 +1,41 @@
+package com.sky.config;
+
+import com.sky.properties.SkyOrderProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 延时任务配置类
+ * 创建执行到期延时任务（订单超时取消、自动完成等）的有界线程池
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Configuration
+public class DelayedTaskConfiguration {
+
+    /**
+     * 创建延时任务线程池
+     * 队列满时直接拒绝，未执行的任务保留在 Redis 中，可见超时后重新投递
+     *
+     * @param skyOrderProperties 订单配置属性
+     * @return 延时任务线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor delayedTaskExecutor(SkyOrderProperties skyOrderProperties) {
+        SkyOrderProperties.DelayQueue delayQueue = skyOrderProperties.getDelayQueue();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(delayQueue.getPoolSize());
+        executor.setMaxPoolSize(delayQueue.getPoolSize());
+        executor.setQueueCapacity(delayQueue.getQueueCapacity());
+        executor.setThreadNamePrefix("delayed-task-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // 关闭时等待已领取的任务执行完成，减少重新投递
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sky.config;
+
+import com.sky.properties.SkyHttpClientProperties;
+import com.sky.properties.SkyWeChatLoginProperties;
+import com.sky.utils.HttpClientPool;
+import com.sky.utils.HttpClientUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * HTTP 客户端配置类
+ * 创建调用微信登录、微信支付等外部接口共用的 HTTP 连接池，并交给 {@link HttpClientUtil} 使用；应用关闭时关闭连接池。
+ * 另创建调用微信登录接口的线程池，登录请求在其中等待微信响应，不占用 Tomcat 工作线程
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Configuration
+@Slf4j
+public class HttpClientConfiguration {
+
+    /**
+     * 创建共享 HTTP 连接池
+     *
+     * @param skyHttpClientProperties HTTP 客户端连接池配置属性
+     * @return HTTP 连接池
+     */
+    @Bean(destroyMethod = "close")
+    public HttpClientPool httpClientPool(SkyHttpClientProperties skyHttpClientProperties) {
+        HttpClientPool pool = new HttpClientPool(skyHttpClientProperties);
+        HttpClientUtil.setPool(pool);
+        log.info("创建 HTTP 连接池，最大连接数：{}，每主机最大连接数：{}",
+                skyHttpClientProperties.getMaxTotal(), skyHttpClientProperties.getMaxPerRoute());
+        return pool;
+    }
+
+    /**
+     * 创建微信登录调用线程池（隔离舱）
+     * 线程数限制同时等待微信响应的请求数，队列满时拒绝，由调用方返回登录繁忙；微信变慢时只影响登录，不拖垮其他接口
+     *
+     * @param skyWeChatLoginProperties 微信登录配置属性
+     * @return 微信登录调用线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor wechatLoginExecutor(SkyWeChatLoginProperties skyWeChatLoginProperties) {
+        int concurrency = skyWeChatLoginProperties.getConcurrency();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(skyWeChatLoginProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("wechat-login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sky.config;
+
+import com.sky.id.WorkerIdLease;
+import com.sky.properties.SkyIdProperties;
+import com.sky.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.ZoneId;
+
+/**
+ * ID 生成器配置类
+ * 创建订单号、退款单号使用的雪花算法 ID 生成器：配置了 sky.id.worker-id 时使用固定节点号，
+ * 否则通过 Redis 租约为每个节点分配唯一的节点号。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfiguration {
+
+    /**
+     * 纪元日期按东八区零点换算
+     */
+    private static final ZoneId EPOCH_ZONE = ZoneId.of("Asia/Shanghai");
+
+    /**
+     * 创建工作节点号租约，仅在未配置固定节点号时创建
+     *
+     * @param stringRedisTemplate Redis 字符串模板
+     * @param skyIdProperties     ID 生成器配置属性
+     * @return 工作节点号租约
+     */
+    @Bean
+    @ConditionalOnExpression("'${sky.id.worker-id:}' == ''")
+    public WorkerIdLease workerIdLease(StringRedisTemplate stringRedisTemplate, SkyIdProperties skyIdProperties) {
+        return new WorkerIdLease(stringRedisTemplate, skyIdProperties.getWorkerLeaseTtl());
+    }
+
+    /**
+     * 创建雪花算法 ID 生成器
+     *
+     * @param skyIdProperties ID 生成器配置属性
+     * @param workerIdLease   工作节点号租约，配置了固定节点号时不存在
+     * @return ID 生成器
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(SkyIdProperties skyIdProperties,
+                                                     ObjectProvider<WorkerIdLease> workerIdLease) {
+        WorkerIdLease lease = workerIdLease.getIfAvailable();
+        long epochMillis = skyIdProperties.getEpoch().atStartOfDay(EPOCH_ZONE).toInstant().toEpochMilli();
+        long maxBackwardMillis = skyIdProperties.getMaxBackward().toMillis();
+        if (lease != null) {
+            // 节点号由租约提供，租约失效期间拒绝分配，重新占用后自动切换
+            log.info("创建 ID 生成器，租约工作节点号：{}，纪元：{}", lease.getWorkerId(), skyIdProperties.getEpoch());
+            return new SnowflakeIdGenerator(lease, epochMillis, maxBackwardMillis, System::currentTimeMillis);
+        }
+        log.info("创建 ID 生成器，工作节点号：{}，纪元：{}", skyIdProperties.getWorkerId(), skyIdProperties.getEpoch());
+        return new SnowflakeIdGenerator(skyIdProperties.getWorkerId(), epochMillis, maxBackwardMillis);
+    }
+}
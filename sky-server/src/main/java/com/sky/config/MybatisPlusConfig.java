@@ -4,12 +4,14 @@ package com.sky.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.sky.pagination.PageCountCache;
+import com.sky.pagination.PageCountInvalidationInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * MyBatis-Plus 配置类
- * 用于配置 MyBatis-Plus 插件，如分页插件等。
+ * 用于配置 MyBatis-Plus 插件，如分页插件、分页总数缓存失效插件等。
  * 主要负责配置 MyBatis-Plus 拦截器，用于在数据库操作中添加分页等功能。
  *
  * @author NecoOcean
@@ -19,11 +21,14 @@ import org.springframework.context.annotation.Configuration;
 public class MybatisPlusConfig {
 
     /**
-     * 添加分页插件
+     * 添加分页总数缓存失效插件与分页插件
+     *
+     * @param pageCountCache 分页总数缓存，写语句执行前按表清除
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(PageCountCache pageCountCache) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new PageCountInvalidationInterceptor(pageCountCache));
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL)); // 如果配置多个插件, 切记分页最后添加
         // 如果有多数据源可以不配具体类型, 否则都建议配上具体的 DbType
         return interceptor;
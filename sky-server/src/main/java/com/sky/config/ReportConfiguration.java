@@ -0,0 +1,37 @@
+package com.sky.config;
+
+import com.sky.properties.SkyReportProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 报表配置类
+ * 创建并行回填报表日汇总的线程池
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Configuration
+public class ReportConfiguration {
+
+    /**
+     * 创建报表回填线程池
+     * 分段任务数由回填日期范围决定，等待队列不设上限；线程数限制同时占用的数据库连接
+     *
+     * @param skyReportProperties 报表配置属性
+     * @return 报表回填线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportBackfillExecutor(SkyReportProperties skyReportProperties) {
+        int poolSize = skyReportProperties.getBackfill().getPoolSize();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("report-backfill-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
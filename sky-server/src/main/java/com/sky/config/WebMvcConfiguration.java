@@ -2,9 +2,13 @@ package com.sky.config;
 
 import com.sky.interceptor.JwtTokenAdminInterceptor;
 import com.sky.interceptor.JwtTokenUserInterceptor;
+import com.sky.cache.ResponseBodyCache;
+import com.sky.interceptor.ResponseCacheFilter;
+import com.sky.interceptor.ResponseCacheInterceptor;
 import com.sky.json.JacksonObjectMapper;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -35,6 +39,12 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
     @Resource
     private JwtTokenUserInterceptor jwtTokenUserInterceptor;
 
+    /**
+     * 响应体缓存拦截器，在用户端令牌校验之后直接输出已缓存的响应或返回 304
+     */
+    @Resource
+    private ResponseCacheInterceptor responseCacheInterceptor;
+
     /**
      * 注册自定义拦截器
      * 拦截所有/admin/**路径的请求，排除登录及Swagger相关路径
@@ -62,6 +72,24 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
                         "/swagger-ui/**",
                         "/swagger-ui.html"
                 );
+
+        // 注册响应体缓存拦截器：仅作用于标注 @CachedResponse 的用户端读接口
+        registry.addInterceptor(responseCacheInterceptor)
+                .addPathPatterns("/user/**");
+    }
+
+    /**
+     * 注册响应体缓存写入过滤器：仅缓冲用户端请求的响应，缓存消息转换器实际输出的字节
+     *
+     * @param responseBodyCache 响应体缓存
+     * @return 过滤器注册
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseBodyCache responseBodyCache) {
+        FilterRegistrationBean<ResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCacheFilter(responseBodyCache));
+        registration.addUrlPatterns("/user/*");
+        return registration;
     }
 
     /**
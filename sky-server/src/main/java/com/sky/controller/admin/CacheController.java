@@ -0,0 +1,85 @@
+package com.sky.controller.admin;
+
+import com.sky.cache.TwoLevelCache;
+import com.sky.cart.WriteBehindCartStore;
+import com.sky.cache.TwoLevelCacheManager;
+import com.sky.constant.CacheConstant;
+import com.sky.result.Result;
+import com.sky.vo.CacheStatsVO;
+import com.sky.vo.CartWriteBehindStatsVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 缓存管理控制器
+ * 提供两级缓存（本地 + Redis）命中统计的查询接口、显式清空整个菜单缓存的接口，以及购物车写合并统计的查询接口。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController
+@RequestMapping("/admin/cache")
+@Slf4j
+@Tag(name = "缓存管理接口", description = "提供两级缓存命中统计查询、清空菜单缓存等功能")
+public class CacheController {
+
+    @Resource
+    private TwoLevelCacheManager cacheManager;
+
+    /**
+     * 购物车写合并存储，仅 sky.cart.store=mysql 且开启写合并时存在
+     */
+    @Resource
+    private ObjectProvider<WriteBehindCartStore> writeBehindCartStoreProvider;
+
+    /**
+     * 查询两级缓存命中统计
+     *
+     * @return 各缓存的本地与 Redis 命中、未命中次数
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "查询缓存命中统计", description = "返回每个两级缓存的本地缓存与Redis缓存命中、未命中次数及本地条目数")
+    public Result<List<CacheStatsVO>> stats() {
+        List<CacheStatsVO> stats = cacheManager.getLocalCaches().stream()
+                .map(TwoLevelCache::stats)
+                .toList();
+        return Result.success(stats);
+    }
+
+    /**
+     * 清空菜单缓存
+     * 一次性清空菜品、套餐、分类缓存的全部条目，用于批量导入数据或排查问题等需要整体刷新的场景
+     *
+     * @return 成功响应
+     */
+    @DeleteMapping("/menu")
+    @Operation(summary = "清空菜单缓存", description = "清空菜品、套餐、分类缓存的全部条目，所有节点的本地缓存同步清除")
+    @CacheEvict(cacheNames = {CacheConstant.DISH_CACHE, CacheConstant.SETMEAL_CACHE, CacheConstant.CATEGORY_CACHE},
+            allEntries = true)
+    public Result<String> flushMenu() {
+        log.info("清空菜单缓存");
+        return Result.success();
+    }
+
+    /**
+     * 查询购物车写合并统计
+     *
+     * @return 份数变化次数、写库语句数及合并比；未开启写合并时返回 null
+     */
+    @GetMapping("/cart")
+    @Operation(summary = "查询购物车写合并统计", description = "返回本节点购物车份数变化次数、写库次数、语句数、合并比及待写用户数，未开启写合并时数据为空")
+    public Result<CartWriteBehindStatsVO> cartStats() {
+        WriteBehindCartStore store = writeBehindCartStoreProvider.getIfAvailable();
+        return Result.success(store == null ? null : store.stats());
+    }
+}
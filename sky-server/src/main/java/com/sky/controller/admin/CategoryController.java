@@ -10,8 +10,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -44,7 +42,6 @@ public class CategoryController {
      */
     @PostMapping
     @Operation(summary = "新增分类", description = "根据传入的DTO对象新增一条分类记录，要求名称唯一，排序号非负")
-    @CachePut(cacheNames = "categoryCache", key="#categoryDTO.id")
     public Result<String> save(@RequestBody CategoryDTO categoryDTO) {
         log.info("新增分类：{}", categoryDTO);
         categoryService.save(categoryDTO);
@@ -73,7 +70,6 @@ public class CategoryController {
      */
     @DeleteMapping
     @Operation(summary = "删除分类", description = "根据主键ID删除分类，若分类已被菜品或套餐引用则不允许删除")
-    @CacheEvict(cacheNames = "categoryCache", allEntries = true)
     public Result<String> deleteById(@RequestParam Long id) {
         log.info("删除分类：{}", id);
         categoryService.deleteById(id);
@@ -88,7 +84,6 @@ public class CategoryController {
      */
     @PutMapping
     @Operation(summary = "修改分类", description = "根据主键ID更新分类信息，允许修改名称、排序、类型、状态等字段")
-    @CacheEvict(cacheNames = "categoryCache", allEntries = true)
     public Result<String> update(@RequestBody CategoryDTO categoryDTO) {
         log.info("修改分类：{}", categoryDTO);
         categoryService.update(categoryDTO);
@@ -104,7 +99,6 @@ public class CategoryController {
      */
     @PostMapping("/status/{status}")
     @Operation(summary = "启用禁用分类", description = "批量或单条切换分类状态，状态值只能为0或1")
-    @CacheEvict(cacheNames = "categoryCache", allEntries = true)
     public Result<String> startOrStop(@PathVariable("status") Integer status, @RequestParam Long id) {
         log.info("启用禁用分类：status={}, id={}", status, id);
         categoryService.startOrStop(status, id);
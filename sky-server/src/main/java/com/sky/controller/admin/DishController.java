@@ -11,8 +11,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +19,7 @@ import java.util.List;
  * 菜品管理控制器
  * 提供菜品新增、分页查询、批量删除、根据ID查询、修改、起售/停售、根据分类ID查询等功能。
  * 主要负责处理前端发送的菜品相关请求，调用服务层进行业务逻辑处理，并返回结果。
+ * 写操作的缓存清除由服务层按受影响分类精确完成，需要清空整个菜单缓存时使用 {@link CacheController#flushMenu()}。
  *
  * @author NecoOcean
  * @date 2025/10/13
@@ -42,7 +41,6 @@ public class DishController {
      */
     @Operation(summary = "新增菜品", description = "管理员端新增菜品，支持同时录入口味信息，保存后菜品默认状态为停售")
     @PostMapping
-    @Cacheable(cacheNames = "dish", key = "#dishDTO.id")
     public Result<String> saveWithFlavor(@RequestBody DishDTO dishDTO) {
         log.info("新增菜品:{}", dishDTO);
         dishService.saveWithFlavor(dishDTO);
@@ -72,7 +70,6 @@ public class DishController {
      */
     @DeleteMapping
     @Operation(summary = "菜品批量删除", description = "根据菜品ID列表批量删除菜品，若菜品存在关联订单则无法删除")
-    @CacheEvict(cacheNames = "dish", allEntries = true)
     public Result<String> delete(@RequestParam List<Long> ids) {
         log.info("菜品批量删除：{}", ids);
         dishService.deleteBatch(ids);
@@ -101,7 +98,6 @@ public class DishController {
      */
     @PutMapping
     @Operation(summary = "修改菜品", description = "管理员端修改菜品基本信息及口味信息，修改后需重新审核")
-    @CacheEvict(cacheNames = "dish", allEntries = true)
     public Result<String> update(@RequestBody DishDTO dishDTO) {
         log.info("修改菜品：{}", dishDTO);
         dishService.updateWithFlavor(dishDTO);
@@ -118,7 +114,6 @@ public class DishController {
      */
     @PostMapping("/status/{status}")
     @Operation(summary = "菜品起售停售", description = "切换菜品销售状态，起售后用户端可见，停售后用户端隐藏")
-    @CacheEvict(cacheNames = "dish", allEntries = true)
     public Result<String> startOrStop(@PathVariable Integer status, Long id) {
         dishService.startOrStop(status, id);
         return Result.success();
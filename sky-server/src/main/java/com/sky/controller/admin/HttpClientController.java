@@ -0,0 +1,60 @@
+package com.sky.controller.admin;
+
+import com.sky.result.Result;
+import com.sky.utils.HttpClientPool;
+import com.sky.vo.HttpClientPoolStatsVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTTP 连接池管理控制器
+ * 提供共享 HTTP 连接池使用情况的查询接口，用于观察调用微信接口时的连接复用与排队情况
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController
+@RequestMapping("/admin/http-client")
+@Tag(name = "HTTP连接池管理接口", description = "提供外部接口调用连接池的使用统计查询")
+public class HttpClientController {
+
+    @Resource
+    private HttpClientPool httpClientPool;
+
+    /**
+     * 查询 HTTP 连接池统计
+     *
+     * @return 第一项为整体统计，其余为每个目标主机的统计
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "查询HTTP连接池统计", description = "返回连接池整体及每个目标主机正在使用、等待获取、空闲可复用的连接数和最大连接数")
+    public Result<List<HttpClientPoolStatsVO>> stats() {
+        PoolingHttpClientConnectionManager connectionManager = httpClientPool.getConnectionManager();
+        List<HttpClientPoolStatsVO> stats = new ArrayList<>();
+        stats.add(statsOf(null, connectionManager.getTotalStats()));
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            stats.add(statsOf(route.getTargetHost().toURI(), connectionManager.getStats(route)));
+        }
+        return Result.success(stats);
+    }
+
+    private static HttpClientPoolStatsVO statsOf(String route, PoolStats poolStats) {
+        return HttpClientPoolStatsVO.builder()
+                .route(route)
+                .leased(poolStats.getLeased())
+                .pending(poolStats.getPending())
+                .available(poolStats.getAvailable())
+                .max(poolStats.getMax())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.sky.controller.admin;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.result.CursorPageResult;
+import com.sky.result.Result;
+import com.sky.service.OrderService;
+import com.sky.vo.OrderStatisticsVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 管理端订单控制器
+ * 提供订单搜索、订单统计等订单管理接口
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController("adminOrderController")
+@RequestMapping("/admin/order")
+@Slf4j
+@Tag(name = "订单管理相关接口", description = "提供订单条件搜索（游标分页）、各状态数量统计等功能")
+public class OrderController {
+
+    /**
+     * 订单业务逻辑服务
+     */
+    @Resource
+    private OrderService orderService;
+
+    /**
+     * 订单条件搜索
+     * 首页按页码查询，之后传入上一页返回的 nextCursor 翻页；已知总数时可传 searchCount=false 省去统计
+     *
+     * @param ordersPageQueryDTO 查询条件与分页参数
+     * @return 统一响应结果，包含当前页订单、是否有下一页、下一页游标及总记录数
+     */
+    @GetMapping("/conditionSearch")
+    @Operation(summary = "订单条件搜索", description = "按订单号、手机号、状态、下单时间筛选订单，支持游标分页与省略或估算总数")
+    public Result<CursorPageResult> conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO) {
+        log.info("订单条件搜索：{}", ordersPageQueryDTO);
+        CursorPageResult cursorPageResult = orderService.conditionSearch(ordersPageQueryDTO);
+        return Result.success(cursorPageResult);
+    }
+
+    /**
+     * 各状态订单数量统计
+     *
+     * @return 统一响应结果，包含待接单、待派送、派送中数量
+     */
+    @GetMapping("/statistics")
+    @Operation(summary = "各状态订单数量统计")
+    public Result<OrderStatisticsVO> statistics() {
+        OrderStatisticsVO orderStatisticsVO = orderService.statistics();
+        return Result.success(orderStatisticsVO);
+    }
+}
@@ -0,0 +1,136 @@
+package com.sky.controller.admin;
+
+import com.sky.result.Result;
+import com.sky.service.ReportService;
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.SalesTop10ReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * 数据统计控制器
+ * 提供营业额、用户、订单统计与销量排名等报表接口，运营数据导出，以及报表汇总重建接口
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController
+@RequestMapping("/admin/report")
+@Slf4j
+@Tag(name = "数据统计相关接口", description = "提供营业额、用户、订单统计、销量排名前十、运营数据导出及报表汇总重建等功能")
+public class ReportController {
+
+    @Resource
+    private ReportService reportService;
+
+    /**
+     * 营业额统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 统一响应结果，包含日期列表与每日营业额
+     */
+    @GetMapping("/turnoverStatistics")
+    @Operation(summary = "营业额统计")
+    public Result<TurnoverReportVO> turnoverStatistics(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.turnoverStatistics(begin, end));
+    }
+
+    /**
+     * 用户统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 统一响应结果，包含日期列表、每日用户总量与新增用户数
+     */
+    @GetMapping("/userStatistics")
+    @Operation(summary = "用户统计")
+    public Result<UserReportVO> userStatistics(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.userStatistics(begin, end));
+    }
+
+    /**
+     * 订单统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 统一响应结果，包含每日订单数、有效订单数及订单完成率
+     */
+    @GetMapping("/ordersStatistics")
+    @Operation(summary = "订单统计")
+    public Result<OrderReportVO> ordersStatistics(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.ordersStatistics(begin, end));
+    }
+
+    /**
+     * 销量排名前十的商品
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 统一响应结果，包含商品名称列表与销量列表
+     */
+    @GetMapping("/top10")
+    @Operation(summary = "销量排名前十")
+    public Result<SalesTop10ReportVO> top10(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        return Result.success(reportService.salesTop10(begin, end));
+    }
+
+    /**
+     * 导出运营数据报表
+     * 未指定日期时导出最近 30 天（不含当天）
+     *
+     * @param begin    开始日期
+     * @param end      结束日期
+     * @param response HTTP 响应，xlsx 文件流式写入
+     * @throws IOException 写入响应失败时抛出
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出运营数据报表", description = "流式导出日期范围内的运营数据概览、每日数据及订单明细 xlsx")
+    public void export(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+                       @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end,
+                       HttpServletResponse response) throws IOException {
+        LocalDate to = end != null ? end : LocalDate.now().minusDays(1);
+        LocalDate from = begin != null ? begin : to.minusDays(29);
+        log.info("导出运营数据报表：{} ~ {}", from, to);
+        reportService.exportBusinessData(from, to, response);
+    }
+
+    /**
+     * 重建报表汇总
+     * 由订单、订单明细、用户表按日期分段并行重建汇总，用于历史数据回填或修正
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 统一响应结果，包含重建的分段数
+     */
+    @PostMapping("/rollup/rebuild")
+    @Operation(summary = "重建报表汇总", description = "按日期分段并行由原始订单、用户数据重建报表日汇总，建议在业务低峰执行")
+    public Result<Integer> rebuildRollup(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end) {
+        log.info("重建报表汇总：{} ~ {}", begin, end);
+        return Result.success(reportService.rebuildRollup(begin, end));
+    }
+}
@@ -1,5 +1,7 @@
 package com.sky.controller.admin;
 
+import com.sky.cache.ResponseBodyCache;
+import com.sky.constant.CacheConstant;
 import com.sky.result.Result;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,6 +34,12 @@ public class ShopController {
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
+    /**
+     * 响应体缓存，营业状态变更后清除用户端缓存的状态响应
+     */
+    @Resource
+    private ResponseBodyCache responseBodyCache;
+
     @PutMapping("/{status}")
     @Operation(summary = "设置店铺的营业状态")
     public Result<String> setStatus(@PathVariable Integer status) {
@@ -39,6 +47,7 @@ public class ShopController {
             throw new IllegalArgumentException("店铺状态仅支持0或1");
         }
         stringRedisTemplate.opsForValue().set("SHOP_STATUS", String.valueOf(status));
+        responseBodyCache.invalidate(CacheConstant.SHOP_STATUS_CACHE);
         log.info("已设置店铺状态为: {}", status);
         return Result.success();
     }
@@ -1,11 +1,14 @@
 package com.sky.controller.user;
 
+import com.sky.annotation.CachedResponse;
+import com.sky.constant.CacheConstant;
 import com.sky.entity.Category;
 import com.sky.result.Result;
 import com.sky.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Resource;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -31,12 +34,15 @@ public class CategoryController {
 
     /**
      * 根据类型查询分类列表
-     * 
+     * 支持Spring Cache缓存，缓存键为 "type:" + 分类类型，分类写操作后按类型精确清除
+     *
      * @param type 分类类型（1-菜品分类，2-套餐分类，null-全部）
      * @return 分类列表结果
      */
     @GetMapping("/list")
     @Operation(summary = "查询分类")
+    @Cacheable(cacheNames = CacheConstant.CATEGORY_CACHE, key = "'type:' + #type", sync = true) // 前缀与 CacheConstant.CATEGORY_TYPE_KEY_PREFIX 一致
+    @CachedResponse(CacheConstant.CATEGORY_CACHE)
     public Result<List<Category>> list(Integer type) {
         List<Category> list = categoryService.list(type);
         return Result.success(list);
@@ -1,5 +1,7 @@
 package com.sky.controller.user;
 
+import com.sky.annotation.CachedResponse;
+import com.sky.constant.CacheConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.entity.Dish;
 import com.sky.result.Result;
@@ -44,7 +46,8 @@ public class DishController {
      */
     @GetMapping("/list")
     @Operation(summary = "根据分类id查询菜品")
-    @Cacheable(cacheNames = "dish", key = "#categoryId")
+    @Cacheable(cacheNames = CacheConstant.DISH_CACHE, key = "#categoryId", condition = "#categoryId != null", sync = true)
+    @CachedResponse(CacheConstant.DISH_CACHE)
     public Result<List<DishVO>> list(Long categoryId) {
         // 参数校验：分类ID不能为空
         if (categoryId == null) {
@@ -0,0 +1,52 @@
+package com.sky.controller.user;
+
+import com.sky.cache.MenuSnapshot;
+import com.sky.service.MenuSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * C端菜单快照控制器
+ * 小程序打开时一次请求获取完整菜单，替代逐分类查询菜品与套餐
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController
+@RequestMapping("/user/menu")
+@Slf4j
+@Tag(name = "C端-菜单快照接口")
+public class MenuController {
+
+    /**
+     * 菜单快照服务
+     */
+    @Resource
+    private MenuSnapshotService menuSnapshotService;
+
+    /**
+     * 获取全量菜单快照
+     * 响应体为预先编码的 {@code Result<MenuSnapshotVO>}；请求头 If-None-Match 与当前 ETag 一致时返回 304，不输出响应体
+     *
+     * @return 菜单快照响应
+     */
+    @GetMapping("/snapshot")
+    @Operation(summary = "获取全量菜单快照")
+    public ResponseEntity<byte[]> snapshot() {
+        MenuSnapshot snapshot = menuSnapshotService.getSnapshot();
+        // 携带 ETag 的 ResponseEntity 由 Spring MVC 自动处理条件请求（匹配时返回 304）
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+}
@@ -0,0 +1,48 @@
+package com.sky.controller.user;
+
+import com.sky.dto.OrdersSubmitDTO;
+import com.sky.result.Result;
+import com.sky.service.OrderService;
+import com.sky.vo.OrderSubmitVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 用户端订单控制器
+ * 提供用户下单等订单相关接口
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@RestController("userOrderController")
+@RequestMapping("/user/order")
+@Slf4j
+@Tag(name = "C端订单相关接口")
+public class OrderController {
+
+    /**
+     * 订单业务逻辑服务
+     */
+    @Resource
+    private OrderService orderService;
+
+    /**
+     * 用户下单
+     *
+     * @param ordersSubmitDTO 下单参数
+     * @return 统一响应结果，包含订单ID、订单号、订单金额与下单时间
+     */
+    @PostMapping("/submit")
+    @Operation(summary = "用户下单")
+    public Result<OrderSubmitVO> submit(@RequestBody OrdersSubmitDTO ordersSubmitDTO) {
+        log.info("用户下单，参数为：{}", ordersSubmitDTO);
+        OrderSubmitVO orderSubmitVO = orderService.submit(ordersSubmitDTO);
+        return Result.success(orderSubmitVO);
+    }
+}
@@ -1,5 +1,7 @@
 package com.sky.controller.user;
 
+import com.sky.annotation.CachedResponse;
+import com.sky.constant.CacheConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.entity.Setmeal;
 import com.sky.result.Result;
@@ -44,7 +46,8 @@ public class SetmealController {
      */
     @GetMapping("/list")
     @Operation(summary = "根据分类id查询套餐")
-    @Cacheable(cacheNames = "setmealCache", key = "#categoryId") // 缓存键示例：setmealCache::100
+    @Cacheable(cacheNames = CacheConstant.SETMEAL_CACHE, key = "#categoryId", condition = "#categoryId != null", sync = true) // 缓存键示例：setmealCache::100
+    @CachedResponse(CacheConstant.SETMEAL_CACHE)
     public Result<List<Setmeal>> list(Long categoryId) {
         // 创建查询条件对象
         Setmeal setmeal = new Setmeal();
@@ -65,7 +68,8 @@ public class SetmealController {
      */
     @GetMapping("/dish/{id}")
     @Operation(summary = "根据套餐id查询包含的菜品列表")
-    @Cacheable(cacheNames = "setmealCache",key = "#id")
+    @Cacheable(cacheNames = CacheConstant.SETMEAL_CACHE, key = "'dishItems:' + #id", sync = true) // 前缀与 CacheConstant.SETMEAL_DISH_ITEMS_KEY_PREFIX 一致，避免与分类ID冲突
+    @CachedResponse(CacheConstant.SETMEAL_CACHE)
     public Result<List<DishItemVO>> dishList(@PathVariable("id") Long id) {
         // 调用服务层根据套餐ID查询菜品列表
         List<DishItemVO> list = setmealService.getDishItemById(id);
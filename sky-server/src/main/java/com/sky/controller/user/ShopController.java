@@ -1,5 +1,7 @@
 package com.sky.controller.user;
 
+import com.sky.annotation.CachedResponse;
+import com.sky.constant.CacheConstant;
 import com.sky.result.Result;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -37,6 +39,7 @@ public class ShopController {
      */
     @GetMapping("/status")
     @Operation(summary = "获取店铺的营业状态")
+    @CachedResponse(CacheConstant.SHOP_STATUS_CACHE)
     public Result<Integer> getStatus() {
         String value = stringRedisTemplate.opsForValue().get("SHOP_STATUS");
         int status;
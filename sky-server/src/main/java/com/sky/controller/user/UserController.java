@@ -2,7 +2,7 @@ package com.sky.controller.user;
 
 import com.sky.constant.JwtClaimsConstant;
 import com.sky.dto.UserLoginDTO;
-import com.sky.entity.User;
+import com.sky.exception.BaseException;
 import com.sky.properties.JwtProperties;
 import com.sky.result.Result;
 import com.sky.service.UserService;
@@ -19,6 +19,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * C端用户控制器
@@ -46,30 +48,39 @@ public class UserController {
 
     /**
      * 微信用户登录
-     * 根据微信授权码完成登录并返回JWT令牌
+     * 根据微信授权码完成登录并返回JWT令牌；等待微信响应期间释放请求线程，响应后异步返回结果
      *
      * @param userLoginDTO 微信登录参数（包含授权码）
      * @return 登录成功后的用户信息及令牌
      */
     @PostMapping("/login")
     @Operation(summary = "微信用户登录")
-    public Result<UserLoginVO> login(@RequestBody UserLoginDTO userLoginDTO) {
+    public CompletableFuture<Result<UserLoginVO>> login(@RequestBody UserLoginDTO userLoginDTO) {
         // 参数合法性校验
         if (userLoginDTO == null || userLoginDTO.getCode() == null || userLoginDTO.getCode().trim().isEmpty()) {
             log.warn("微信登录失败：授权码为空");
-            return Result.error("授权码不能为空");
+            return CompletableFuture.completedFuture(Result.error("授权码不能为空"));
         }
 
         log.info("微信用户登录，授权码：{}", userLoginDTO.getCode());
 
-        try {
-            // 调用微信登录服务
-            User user = userService.wxLogin(userLoginDTO);
+        // 调用微信登录服务
+        return userService.wxLogin(userLoginDTO).handle((user, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof BaseException) {
+                    // 登录繁忙、微信不可用等可预期的失败，直接提示用户
+                    log.warn("微信用户登录失败，授权码：{}，原因：{}", userLoginDTO.getCode(), cause.getMessage());
+                    return Result.<UserLoginVO>error(cause.getMessage());
+                }
+                log.error("微信用户登录异常，授权码：{}", userLoginDTO.getCode(), cause);
+                return Result.<UserLoginVO>error("登录异常，请稍后重试");
+            }
 
             // 用户为空说明登录失败
             if (user == null || user.getId() == null) {
                 log.warn("微信登录失败：未获取到用户信息");
-                return Result.error("微信登录失败");
+                return Result.<UserLoginVO>error("微信登录失败");
             }
 
             // 构建JWT声明
@@ -92,10 +103,7 @@ public class UserController {
 
             log.info("微信用户登录成功，用户ID：{}", user.getId());
             return Result.success(userLoginVO);
-        } catch (Exception e) {
-            log.error("微信用户登录异常，授权码：{}", userLoginDTO.getCode(), e);
-            return Result.error("登录异常，请稍后重试");
-        }
+        });
     }
 
     /**
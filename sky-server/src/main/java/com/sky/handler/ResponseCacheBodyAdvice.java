@@ -0,0 +1,49 @@
+package com.sky.handler;
+
+import com.sky.annotation.CachedResponse;
+import com.sky.interceptor.ResponseCacheFilter;
+import com.sky.interceptor.ResponseCacheInterceptor;
+import com.sky.result.Result;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 响应体缓存标记
+ * 标注 {@link CachedResponse} 的接口未命中缓存且成功返回时，在请求属性中记录所依赖的数据缓存名称，
+ * 由 {@link ResponseCacheFilter} 在消息转换器输出后缓存实际发送的字节。此处不编码响应体。
+ */
+@ControllerAdvice
+public class ResponseCacheBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * 请求属性：本次响应可缓存时记录的数据缓存名称
+     */
+    public static final String CACHE_NAME_ATTRIBUTE = ResponseCacheBodyAdvice.class.getName() + ".cacheName";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(CachedResponse.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof Result<?> result) || !Integer.valueOf(1).equals(result.getCode())
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        if (httpRequest.getAttribute(ResponseCacheInterceptor.GENERATION_ATTRIBUTE) instanceof Long) {
+            httpRequest.setAttribute(CACHE_NAME_ATTRIBUTE, returnType.getMethodAnnotation(CachedResponse.class).value());
+        }
+        return body;
+    }
+}
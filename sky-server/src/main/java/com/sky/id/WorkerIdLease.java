@@ -0,0 +1,205 @@
+package com.sky.id;
+
+import com.sky.utils.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * 工作节点号租约
+ * <p>
+ * 启动时在 Redis 中为本节点占用一个空闲的工作节点号（{@code SET NX PX}，键为 {@code sky:id:worker:<n>}），
+ * 运行期间定时续期，关闭时释放；节点宕机后租约到期，节点号可被其他节点重新占用。
+ * 为减少多个节点同时启动时的冲突，每次从全局自增计数对应的位置开始查找空闲节点号。
+ * </p>
+ * <p>
+ * 作为 ID 生成器的节点号提供方（{@link #getAsLong()}）：租约只在最近一次成功续期起的租约时长内有效，
+ * 续期持续失败至租约到期、或发现节点号已被其他节点占用时返回 -1，ID 生成器随之拒绝分配；
+ * 发现被占用时立即重新占用一个空闲节点号并整体替换，替换成功后恢复分配。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class WorkerIdLease implements LongSupplier {
+
+    /**
+     * 节点号租约键前缀
+     */
+    private static final String WORKER_KEY_PREFIX = "sky:id:worker:";
+
+    /**
+     * 查找起点计数器键
+     */
+    private static final String CURSOR_KEY = "sky:id:worker-cursor";
+
+    /**
+     * 续期：仍由本节点持有时延长租约；租约已过期时重新占用；已被其他节点占用时返回 0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "local holder = redis.call('GET', KEYS[1]) " +
+            "if holder == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "if not holder then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end " +
+            "return 0", Long.class);
+
+    /**
+     * 比对持有者令牌后释放
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Duration ttl;
+
+    private final String token = UUID.randomUUID().toString();
+
+    /**
+     * 当前租约：节点号与有效期作为一个整体替换，读取方不会看到新节点号配旧有效期
+     */
+    private volatile Lease lease;
+
+    /**
+     * 占用一个空闲的工作节点号
+     *
+     * @param stringRedisTemplate Redis 字符串模板
+     * @param ttl                 租约时长
+     * @throws IllegalStateException 全部节点号均已被占用时抛出
+     */
+    public WorkerIdLease(StringRedisTemplate stringRedisTemplate, Duration ttl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+        long start = System.currentTimeMillis();
+        long workerId = acquire();
+        if (workerId < 0) {
+            throw new IllegalStateException("没有空闲的工作节点号，请通过 sky.id.worker-id 手动指定");
+        }
+        this.lease = new Lease(workerId, start + ttl.toMillis());
+        log.info("已通过 Redis 租约分配工作节点号：{}", workerId);
+    }
+
+    /**
+     * 当前持有的工作节点号（不论租约是否仍有效）
+     *
+     * @return 工作节点号
+     */
+    public long getWorkerId() {
+        return lease.workerId;
+    }
+
+    /**
+     * 当前有效的工作节点号
+     *
+     * @return 工作节点号；租约已到期或已失去时返回 -1
+     */
+    @Override
+    public long getAsLong() {
+        Lease current = lease;
+        return System.currentTimeMillis() < current.validUntil ? current.workerId : -1;
+    }
+
+    /**
+     * 按租约时长的三分之一周期续期；节点号已被其他节点占用时立即失效并重新占用空闲节点号
+     */
+    @Scheduled(fixedDelayString = "#{@skyIdProperties.workerLeaseTtl.toMillis() / 3}")
+    public void renew() {
+        Lease current = lease;
+        // 有效期从发起续期前计算，不会晚于 Redis 中租约的实际到期时间
+        long start = System.currentTimeMillis();
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(keyOf(current.workerId)), token,
+                    String.valueOf(ttl.toMillis()));
+            if (renewed != null && renewed != 0) {
+                lease = new Lease(current.workerId, start + ttl.toMillis());
+                return;
+            }
+        } catch (Exception e) {
+            // 有效期不延长，持续失败至到期后 ID 生成器拒绝分配，直到续期成功
+            log.warn("工作节点号 {} 续期失败，将在下个周期重试", current.workerId, e);
+            return;
+        }
+
+        // 续期中断期间节点号已被其他节点占用：立即停止分配，避免生成重复 ID
+        lease = new Lease(current.workerId, 0);
+        log.error("工作节点号 {} 已被其他节点占用，暂停分配 ID 并重新占用空闲节点号", current.workerId);
+        try {
+            long workerId = acquire();
+            if (workerId < 0) {
+                log.error("没有空闲的工作节点号，将在下个周期重试");
+                return;
+            }
+            lease = new Lease(workerId, start + ttl.toMillis());
+            log.warn("已重新分配工作节点号：{} -> {}", current.workerId, workerId);
+        } catch (Exception e) {
+            log.warn("重新分配工作节点号失败，将在下个周期重试", e);
+        }
+    }
+
+    /**
+     * 关闭时释放租约
+     */
+    @PreDestroy
+    public void release() {
+        Lease current = lease;
+        lease = new Lease(current.workerId, 0);
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(keyOf(current.workerId)), token);
+        } catch (Exception e) {
+            log.warn("工作节点号 {} 释放失败，将在租约到期后自动释放", current.workerId, e);
+        }
+    }
+
+    /**
+     * 占用一个空闲的工作节点号
+     *
+     * @return 节点号，全部节点号均已被占用时返回 -1
+     */
+    private long acquire() {
+        long size = SnowflakeIdGenerator.MAX_WORKER_ID + 1;
+        Long cursor = stringRedisTemplate.opsForValue().increment(CURSOR_KEY);
+        long start = cursor == null ? 0 : Math.floorMod(cursor, size);
+        for (long i = 0; i < size; i++) {
+            long candidate = (start + i) % size;
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(keyOf(candidate), token, ttl);
+            if (Boolean.TRUE.equals(acquired)) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private static String keyOf(long workerId) {
+        return WORKER_KEY_PREFIX + workerId;
+    }
+
+    /**
+     * 租约快照
+     */
+    private static final class Lease {
+
+        /**
+         * 工作节点号
+         */
+        private final long workerId;
+
+        /**
+         * 有效期截止时间（毫秒时间戳）
+         */
+        private final long validUntil;
+
+        private Lease(long workerId, long validUntil) {
+            this.workerId = workerId;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.sky.interceptor;
+
+import com.sky.annotation.CachedResponse;
+import com.sky.cache.ResponseBodyCache;
+import com.sky.handler.ResponseCacheBodyAdvice;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * 响应体缓存写入过滤器
+ * <p>
+ * 用户端 GET 请求的响应先写入内存缓冲。标注 {@link CachedResponse} 的接口未命中缓存且成功返回时
+ * （由 {@link ResponseCacheBodyAdvice} 标记），把消息转换器实际输出的字节连同据此计算的强 ETag 写入响应体缓存，
+ * 再设置 ETag 并输出；缓存的字节与本次发送的字节一致，且只编码一次。其余响应原样输出。
+ * </p>
+ * <p>
+ * 命中缓存的请求由 {@link ResponseCacheInterceptor} 直接写入底层响应，不经过缓冲。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private final ResponseBodyCache responseBodyCache;
+
+    public ResponseCacheFilter(ResponseBodyCache responseBodyCache) {
+        this.responseBodyCache = responseBodyCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !responseBodyCache.isEnabled() || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            store(request, wrapper);
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * 缓存本次输出的字节，并在输出前设置 ETag
+     */
+    private void store(HttpServletRequest request, ContentCachingResponseWrapper response) {
+        Object cacheName = request.getAttribute(ResponseCacheBodyAdvice.CACHE_NAME_ATTRIBUTE);
+        Object generation = request.getAttribute(ResponseCacheInterceptor.GENERATION_ATTRIBUTE);
+        if (!(cacheName instanceof String name) || !(generation instanceof Long)
+                || response.getStatus() != HttpServletResponse.SC_OK || response.isCommitted()) {
+            return;
+        }
+        byte[] bytes = response.getContentAsByteArray();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+        responseBodyCache.put(ResponseCacheInterceptor.keyOf(request),
+                new ResponseBodyCache.Entry(name, etag, bytes), (Long) generation);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+}
@@ -0,0 +1,95 @@
+package com.sky.interceptor;
+
+import com.sky.annotation.CachedResponse;
+import com.sky.cache.ResponseBodyCache;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * 响应体缓存拦截器
+ * 对标注 {@link CachedResponse} 的 GET 接口：命中缓存时直接输出已编码的字节，
+ * 请求头 If-None-Match 与 ETag 一致时返回 304；未命中时记录数据缓存代次，交由控制器处理，
+ * 由 {@link ResponseCacheFilter} 缓存实际输出的字节。
+ */
+@Component
+@Slf4j
+public class ResponseCacheInterceptor implements HandlerInterceptor {
+
+    /**
+     * 请求属性：未命中时记录的数据缓存代次号
+     */
+    public static final String GENERATION_ATTRIBUTE = ResponseCacheInterceptor.class.getName() + ".generation";
+
+    @Resource
+    private ResponseBodyCache responseBodyCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!responseBodyCache.isEnabled() || !"GET".equals(request.getMethod())
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        CachedResponse cachedResponse = handlerMethod.getMethodAnnotation(CachedResponse.class);
+        if (cachedResponse == null) {
+            return true;
+        }
+
+        ResponseBodyCache.Entry entry = responseBodyCache.get(keyOf(request));
+        if (entry == null) {
+            request.setAttribute(GENERATION_ATTRIBUTE, responseBodyCache.generation(cachedResponse.value()));
+            return true;
+        }
+
+        // 已缓存的字节直接写入底层响应，不再经过过滤器的缓冲
+        HttpServletResponse target = response instanceof ContentCachingResponseWrapper wrapper
+                ? (HttpServletResponse) wrapper.getResponse() : response;
+        target.setHeader(HttpHeaders.ETAG, entry.getEtag());
+        target.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.getEtag())) {
+            target.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        target.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        target.setContentLength(entry.getBody().length);
+        target.getOutputStream().write(entry.getBody());
+        return false;
+    }
+
+    /**
+     * 生成响应缓存键：请求方法 + URI + 查询串
+     *
+     * @param request 当前请求
+     * @return 缓存键
+     */
+    public static String keyOf(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getMethod() + " " + request.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    /**
+     * 判断 If-None-Match 是否与 ETag 匹配（按弱比较，支持多个值与 *）
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.sky.entity.DishFlavor;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,4 +31,13 @@ public interface DishFlavorMapper extends BaseMapper<DishFlavor> {
      * @param dishIds 菜品ID列表
      */
     void deleteByDishIds(@Param("dishIds") List<Long> dishIds);
+
+    /**
+     * 根据菜品ID集合，一次性批量查询对应的口味数据
+     * <p>用于替代按菜品逐条查询口味的 N+1 访问方式，结果按菜品ID、口味ID升序排列</p>
+     *
+     * @param dishIds 菜品ID集合，不可为null或空
+     * @return 口味列表，若未找到则返回空列表
+     */
+    List<DishFlavor> listByDishIds(@Param("dishIds") Collection<Long> dishIds);
 }
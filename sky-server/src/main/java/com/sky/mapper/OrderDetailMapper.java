@@ -0,0 +1,34 @@
+package com.sky.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.sky.entity.OrderDetail;
+import com.sky.vo.OrderDetailExportVO;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单明细Mapper接口
+ * 用于数据库操作订单明细相关数据，继承自MyBatis-Plus的BaseMapper。
+ */
+public interface OrderDetailMapper extends BaseMapper<OrderDetail> {
+
+    /**
+     * 批量插入订单明细（单条多行 INSERT）
+     *
+     * @param orderDetails 订单明细列表，不可为null或空
+     */
+    void insertBatch(@Param("orderDetails") List<OrderDetail> orderDetails);
+
+    /**
+     * 以游标逐行读取下单时间范围内的订单明细，按下单时间、订单ID排序，用于导出
+     * 须在事务（或保持打开的 SqlSession）内遍历；MySQL 驱动以流式结果集逐行返回，不在内存中缓存整个结果
+     *
+     * @param begin 开始时间（含）
+     * @param end   结束时间（不含）
+     * @return 订单明细游标
+     */
+    Cursor<OrderDetailExportVO> streamForExport(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,47 @@
+package com.sky.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.Orders;
+import com.sky.order.OrderCursor;
+import com.sky.vo.OrderVO;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单Mapper接口
+ * 用于数据库操作订单相关数据，继承自MyBatis-Plus的BaseMapper。
+ */
+public interface OrderMapper extends BaseMapper<Orders> {
+
+    /**
+     * 按条件查询订单，按下单时间、订单ID降序
+     * 传入游标时从游标之后读取（keyset 分页），否则跳过 offset 行
+     *
+     * @param query  查询条件
+     * @param cursor 上一页游标，可为 {@code null}
+     * @param offset 无游标时跳过的行数
+     * @param limit  读取行数
+     * @return 订单列表
+     */
+    List<OrderVO> search(@Param("query") OrdersPageQueryDTO query, @Param("cursor") OrderCursor cursor,
+                         @Param("offset") long offset, @Param("limit") int limit);
+
+    /**
+     * 精确统计符合条件的订单数
+     *
+     * @param query 查询条件
+     * @return 订单数
+     */
+    long countSearch(@Param("query") OrdersPageQueryDTO query);
+
+    /**
+     * 查询条件的执行计划，用于读取优化器估算的扫描行数（rows）与过滤比例（filtered）
+     *
+     * @param query 查询条件
+     * @return EXPLAIN 结果行
+     */
+    List<Map<String, Object>> explainSearch(@Param("query") OrdersPageQueryDTO query);
+}
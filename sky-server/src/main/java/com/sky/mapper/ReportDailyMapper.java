@@ -0,0 +1,105 @@
+package com.sky.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.sky.dto.GoodsSalesDTO;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.ReportDaily;
+import org.apache.ibatis.annotations.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 报表日汇总Mapper接口
+ * 用于增量累加、回填与查询报表日汇总（report_daily）及商品销量日汇总（report_daily_item），继承自MyBatis-Plus的BaseMapper。
+ */
+public interface ReportDailyMapper extends BaseMapper<ReportDaily> {
+
+    /**
+     * 累加某天的订单汇总，当天尚无汇总行时插入
+     *
+     * @param reportDate      统计日期
+     * @param orderCount      订单数增量
+     * @param validOrderCount 有效订单数增量
+     * @param turnover        营业额增量
+     */
+    void addOrders(@Param("reportDate") LocalDate reportDate, @Param("orderCount") int orderCount,
+                   @Param("validOrderCount") int validOrderCount, @Param("turnover") BigDecimal turnover);
+
+    /**
+     * 累加某天的新增用户数，当天尚无汇总行时插入
+     *
+     * @param reportDate   统计日期
+     * @param newUserCount 新增用户数增量
+     */
+    void addNewUsers(@Param("reportDate") LocalDate reportDate, @Param("newUserCount") int newUserCount);
+
+    /**
+     * 累加某天的商品销量（单条多行 INSERT），当天尚无该商品的汇总行时插入
+     *
+     * @param reportDate   统计日期
+     * @param orderDetails 订单明细，按名称累加数量，不可为null或空
+     */
+    void addItems(@Param("reportDate") LocalDate reportDate, @Param("orderDetails") List<OrderDetail> orderDetails);
+
+    /**
+     * 删除日期范围内的日汇总
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（不含）
+     */
+    void deleteDaily(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    /**
+     * 删除日期范围内的商品销量日汇总
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（不含）
+     */
+    void deleteItems(@Param("begin") LocalDate begin, @Param("end") LocalDate end);
+
+    /**
+     * 由订单表重新汇总时间范围内的订单数、有效订单数与营业额
+     *
+     * @param begin 开始时间（含）
+     * @param end   结束时间（不含）
+     */
+    void rebuildOrders(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 由用户表重新汇总时间范围内的新增用户数
+     *
+     * @param begin 开始时间（含）
+     * @param end   结束时间（不含）
+     */
+    void rebuildNewUsers(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 由订单明细重新汇总时间范围内已完成订单的商品销量
+     *
+     * @param begin 开始时间（含）
+     * @param end   结束时间（不含）
+     */
+    void rebuildItems(@Param("begin") LocalDateTime begin, @Param("end") LocalDateTime end);
+
+    /**
+     * 统计某天之前的用户总数
+     *
+     * @param before 截止日期（不含）
+     * @return 用户总数
+     */
+    Integer sumNewUsersBefore(@Param("before") LocalDate before);
+
+    /**
+     * 查询日期范围内销量排名前 N 的商品
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（含）
+     * @param limit 条数
+     * @return 商品名称与销量，按销量降序
+     */
+    List<GoodsSalesDTO> selectTopItems(@Param("begin") LocalDate begin, @Param("end") LocalDate end,
+                                       @Param("limit") int limit);
+}
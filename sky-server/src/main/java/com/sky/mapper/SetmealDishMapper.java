@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.sky.entity.SetmealDish;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,4 +33,20 @@ public interface SetmealDishMapper extends BaseMapper<SetmealDish> {
      */
     List<SetmealDish> listBySetmealId(@Param("setmealId") Long setmealId);
 
+    /**
+     * 根据套餐ID集合，一次性批量查询对应的套餐菜品
+     * <p>用于替代按套餐逐条查询的 N+1 访问方式，结果按套餐ID、主键升序排列</p>
+     *
+     * @param setmealIds 套餐ID集合，不可为null或空
+     * @return 套餐菜品列表，若未找到则返回空列表
+     */
+    List<SetmealDish> listBySetmealIds(@Param("setmealIds") Collection<Long> setmealIds);
+
+    /**
+     * 批量插入套餐菜品（单条多行 INSERT）
+     *
+     * @param setmealDishes 套餐菜品列表，不可为null或空
+     */
+    void insertBatch(@Param("setmealDishes") List<SetmealDish> setmealDishes);
+
 }
@@ -3,5 +3,74 @@ package com.sky.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.sky.entity.ShoppingCart;
 
+/**
+ * 购物车Mapper接口
+ * 购物车行由唯一键 (user_id, line_key) 约束，line_key 为 菜品id|套餐id|口味 的生成列，
+ * 份数增减均为单条原子语句，无需先查询再更新。
+ */
 public interface ShoppingCartMapper extends BaseMapper<ShoppingCart> {
+
+    /**
+     * 新增购物车行，行已存在时份数加一（INSERT ... ON DUPLICATE KEY UPDATE）
+     *
+     * @param shoppingCart 完整的购物车行
+     * @return 影响行数：新增为 1，已存在并加一为 2
+     */
+    int insertOrIncrement(ShoppingCart shoppingCart);
+
+    /**
+     * 已存在的购物车行份数加一
+     *
+     * @param shoppingCart 购物车行标识（userId、dishId/setmealId、dishFlavor）
+     * @return 影响行数，0 表示该行不存在
+     */
+    int incrementNumber(ShoppingCart shoppingCart);
+
+    /**
+     * 份数大于 1 的购物车行份数减一
+     *
+     * @param shoppingCart 购物车行标识
+     * @return 影响行数，0 表示该行不存在或份数为 1
+     */
+    int decrementNumber(ShoppingCart shoppingCart);
+
+    /**
+     * 删除份数为 1 的购物车行
+     *
+     * @param shoppingCart 购物车行标识
+     * @return 影响行数
+     */
+    int deleteLastOne(ShoppingCart shoppingCart);
+
+    /**
+     * 查询购物车行的当前份数
+     *
+     * @param shoppingCart 购物车行标识
+     * @return 份数，行不存在时为 {@code null}
+     */
+    Integer selectNumber(ShoppingCart shoppingCart);
+
+    /**
+     * 新增购物车行（份数为 number），行已存在时份数加 number
+     *
+     * @param shoppingCart 完整的购物车行，number 为要累加的份数
+     * @return 影响行数
+     */
+    int insertOrAddNumber(ShoppingCart shoppingCart);
+
+    /**
+     * 购物车行份数加 number（可为负），结果须大于 0
+     *
+     * @param shoppingCart 购物车行标识，number 为份数变化量
+     * @return 影响行数，0 表示该行不存在或结果不大于 0
+     */
+    int addNumber(ShoppingCart shoppingCart);
+
+    /**
+     * 删除加上 number 后份数不大于 0 的购物车行
+     *
+     * @param shoppingCart 购物车行标识，number 为份数变化量
+     * @return 影响行数
+     */
+    int deleteIfNotPositive(ShoppingCart shoppingCart);
 }
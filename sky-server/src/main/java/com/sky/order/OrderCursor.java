@@ -0,0 +1,64 @@
+package com.sky.order;
+
+import com.sky.constant.MessageConstant;
+import com.sky.exception.OrderBusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 订单分页游标
+ * 记录上一页最后一行的 (下单时间, 订单ID)，订单列表按二者降序排列，下一页从该位置之后继续读取；
+ * 对外以 “yyyyMMddHHmmss-订单ID” 字符串传递，创建后不可修改
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCursor {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /**
+     * 上一页最后一行的下单时间
+     */
+    private final LocalDateTime orderTime;
+
+    /**
+     * 上一页最后一行的订单ID
+     */
+    private final Long id;
+
+    /**
+     * 编码为字符串
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        return TIME_FORMAT.format(orderTime) + "-" + id;
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param cursor 游标字符串
+     * @return 游标
+     * @throws OrderBusinessException 格式不正确时抛出
+     */
+    public static OrderCursor decode(String cursor) {
+        int separator = cursor.indexOf('-');
+        if (separator < 0) {
+            throw new OrderBusinessException(MessageConstant.ORDER_CURSOR_INVALID);
+        }
+        try {
+            return new OrderCursor(LocalDateTime.parse(cursor.substring(0, separator), TIME_FORMAT),
+                    Long.valueOf(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new OrderBusinessException(MessageConstant.ORDER_CURSOR_INVALID);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sky.order;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.sky.constant.OrderConstant;
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderMapper;
+import com.sky.properties.SkyOrderProperties;
+import com.sky.vo.OrderStatisticsVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单状态计数器
+ * <p>
+ * 在 Redis Hash 中保存待接单、待派送、派送中三种状态的订单数，订单状态变化时（事务提交后）
+ * 通过 Lua 脚本原子地把旧状态减一、新状态加一；管理端查询订单统计只需一次 HMGET，与订单表大小无关。
+ * </p>
+ * <p>
+ * 计数可能因进程在提交与更新计数之间宕机等原因与数据库产生偏差，由定时校准任务用一次分组计数查询覆盖；
+ * 集群内通过 Redis 短期锁保证同一周期只有一个节点执行校准。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class OrderStatusCounter {
+
+    /**
+     * 计入统计的订单状态
+     */
+    private static final List<Integer> COUNTED_STATUSES =
+            List.of(Orders.TO_BE_CONFIRMED, Orders.CONFIRMED, Orders.DELIVERY_IN_PROGRESS);
+
+    /**
+     * 旧状态减一、新状态加一；状态为空串时跳过
+     * KEYS[1] 计数键；ARGV[1] 旧状态；ARGV[2] 新状态
+     */
+    private static final RedisScript<Long> TRANSITION_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[1] ~= '' then redis.call('HINCRBY', KEYS[1], ARGV[1], -1) end " +
+            "if ARGV[2] ~= '' then redis.call('HINCRBY', KEYS[1], ARGV[2], 1) end " +
+            "return 1", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private SkyOrderProperties skyOrderProperties;
+
+    /**
+     * 记录一次订单状态变化，调用方须保证数据库中的状态确实已由 from 变为 to（如条件更新的影响行数大于 0）；
+     * 有事务时延迟到提交之后更新计数
+     *
+     * @param from 旧状态，允许为 {@code null}（新建订单）
+     * @param to   新状态
+     */
+    public void transition(Integer from, Integer to) {
+        String fromField = COUNTED_STATUSES.contains(from) ? String.valueOf(from) : "";
+        String toField = COUNTED_STATUSES.contains(to) ? String.valueOf(to) : "";
+        if (fromField.isEmpty() && toField.isEmpty()) {
+            return;
+        }
+        Runnable action = () -> {
+            try {
+                stringRedisTemplate.execute(TRANSITION_SCRIPT, List.of(OrderConstant.STATUS_COUNTER_KEY), fromField, toField);
+            } catch (Exception e) {
+                // 计数偏差由定时校准修正
+                log.warn("订单状态计数更新失败，from={}, to={}", from, to, e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 查询各状态订单数量
+     *
+     * @return 待接单、待派送、派送中数量
+     */
+    public OrderStatisticsVO statistics() {
+        List<Object> counts = stringRedisTemplate.opsForHash().multiGet(OrderConstant.STATUS_COUNTER_KEY,
+                COUNTED_STATUSES.stream().map(status -> (Object) String.valueOf(status)).toList());
+        OrderStatisticsVO orderStatisticsVO = new OrderStatisticsVO();
+        orderStatisticsVO.setToBeConfirmed(countOf(counts.get(0)));
+        orderStatisticsVO.setConfirmed(countOf(counts.get(1)));
+        orderStatisticsVO.setDeliveryInProgress(countOf(counts.get(2)));
+        return orderStatisticsVO;
+    }
+
+    /**
+     * 定时以数据库为准校准计数
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${sky.order.status-count-reconcile-interval:5m}")
+    public void reconcile() {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(
+                    OrderConstant.STATUS_COUNTER_RECONCILE_LOCK_KEY, "1",
+                    skyOrderProperties.getStatusCountReconcileInterval().dividedBy(2));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+            List<Map<String, Object>> rows = orderMapper.selectMaps(new QueryWrapper<Orders>()
+                    .select("status", "count(*) as total")
+                    .in("status", COUNTED_STATUSES)
+                    .groupBy("status"));
+            Map<String, String> counts = new HashMap<>();
+            COUNTED_STATUSES.forEach(status -> counts.put(String.valueOf(status), "0"));
+            for (Map<String, Object> row : rows) {
+                counts.put(String.valueOf(row.get("status")), String.valueOf(row.get("total")));
+            }
+            stringRedisTemplate.opsForHash().putAll(OrderConstant.STATUS_COUNTER_KEY, counts);
+            log.debug("订单状态计数已校准：{}", counts);
+        } catch (Exception e) {
+            log.warn("订单状态计数校准失败，将在下个周期重试", e);
+        }
+    }
+
+    private static Integer countOf(Object value) {
+        return value == null ? 0 : Math.max(0, Integer.parseInt((String) value));
+    }
+}
@@ -0,0 +1,166 @@
+package com.sky.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sky.cache.CacheInvalidationMessage;
+import com.sky.cache.CacheInvalidationPublisher;
+import com.sky.constant.CacheConstant;
+import com.sky.properties.SkyCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分页总数缓存
+ * <p>
+ * 以“表名 + 查询条件签名”为键缓存 COUNT 结果。表被写入时（由 {@link PageCountInvalidationInterceptor} 在执行写语句前通知）
+ * 立即清除该表的全部条目，事务提交后再清除一次并广播到其他节点。
+ * </p>
+ * <p>
+ * 与响应体缓存相同，每张表维护一个代次号，清除时递增；统计前记录代次，写入前比对，
+ * 避免清除发生在统计与写入之间时把旧总数写回缓存。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class PageCountCache {
+
+    private final boolean enabled;
+
+    private final Set<String> tables;
+
+    private final Cache<String, Long> counts;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final CacheInvalidationPublisher publisher;
+
+    public PageCountCache(SkyCacheProperties skyCacheProperties, CacheInvalidationPublisher publisher) {
+        SkyCacheProperties.PageCount pageCount = skyCacheProperties.getPageCount();
+        this.enabled = pageCount.isEnabled();
+        this.tables = Set.copyOf(pageCount.getTables());
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(pageCount.getMaximumSize())
+                .expireAfterWrite(pageCount.getExpireAfterWrite())
+                .build();
+        this.publisher = publisher;
+    }
+
+    /**
+     * 指定表的总数是否缓存
+     *
+     * @param table 表名
+     * @return 已启用且表在配置的列表中时返回 {@code true}
+     */
+    public boolean isCached(String table) {
+        return enabled && tables.contains(table);
+    }
+
+    /**
+     * 查询缓存的总数
+     *
+     * @param table     表名
+     * @param signature 查询条件签名
+     * @return 总数，未命中返回 {@code null}
+     */
+    public Long get(String table, String signature) {
+        return counts.getIfPresent(keyOf(table, signature));
+    }
+
+    /**
+     * 获取表当前的代次号
+     *
+     * @param table 表名
+     * @return 代次号
+     */
+    public long generation(String table) {
+        return generations.computeIfAbsent(table, name -> new AtomicLong()).get();
+    }
+
+    /**
+     * 写入总数；代次号已变化（统计期间表被写入过）时放弃写入
+     *
+     * @param table      表名
+     * @param signature  查询条件签名
+     * @param count      总数
+     * @param generation 统计前记录的代次号
+     */
+    public void put(String table, String signature, long count, long generation) {
+        if (generation(table) == generation) {
+            counts.put(keyOf(table, signature), count);
+        }
+    }
+
+    /**
+     * 表即将被写入：立即清除本节点条目；有事务时在提交后再次清除并广播，否则直接广播
+     * 同一事务内多次写入同一张表只在提交后清除、广播一次
+     *
+     * @param table 表名
+     */
+    public void invalidate(String table) {
+        if (!isCached(table)) {
+            return;
+        }
+        clear(table);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.publish(CacheConstant.PAGE_COUNT, table);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> tablesInTransaction = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, tablesInTransaction);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (String written : tablesInTransaction) {
+                        clear(written);
+                        publisher.publish(CacheConstant.PAGE_COUNT, written);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PageCountCache.this);
+                }
+            });
+            pending = tablesInTransaction;
+        }
+        pending.add(table);
+    }
+
+    /**
+     * 收到其他节点的分页总数失效广播时清除对应表的条目
+     *
+     * @param message 缓存失效消息
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidationMessage message) {
+        if (CacheConstant.PAGE_COUNT.equals(message.getCacheName()) && message.getKey() != null) {
+            clear(message.getKey());
+        }
+    }
+
+    private void clear(String table) {
+        generations.computeIfAbsent(table, name -> new AtomicLong()).incrementAndGet();
+        String prefix = table + "\n";
+        counts.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        log.debug("已清除分页总数缓存，table={}", table);
+    }
+
+    private static String keyOf(String table, String signature) {
+        return table + "\n" + signature;
+    }
+}
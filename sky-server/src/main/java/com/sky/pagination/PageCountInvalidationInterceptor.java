@@ -0,0 +1,48 @@
+package com.sky.pagination;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分页总数缓存失效拦截器
+ * 在 insert、update、delete 语句执行前，按语句所属 Mapper 对应的表清除分页总数缓存；
+ * 表名由 MyBatis-Plus 的表信息（Mapper 命名空间 → 实体 → 表名）解析，不解析 SQL
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public class PageCountInvalidationInterceptor implements InnerInterceptor {
+
+    private final PageCountCache pageCountCache;
+
+    /**
+     * Mapper 命名空间 → 表名，不继承 BaseMapper 的命名空间为空
+     */
+    private final Map<String, Optional<String>> tableByNamespace = new ConcurrentHashMap<>();
+
+    public PageCountInvalidationInterceptor(PageCountCache pageCountCache) {
+        this.pageCountCache = pageCountCache;
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        String id = ms.getId();
+        String namespace = id.substring(0, id.lastIndexOf('.'));
+        tableByNamespace.computeIfAbsent(namespace, PageCountInvalidationInterceptor::tableOf)
+                .ifPresent(pageCountCache::invalidate);
+    }
+
+    private static Optional<String> tableOf(String namespace) {
+        return TableInfoHelper.getTableInfos().stream()
+                .filter(tableInfo -> namespace.equals(tableInfo.getCurrentNamespace()))
+                .map(TableInfo::getTableName)
+                .findFirst();
+    }
+}
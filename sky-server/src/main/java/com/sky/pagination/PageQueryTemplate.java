@@ -0,0 +1,110 @@
+package com.sky.pagination;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.sky.dto.PageQueryDTO;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 分页查询模板
+ * <p>
+ * 在 MyBatis-Plus 分页之上按需省去 COUNT 查询：<br>
+ * 1. 客户端传入已知总数（{@link PageQueryDTO#getTotal()}）时直接使用，不再统计；<br>
+ * 2. 只判断是否有下一页（{@link PageQueryDTO#getHasNextOnly()}）时多读一行代替 COUNT，总数为已知下限；<br>
+ * 3. 否则按“表名 + 查询条件签名”查询 {@link PageCountCache}，未命中时统计并缓存，表被写入时自动失效。<br>
+ * 总数已知且请求的页超出范围时不再查询数据。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+public class PageQueryTemplate {
+
+    /**
+     * 默认每页条数
+     */
+    private static final long DEFAULT_PAGE_SIZE = 10;
+
+    @Resource
+    private PageCountCache pageCountCache;
+
+    /**
+     * 执行分页查询
+     *
+     * @param mapper  实体对应的 Mapper
+     * @param query   分页参数
+     * @param wrapper 查询条件，须指定实体类（如 {@code Wrappers.lambdaQuery(Dish.class)}）
+     * @param <T>     实体类型
+     * @return 分页结果，{@link Page#hasNext()} 表示是否有下一页
+     * @throws IllegalArgumentException 查询条件未指定实体类或实体类未映射表时抛出
+     */
+    public <T> Page<T> page(BaseMapper<T> mapper, PageQueryDTO query, AbstractWrapper<T, ?, ?> wrapper) {
+        long current = Math.max(query.getPage(), 1);
+        long size = query.getPageSize() <= 0 ? DEFAULT_PAGE_SIZE : query.getPageSize();
+        long offset = (current - 1) * size;
+
+        if (Boolean.TRUE.equals(query.getHasNextOnly())) {
+            wrapper.last("limit " + offset + ", " + (size + 1));
+            List<T> rows = mapper.selectList(wrapper);
+            boolean hasNext = rows.size() > size;
+            List<T> records = hasNext ? rows.subList(0, (int) size) : rows;
+            Page<T> page = new Page<>(current, size, offset + records.size() + (hasNext ? 1 : 0), false);
+            page.setRecords(records);
+            return page;
+        }
+
+        long total = query.getTotal() != null ? query.getTotal() : count(mapper, wrapper);
+        Page<T> page = new Page<>(current, size, total, false);
+        if (offset < total) {
+            mapper.selectPage(page, wrapper);
+        }
+        return page;
+    }
+
+    /**
+     * 统计总数，表在缓存列表中时先查缓存
+     */
+    private <T> long count(BaseMapper<T> mapper, AbstractWrapper<T, ?, ?> wrapper) {
+        String table = tableOf(wrapper);
+        if (!pageCountCache.isCached(table)) {
+            return mapper.selectCount(wrapper);
+        }
+        String signature = signatureOf(wrapper);
+        Long cached = pageCountCache.get(table, signature);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = pageCountCache.generation(table);
+        long total = mapper.selectCount(wrapper);
+        pageCountCache.put(table, signature, total, generation);
+        return total;
+    }
+
+    private static String tableOf(AbstractWrapper<?, ?, ?> wrapper) {
+        if (wrapper.getEntityClass() == null) {
+            throw new IllegalArgumentException("分页查询条件须指定实体类");
+        }
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(wrapper.getEntityClass());
+        if (tableInfo == null) {
+            throw new IllegalArgumentException("实体类未映射表：" + wrapper.getEntityClass().getName());
+        }
+        return tableInfo.getTableName();
+    }
+
+    /**
+     * 查询条件签名：WHERE 片段（含排序，不影响总数但保持简单）+ 按参数名排序的参数值
+     */
+    private static String signatureOf(AbstractWrapper<?, ?, ?> wrapper) {
+        Map<String, Object> params = new TreeMap<>(wrapper.getParamNameValuePairs());
+        return wrapper.getSqlSegment() + "\n" + params.values();
+    }
+}
@@ -0,0 +1,285 @@
+package com.sky.report;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.entity.ReportDaily;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.properties.SkyReportProperties;
+import com.sky.vo.BusinessDataVO;
+import com.sky.vo.OrderDetailExportVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 运营数据导出
+ * <p>
+ * 以 SXSSF 流式写入 xlsx：工作簿只在内存中保留最近 {@code sky.report.export.row-access-window} 行，
+ * 更早的行写入临时文件；订单明细通过 MyBatis 游标逐行读取、逐行写入，内存占用与导出行数无关。
+ * 写入完成后临时文件直接打包写到调用方的输出流（如 HTTP 响应），不在内存中生成完整文件。
+ * </p>
+ * <p>
+ * 导出包含两个工作表：“运营数据”为日期范围的概览（营业额、有效订单数、订单完成率、平均客单价、新增用户数）
+ * 及每日明细，读取报表日汇总；“订单明细”为范围内每条订单明细。单个工作表最多 1,048,576 行（含表头），
+ * 明细超出时依次续写到“订单明细-2”“订单明细-3”……，每个工作表均带表头。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class BusinessDataExporter {
+
+    private static final String[] ORDER_STATUS_NAMES = {"", "待付款", "待接单", "已接单", "派送中", "已完成", "已取消", "退款"};
+
+    private static final String[] DAILY_HEADERS = {"日期", "营业额", "有效订单", "订单完成率", "平均客单价", "新增用户数"};
+
+    private static final String[] DETAIL_HEADERS = {"订单号", "下单时间", "订单状态", "收货人", "手机号", "地址",
+            "订单金额", "商品名称", "口味", "数量", "明细金额"};
+
+    private static final String DETAIL_SHEET_NAME = "订单明细";
+
+    /**
+     * 单个工作表的最大行数（含表头），默认取 xlsx 格式上限
+     */
+    int maxRowsPerSheet = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    @Resource
+    private ReportDailyMapper reportDailyMapper;
+
+    @Resource
+    private OrderDetailMapper orderDetailMapper;
+
+    @Resource
+    private SkyReportProperties skyReportProperties;
+
+    /**
+     * 导出日期范围内的运营数据
+     * 只读事务保证订单明细游标在遍历期间保持打开
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（含）
+     * @param out   输出流，由调用方关闭
+     * @return 导出的订单明细行数
+     * @throws IOException 写入输出流失败时抛出
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDate begin, LocalDate end, OutputStream out) throws IOException {
+        SkyReportProperties.Export export = skyReportProperties.getExport();
+        long startedAt = System.currentTimeMillis();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(export.getRowAccessWindow())) {
+            workbook.setCompressTempFiles(export.isCompressTempFiles());
+            Styles styles = new Styles(workbook);
+            writeOverview(workbook, styles, begin, end);
+            long rows = writeDetails(workbook, styles, begin, end);
+            workbook.write(out);
+            log.info("运营数据导出完成，{} ~ {}，订单明细 {} 行，耗时 {} ms", begin, end, rows, System.currentTimeMillis() - startedAt);
+            return rows;
+        }
+    }
+
+    /**
+     * 写入“运营数据”工作表：范围概览与每日明细
+     */
+    private void writeOverview(SXSSFWorkbook workbook, Styles styles, LocalDate begin, LocalDate end) {
+        Map<LocalDate, ReportDaily> daily = reportDailyMapper.selectList(Wrappers.<ReportDaily>lambdaQuery()
+                        .between(ReportDaily::getReportDate, begin, end))
+                .stream()
+                .collect(Collectors.toMap(ReportDaily::getReportDate, Function.identity()));
+        List<ReportDaily> days = begin.datesUntil(end.plusDays(1))
+                .map(date -> daily.getOrDefault(date, ReportDaily.builder()
+                        .reportDate(date)
+                        .turnover(BigDecimal.ZERO)
+                        .orderCount(0)
+                        .validOrderCount(0)
+                        .newUserCount(0)
+                        .build()))
+                .toList();
+
+        SXSSFSheet sheet = workbook.createSheet("运营数据");
+        int rowIndex = 0;
+        Row title = sheet.createRow(rowIndex++);
+        text(title, 0, "时间：" + begin + " 至 " + end, styles.header);
+
+        BusinessDataVO overview = businessDataOf(days);
+        Row overviewHeader = sheet.createRow(rowIndex++);
+        String[] overviewHeaders = {"营业额", "有效订单", "订单完成率", "平均客单价", "新增用户数"};
+        for (int i = 0; i < overviewHeaders.length; i++) {
+            text(overviewHeader, i, overviewHeaders[i], styles.header);
+        }
+        Row overviewRow = sheet.createRow(rowIndex++);
+        number(overviewRow, 0, overview.getTurnover(), styles.amount);
+        number(overviewRow, 1, overview.getValidOrderCount(), null);
+        number(overviewRow, 2, overview.getOrderCompletionRate(), styles.percent);
+        number(overviewRow, 3, overview.getUnitPrice(), styles.amount);
+        number(overviewRow, 4, overview.getNewUsers(), null);
+
+        rowIndex++;
+        Row dailyHeader = sheet.createRow(rowIndex++);
+        for (int i = 0; i < DAILY_HEADERS.length; i++) {
+            text(dailyHeader, i, DAILY_HEADERS[i], styles.header);
+        }
+        for (ReportDaily day : days) {
+            BusinessDataVO data = businessDataOf(List.of(day));
+            Row row = sheet.createRow(rowIndex++);
+            text(row, 0, day.getReportDate().toString(), null);
+            number(row, 1, data.getTurnover(), styles.amount);
+            number(row, 2, data.getValidOrderCount(), null);
+            number(row, 3, data.getOrderCompletionRate(), styles.percent);
+            number(row, 4, data.getUnitPrice(), styles.amount);
+            number(row, 5, data.getNewUsers(), null);
+        }
+    }
+
+    /**
+     * 写入“订单明细”工作表，游标逐行读取；当前工作表写满时续写到下一个工作表
+     *
+     * @return 写入的明细行数
+     */
+    private long writeDetails(SXSSFWorkbook workbook, Styles styles, LocalDate begin, LocalDate end) throws IOException {
+        int sheetCount = 1;
+        SXSSFSheet sheet = detailSheet(workbook, styles, DETAIL_SHEET_NAME);
+        int rowIndex = 1;
+        long rows = 0;
+        try (Cursor<OrderDetailExportVO> cursor = orderDetailMapper.streamForExport(
+                begin.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+            for (OrderDetailExportVO detail : cursor) {
+                if (rowIndex == maxRowsPerSheet) {
+                    sheet = detailSheet(workbook, styles, DETAIL_SHEET_NAME + "-" + ++sheetCount);
+                    rowIndex = 1;
+                }
+                Row row = sheet.createRow(rowIndex++);
+                text(row, 0, detail.getNumber(), null);
+                dateTime(row, 1, detail.getOrderTime(), styles.dateTime);
+                text(row, 2, statusName(detail.getStatus()), null);
+                text(row, 3, detail.getConsignee(), null);
+                text(row, 4, detail.getPhone(), null);
+                text(row, 5, detail.getAddress(), null);
+                number(row, 6, detail.getOrderAmount(), styles.amount);
+                text(row, 7, detail.getName(), null);
+                text(row, 8, detail.getDishFlavor(), null);
+                number(row, 9, detail.getQuantity(), null);
+                number(row, 10, detail.getAmount(), styles.amount);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 创建订单明细工作表并写入表头
+     */
+    private static SXSSFSheet detailSheet(SXSSFWorkbook workbook, Styles styles, String name) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < DETAIL_HEADERS.length; i++) {
+            text(header, i, DETAIL_HEADERS[i], styles.header);
+        }
+        return sheet;
+    }
+
+    /**
+     * 由日汇总计算运营数据
+     */
+    private static BusinessDataVO businessDataOf(List<ReportDaily> days) {
+        BigDecimal turnover = BigDecimal.ZERO;
+        int orderCount = 0;
+        int validOrderCount = 0;
+        int newUsers = 0;
+        for (ReportDaily day : days) {
+            turnover = turnover.add(day.getTurnover());
+            orderCount += day.getOrderCount();
+            validOrderCount += day.getValidOrderCount();
+            newUsers += day.getNewUserCount();
+        }
+        return BusinessDataVO.builder()
+                .turnover(turnover.doubleValue())
+                .validOrderCount(validOrderCount)
+                .orderCompletionRate(orderCount == 0 ? 0.0 : (double) validOrderCount / orderCount)
+                .unitPrice(validOrderCount == 0 ? 0.0
+                        : turnover.divide(BigDecimal.valueOf(validOrderCount), 2, RoundingMode.HALF_UP).doubleValue())
+                .newUsers(newUsers)
+                .build();
+    }
+
+    private static String statusName(Integer status) {
+        return status != null && status > 0 && status < ORDER_STATUS_NAMES.length
+                ? ORDER_STATUS_NAMES[status] : String.valueOf(status);
+    }
+
+    private static void text(Row row, int column, String value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value);
+        }
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void number(Row row, int column, Number value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value.doubleValue());
+        }
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    private static void dateTime(Row row, int column, LocalDateTime value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        if (value != null) {
+            cell.setCellValue(value);
+        }
+        cell.setCellStyle(style);
+    }
+
+    /**
+     * 工作簿内共享的单元格样式，每种样式只创建一次
+     */
+    private static class Styles {
+
+        private final CellStyle header;
+
+        private final CellStyle amount;
+
+        private final CellStyle percent;
+
+        private final CellStyle dateTime;
+
+        Styles(SXSSFWorkbook workbook) {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            header = workbook.createCellStyle();
+            header.setFont(bold);
+            amount = workbook.createCellStyle();
+            amount.setDataFormat(workbook.createDataFormat().getFormat("0.00"));
+            percent = workbook.createCellStyle();
+            percent.setDataFormat(workbook.createDataFormat().getFormat("0.00%"));
+            dateTime = workbook.createCellStyle();
+            dateTime.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        }
+    }
+}
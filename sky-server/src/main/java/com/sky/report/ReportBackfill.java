@@ -0,0 +1,90 @@
+package com.sky.report;
+
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.properties.SkyReportProperties;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 报表汇总回填
+ * <p>
+ * 由订单、订单明细、用户表重建日期范围内的报表日汇总，用于上线前的历史数据、增量累加遗漏或汇总口径调整后的修正。
+ * 日期范围按 {@code sky.report.backfill.chunk-days} 分段，各段在回填线程池中并行重建；
+ * 每段在一个事务中先删除该段汇总再以 INSERT ... SELECT 分组写入，段内汇总要么全部替换要么保持原样。
+ * </p>
+ * <p>
+ * 重建期间并发的下单、完成订单会与重建语句争用同一批订单行与汇总行的锁，建议在业务低峰执行。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class ReportBackfill {
+
+    @Resource
+    private ReportDailyMapper reportDailyMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Resource
+    private ThreadPoolTaskExecutor reportBackfillExecutor;
+
+    @Resource
+    private SkyReportProperties skyReportProperties;
+
+    /**
+     * 重建日期范围内的报表汇总，等待所有分段完成后返回
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（含）
+     * @return 重建的分段数
+     */
+    public int rebuild(LocalDate begin, LocalDate end) {
+        int chunkDays = Math.max(1, skyReportProperties.getBackfill().getChunkDays());
+        LocalDate endExclusive = end.plusDays(1);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (LocalDate chunkBegin = begin; chunkBegin.isBefore(endExclusive); chunkBegin = chunkBegin.plusDays(chunkDays)) {
+            LocalDate from = chunkBegin;
+            LocalDate to = chunkBegin.plusDays(chunkDays).isAfter(endExclusive) ? endExclusive : chunkBegin.plusDays(chunkDays);
+            chunks.add(CompletableFuture.runAsync(() -> rebuildChunk(from, to), reportBackfillExecutor));
+        }
+        long startedAt = System.currentTimeMillis();
+        try {
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            // 已完成的分段保持重建结果，失败的分段保持原样，可再次回填
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        log.info("报表汇总回填完成，{} ~ {}，{} 段，耗时 {} ms", begin, end, chunks.size(), System.currentTimeMillis() - startedAt);
+        return chunks.size();
+    }
+
+    /**
+     * 在一个事务中重建一段日期的汇总
+     *
+     * @param begin 开始日期（含）
+     * @param end   结束日期（不含）
+     */
+    private void rebuildChunk(LocalDate begin, LocalDate end) {
+        transactionTemplate.executeWithoutResult(status -> {
+            reportDailyMapper.deleteDaily(begin, end);
+            reportDailyMapper.deleteItems(begin, end);
+            reportDailyMapper.rebuildOrders(begin.atStartOfDay(), end.atStartOfDay());
+            reportDailyMapper.rebuildNewUsers(begin.atStartOfDay(), end.atStartOfDay());
+            reportDailyMapper.rebuildItems(begin.atStartOfDay(), end.atStartOfDay());
+        });
+        log.debug("报表汇总分段已重建，{} ~ {}", begin, end.minusDays(1));
+    }
+}
@@ -0,0 +1,214 @@
+package com.sky.report;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.ReportDailyMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 报表汇总增量维护
+ * <p>
+ * 订单、用户数据变化时累加报表日汇总：下单时订单数加一，订单完成时有效订单数加一、营业额加实收金额、
+ * 各商品销量加明细数量，新用户注册时新增用户数加一。汇总日期与回填一致，订单按下单日期、用户按注册日期。
+ * 报表查询因此只需读取日期范围内的汇总行，与订单量无关。
+ * </p>
+ * <p>
+ * 累加不在业务事务内执行：当天的汇总行是所有下单请求共用的热点行，在下单事务内 upsert 会持有该行的行锁直到提交，
+ * 使下单串行化。增量改为在事务提交后（无事务时立即）记入本节点内存，由定时任务按
+ * sky.report.rollup.flush-interval 合并写入，每天每张表一条语句，商品行按名称排序写入以避免节点之间交叉加锁死锁。
+ * 报表因此最多滞后一个刷新间隔；进程宕机时未写入的增量丢失，可通过回填 {@link ReportBackfill#rebuild} 按原始数据重建。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class ReportRollup {
+
+    @Resource
+    private ReportDailyMapper reportDailyMapper;
+
+    @Resource
+    private OrderDetailMapper orderDetailMapper;
+
+    /**
+     * 尚未写入数据库的增量，按统计日期分组，由 this 保护
+     */
+    private Map<LocalDate, DailyDelta> pending = new HashMap<>();
+
+    /**
+     * 记录新订单
+     *
+     * @param orderTime 下单时间
+     */
+    public void orderCreated(LocalDateTime orderTime) {
+        LocalDate reportDate = orderTime.toLocalDate();
+        afterCommit(() -> add(reportDate, delta -> delta.orderCount++));
+    }
+
+    /**
+     * 记录订单完成，调用方须保证订单确实由其他状态变为已完成（如条件更新的影响行数大于 0）
+     *
+     * @param orders 已完成的订单，须包含ID、下单时间与实收金额
+     */
+    public void orderCompleted(Orders orders) {
+        LocalDate reportDate = orders.getOrderTime().toLocalDate();
+        BigDecimal amount = orders.getAmount();
+        List<OrderDetail> orderDetails = orderDetailMapper.selectList(Wrappers.<OrderDetail>lambdaQuery()
+                        .select(OrderDetail::getName, OrderDetail::getNumber)
+                        .eq(OrderDetail::getOrderId, orders.getId()))
+                .stream()
+                .filter(orderDetail -> Objects.nonNull(orderDetail.getName()))
+                .toList();
+        afterCommit(() -> add(reportDate, delta -> {
+            delta.validOrderCount++;
+            delta.turnover = delta.turnover.add(amount);
+            orderDetails.forEach(orderDetail -> delta.items.merge(orderDetail.getName(), orderDetail.getNumber(), Integer::sum));
+        }));
+    }
+
+    /**
+     * 记录新用户注册
+     *
+     * @param createTime 注册时间
+     */
+    public void userRegistered(LocalDateTime createTime) {
+        LocalDate reportDate = createTime.toLocalDate();
+        afterCommit(() -> add(reportDate, delta -> delta.newUserCount++));
+    }
+
+    /**
+     * 定时把内存中的增量写入数据库
+     */
+    @Scheduled(fixedDelayString = "${sky.report.rollup.flush-interval:1s}")
+    public void flush() {
+        Map<LocalDate, DailyDelta> drained;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = pending;
+            pending = new HashMap<>();
+        }
+        new TreeMap<>(drained).forEach(this::write);
+    }
+
+    /**
+     * 停机前写入剩余增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 写入某天的增量；某条语句失败时把其对应的增量放回，下一轮重试，已成功的部分不会重复累加
+     *
+     * @param reportDate 统计日期
+     * @param delta      增量
+     */
+    private void write(LocalDate reportDate, DailyDelta delta) {
+        DailyDelta failed = new DailyDelta();
+        if (delta.orderCount != 0 || delta.validOrderCount != 0 || delta.turnover.signum() != 0) {
+            try {
+                reportDailyMapper.addOrders(reportDate, delta.orderCount, delta.validOrderCount, delta.turnover);
+            } catch (Exception e) {
+                log.warn("报表订单汇总写入失败，日期：{}，下一轮重试", reportDate, e);
+                failed.orderCount = delta.orderCount;
+                failed.validOrderCount = delta.validOrderCount;
+                failed.turnover = delta.turnover;
+            }
+        }
+        if (delta.newUserCount != 0) {
+            try {
+                reportDailyMapper.addNewUsers(reportDate, delta.newUserCount);
+            } catch (Exception e) {
+                log.warn("报表新增用户汇总写入失败，日期：{}，下一轮重试", reportDate, e);
+                failed.newUserCount = delta.newUserCount;
+            }
+        }
+        if (!delta.items.isEmpty()) {
+            // 按名称有序写入，各节点对商品行的加锁顺序一致
+            List<OrderDetail> items = new ArrayList<>(delta.items.size());
+            delta.items.forEach((name, number) -> items.add(OrderDetail.builder().name(name).number(number).build()));
+            try {
+                reportDailyMapper.addItems(reportDate, items);
+            } catch (Exception e) {
+                log.warn("报表商品销量汇总写入失败，日期：{}，下一轮重试", reportDate, e);
+                failed.items.putAll(delta.items);
+            }
+        }
+        if (!failed.isEmpty()) {
+            add(reportDate, retry -> retry.merge(failed));
+        }
+    }
+
+    private synchronized void add(LocalDate reportDate, Consumer<DailyDelta> change) {
+        change.accept(pending.computeIfAbsent(reportDate, date -> new DailyDelta()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 某天尚未写入的增量
+     */
+    private static final class DailyDelta {
+
+        private int orderCount;
+
+        private int validOrderCount;
+
+        private BigDecimal turnover = BigDecimal.ZERO;
+
+        private int newUserCount;
+
+        /**
+         * 商品名称到销量增量，按名称排序
+         */
+        private final TreeMap<String, Integer> items = new TreeMap<>();
+
+        private void merge(DailyDelta other) {
+            orderCount += other.orderCount;
+            validOrderCount += other.validOrderCount;
+            turnover = turnover.add(other.turnover);
+            newUserCount += other.newUserCount;
+            other.items.forEach((name, number) -> items.merge(name, number, Integer::sum));
+        }
+
+        private boolean isEmpty() {
+            return orderCount == 0 && validOrderCount == 0 && turnover.signum() == 0
+                    && newUserCount == 0 && items.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sky.service;
+
+import com.sky.cache.MenuSnapshot;
+
+/**
+ * 菜单快照服务接口
+ * 将启用的分类、菜品（含口味）及套餐（含套餐内菜品）组装为单个预序列化文档，
+ * 管理端写操作后仅增量重建受影响的分类。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public interface MenuSnapshotService {
+
+    /**
+     * 获取当前菜单快照，存在待重建的分类时先完成重建
+     *
+     * @return 菜单快照
+     */
+    MenuSnapshot getSnapshot();
+}
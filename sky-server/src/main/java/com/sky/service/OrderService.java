@@ -0,0 +1,38 @@
+package com.sky.service;
+
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.dto.OrdersSubmitDTO;
+import com.sky.result.CursorPageResult;
+import com.sky.vo.OrderStatisticsVO;
+import com.sky.vo.OrderSubmitVO;
+
+/**
+ * 订单业务接口
+ */
+public interface OrderService {
+
+    /**
+     * 用户下单
+     * 将当前用户的购物车转换为订单及订单明细，并清空购物车
+     *
+     * @param ordersSubmitDTO 下单参数：地址簿、支付方式、备注、配送与餐具信息等
+     * @return 订单ID、订单号、订单金额与下单时间
+     */
+    OrderSubmitVO submit(OrdersSubmitDTO ordersSubmitDTO);
+
+    /**
+     * 各状态订单数量统计
+     *
+     * @return 待接单、待派送、派送中数量
+     */
+    OrderStatisticsVO statistics();
+
+    /**
+     * 订单条件搜索
+     * 传入游标时以 (下单时间, 订单ID) 定位下一页（keyset 分页），否则按页码查询；总记录数可省略或估算
+     *
+     * @param ordersPageQueryDTO 查询条件与分页参数
+     * @return 当前页订单（含菜品摘要）、下一页游标及总记录数
+     */
+    CursorPageResult conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO);
+}
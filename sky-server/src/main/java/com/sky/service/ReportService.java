@@ -0,0 +1,73 @@
+package com.sky.service;
+
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.SalesTop10ReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * 数据统计报表业务接口
+ * 各报表均按天统计，日期范围两端均包含
+ */
+public interface ReportService {
+
+    /**
+     * 营业额统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 日期列表与每日营业额
+     */
+    TurnoverReportVO turnoverStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 用户统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 日期列表、每日用户总量与每日新增用户数
+     */
+    UserReportVO userStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 订单统计
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 日期列表、每日订单数与有效订单数、范围内订单总数、有效订单数与订单完成率
+     */
+    OrderReportVO ordersStatistics(LocalDate begin, LocalDate end);
+
+    /**
+     * 销量排名前十的商品
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 商品名称列表与销量列表
+     */
+    SalesTop10ReportVO salesTop10(LocalDate begin, LocalDate end);
+
+    /**
+     * 由原始订单、用户数据重建报表汇总
+     *
+     * @param begin 开始日期
+     * @param end   结束日期
+     * @return 重建的分段数
+     */
+    int rebuildRollup(LocalDate begin, LocalDate end);
+
+    /**
+     * 导出运营数据 xlsx，流式写入响应
+     *
+     * @param begin    开始日期
+     * @param end      结束日期
+     * @param response HTTP 响应
+     * @throws IOException 写入响应失败时抛出
+     */
+    void exportBusinessData(LocalDate begin, LocalDate end, HttpServletResponse response) throws IOException;
+}
@@ -7,7 +7,9 @@ import com.sky.result.PageResult;
 import com.sky.vo.DishItemVO;
 import com.sky.vo.SetmealVO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 套餐服务接口
@@ -44,4 +46,12 @@ public interface SetmealService {
     List<Setmeal> list(Setmeal setmeal);
 
     List<DishItemVO> getDishItemById(Long id);
+
+    /**
+     * 批量查询多个套餐包含的菜品
+     *
+     * @param setmealIds 套餐ID集合，允许为空
+     * @return 套餐ID → 菜品列表 的映射，不包含菜品的套餐不会出现在映射中
+     */
+    Map<Long, List<DishItemVO>> getDishItemsBySetmealIds(Collection<Long> setmealIds);
 }
@@ -3,6 +3,8 @@ package com.sky.service;
 import com.sky.dto.UserLoginDTO;
 import com.sky.entity.User;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 用户服务接口
  * 定义用户相关的业务逻辑操作，包括微信登录、用户注册等。
@@ -15,11 +17,12 @@ public interface UserService {
     /**
      * 微信登录
      * 根据用户登录DTO中的微信登录凭证进行登录验证，返回登录成功的用户信息。
+     * 调用微信接口期间不占用调用线程，微信响应后在登录调用线程池中完成查询或注册。
      *
      * @param userLoginDTO 包含微信登录凭证的用户登录DTO
-     * @return 登录成功的用户信息
+     * @return 登录成功的用户信息；登录失败时以 {@link com.sky.exception.LoginFailedException} 异常结束
      */
-    User wxLogin(UserLoginDTO userLoginDTO);
+    CompletableFuture<User> wxLogin(UserLoginDTO userLoginDTO);
 
 
 }
@@ -2,6 +2,7 @@ package com.sky.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.sky.cache.MenuCacheEvictor;
 import com.sky.constant.MessageConstant;
 import com.sky.dto.CategoryDTO;
 import com.sky.dto.CategoryPageQueryDTO;
@@ -12,6 +13,7 @@ import com.sky.exception.DeletionNotAllowedException;
 import com.sky.mapper.CategoryMapper;
 import com.sky.mapper.DishMapper;
 import com.sky.mapper.SetmealMapper;
+import com.sky.pagination.PageQueryTemplate;
 import com.sky.result.PageResult;
 import com.sky.service.CategoryService;
 import jakarta.annotation.Resource;
@@ -20,6 +22,8 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -51,6 +55,18 @@ public class CategoryServiceImpl implements CategoryService {
     @Resource
     SetmealMapper setmealMapper;
 
+    /**
+     * 分页查询模板，按需省去或缓存 COUNT 查询
+     */
+    @Resource
+    PageQueryTemplate pageQueryTemplate;
+
+    /**
+     * 菜单缓存精确清除器，分类写操作后仅清除受影响类型的分类列表缓存
+     */
+    @Resource
+    MenuCacheEvictor menuCacheEvictor;
+
     /**
      * 新增分类
      *
@@ -63,6 +79,8 @@ public class CategoryServiceImpl implements CategoryService {
         BeanUtils.copyProperties(categoryDTO, category);
         // 执行数据库插入
         categoryMapper.insert(category);
+        // 清除该类型的分类列表缓存
+        menuCacheEvictor.evictCategoryTypes(Collections.singletonList(category.getType()));
     }
 
     /**
@@ -73,19 +91,17 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public PageResult page(CategoryPageQueryDTO categoryPageQueryDTO) {
-        // 构造分页对象
-        Page<Category> page = new Page<>(categoryPageQueryDTO.getPage(), categoryPageQueryDTO.getPageSize());
         // 构造查询条件
-        LambdaQueryWrapper<Category> queryWrapper = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<Category> queryWrapper = new LambdaQueryWrapper<>(Category.class);
         queryWrapper.eq(categoryPageQueryDTO.getType() != null, Category::getType, categoryPageQueryDTO.getType())
                 .like(categoryPageQueryDTO.getName() != null, Category::getName, categoryPageQueryDTO.getName())
                 // 排序：按sort升序，更新时间降序作为次序
                 .orderByAsc(Category::getSort)
                 .orderByDesc(Category::getUpdateTime);
-        // 执行分页查询
-        Page<Category> resultPage = categoryMapper.selectPage(page, queryWrapper);
+        // 执行分页查询（总数由客户端传入、缓存或只判断是否有下一页）
+        Page<Category> resultPage = pageQueryTemplate.page(categoryMapper, categoryPageQueryDTO, queryWrapper);
         // 封装返回结果
-        return new PageResult(resultPage.getTotal(), resultPage.getRecords());
+        return new PageResult(resultPage.getTotal(), resultPage.getRecords(), resultPage.hasNext());
     }
 
     /**
@@ -111,7 +127,12 @@ public class CategoryServiceImpl implements CategoryService {
             throw new DeletionNotAllowedException(MessageConstant.CATEGORY_BE_RELATED_BY_SETMEAL);
         }
         // 未关联菜品或套餐，执行删除操作
+        Category category = categoryMapper.selectById(id);
         categoryMapper.deleteById(id);
+        // 清除该类型的分类列表缓存
+        if (category != null) {
+            menuCacheEvictor.evictCategoryTypes(Collections.singletonList(category.getType()));
+        }
     }
 
     /**
@@ -121,11 +142,20 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public void update(CategoryDTO categoryDTO) {
+        // 记录修改前的类型，类型变更时新旧类型的分类列表缓存都需要清除
+        Category original = categoryMapper.selectById(categoryDTO.getId());
         // 将DTO转换为实体对象
         Category category = new Category();
         BeanUtils.copyProperties(categoryDTO, category);
         // 根据主键执行更新
         categoryMapper.updateById(category);
+        // 清除新旧类型的分类列表缓存
+        List<Integer> types = new ArrayList<>();
+        types.add(categoryDTO.getType());
+        if (original != null) {
+            types.add(original.getType());
+        }
+        menuCacheEvictor.evictCategoryTypes(types);
     }
 
     /**
@@ -142,6 +172,8 @@ public class CategoryServiceImpl implements CategoryService {
         category.setStatus(status);
         // 更新到数据库
         categoryMapper.updateById(category);
+        // 清除该类型的分类列表缓存
+        menuCacheEvictor.evictCategoryTypes(Collections.singletonList(category.getType()));
     }
 
     /**
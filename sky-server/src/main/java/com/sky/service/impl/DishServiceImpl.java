@@ -5,16 +5,19 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.sky.cache.CategoryDictionary;
+import com.sky.cache.ItemCatalog;
+import com.sky.cache.MenuCacheEvictor;
 import com.sky.constant.MessageConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.dto.DishDTO;
 import com.sky.dto.DishPageQueryDTO;
-import com.sky.entity.Category;
 import com.sky.entity.Dish;
 import com.sky.entity.DishFlavor;
 import com.sky.entity.Setmeal;
 import com.sky.exception.DeletionNotAllowedException;
 import com.sky.mapper.*;
+import com.sky.pagination.PageQueryTemplate;
 import com.sky.result.PageResult;
 import com.sky.service.DishService;
 import com.sky.vo.DishVO;
@@ -49,11 +52,11 @@ public class DishServiceImpl implements DishService {
     private DishMapper dishMapper;
 
     /**
-     * 分类数据访问层对象
-     * <p>用于查询菜品所属分类信息，避免 N+1 问题</p>
+     * 分类字典
+     * <p>在内存中查询菜品所属分类名称，避免分页查询时访问分类表</p>
      */
     @Resource
-    private CategoryMapper categoryMapper;
+    private CategoryDictionary categoryDictionary;
 
     /**
      * 菜品口味数据访问层对象
@@ -76,6 +79,25 @@ public class DishServiceImpl implements DishService {
     @Resource
     private SetmealMapper setmealMapper;
 
+    /**
+     * 菜单缓存精确清除器
+     * <p>写操作提交后仅清除受影响分类的菜品 / 套餐缓存</p>
+     */
+    @Resource
+    private MenuCacheEvictor menuCacheEvictor;
+
+    /**
+     * 商品目录，写操作提交后重新加载受影响的菜品 / 套餐
+     */
+    @Resource
+    private ItemCatalog itemCatalog;
+
+    /**
+     * 分页查询模板，按需省去或缓存 COUNT 查询
+     */
+    @Resource
+    private PageQueryTemplate pageQueryTemplate;
+
     /**
      * 保存菜品及其口味信息
      * <p>
@@ -102,6 +124,10 @@ public class DishServiceImpl implements DishService {
             dishFlavorMapper.batchInsert(flavors);
         }
 
+        // 4. 清除所属分类的菜品缓存
+        menuCacheEvictor.evictDishCategories(Collections.singletonList(dishDTO.getCategoryId()));
+        itemCatalog.refreshDishes(Collections.singletonList(dishId));
+
         log.info("保存菜品成功，菜品ID：{}", dishId);
     }
 
@@ -109,7 +135,7 @@ public class DishServiceImpl implements DishService {
      * 菜品分页查询
      * <p>
      * 支持按名称模糊、分类、状态筛选，并按更新时间倒序排列；<br>
-     * 通过一次性批量查询分类名称，彻底避免 N+1 性能问题。
+     * 通过一次性批量查询分类名称与口味，彻底避免 N+1 性能问题。
      * </p>
      *
      * @param dishPageQueryDTO 分页查询参数，不能为 {@code null}
@@ -117,11 +143,8 @@ public class DishServiceImpl implements DishService {
      */
     @Override
     public PageResult pageQuery(DishPageQueryDTO dishPageQueryDTO) {
-        // 1. 构造分页对象
-        Page<Dish> page = new Page<>(dishPageQueryDTO.getPage(), dishPageQueryDTO.getPageSize());
-
-        // 2. 动态组装查询条件
-        LambdaQueryWrapper<Dish> queryWrapper = new LambdaQueryWrapper<>();
+        // 1. 动态组装查询条件
+        LambdaQueryWrapper<Dish> queryWrapper = new LambdaQueryWrapper<>(Dish.class);
         if (dishPageQueryDTO.getName() != null && !dishPageQueryDTO.getName().trim().isEmpty()) {
             queryWrapper.like(Dish::getName, dishPageQueryDTO.getName().trim());
         }
@@ -133,21 +156,19 @@ public class DishServiceImpl implements DishService {
         }
         queryWrapper.orderByDesc(Dish::getUpdateTime);
 
-        // 3. 执行分页查询
-        Page<Dish> dishPage = dishMapper.selectPage(page, queryWrapper);
+        // 2. 执行分页查询（总数由客户端传入、缓存或只判断是否有下一页）
+        Page<Dish> dishPage = pageQueryTemplate.page(dishMapper, dishPageQueryDTO, queryWrapper);
         List<Dish> records = dishPage.getRecords();
         if (CollectionUtils.isEmpty(records)) {
-            return new PageResult(dishPage.getTotal(), List.of());
+            return new PageResult(dishPage.getTotal(), List.of(), dishPage.hasNext());
         }
 
-        // 4. 一次性查询分类名称，构建映射
-        Set<Long> categoryIds = records.stream()
-                .map(Dish::getCategoryId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Map<Long, String> categoryNameMap = categoryIds.isEmpty() ? Map.of() :
-                categoryMapper.selectByIds(categoryIds).stream()
-                        .collect(Collectors.toMap(Category::getId, Category::getName));
+        // 3. 从分类字典中取分类名称
+        Map<Long, String> categoryNameMap = categoryDictionary.snapshot();
+
+        // 4. 一次性查询当前页菜品的口味，按菜品 ID 分组
+        Map<Long, List<DishFlavor>> flavorMap = loadFlavorsByDishIds(
+                records.stream().map(Dish::getId).collect(Collectors.toList()));
 
         // 5. 组装 VO 列表
         List<DishVO> voList = records.stream()
@@ -161,10 +182,11 @@ public class DishServiceImpl implements DishService {
                         .description(dish.getDescription())
                         .status(dish.getStatus())
                         .updateTime(dish.getUpdateTime())
+                        .flavors(flavorMap.getOrDefault(dish.getId(), new ArrayList<>()))
                         .build())
                 .collect(Collectors.toList());
 
-        return new PageResult(dishPage.getTotal(), voList);
+        return new PageResult(dishPage.getTotal(), voList, dishPage.hasNext());
     }
 
     /**
@@ -207,6 +229,10 @@ public class DishServiceImpl implements DishService {
         dishFlavorMapper.deleteByDishIds(ids);
         dishMapper.deleteByIds(ids);
 
+        // 5. 清除被删除菜品所属分类的菜品缓存
+        menuCacheEvictor.evictDishCategories(dishList.stream().map(Dish::getCategoryId).toList());
+        itemCatalog.refreshDishes(ids);
+
         log.info("批量删除菜品成功，IDs：{}", ids);
     }
 
@@ -214,7 +240,8 @@ public class DishServiceImpl implements DishService {
      * 启用或禁用菜品
      * <p>
      * 1. 更新菜品状态；<br>
-     * 2. 若操作为“禁用”，则级联禁用所有包含该菜品的套餐，保证业务一致性。
+     * 2. 若操作为“禁用”，则级联禁用所有包含该菜品的套餐，保证业务一致性；<br>
+     * 3. 仅清除菜品所属分类及被级联禁用套餐所属分类的缓存。
      * </p>
      *
      * @param status 目标状态，{@link StatusConstant#ENABLE} 或 {@link StatusConstant#DISABLE}
@@ -229,7 +256,14 @@ public class DishServiceImpl implements DishService {
         toUpdate.setStatus(status);
         dishMapper.updateById(toUpdate);
 
-        // 2. 级联禁用套餐
+        // 2. 清除菜品所属分类的菜品缓存
+        Dish dish = dishMapper.selectById(id);
+        if (dish != null) {
+            menuCacheEvictor.evictDishCategories(Collections.singletonList(dish.getCategoryId()));
+        }
+        itemCatalog.refreshDishes(Collections.singletonList(id));
+
+        // 3. 级联禁用套餐，并清除这些套餐所属分类的套餐缓存
         if (StatusConstant.DISABLE.equals(status)) {
             List<Long> setmealIds = setmealDishMapper.getSetmealIdsByDishIds(List.of(id));
             if (CollectionUtils.isNotEmpty(setmealIds)) {
@@ -237,6 +271,10 @@ public class DishServiceImpl implements DishService {
                 setmeal.setStatus(StatusConstant.DISABLE);
                 setmealMapper.update(setmeal, Wrappers.<Setmeal>lambdaUpdate()
                         .in(Setmeal::getId, setmealIds));
+                menuCacheEvictor.evictSetmealCategories(setmealMapper.selectByIds(setmealIds).stream()
+                        .map(Setmeal::getCategoryId)
+                        .toList());
+                itemCatalog.refreshSetmeals(setmealIds);
             }
         }
 
@@ -261,9 +299,9 @@ public class DishServiceImpl implements DishService {
             throw new DeletionNotAllowedException(MessageConstant.DISH_NOT_FOUND);
         }
 
-        // 2. 查询口味
-        List<DishFlavor> flavors = dishFlavorMapper.selectList(
-                Wrappers.<DishFlavor>lambdaQuery().eq(DishFlavor::getDishId, id));
+        // 2. 查询口味（与列表查询共用批量加载逻辑）
+        List<DishFlavor> flavors = loadFlavorsByDishIds(List.of(id))
+                .getOrDefault(id, new ArrayList<>());
 
         // 3. 组装 VO
         return DishVO.builder()
@@ -282,7 +320,8 @@ public class DishServiceImpl implements DishService {
      * 根据 ID 修改菜品及其口味信息
      * <p>
      * 事务粒度：整个方法为一个事务；<br>
-     * 执行步骤：先更新菜品主表，再删除原口味，最后批量插入新口味。
+     * 执行步骤：先更新菜品主表，再删除原口味，最后批量插入新口味；<br>
+     * 事务提交后清除新旧分类的菜品缓存。
      * </p>
      *
      * @param dishDTO 包含菜品基本信息与口味列表的数据传输对象，ID 不能为空
@@ -290,6 +329,9 @@ public class DishServiceImpl implements DishService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateWithFlavor(DishDTO dishDTO) {
+        // 0. 记录修改前的分类，菜品换分类时新旧分类的缓存都需要清除
+        Dish original = dishMapper.selectById(dishDTO.getId());
+
         // 1. 更新菜品主表
         Dish dish = new Dish();
         BeanUtils.copyProperties(dishDTO, dish);
@@ -307,6 +349,16 @@ public class DishServiceImpl implements DishService {
             dishFlavorMapper.batchInsert(flavors);
         }
 
+        // 4. 清除新旧分类的菜品缓存，以及引用该菜品的套餐内菜品缓存（含菜品图片、描述）
+        List<Long> categoryIds = new ArrayList<>();
+        categoryIds.add(dishDTO.getCategoryId());
+        if (original != null) {
+            categoryIds.add(original.getCategoryId());
+        }
+        menuCacheEvictor.evictDishCategories(categoryIds);
+        menuCacheEvictor.evictSetmealDishItems(setmealDishMapper.getSetmealIdsByDishIds(List.of(dishDTO.getId())));
+        itemCatalog.refreshDishes(Collections.singletonList(dishDTO.getId()));
+
         log.info("更新菜品成功，ID：{}", dishDTO.getId());
     }
 
@@ -327,28 +379,55 @@ public class DishServiceImpl implements DishService {
                         .eq(Dish::getStatus, StatusConstant.ENABLE));
     }
 
+    /**
+     * 根据分类查询“启用”状态的菜品及其口味信息
+     * <p>
+     * 先查询分类下的菜品，再通过一次 IN 查询批量加载全部口味并在内存中按菜品分组，
+     * 无论分类下有多少菜品，均只产生两次数据库访问。
+     * </p>
+     *
+     * @param dish 查询条件，使用其中的分类 ID
+     * @return 菜品 VO 列表（含口味），不会返回 {@code null}
+     */
     @Override
     public List<DishVO> listWithFlavor(Dish dish) {
         LambdaQueryWrapper<Dish> queryWrapper = Wrappers.<Dish>lambdaQuery()
                 .eq(Dish::getCategoryId, dish.getCategoryId())
                 .eq(Dish::getStatus, StatusConstant.ENABLE);
         List<Dish> dishList = dishMapper.selectList(queryWrapper);
+        if (CollectionUtils.isEmpty(dishList)) {
+            return new ArrayList<>();
+        }
 
-        List<DishVO> dishVOList = new ArrayList<>();
+        // 一次性加载所有菜品的口味，按菜品 ID 分组
+        Map<Long, List<DishFlavor>> flavorMap = loadFlavorsByDishIds(
+                dishList.stream().map(Dish::getId).collect(Collectors.toList()));
 
+        List<DishVO> dishVOList = new ArrayList<>(dishList.size());
         for (Dish d : dishList) {
             DishVO dishVO = new DishVO();
             BeanUtils.copyProperties(d, dishVO);
-
-            // 使用条件构造器根据菜品id查询对应的口味
-            LambdaQueryWrapper<DishFlavor> flavorQueryWrapper = Wrappers.<DishFlavor>lambdaQuery()
-                    .eq(DishFlavor::getDishId, d.getId());
-            List<DishFlavor> flavors = dishFlavorMapper.selectList(flavorQueryWrapper);
-
-            dishVO.setFlavors(flavors);
+            dishVO.setFlavors(flavorMap.getOrDefault(d.getId(), new ArrayList<>()));
             dishVOList.add(dishVO);
         }
 
         return dishVOList;
     }
+
+    /**
+     * 批量加载菜品口味并按菜品 ID 分组
+     * <p>
+     * 一条 {@code IN} 查询取回全部口味，在内存中分组，供列表、分页及详情查询复用。
+     * </p>
+     *
+     * @param dishIds 菜品 ID 集合，允许为空
+     * @return 菜品 ID → 口味列表 的映射，无口味的菜品不会出现在映射中
+     */
+    private Map<Long, List<DishFlavor>> loadFlavorsByDishIds(Collection<Long> dishIds) {
+        if (CollectionUtils.isEmpty(dishIds)) {
+            return Map.of();
+        }
+        return dishFlavorMapper.listByDishIds(dishIds).stream()
+                .collect(Collectors.groupingBy(DishFlavor::getDishId));
+    }
 }
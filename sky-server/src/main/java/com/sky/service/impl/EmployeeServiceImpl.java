@@ -12,6 +12,7 @@ import com.sky.exception.AccountLockedException;
 import com.sky.exception.AccountNotFoundException;
 import com.sky.exception.PasswordErrorException;
 import com.sky.mapper.EmployeeMapper;
+import com.sky.pagination.PageQueryTemplate;
 import com.sky.result.PageResult;
 import com.sky.service.EmployeeService;
 import jakarta.annotation.Resource;
@@ -39,6 +40,12 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Resource
     private EmployeeMapper employeeMapper;
 
+    /**
+     * 分页查询模板，按需省去或缓存 COUNT 查询
+     */
+    @Resource
+    private PageQueryTemplate pageQueryTemplate;
+
     /**
      * 对密码进行 BCrypt 加密
      * <p>
@@ -176,19 +183,16 @@ public class EmployeeServiceImpl implements EmployeeService {
      */
     @Override
     public PageResult page(EmployeePageQueryDTO queryDTO) {
-        // 构造分页对象
-        Page<Employee> page = new Page<>(queryDTO.getPage(), queryDTO.getPageSize());
-
         // 构造查询条件
-        LambdaQueryWrapper<Employee> wrapper = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<Employee> wrapper = new LambdaQueryWrapper<>(Employee.class);
         if (queryDTO.getName() != null && !queryDTO.getName().isEmpty()) {
             wrapper.like(Employee::getName, queryDTO.getName());
         }
         // 排序：按更新时间倒序，保证最新数据在前
         wrapper.orderByDesc(Employee::getUpdateTime);
 
-        // 执行分页查询
-        employeeMapper.selectPage(page, wrapper);
+        // 执行分页查询（总数由客户端传入、缓存或只判断是否有下一页）
+        Page<Employee> page = pageQueryTemplate.page(employeeMapper, queryDTO, wrapper);
 
         // 清理敏感字段，避免密码泄露
         if (page.getRecords() != null) {
@@ -200,7 +204,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
 
         // 返回统一分页结构
-        return new PageResult(page.getTotal(), page.getRecords());
+        return new PageResult(page.getTotal(), page.getRecords(), page.hasNext());
     }
 
     /**
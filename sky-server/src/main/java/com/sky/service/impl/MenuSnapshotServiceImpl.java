@@ -0,0 +1,343 @@
+package com.sky.service.impl;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sky.cache.CacheInvalidationMessage;
+import com.sky.cache.MenuSnapshot;
+import com.sky.constant.CacheConstant;
+import com.sky.constant.StatusConstant;
+import com.sky.entity.Category;
+import com.sky.entity.Dish;
+import com.sky.entity.Setmeal;
+import com.sky.mapper.CategoryMapper;
+import com.sky.result.Result;
+import com.sky.service.DishService;
+import com.sky.service.MenuSnapshotService;
+import com.sky.service.SetmealService;
+import com.sky.vo.DishItemVO;
+import com.sky.vo.MenuCategoryVO;
+import com.sky.vo.MenuSetmealVO;
+import com.sky.vo.MenuSnapshotVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 菜单快照服务实现类
+ * <p>
+ * 快照按分类分段保存，监听菜单缓存的失效事件（本节点清除及其他节点的失效广播）标记受影响的分段，
+ * 下次读取时只重新查询这些分段，再重新编码整份文档。版本号由 {@link com.sky.cache.MenuCacheEvictor} 在每次菜单变更提交后
+ * 于 Redis 中自增一次并随失效消息下发，各节点以已知的最大版本号标记快照，不再各自自增，集群内同一版本号对应同一次变更。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Service
+@Slf4j
+public class MenuSnapshotServiceImpl implements MenuSnapshotService {
+
+    /**
+     * 菜品分类类型
+     */
+    private static final int DISH_CATEGORY = 1;
+
+    @Resource
+    private CategoryMapper categoryMapper;
+
+    @Resource
+    private DishService dishService;
+
+    @Resource
+    private SetmealService setmealService;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 全局 ObjectMapper，保证快照与普通接口的 JSON 格式一致
+     */
+    @Resource
+    private ObjectMapper objectMapper;
+
+    /**
+     * 当前快照，未构建时为 {@code null}
+     */
+    private volatile MenuSnapshot current;
+
+    /**
+     * 分类分段，按分类排序保存
+     */
+    private Map<Long, MenuCategoryVO> sections = new LinkedHashMap<>();
+
+    /**
+     * 套餐ID到分类ID的索引，用于套餐内菜品变化时定位分段
+     */
+    private final Map<Long, Long> setmealCategoryIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 需要整体重建
+     */
+    private final AtomicBoolean allDirty = new AtomicBoolean(true);
+
+    /**
+     * 分类列表需要重新查询
+     */
+    private final AtomicBoolean categoriesDirty = new AtomicBoolean();
+
+    /**
+     * 已知的最大菜单版本号
+     */
+    private final AtomicLong knownVersion = new AtomicLong();
+
+    /**
+     * 菜品需要重新查询的分类
+     */
+    private final Set<Long> dirtyDishCategories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 套餐需要重新查询的分类
+     */
+    private final Set<Long> dirtySetmealCategories = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot snapshot = current;
+        if (snapshot != null && !isDirty()) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (current == null || isDirty()) {
+                rebuild();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 根据菜单缓存的失效事件标记需要重建的分段
+     *
+     * @param message 缓存失效消息
+     */
+    @EventListener
+    public void onCacheInvalidated(CacheInvalidationMessage message) {
+        if (message.getVersion() != null) {
+            knownVersion.accumulateAndGet(message.getVersion(), Math::max);
+        }
+        String cacheName = message.getCacheName();
+        String key = message.getKey();
+        if (CacheConstant.CATEGORY_CACHE.equals(cacheName)) {
+            categoriesDirty.set(true);
+        } else if (CacheConstant.DISH_CACHE.equals(cacheName)) {
+            markDirty(key, dirtyDishCategories);
+        } else if (CacheConstant.SETMEAL_CACHE.equals(cacheName)) {
+            if (key != null && key.startsWith(CacheConstant.SETMEAL_DISH_ITEMS_KEY_PREFIX)) {
+                // 套餐内菜品变化：定位到套餐所在分类；不在快照中的套餐（已停售）无需处理
+                Long categoryId = parseId(key.substring(CacheConstant.SETMEAL_DISH_ITEMS_KEY_PREFIX.length()))
+                        .map(setmealCategoryIndex::get)
+                        .orElse(null);
+                if (categoryId != null) {
+                    dirtySetmealCategories.add(categoryId);
+                }
+            } else {
+                markDirty(key, dirtySetmealCategories);
+            }
+        }
+    }
+
+    private void markDirty(String key, Set<Long> dirtyCategories) {
+        if (key == null) {
+            allDirty.set(true);
+            return;
+        }
+        parseId(key).ifPresentOrElse(dirtyCategories::add, () -> allDirty.set(true));
+    }
+
+    private boolean isDirty() {
+        return allDirty.get() || categoriesDirty.get()
+                || !dirtyDishCategories.isEmpty() || !dirtySetmealCategories.isEmpty();
+    }
+
+    /**
+     * 重建快照：先取走待处理的标记，再查询受影响的分段；失败时恢复为整体重建并继续使用旧快照
+     */
+    private void rebuild() {
+        if (current == null) {
+            loadKnownVersion();
+        }
+        boolean full = allDirty.getAndSet(false) || current == null;
+        boolean reloadCategories = categoriesDirty.getAndSet(false);
+        Set<Long> dishCategories = drain(dirtyDishCategories);
+        Set<Long> setmealCategories = drain(dirtySetmealCategories);
+        try {
+            Set<Long> loaded = new HashSet<>();
+            Map<Long, MenuCategoryVO> next = full || reloadCategories
+                    ? reloadCategories(full ? Map.of() : sections, loaded)
+                    : new LinkedHashMap<>(sections);
+            for (MenuCategoryVO section : next.values()) {
+                Long id = section.getId();
+                if (!loaded.contains(id) && (dishCategories.contains(id) || setmealCategories.contains(id))) {
+                    loadSection(section);
+                }
+            }
+            publish(next);
+            log.info("菜单快照已重建，version={}，full={}，分类={}，菜品分类={}，套餐分类={}",
+                    current.getVersion(), full, reloadCategories, dishCategories, setmealCategories);
+        } catch (RuntimeException e) {
+            allDirty.set(true);
+            if (current == null) {
+                throw e;
+            }
+            log.error("菜单快照重建失败，继续使用版本 {}", current.getVersion(), e);
+        }
+    }
+
+    /**
+     * 重新查询启用的分类：已有且类型未变的分段直接复用，其余分类查询其菜品或套餐
+     *
+     * @param previous 现有分段
+     * @param loaded   输出参数，记录本次已查询内容的分类ID
+     * @return 按分类排序的新分段
+     */
+    private Map<Long, MenuCategoryVO> reloadCategories(Map<Long, MenuCategoryVO> previous, Set<Long> loaded) {
+        List<Category> categories = categoryMapper.selectList(Wrappers.<Category>lambdaQuery()
+                .eq(Category::getStatus, StatusConstant.ENABLE)
+                .orderByAsc(Category::getSort)
+                .orderByDesc(Category::getUpdateTime));
+        Map<Long, MenuCategoryVO> next = new LinkedHashMap<>();
+        for (Category category : categories) {
+            MenuCategoryVO old = previous.get(category.getId());
+            MenuCategoryVO section = MenuCategoryVO.builder()
+                    .id(category.getId())
+                    .type(category.getType())
+                    .name(category.getName())
+                    .sort(category.getSort())
+                    .build();
+            if (old != null && category.getType().equals(old.getType())) {
+                section.setDishes(old.getDishes());
+                section.setSetmeals(old.getSetmeals());
+            } else {
+                loadSection(section);
+                loaded.add(category.getId());
+            }
+            next.put(category.getId(), section);
+        }
+        return next;
+    }
+
+    /**
+     * 查询单个分类下的启售菜品或启售套餐
+     */
+    private void loadSection(MenuCategoryVO section) {
+        if (section.getType() != null && section.getType() == DISH_CATEGORY) {
+            Dish query = new Dish();
+            query.setCategoryId(section.getId());
+            query.setStatus(StatusConstant.ENABLE);
+            section.setDishes(dishService.listWithFlavor(query));
+            section.setSetmeals(new ArrayList<>());
+            return;
+        }
+        Setmeal query = new Setmeal();
+        query.setCategoryId(section.getId());
+        query.setStatus(StatusConstant.ENABLE);
+        List<Setmeal> setmealList = setmealService.list(query);
+        // 一次性加载分类下全部套餐的菜品，按套餐 ID 分组
+        Map<Long, List<DishItemVO>> dishItemMap = setmealService.getDishItemsBySetmealIds(
+                setmealList.stream().map(Setmeal::getId).toList());
+        List<MenuSetmealVO> setmeals = new ArrayList<>(setmealList.size());
+        for (Setmeal setmeal : setmealList) {
+            setmeals.add(MenuSetmealVO.builder()
+                    .id(setmeal.getId())
+                    .categoryId(setmeal.getCategoryId())
+                    .name(setmeal.getName())
+                    .price(setmeal.getPrice())
+                    .image(setmeal.getImage())
+                    .description(setmeal.getDescription())
+                    .dishItems(dishItemMap.getOrDefault(setmeal.getId(), new ArrayList<>()))
+                    .build());
+        }
+        section.setDishes(new ArrayList<>());
+        section.setSetmeals(setmeals);
+    }
+
+    /**
+     * 编码并发布新快照，以已知的最大版本号标记；内容与版本号均未变化时保留当前快照
+     */
+    private void publish(Map<Long, MenuCategoryVO> next) {
+        List<MenuCategoryVO> categories = new ArrayList<>(next.values());
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(encode(categories)) + "\"";
+        sections = next;
+        rebuildSetmealIndex(categories);
+        long version = knownVersion.get();
+        if (current != null && current.getEtag().equals(etag) && current.getVersion() == version) {
+            return;
+        }
+        MenuSnapshotVO snapshotVO = MenuSnapshotVO.builder()
+                .version(version)
+                .buildTime(LocalDateTime.now())
+                .categories(categories)
+                .build();
+        current = new MenuSnapshot(version, etag, encode(Result.success(snapshotVO)));
+    }
+
+    private void rebuildSetmealIndex(List<MenuCategoryVO> categories) {
+        setmealCategoryIndex.clear();
+        for (MenuCategoryVO category : categories) {
+            for (MenuSetmealVO setmeal : category.getSetmeals()) {
+                setmealCategoryIndex.put(setmeal.getId(), category.getId());
+            }
+        }
+    }
+
+    /**
+     * 首次构建时读取集群当前的菜单版本号（只读，不自增）
+     */
+    private void loadKnownVersion() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(CacheConstant.MENU_SNAPSHOT_VERSION_KEY);
+            if (version != null) {
+                knownVersion.accumulateAndGet(Long.parseLong(version), Math::max);
+            }
+        } catch (Exception e) {
+            log.warn("读取菜单版本号失败，使用已知版本号 {}", knownVersion.get(), e);
+        }
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("菜单快照编码失败", e);
+        }
+    }
+
+    private static Set<Long> drain(Set<Long> dirtyCategories) {
+        Set<Long> drained = new HashSet<>(dirtyCategories);
+        dirtyCategories.removeAll(drained);
+        return drained;
+    }
+
+    private static Optional<Long> parseId(String key) {
+        try {
+            return Optional.of(Long.valueOf(key));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.sky.service.impl;
+
+import com.sky.cache.CatalogItem;
+import com.sky.cache.ItemCatalog;
+import com.sky.cart.CartStore;
+import com.sky.constant.MessageConstant;
+import com.sky.context.BaseContext;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.dto.OrdersSubmitDTO;
+import com.sky.entity.AddressBook;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.entity.ShoppingCart;
+import com.sky.exception.AddressBookBusinessException;
+import com.sky.exception.OrderBusinessException;
+import com.sky.exception.ShoppingCartBusinessException;
+import com.sky.mapper.AddressBookMapper;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.order.OrderCursor;
+import com.sky.order.OrderStatusCounter;
+import com.sky.properties.SkyOrderProperties;
+import com.sky.report.ReportRollup;
+import com.sky.result.CursorPageResult;
+import com.sky.service.OrderService;
+import com.sky.task.OrderTimeoutScheduler;
+import com.sky.utils.SnowflakeIdGenerator;
+import com.sky.vo.OrderStatisticsVO;
+import com.sky.vo.OrderSubmitVO;
+import com.sky.vo.OrderVO;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 订单业务实现类
+ * <p>
+ * 下单在一个事务内完成：查询地址簿、读取购物车、写入订单、以单条多行 INSERT 写入全部订单明细、清空购物车。
+ * 商品状态与单价从内存商品目录读取，订单金额由服务端计算，数据库往返次数固定（地址簿、订单、订单明细，购物车存于 MySQL 时另加读取与清空），
+ * 与购物车商品种类数无关。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Service
+@Slf4j
+public class OrderServiceImpl implements OrderService {
+
+    /**
+     * 订单搜索默认每页条数
+     */
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    /**
+     * 订单搜索每页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderDetailMapper orderDetailMapper;
+
+    @Resource
+    private AddressBookMapper addressBookMapper;
+
+    /**
+     * 购物车存储（Redis 或 MySQL，由 sky.cart.store 决定）
+     */
+    @Resource
+    private CartStore cartStore;
+
+    /**
+     * 订单号生成器，集群内唯一且按时间递增
+     */
+    @Resource
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    /**
+     * 订单超时任务调度器
+     */
+    @Resource
+    private OrderTimeoutScheduler orderTimeoutScheduler;
+
+    /**
+     * 商品目录，校验下单商品是否仍在售并提供计价单价
+     */
+    @Resource
+    private ItemCatalog itemCatalog;
+
+    /**
+     * 订单状态计数器，提供各状态订单数量
+     */
+    @Resource
+    private OrderStatusCounter orderStatusCounter;
+
+    /**
+     * 报表汇总增量维护
+     */
+    @Resource
+    private ReportRollup reportRollup;
+
+    /**
+     * 订单配置属性，提供打包费与配送费
+     */
+    @Resource
+    private SkyOrderProperties skyOrderProperties;
+
+    /**
+     * 用户下单
+     * <p>
+     * 1. 校验地址簿属于当前用户、购物车不为空且商品均在售；<br>
+     * 2. 按商品目录中的当前单价计算订单金额（商品金额 + 打包费 + 配送费），客户端提交的金额仅用于核对；<br>
+     * 3. 写入订单并累加当天报表汇总的订单数，订单明细以购物车中的名称、图片与商品目录单价批量写入；<br>
+     * 4. 清空购物车：MySQL 购物车随事务一起提交或回滚，Redis 购物车在事务提交后清空；<br>
+     * 5. 事务提交后投递支付超时任务。
+     * </p>
+     *
+     * @param ordersSubmitDTO 下单参数
+     * @return 订单ID、订单号、订单金额与下单时间
+     * @throws AddressBookBusinessException  地址簿不存在或不属于当前用户时抛出
+     * @throws ShoppingCartBusinessException 购物车为空时抛出
+     * @throws OrderBusinessException        购物车中有已停售或已删除的商品，或提交的金额与服务端计价不一致时抛出
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public OrderSubmitVO submit(OrdersSubmitDTO ordersSubmitDTO) {
+        Long userId = BaseContext.getCurrentId();
+
+        // 1. 校验地址簿
+        AddressBook addressBook = addressBookMapper.selectById(ordersSubmitDTO.getAddressBookId());
+        if (addressBook == null || !userId.equals(addressBook.getUserId())) {
+            throw new AddressBookBusinessException(MessageConstant.ADDRESS_BOOK_IS_NULL);
+        }
+
+        // 2. 读取购物车，校验商品仍在售并按商品目录单价计价
+        List<ShoppingCart> cartItems = cartStore.list(userId);
+        if (cartItems.isEmpty()) {
+            throw new ShoppingCartBusinessException(MessageConstant.SHOPPING_CART_IS_NULL);
+        }
+        List<BigDecimal> unitPrices = new ArrayList<>(cartItems.size());
+        BigDecimal itemAmount = BigDecimal.ZERO;
+        int itemCount = 0;
+        for (ShoppingCart cartItem : cartItems) {
+            BigDecimal unitPrice = onSaleItem(cartItem).getPrice();
+            unitPrices.add(unitPrice);
+            itemAmount = itemAmount.add(unitPrice.multiply(BigDecimal.valueOf(cartItem.getNumber())));
+            itemCount += cartItem.getNumber();
+        }
+        int packAmount = itemCount * skyOrderProperties.getPackFeePerItem();
+        BigDecimal amount = itemAmount.add(BigDecimal.valueOf(packAmount)).add(skyOrderProperties.getDeliveryFee());
+        if (ordersSubmitDTO.getAmount() != null && ordersSubmitDTO.getAmount().compareTo(amount) != 0) {
+            log.warn("订单金额与服务端计价不一致，用户ID：{}，提交金额：{}，计价金额：{}", userId, ordersSubmitDTO.getAmount(), amount);
+            throw new OrderBusinessException(MessageConstant.ORDER_AMOUNT_CHANGED);
+        }
+
+        // 3. 写入订单
+        LocalDateTime now = LocalDateTime.now();
+        Orders orders = Orders.builder()
+                .number(snowflakeIdGenerator.nextIdString())
+                .status(Orders.PENDING_PAYMENT)
+                .userId(userId)
+                .addressBookId(addressBook.getId())
+                .orderTime(now)
+                .payMethod(ordersSubmitDTO.getPayMethod())
+                .payStatus(Orders.UN_PAID)
+                .amount(amount)
+                .remark(ordersSubmitDTO.getRemark())
+                .phone(addressBook.getPhone())
+                .address(addressOf(addressBook))
+                .consignee(addressBook.getConsignee())
+                .estimatedDeliveryTime(ordersSubmitDTO.getEstimatedDeliveryTime())
+                .deliveryStatus(ordersSubmitDTO.getDeliveryStatus())
+                .packAmount(packAmount)
+                .tablewareNumber(ordersSubmitDTO.getTablewareNumber() == null ? 0 : ordersSubmitDTO.getTablewareNumber())
+                .tablewareStatus(ordersSubmitDTO.getTablewareStatus())
+                .build();
+        orderMapper.insert(orders);
+        reportRollup.orderCreated(now);
+
+        // 4. 批量写入订单明细
+        List<OrderDetail> orderDetails = new ArrayList<>(cartItems.size());
+        for (int i = 0; i < cartItems.size(); i++) {
+            ShoppingCart cartItem = cartItems.get(i);
+            orderDetails.add(OrderDetail.builder()
+                    .name(cartItem.getName())
+                    .image(cartItem.getImage())
+                    .orderId(orders.getId())
+                    .dishId(cartItem.getDishId())
+                    .setmealId(cartItem.getSetmealId())
+                    .dishFlavor(cartItem.getDishFlavor())
+                    .number(cartItem.getNumber())
+                    .amount(unitPrices.get(i))
+                    .build());
+        }
+        orderDetailMapper.insertBatch(orderDetails);
+
+        // 5. 清空购物车
+        cartStore.clear(userId);
+
+        // 6. 投递支付超时任务，到期仍未支付时自动取消
+        orderTimeoutScheduler.schedulePayTimeout(orders.getId(), now);
+
+        log.info("用户下单成功，订单ID：{}，订单号：{}，明细 {} 条", orders.getId(), orders.getNumber(), orderDetails.size());
+        return OrderSubmitVO.builder()
+                .id(orders.getId())
+                .orderNumber(orders.getNumber())
+                .orderAmount(orders.getAmount())
+                .orderTime(now)
+                .build();
+    }
+
+    /**
+     * 各状态订单数量统计
+     * 读取 Redis 中按状态变化增量维护、并定时与数据库校准的计数，不扫描订单表
+     *
+     * @return 待接单、待派送、派送中数量
+     */
+    @Override
+    public OrderStatisticsVO statistics() {
+        return orderStatusCounter.statistics();
+    }
+
+    /**
+     * 订单条件搜索
+     * <p>
+     * 1. 有游标时以 order_time &lt;= ? and (order_time &lt; ? or id &lt; ?) 从上一页末行之后读取，代价与翻页深度无关；
+     *    无游标时按页码 OFFSET 查询，仅用于首页或跳页；<br>
+     * 2. 多读一行判断是否还有下一页，不依赖总记录数；<br>
+     * 3. 总记录数按需统计：searchCount=false 时省略，approximateCount=true 时取执行计划的估算行数；<br>
+     * 4. 当前页订单的菜品摘要由一次 IN 查询订单明细拼接。
+     * </p>
+     *
+     * @param ordersPageQueryDTO 查询条件与分页参数
+     * @return 当前页订单、下一页游标及总记录数
+     * @throws OrderBusinessException 游标格式不正确时抛出
+     */
+    @Override
+    public CursorPageResult conditionSearch(OrdersPageQueryDTO ordersPageQueryDTO) {
+        int pageSize = ordersPageQueryDTO.getPageSize() <= 0 ? DEFAULT_PAGE_SIZE
+                : Math.min(ordersPageQueryDTO.getPageSize(), MAX_PAGE_SIZE);
+        String cursorValue = ordersPageQueryDTO.getCursor();
+        OrderCursor cursor = cursorValue == null || cursorValue.isBlank() ? null : OrderCursor.decode(cursorValue);
+        long offset = cursor == null ? (long) (Math.max(ordersPageQueryDTO.getPage(), 1) - 1) * pageSize : 0;
+
+        List<OrderVO> orders = orderMapper.search(ordersPageQueryDTO, cursor, offset, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+        fillOrderDishes(orders);
+
+        CursorPageResult.CursorPageResultBuilder result = CursorPageResult.builder()
+                .records(orders)
+                .hasMore(hasMore);
+        if (hasMore) {
+            OrderVO last = orders.get(orders.size() - 1);
+            result.nextCursor(new OrderCursor(last.getOrderTime(), last.getId()).encode());
+        }
+        if (!Boolean.FALSE.equals(ordersPageQueryDTO.getSearchCount())) {
+            if (Boolean.TRUE.equals(ordersPageQueryDTO.getApproximateCount())) {
+                result.total(estimateCount(ordersPageQueryDTO)).totalApproximate(true);
+            } else {
+                result.total(orderMapper.countSearch(ordersPageQueryDTO));
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * 以执行计划估算符合条件的订单数：扫描行数 × 过滤比例
+     */
+    private long estimateCount(OrdersPageQueryDTO ordersPageQueryDTO) {
+        List<Map<String, Object>> plan = orderMapper.explainSearch(ordersPageQueryDTO);
+        if (plan.isEmpty() || !(plan.get(0).get("rows") instanceof Number rows)) {
+            return 0;
+        }
+        double filtered = plan.get(0).get("filtered") instanceof Number ratio ? ratio.doubleValue() : 100.0;
+        return Math.round(rows.doubleValue() * filtered / 100.0);
+    }
+
+    /**
+     * 批量查询订单明细，拼接菜品摘要（如 “宫保鸡丁*2;米饭*1;”）
+     */
+    private void fillOrderDishes(List<OrderVO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, List<OrderDetail>> detailsByOrder = orderDetailMapper.selectList(Wrappers.<OrderDetail>lambdaQuery()
+                        .select(OrderDetail::getOrderId, OrderDetail::getName, OrderDetail::getNumber)
+                        .in(OrderDetail::getOrderId, orders.stream().map(OrderVO::getId).toList()))
+                .stream()
+                .collect(Collectors.groupingBy(OrderDetail::getOrderId));
+        for (OrderVO order : orders) {
+            order.setOrderDishes(detailsByOrder.getOrDefault(order.getId(), List.of()).stream()
+                    .map(detail -> detail.getName() + "*" + detail.getNumber() + ";")
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    /**
+     * 校验购物车中的菜品或套餐仍存在且起售
+     *
+     * @return 商品目录条目，提供当前单价
+     */
+    private CatalogItem onSaleItem(ShoppingCart cartItem) {
+        CatalogItem item = cartItem.getDishId() != null
+                ? itemCatalog.getDish(cartItem.getDishId())
+                : itemCatalog.getSetmeal(cartItem.getSetmealId());
+        if (item == null || !item.isEnabled()) {
+            throw new OrderBusinessException(cartItem.getName() + "：" + (cartItem.getDishId() != null
+                    ? MessageConstant.DISH_DISABLED : MessageConstant.SETMEAL_DISABLED));
+        }
+        return item;
+    }
+
+    /**
+     * 拼接完整地址：省 + 市 + 区 + 详细地址
+     */
+    private static String addressOf(AddressBook addressBook) {
+        return Stream.of(addressBook.getProvinceName(), addressBook.getCityName(),
+                        addressBook.getDistrictName(), addressBook.getDetail())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining());
+    }
+}
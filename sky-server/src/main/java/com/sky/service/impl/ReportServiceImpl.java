@@ -0,0 +1,192 @@
+package com.sky.service.impl;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.constant.MessageConstant;
+import com.sky.dto.GoodsSalesDTO;
+import com.sky.entity.ReportDaily;
+import com.sky.exception.ReportBusinessException;
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.properties.SkyReportProperties;
+import com.sky.report.BusinessDataExporter;
+import com.sky.report.ReportBackfill;
+import com.sky.service.ReportService;
+import com.sky.vo.OrderReportVO;
+import com.sky.vo.SalesTop10ReportVO;
+import com.sky.vo.TurnoverReportVO;
+import com.sky.vo.UserReportVO;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 数据统计报表业务实现类
+ * 报表均读取按天预先汇总的 report_daily、report_daily_item，查询行数只与日期范围的天数有关，不扫描订单表
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Service
+@Slf4j
+public class ReportServiceImpl implements ReportService {
+
+    /**
+     * 销量排名条数
+     */
+    private static final int TOP_N = 10;
+
+    /**
+     * 每日汇总映射器，用于读取 report_daily、report_daily_item
+     */
+    @Resource
+    private ReportDailyMapper reportDailyMapper;
+
+    /**
+     * 报表汇总回填器，用于按日期范围重建汇总
+     */
+    @Resource
+    private ReportBackfill reportBackfill;
+
+    /**
+     * 运营数据导出器，用于流式生成 Excel 报表
+     */
+    @Resource
+    private BusinessDataExporter businessDataExporter;
+
+    /**
+     * 报表配置属性，用于限制导出的日期范围
+     */
+    @Resource
+    private SkyReportProperties skyReportProperties;
+
+    @Override
+    public TurnoverReportVO turnoverStatistics(LocalDate begin, LocalDate end) {
+        List<LocalDate> dates = datesOf(begin, end);
+        Map<LocalDate, ReportDaily> daily = dailyOf(begin, end);
+        List<String> turnovers = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            ReportDaily row = daily.get(date);
+            turnovers.add(String.valueOf(row == null ? 0.0 : row.getTurnover().doubleValue()));
+        }
+        return TurnoverReportVO.builder()
+                .dateList(join(dates))
+                .turnoverList(String.join(",", turnovers))
+                .build();
+    }
+
+    @Override
+    public UserReportVO userStatistics(LocalDate begin, LocalDate end) {
+        List<LocalDate> dates = datesOf(begin, end);
+        Map<LocalDate, ReportDaily> daily = dailyOf(begin, end);
+        int totalUsers = reportDailyMapper.sumNewUsersBefore(begin);
+        List<Integer> totalUserList = new ArrayList<>(dates.size());
+        List<Integer> newUserList = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            ReportDaily row = daily.get(date);
+            int newUsers = row == null ? 0 : row.getNewUserCount();
+            totalUsers += newUsers;
+            newUserList.add(newUsers);
+            totalUserList.add(totalUsers);
+        }
+        return UserReportVO.builder()
+                .dateList(join(dates))
+                .totalUserList(join(totalUserList))
+                .newUserList(join(newUserList))
+                .build();
+    }
+
+    @Override
+    public OrderReportVO ordersStatistics(LocalDate begin, LocalDate end) {
+        List<LocalDate> dates = datesOf(begin, end);
+        Map<LocalDate, ReportDaily> daily = dailyOf(begin, end);
+        List<Integer> orderCountList = new ArrayList<>(dates.size());
+        List<Integer> validOrderCountList = new ArrayList<>(dates.size());
+        int totalOrderCount = 0;
+        int validOrderCount = 0;
+        for (LocalDate date : dates) {
+            ReportDaily row = daily.get(date);
+            int orderCount = row == null ? 0 : row.getOrderCount();
+            int validCount = row == null ? 0 : row.getValidOrderCount();
+            orderCountList.add(orderCount);
+            validOrderCountList.add(validCount);
+            totalOrderCount += orderCount;
+            validOrderCount += validCount;
+        }
+        return OrderReportVO.builder()
+                .dateList(join(dates))
+                .orderCountList(join(orderCountList))
+                .validOrderCountList(join(validOrderCountList))
+                .totalOrderCount(totalOrderCount)
+                .validOrderCount(validOrderCount)
+                .orderCompletionRate(totalOrderCount == 0 ? 0.0 : (double) validOrderCount / totalOrderCount)
+                .build();
+    }
+
+    @Override
+    public SalesTop10ReportVO salesTop10(LocalDate begin, LocalDate end) {
+        checkRange(begin, end);
+        List<GoodsSalesDTO> top = reportDailyMapper.selectTopItems(begin, end, TOP_N);
+        return SalesTop10ReportVO.builder()
+                .nameList(top.stream().map(GoodsSalesDTO::getName).collect(Collectors.joining(",")))
+                .numberList(join(top.stream().map(GoodsSalesDTO::getNumber).toList()))
+                .build();
+    }
+
+    @Override
+    public int rebuildRollup(LocalDate begin, LocalDate end) {
+        checkRange(begin, end);
+        return reportBackfill.rebuild(begin, end);
+    }
+
+    @Override
+    public void exportBusinessData(LocalDate begin, LocalDate end, HttpServletResponse response) throws IOException {
+        checkRange(begin, end);
+        if (ChronoUnit.DAYS.between(begin, end) >= skyReportProperties.getExport().getMaxDays()) {
+            throw new ReportBusinessException(MessageConstant.REPORT_EXPORT_RANGE_TOO_LARGE);
+        }
+        String fileName = URLEncoder.encode("运营数据报表_" + begin + "_" + end + ".xlsx", StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + fileName);
+        businessDataExporter.export(begin, end, response.getOutputStream());
+    }
+
+    /**
+     * 查询日期范围内的日汇总，没有数据的日期不在结果中
+     */
+    private Map<LocalDate, ReportDaily> dailyOf(LocalDate begin, LocalDate end) {
+        return reportDailyMapper.selectList(Wrappers.<ReportDaily>lambdaQuery()
+                        .between(ReportDaily::getReportDate, begin, end))
+                .stream()
+                .collect(Collectors.toMap(ReportDaily::getReportDate, Function.identity()));
+    }
+
+    /**
+     * 日期范围内的每一天
+     */
+    private static List<LocalDate> datesOf(LocalDate begin, LocalDate end) {
+        checkRange(begin, end);
+        return begin.datesUntil(end.plusDays(1)).toList();
+    }
+
+    private static void checkRange(LocalDate begin, LocalDate end) {
+        if (begin == null || end == null || begin.isAfter(end)) {
+            throw new ReportBusinessException(MessageConstant.REPORT_DATE_RANGE_INVALID);
+        }
+    }
+
+    private static String join(List<?> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -2,22 +2,23 @@ package com.sky.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.sky.cache.CategoryDictionary;
+import com.sky.cache.ItemCatalog;
+import com.sky.cache.MenuCacheEvictor;
 import com.sky.constant.MessageConstant;
 import com.sky.constant.StatusConstant;
 import com.sky.dto.SetmealDTO;
 import com.sky.dto.SetmealPageQueryDTO;
-import com.sky.entity.Category;
 import com.sky.entity.Dish;
 import com.sky.entity.Setmeal;
 import com.sky.entity.SetmealDish;
 import com.sky.exception.SetmealEnableFailedException;
-import com.sky.mapper.CategoryMapper;
 import com.sky.mapper.DishMapper;
 import com.sky.mapper.SetmealDishMapper;
 import com.sky.mapper.SetmealMapper;
+import com.sky.pagination.PageQueryTemplate;
 import com.sky.result.PageResult;
 import com.sky.service.SetmealService;
 import com.sky.vo.DishItemVO;
@@ -29,7 +30,16 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -43,8 +53,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SetmealServiceImpl implements SetmealService {
 
+    /**
+     * 分类字典，用于在内存中查询分类名称
+     */
     @Resource
-    public CategoryMapper categoryMapper;
+    private CategoryDictionary categoryDictionary;
 
     /**
      * 套餐Mapper，用于数据库操作
@@ -61,6 +74,24 @@ public class SetmealServiceImpl implements SetmealService {
     @Resource
     private DishMapper dishMapper;
 
+    /**
+     * 菜单缓存精确清除器，写操作提交后仅清除受影响分类与套餐的缓存
+     */
+    @Resource
+    private MenuCacheEvictor menuCacheEvictor;
+
+    /**
+     * 商品目录，写操作提交后重新加载受影响的套餐
+     */
+    @Resource
+    private ItemCatalog itemCatalog;
+
+    /**
+     * 分页查询模板，按需省去或缓存 COUNT 查询
+     */
+    @Resource
+    private PageQueryTemplate pageQueryTemplate;
+
     /**
      * 新增套餐及其包含菜品信息
      *
@@ -76,15 +107,17 @@ public class SetmealServiceImpl implements SetmealService {
         // 获取套餐id
         Long setmealId = setmeal.getId();
 
-        // 保存套餐包含的菜品信息
+        // 批量保存套餐包含的菜品信息
         List<SetmealDish> setmealDishList = setmealDTO.getSetmealDishes();
         if (setmealDishList != null && !setmealDishList.isEmpty()) {
-            for (SetmealDish setmealDish : setmealDishList) {
-                setmealDish.setSetmealId(setmealId);
-                setmealDishMapper.insert(setmealDish);
-            }
+            setmealDishList.forEach(setmealDish -> setmealDish.setSetmealId(setmealId));
+            setmealDishMapper.insertBatch(setmealDishList);
         }
 
+        // 清除所属分类的套餐缓存
+        menuCacheEvictor.evictSetmealCategories(Collections.singletonList(setmealDTO.getCategoryId()));
+        itemCatalog.refreshSetmeals(Collections.singletonList(setmealId));
+
         log.info("套餐保存成功，套餐id:{}", setmealId);
     }
 
@@ -97,26 +130,23 @@ public class SetmealServiceImpl implements SetmealService {
     @Override
     public PageResult pageQuery(SetmealPageQueryDTO setmealPageQueryDTO) {
         // 分页查询套餐信息
-        IPage<Setmeal> page = new Page<>(setmealPageQueryDTO.getPage(), setmealPageQueryDTO.getPageSize());
         LambdaQueryWrapper<Setmeal> queryWrapper = Wrappers.lambdaQuery(Setmeal.class)
                 .like(StringUtils.isNotBlank(setmealPageQueryDTO.getName()), Setmeal::getName, setmealPageQueryDTO.getName())
                 .eq(setmealPageQueryDTO.getCategoryId() != null, Setmeal::getCategoryId, setmealPageQueryDTO.getCategoryId())
                 .eq(setmealPageQueryDTO.getStatus() != null, Setmeal::getStatus, setmealPageQueryDTO.getStatus());
-        IPage<Setmeal> pageResult = setmealMapper.selectPage(page, queryWrapper);
+        // 总数由客户端传入、缓存或只判断是否有下一页
+        Page<Setmeal> pageResult = pageQueryTemplate.page(setmealMapper, setmealPageQueryDTO, queryWrapper);
 
-        // 查询套餐对应的分类名称
+        // 从分类字典中取分类名称
+        Map<Long, String> categoryNames = categoryDictionary.snapshot();
         List<SetmealVO> setmealVOList = pageResult.getRecords().stream().map(setmeal -> {
             SetmealVO setmealVO = new SetmealVO();
             BeanUtils.copyProperties(setmeal, setmealVO);
-            // 根据分类id查询分类名称
-            Category category = categoryMapper.selectById(setmeal.getCategoryId());
-            if (category != null) {
-                setmealVO.setCategoryName(category.getName());
-            }
+            setmealVO.setCategoryName(categoryNames.get(setmeal.getCategoryId()));
             return setmealVO;
         }).collect(Collectors.toList());
 
-        return new PageResult(pageResult.getTotal(), setmealVOList);
+        return new PageResult(pageResult.getTotal(), setmealVOList, pageResult.hasNext());
     }
 
     /**
@@ -159,6 +189,13 @@ public class SetmealServiceImpl implements SetmealService {
         if (affectedRows == 0) {
             throw new SetmealEnableFailedException(MessageConstant.SETMEAL_ENABLE_FAILED);
         }
+
+        // 4. 清除所属分类的套餐缓存
+        Setmeal updated = setmealMapper.selectById(id);
+        if (updated != null) {
+            menuCacheEvictor.evictSetmealCategories(Collections.singletonList(updated.getCategoryId()));
+        }
+        itemCatalog.refreshSetmeals(Collections.singletonList(id));
     }
 
     /**
@@ -178,11 +215,8 @@ public class SetmealServiceImpl implements SetmealService {
         SetmealVO setmealVO = new SetmealVO();
         BeanUtils.copyProperties(setmeal, setmealVO);
 
-        // 查询并设置分类名称
-        Category category = categoryMapper.selectById(setmeal.getCategoryId());
-        if (category != null) {
-            setmealVO.setCategoryName(category.getName());
-        }
+        // 设置分类名称
+        setmealVO.setCategoryName(categoryDictionary.getName(setmeal.getCategoryId()));
 
         // 查询并设置套餐所含菜品
         QueryWrapper<SetmealDish> queryWrapper = new QueryWrapper<>();
@@ -201,6 +235,9 @@ public class SetmealServiceImpl implements SetmealService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void update(SetmealDTO setmealDTO) {
+        // 0. 记录修改前的分类，套餐换分类时新旧分类的缓存都需要清除
+        Setmeal original = setmealMapper.selectById(setmealDTO.getId());
+
         // 1. 更新套餐基本信息
         Setmeal setmeal = new Setmeal();
         BeanUtils.copyProperties(setmealDTO, setmeal);
@@ -209,19 +246,66 @@ public class SetmealServiceImpl implements SetmealService {
         // 2. 获取套餐ID
         Long setmealId = setmealDTO.getId();
 
-        // 3. 删除原有套餐-菜品关联
-        LambdaQueryWrapper<SetmealDish> deleteWrapper = new LambdaQueryWrapper<>();
-        deleteWrapper.eq(SetmealDish::getSetmealId, setmealId);
-        setmealDishMapper.delete(deleteWrapper);
+        // 3. 与原有套餐-菜品关联比对，仅增删改发生变化的行
+        syncSetmealDishes(setmealId, setmealDTO.getSetmealDishes());
 
-        // 4. 重新插入新的套餐-菜品关联
-        List<SetmealDish> setmealDishList = setmealDTO.getSetmealDishes();
-        if (setmealDishList != null && !setmealDishList.isEmpty()) {
-            for (SetmealDish setmealDish : setmealDishList) {
-                setmealDish.setSetmealId(setmealId);
-                setmealDishMapper.insert(setmealDish);
+        // 4. 清除新旧分类的套餐缓存及该套餐的套餐内菜品缓存
+        List<Long> categoryIds = new ArrayList<>();
+        categoryIds.add(setmealDTO.getCategoryId());
+        if (original != null) {
+            categoryIds.add(original.getCategoryId());
+        }
+        menuCacheEvictor.evictSetmealCategories(categoryIds);
+        menuCacheEvictor.evictSetmealDishItems(Collections.singletonList(setmealId));
+        itemCatalog.refreshSetmeals(Collections.singletonList(setmealId));
+    }
+
+    /**
+     * 按菜品ID比对套餐原有关联与目标关联：名称、价格、份数变化的行逐行更新，
+     * 目标中不存在的行批量删除，新增的行批量插入，未变化的行不做任何写操作
+     *
+     * @param setmealId     套餐ID
+     * @param setmealDishes 目标套餐菜品列表，为空表示清空
+     */
+    private void syncSetmealDishes(Long setmealId, List<SetmealDish> setmealDishes) {
+        // 原有关联按菜品ID分组，同一菜品出现多次时依次匹配
+        Map<Long, Deque<SetmealDish>> existing = new HashMap<>();
+        for (SetmealDish old : setmealDishMapper.listBySetmealId(setmealId)) {
+            existing.computeIfAbsent(old.getDishId(), dishId -> new ArrayDeque<>()).add(old);
+        }
+
+        List<SetmealDish> toInsert = new ArrayList<>();
+        if (setmealDishes != null) {
+            for (SetmealDish target : setmealDishes) {
+                target.setSetmealId(setmealId);
+                Deque<SetmealDish> candidates = existing.get(target.getDishId());
+                SetmealDish old = candidates == null ? null : candidates.poll();
+                if (old == null) {
+                    toInsert.add(target);
+                } else if (!Objects.equals(old.getName(), target.getName())
+                        || !samePrice(old.getPrice(), target.getPrice())
+                        || !Objects.equals(old.getCopies(), target.getCopies())) {
+                    target.setId(old.getId());
+                    setmealDishMapper.updateById(target);
+                }
             }
         }
+
+        List<Long> toDelete = existing.values().stream()
+                .flatMap(Deque::stream)
+                .map(SetmealDish::getId)
+                .collect(Collectors.toList());
+        if (!toDelete.isEmpty()) {
+            setmealDishMapper.deleteByIds(toDelete);
+        }
+        if (!toInsert.isEmpty()) {
+            setmealDishMapper.insertBatch(toInsert);
+        }
+        log.debug("套餐菜品已同步，setmealId={}，新增 {} 行，删除 {} 行", setmealId, toInsert.size(), toDelete.size());
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
     /**
@@ -248,13 +332,23 @@ public class SetmealServiceImpl implements SetmealService {
             throw new SetmealEnableFailedException(MessageConstant.SETMEAL_ENABLE_FAILED);
         }
 
-        // 2. 删除套餐表中的数据
+        // 2. 记录待删除套餐所属分类，用于清除缓存
+        List<Long> categoryIds = setmealMapper.selectByIds(ids).stream()
+                .map(Setmeal::getCategoryId)
+                .toList();
+
+        // 3. 删除套餐表中的数据
         setmealMapper.deleteByIds(ids);
 
-        // 3. 删除套餐菜品关系表中的数据
+        // 4. 删除套餐菜品关系表中的数据
         LambdaQueryWrapper<SetmealDish> deleteWrapper = new LambdaQueryWrapper<>();
         deleteWrapper.in(SetmealDish::getSetmealId, ids);
         setmealDishMapper.delete(deleteWrapper);
+
+        // 5. 清除所属分类的套餐缓存及被删除套餐的套餐内菜品缓存
+        menuCacheEvictor.evictSetmealCategories(categoryIds);
+        menuCacheEvictor.evictSetmealDishItems(ids);
+        itemCatalog.refreshSetmeals(ids);
     }
 
     @Override
@@ -269,4 +363,41 @@ public class SetmealServiceImpl implements SetmealService {
     public List<DishItemVO> getDishItemById(Long id) {
         return setmealMapper.getDishItemBySetmealId(id);
     }
+
+    /**
+     * 批量查询多个套餐包含的菜品
+     * <p>
+     * 一条 {@code IN} 查询取回全部套餐菜品关系，再用一条 {@code IN} 查询补齐菜品图片与描述，在内存中按套餐分组。
+     * </p>
+     */
+    @Override
+    public Map<Long, List<DishItemVO>> getDishItemsBySetmealIds(Collection<Long> setmealIds) {
+        if (setmealIds == null || setmealIds.isEmpty()) {
+            return Map.of();
+        }
+        List<SetmealDish> setmealDishes = setmealDishMapper.listBySetmealIds(setmealIds);
+        if (setmealDishes.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> dishIds = setmealDishes.stream().map(SetmealDish::getDishId).distinct().toList();
+        Map<Long, Dish> dishMap = dishMapper.selectList(Wrappers.lambdaQuery(Dish.class)
+                        .select(Dish::getId, Dish::getImage, Dish::getDescription)
+                        .in(Dish::getId, dishIds))
+                .stream()
+                .collect(Collectors.toMap(Dish::getId, dish -> dish));
+
+        Map<Long, List<DishItemVO>> dishItemMap = new HashMap<>();
+        for (SetmealDish setmealDish : setmealDishes) {
+            // 与单个套餐的查询一致：菜品已被删除时图片、描述为空
+            Dish dish = dishMap.get(setmealDish.getDishId());
+            dishItemMap.computeIfAbsent(setmealDish.getSetmealId(), id -> new ArrayList<>())
+                    .add(DishItemVO.builder()
+                            .name(setmealDish.getName())
+                            .copies(setmealDish.getCopies())
+                            .image(dish != null ? dish.getImage() : null)
+                            .description(dish != null ? dish.getDescription() : null)
+                            .build());
+        }
+        return dishItemMap;
+    }
 }
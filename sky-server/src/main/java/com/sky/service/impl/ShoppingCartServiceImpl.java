@@ -1,19 +1,16 @@
 package com.sky.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.cache.CatalogItem;
+import com.sky.cache.ItemCatalog;
+import com.sky.cart.CartStore;
+import com.sky.constant.MessageConstant;
 import com.sky.context.BaseContext;
 import com.sky.dto.ShoppingCartDTO;
-import com.sky.entity.Dish;
-import com.sky.entity.Setmeal;
 import com.sky.entity.ShoppingCart;
-import com.sky.mapper.DishMapper;
-import com.sky.mapper.SetmealMapper;
-import com.sky.mapper.ShoppingCartMapper;
+import com.sky.exception.ShoppingCartBusinessException;
 import com.sky.service.ShoppingCartService;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,118 +20,92 @@ import java.util.List;
 @Slf4j
 public class ShoppingCartServiceImpl implements ShoppingCartService {
 
+    /**
+     * 购物车存储（Redis 或 MySQL，由 sky.cart.store 决定）
+     */
     @Resource
-    private ShoppingCartMapper shoppingCartMapper;
+    private CartStore cartStore;
 
+    /**
+     * 商品目录，新增商品时读取名称、图片、单价与状态，不访问数据库
+     */
     @Resource
-    private DishMapper dishMapper;
-
-    @Resource
-    private SetmealMapper setmealMapper;
+    private ItemCatalog itemCatalog;
 
     @Override
     public void addShoppingCart(ShoppingCartDTO shoppingCartDTO) {
-        // 1. 获取当前登录用户的ID
-        Long userId = BaseContext.getCurrentId();
-
-        // 2. 从DTO中获取菜品ID和套餐ID
-        Long dishId = shoppingCartDTO.getDishId();
-        Long setmealId = shoppingCartDTO.getSetmealId();
-
-        // 3. 使用 LambdaQueryWrapper 查询购物车中是否已存在该商品
-        //    我们需要查询的条件是：用户ID匹配，并且（菜品ID匹配 或 套餐ID匹配）
-        ShoppingCart existingCart = shoppingCartMapper.selectOne(
-                Wrappers.lambdaQuery(ShoppingCart.class)
-                        .eq(ShoppingCart::getUserId, userId)
-                        .and(wrapper -> wrapper
-                                .eq(ShoppingCart::getDishId, dishId)
-                                .or()
-                                .eq(ShoppingCart::getSetmealId, setmealId)
-                        )
-        );
-
-        // 4. 判断商品是否已存在
-        if (existingCart != null) {
-            // 如果已存在，只需将数量加一
-            existingCart.setNumber(existingCart.getNumber() + 1);
-            // 使用 BaseMapper 的 updateById 方法更新记录
-            shoppingCartMapper.updateById(existingCart);
-
-        } else {
-            // 如果不存在，则需要插入一条新的购物车记录
-
-            // 创建一个新的 ShoppingCart 对象
-            ShoppingCart newCart = new ShoppingCart();
-            // 从 DTO 复制属性（如 dishId, setmealId, dishFlavor）
-            BeanUtils.copyProperties(shoppingCartDTO, newCart);
-
-            // 设置用户ID
-            newCart.setUserId(userId);
-
-            // 根据是菜品还是套餐，设置名称、图片和单价
-            if (dishId != null) {
-                // 添加的是菜品
-                Dish dish = dishMapper.selectById(dishId);
-                newCart.setName(dish.getName());
-                newCart.setImage(dish.getImage());
-                newCart.setAmount(dish.getPrice());
-            } else {
-                // 添加的是套餐
-                Setmeal setmeal = setmealMapper.selectById(setmealId);
-                newCart.setName(setmeal.getName());
-                newCart.setImage(setmeal.getImage());
-                newCart.setAmount(setmeal.getPrice());
-            }
+        // 1. 构造购物车行标识：当前用户 + 菜品ID/套餐ID + 口味
+        ShoppingCart item = lineOf(shoppingCartDTO);
 
-            // 设置初始数量和创建时间
-            newCart.setNumber(1);
-            newCart.setCreateTime(LocalDateTime.now());
+        // 2. 从商品目录查询商品（内存查询，不访问数据库），停售商品不允许加入购物车
+        CatalogItem catalogItem = resolveItem(item);
 
-            // 使用 BaseMapper 的 insert 方法插入新记录
-            shoppingCartMapper.insert(newCart);
+        // 3. 商品已在购物车中时份数加一即可
+        if (cartStore.increment(item)) {
+            return;
         }
+
+        // 4. 新商品：设置名称、图片和单价快照
+        item.setName(catalogItem.getName());
+        item.setImage(catalogItem.getImage());
+        item.setAmount(catalogItem.getPrice());
+        item.setCreateTime(LocalDateTime.now());
+        cartStore.add(item);
     }
 
     @Override
     public List<ShoppingCart> showShoppingCart() {
         //获取到当前微信用户的id
-        Long userId = BaseContext.getCurrentId();
-        QueryWrapper<ShoppingCart> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", userId);
-        return shoppingCartMapper.selectList(queryWrapper);
+        return cartStore.list(BaseContext.getCurrentId());
     }
 
     @Override
     public void cleanShoppingCart() {
         //获取到当前微信用户的id
-        Long userId = BaseContext.getCurrentId();
-        QueryWrapper<ShoppingCart> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", userId);
-        shoppingCartMapper.delete(queryWrapper);
+        cartStore.clear(BaseContext.getCurrentId());
     }
 
     @Override
     public void subShoppingCart(ShoppingCartDTO shoppingCartDTO) {
-        ShoppingCart shoppingCart = new ShoppingCart();
-        BeanUtils.copyProperties(shoppingCartDTO,shoppingCart);
-        //设置查询条件，查询当前登录用户的购物车数据
-        shoppingCart.setUserId(BaseContext.getCurrentId());
-        QueryWrapper<ShoppingCart> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", shoppingCart.getUserId());
-        List<ShoppingCart> list = shoppingCartMapper.selectList(queryWrapper);
-
-        if(list != null && !list.isEmpty()){
-            shoppingCart = list.get(0);
+        // 份数为1时删除该行，否则份数减一
+        cartStore.decrement(lineOf(shoppingCartDTO));
+    }
 
-            Integer number = shoppingCart.getNumber();
-            if(number == 1){
-                //当前商品在购物车中的份数为1，直接删除当前记录
-                shoppingCartMapper.deleteById(shoppingCart.getId());
-            }else {
-                //当前商品在购物车中的份数不为1，修改份数即可
-                shoppingCart.setNumber(shoppingCart.getNumber() - 1);
-                shoppingCartMapper.updateById(shoppingCart);
+    /**
+     * 从商品目录查询购物车行对应的菜品或套餐，并校验其存在且起售
+     *
+     * @throws ShoppingCartBusinessException 商品不存在或已停售时抛出
+     */
+    private CatalogItem resolveItem(ShoppingCart item) {
+        if (item.getDishId() != null) {
+            CatalogItem dish = itemCatalog.getDish(item.getDishId());
+            if (dish == null) {
+                throw new ShoppingCartBusinessException(MessageConstant.DISH_NOT_FOUND);
+            }
+            if (!dish.isEnabled()) {
+                throw new ShoppingCartBusinessException(MessageConstant.DISH_DISABLED);
             }
+            return dish;
         }
+        CatalogItem setmeal = itemCatalog.getSetmeal(item.getSetmealId());
+        if (setmeal == null) {
+            throw new ShoppingCartBusinessException(MessageConstant.SETMEAL_NOT_FOUND);
+        }
+        if (!setmeal.isEnabled()) {
+            throw new ShoppingCartBusinessException(MessageConstant.SETMEAL_DISABLED);
+        }
+        return setmeal;
+    }
+
+    /**
+     * 根据请求参数构造当前用户的购物车行标识
+     */
+    private static ShoppingCart lineOf(ShoppingCartDTO shoppingCartDTO) {
+        return ShoppingCart.builder()
+                .userId(BaseContext.getCurrentId())
+                .dishId(shoppingCartDTO.getDishId())
+                .setmealId(shoppingCartDTO.getSetmealId())
+                .dishFlavor(shoppingCartDTO.getDishFlavor())
+                .build();
     }
 }
@@ -1,22 +1,19 @@
 package com.sky.service.impl;
 
-import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONObject;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.sky.constant.MessageConstant;
 import com.sky.dto.UserLoginDTO;
 import com.sky.entity.User;
 import com.sky.exception.LoginFailedException;
 import com.sky.mapper.UserMapper;
-import com.sky.properties.WeChatProperties;
+import com.sky.report.ReportRollup;
 import com.sky.service.UserService;
-import com.sky.utils.HttpClientUtil;
+import com.sky.wechat.WeChatLoginClient;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 用户服务实现类
@@ -29,21 +26,22 @@ import java.util.Map;
 public class UserServiceImpl implements UserService {
 
     /**
-     * 微信服务接口地址
+     * 微信登录接口客户端，带并发上限、调用时限与熔断
      */
-    public static final String WX_LOGIN = "https://api.weixin.qq.com/sns/jscode2session";
+    @Resource
+    private WeChatLoginClient weChatLoginClient;
 
     /**
-     * 微信配置属性
+     * 用户映射器，用于数据库操作
      */
     @Resource
-    private WeChatProperties weChatProperties;
+    private UserMapper userMapper;
 
     /**
-     * 用户映射器，用于数据库操作
+     * 报表汇总增量维护，新用户注册时累加当天新增用户数
      */
     @Resource
-    private UserMapper userMapper;
+    private ReportRollup reportRollup;
 
     /**
      * 微信登录
@@ -51,18 +49,27 @@ public class UserServiceImpl implements UserService {
      *
      * @param userLoginDTO 微信登录参数（包含授权码 code）
      * @return 登录成功后的用户实体
-     * @throws LoginFailedException 当 openid 获取失败时抛出
+     * @throws LoginFailedException 授权码为空时抛出；openid 获取失败、登录繁忙或微信不可用时异步抛出
      */
     @Override
-    public User wxLogin(UserLoginDTO userLoginDTO) {
+    public CompletableFuture<User> wxLogin(UserLoginDTO userLoginDTO) {
         // 参数校验
         if (userLoginDTO == null || userLoginDTO.getCode() == null || userLoginDTO.getCode().trim().isEmpty()) {
             throw new LoginFailedException(MessageConstant.LOGIN_FAILED);
         }
 
-        // 调用微信接口获取 openid
-        String openid = getOpenid(userLoginDTO.getCode());
+        // 调用微信接口获取 openid，微信响应后再查询或注册用户
+        return weChatLoginClient.getOpenid(userLoginDTO.getCode()).thenApply(this::loginByOpenid);
+    }
 
+    /**
+     * 按 openid 查询用户，若为新用户则自动注册
+     *
+     * @param openid 微信用户的 openid
+     * @return 用户实体
+     * @throws LoginFailedException 当 openid 为空时抛出
+     */
+    private User loginByOpenid(String openid) {
         // 判断 openid 是否为空，如果为空表示登录失败，抛出业务异常
         if (openid == null || openid.trim().isEmpty()) {
             throw new LoginFailedException(MessageConstant.LOGIN_FAILED);
@@ -78,41 +85,11 @@ public class UserServiceImpl implements UserService {
                     .createTime(LocalDateTime.now())
                     .build();
             userMapper.insert(user);
+            // 不开启事务：获取 openid 的微信接口调用不应占用数据库连接，累加失败时由报表回填修正
+            reportRollup.userRegistered(user.getCreateTime());
         }
 
         // 返回这个用户对象
         return user;
     }
-
-    /**
-     * 调用微信接口服务，获取微信用户的 openid
-     *
-     * @param code 微信小程序登录授权码
-     * @return 微信用户的 openid，若获取失败则返回 null
-     */
-    private String getOpenid(String code) {
-        try {
-            // 组装请求参数
-            Map<String, String> map = new HashMap<>(4);
-            map.put("appid", weChatProperties.getAppid());
-            map.put("secret", weChatProperties.getSecret());
-            map.put("js_code", code);
-            map.put("grant_type", "authorization_code");
-
-            // 发起 GET 请求
-            String json = HttpClientUtil.doGet(WX_LOGIN, map);
-
-            // 解析响应结果
-            JSONObject jsonObject = JSON.parseObject(json);
-            if (jsonObject == null) {
-                return null;
-            }
-
-            // 返回 openid
-            return jsonObject.getString("openid");
-        } catch (Exception e) {
-            // 记录日志（可接入日志框架）并返回 null，表示获取失败
-            return null;
-        }
-    }
 }
@@ -0,0 +1,25 @@
+package com.sky.task;
+
+/**
+ * 延时任务处理器
+ * 每个处理器负责一个主题，由 {@link DelayedTaskWorker} 在任务到期后调用；任务可能被重复投递，处理须幂等
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+public interface DelayedTaskHandler {
+
+    /**
+     * 处理的主题
+     *
+     * @return 主题名称
+     */
+    String topic();
+
+    /**
+     * 处理一个到期任务，抛出异常时任务在可见超时后重新投递
+     *
+     * @param payload 任务内容
+     */
+    void handle(String payload);
+}
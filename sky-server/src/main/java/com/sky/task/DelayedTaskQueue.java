@@ -0,0 +1,156 @@
+package com.sky.task;
+
+import com.sky.constant.DelayedTaskConstant;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 基于 Redis 有序集合的延时队列
+ * <p>
+ * 每个主题两个有序集合：待执行集合以到期时间为分值，已领取集合以可见超时为分值。
+ * 投递、取消、确认均为单次 ZADD / ZREM，领取在 Lua 脚本中原子完成（先把超时未确认的任务放回待执行集合，
+ * 再把到期任务移入已领取集合），复杂度为 O(log n + 领取数)，与订单表大小无关；多个节点同时领取不会重复。
+ * </p>
+ * <p>
+ * 任务至少执行一次：执行成功后确认，节点宕机或执行失败的任务在可见超时后重新投递，处理器须保证幂等。
+ * 每个任务的领取次数记录在哈希中，确认或取消时清除；领取次数超过上限的任务（如内容无法解析、每次执行都失败）
+ * 转入死信集合，不再重试，以免无限循环占用领取名额。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class DelayedTaskQueue {
+
+    /**
+     * 领取到期任务
+     * KEYS[1] 待执行集合；KEYS[2] 已领取集合；KEYS[3] 领取次数哈希；KEYS[4] 死信集合；
+     * ARGV[1] 当前时间；ARGV[2] 最多领取数；ARGV[3] 可见超时时间；ARGV[4] 最多领取次数。
+     * 返回值首个元素为领取数 n，其后 n 个为领取的任务，其余为本次转入死信的任务
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+            "for _, m in ipairs(expired) do " +
+            "  redis.call('ZREM', KEYS[2], m) " +
+            "  redis.call('ZADD', KEYS[1], ARGV[1], m) " +
+            "end " +
+            "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) " +
+            "local claimed = {} " +
+            "local dead = {} " +
+            "for _, m in ipairs(due) do " +
+            "  redis.call('ZREM', KEYS[1], m) " +
+            "  if redis.call('HINCRBY', KEYS[3], m, 1) > tonumber(ARGV[4]) then " +
+            "    redis.call('HDEL', KEYS[3], m) " +
+            "    redis.call('ZADD', KEYS[4], ARGV[1], m) " +
+            "    dead[#dead + 1] = m " +
+            "  else " +
+            "    redis.call('ZADD', KEYS[2], ARGV[3], m) " +
+            "    claimed[#claimed + 1] = m " +
+            "  end " +
+            "end " +
+            "local result = {tostring(#claimed)} " +
+            "for _, m in ipairs(claimed) do result[#result + 1] = m end " +
+            "for _, m in ipairs(dead) do result[#result + 1] = m end " +
+            "return result", List.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 投递任务；同一主题下相同内容的任务只保留一个，重复投递时以最后一次的到期时间为准
+     *
+     * @param topic          主题
+     * @param payload        任务内容
+     * @param deadlineMillis 到期时间（毫秒时间戳）
+     */
+    public void schedule(String topic, String payload, long deadlineMillis) {
+        stringRedisTemplate.opsForZSet().add(readyKey(topic), payload, deadlineMillis);
+    }
+
+    /**
+     * 取消任务（未领取或已领取未确认的均可取消）
+     *
+     * @param topic   主题
+     * @param payload 任务内容
+     */
+    public void cancel(String topic, String payload) {
+        stringRedisTemplate.opsForZSet().remove(readyKey(topic), payload);
+        stringRedisTemplate.opsForZSet().remove(processingKey(topic), payload);
+        stringRedisTemplate.opsForHash().delete(attemptsKey(topic), payload);
+    }
+
+    /**
+     * 领取到期任务；领取次数超过上限的任务转入死信集合，不再返回
+     *
+     * @param topic             主题
+     * @param limit             最多领取数
+     * @param visibilityMillis  可见超时毫秒数，超时未确认的任务重新投递
+     * @param maxAttempts       同一任务最多领取次数
+     * @return 任务内容列表，无到期任务时为空列表
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claim(String topic, int limit, long visibilityMillis, int maxAttempts) {
+        long now = System.currentTimeMillis();
+        List<String> result = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                List.of(readyKey(topic), processingKey(topic), attemptsKey(topic), deadKey(topic)),
+                String.valueOf(now), String.valueOf(limit), String.valueOf(now + visibilityMillis),
+                String.valueOf(maxAttempts));
+        if (result == null || result.isEmpty()) {
+            return List.of();
+        }
+        int claimed = Integer.parseInt(result.get(0));
+        if (result.size() > claimed + 1) {
+            log.error("延时任务领取次数超过 {} 次，已转入死信集合 {}，payloads={}", maxAttempts, deadKey(topic),
+                    result.subList(claimed + 1, result.size()));
+        }
+        return result.subList(1, claimed + 1);
+    }
+
+    /**
+     * 确认任务已执行完成
+     *
+     * @param topic   主题
+     * @param payload 任务内容
+     */
+    public void ack(String topic, String payload) {
+        stringRedisTemplate.opsForZSet().remove(processingKey(topic), payload);
+        stringRedisTemplate.opsForHash().delete(attemptsKey(topic), payload);
+    }
+
+    /**
+     * 查询主题下待执行与已领取的任务数
+     *
+     * @param topic 主题
+     * @return 任务数
+     */
+    public long size(String topic) {
+        Long ready = stringRedisTemplate.opsForZSet().zCard(readyKey(topic));
+        Long processing = stringRedisTemplate.opsForZSet().zCard(processingKey(topic));
+        return (ready == null ? 0 : ready) + (processing == null ? 0 : processing);
+    }
+
+    private static String readyKey(String topic) {
+        return DelayedTaskConstant.QUEUE_KEY_PREFIX + topic;
+    }
+
+    private static String processingKey(String topic) {
+        return DelayedTaskConstant.QUEUE_KEY_PREFIX + topic + DelayedTaskConstant.PROCESSING_SUFFIX;
+    }
+
+    private static String attemptsKey(String topic) {
+        return DelayedTaskConstant.QUEUE_KEY_PREFIX + topic + DelayedTaskConstant.ATTEMPTS_SUFFIX;
+    }
+
+    private static String deadKey(String topic) {
+        return DelayedTaskConstant.QUEUE_KEY_PREFIX + topic + DelayedTaskConstant.DEAD_SUFFIX;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sky.task;
+
+import com.sky.properties.SkyOrderProperties;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 延时任务执行器
+ * 定时为每个处理器领取到期任务（不超过线程池剩余容量），交给有界线程池并发执行，执行成功后确认；
+ * 反复失败的任务达到 sky.order.delay-queue.max-attempts 次后由队列转入死信集合
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class DelayedTaskWorker {
+
+    @Resource
+    private DelayedTaskQueue delayedTaskQueue;
+
+    @Resource
+    private List<DelayedTaskHandler> handlers;
+
+    @Resource
+    private ThreadPoolTaskExecutor delayedTaskExecutor;
+
+    @Resource
+    private SkyOrderProperties skyOrderProperties;
+
+    /**
+     * 轮询并执行到期任务
+     */
+    @Scheduled(fixedDelayString = "${sky.order.delay-queue.poll-interval:1s}")
+    public void poll() {
+        SkyOrderProperties.DelayQueue config = skyOrderProperties.getDelayQueue();
+        for (DelayedTaskHandler handler : handlers) {
+            int capacity = Math.min(config.getBatchSize(),
+                    delayedTaskExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+            if (capacity <= 0) {
+                return;
+            }
+            List<String> payloads;
+            try {
+                payloads = delayedTaskQueue.claim(handler.topic(), capacity, config.getVisibilityTimeout().toMillis(),
+                        config.getMaxAttempts());
+            } catch (Exception e) {
+                log.warn("领取延时任务失败，topic={}", handler.topic(), e);
+                continue;
+            }
+            for (String payload : payloads) {
+                try {
+                    delayedTaskExecutor.execute(() -> run(handler, payload));
+                } catch (RejectedExecutionException e) {
+                    // 未确认的任务在可见超时后重新投递
+                    log.warn("延时任务线程池已满，任务稍后重试，topic={}, payload={}", handler.topic(), payload);
+                }
+            }
+        }
+    }
+
+    private void run(DelayedTaskHandler handler, String payload) {
+        try {
+            handler.handle(payload);
+            delayedTaskQueue.ack(handler.topic(), payload);
+        } catch (Exception e) {
+            log.error("延时任务执行失败，将在可见超时后重试（超过最多领取次数时转入死信），topic={}, payload={}", handler.topic(), payload, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sky.task;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.constant.DelayedTaskConstant;
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderMapper;
+import com.sky.order.OrderStatusCounter;
+import com.sky.report.ReportRollup;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 派送中订单送达超时处理器
+ * 以“状态仍为派送中”为条件更新为已完成，订单已完成或已取消时不做任何修改，重复执行结果不变；
+ * 更新成功时在同一事务内累加报表汇总的有效订单数、营业额与商品销量
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class OrderDeliveryTimeoutHandler implements DelayedTaskHandler {
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OrderStatusCounter orderStatusCounter;
+
+    @Resource
+    private ReportRollup reportRollup;
+
+    @Override
+    public String topic() {
+        return DelayedTaskConstant.ORDER_DELIVERY_TIMEOUT;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void handle(String payload) {
+        Long orderId = Long.valueOf(payload);
+        // 以 set 指定更新列：Orders 含 int 类型字段，按实体更新会把它们一并写为 0
+        int updated = orderMapper.update(null, Wrappers.<Orders>lambdaUpdate()
+                .set(Orders::getStatus, Orders.COMPLETED)
+                .set(Orders::getDeliveryTime, LocalDateTime.now())
+                .eq(Orders::getId, orderId)
+                .eq(Orders::getStatus, Orders.DELIVERY_IN_PROGRESS));
+        if (updated > 0) {
+            reportRollup.orderCompleted(orderMapper.selectOne(Wrappers.<Orders>lambdaQuery()
+                    .select(Orders::getId, Orders::getOrderTime, Orders::getAmount)
+                    .eq(Orders::getId, orderId)));
+            orderStatusCounter.transition(Orders.DELIVERY_IN_PROGRESS, Orders.COMPLETED);
+            log.info("订单派送超时，已自动完成，订单ID：{}", orderId);
+        }
+    }
+}
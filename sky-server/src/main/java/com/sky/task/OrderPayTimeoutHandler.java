@@ -0,0 +1,48 @@
+package com.sky.task;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.constant.DelayedTaskConstant;
+import com.sky.constant.MessageConstant;
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderMapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待付款订单支付超时处理器
+ * 以“状态仍为待付款且未支付”为条件更新为已取消，订单已支付或已取消时不做任何修改，重复执行结果不变
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class OrderPayTimeoutHandler implements DelayedTaskHandler {
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Override
+    public String topic() {
+        return DelayedTaskConstant.ORDER_PAY_TIMEOUT;
+    }
+
+    @Override
+    public void handle(String payload) {
+        Long orderId = Long.valueOf(payload);
+        // 以 set 指定更新列：Orders 含 int 类型字段，按实体更新会把它们一并写为 0
+        int updated = orderMapper.update(null, Wrappers.<Orders>lambdaUpdate()
+                .set(Orders::getStatus, Orders.CANCELLED)
+                .set(Orders::getCancelReason, MessageConstant.ORDER_PAY_TIMEOUT)
+                .set(Orders::getCancelTime, LocalDateTime.now())
+                .eq(Orders::getId, orderId)
+                .eq(Orders::getStatus, Orders.PENDING_PAYMENT)
+                .eq(Orders::getPayStatus, Orders.UN_PAID));
+        if (updated > 0) {
+            log.info("订单支付超时，已自动取消，订单ID：{}", orderId);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sky.task;
+
+import com.sky.constant.DelayedTaskConstant;
+import com.sky.properties.SkyOrderProperties;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 订单超时任务调度器
+ * 订单进入待付款、派送中状态时投递对应的超时任务；有事务时延迟到提交之后投递，避免事务回滚后留下无效任务
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+public class OrderTimeoutScheduler {
+
+    @Resource
+    private DelayedTaskQueue delayedTaskQueue;
+
+    @Resource
+    private SkyOrderProperties skyOrderProperties;
+
+    /**
+     * 投递待付款订单的支付超时任务
+     *
+     * @param orderId   订单ID
+     * @param orderTime 下单时间
+     */
+    public void schedulePayTimeout(Long orderId, LocalDateTime orderTime) {
+        long deadline = orderTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                + skyOrderProperties.getPayTimeout().toMillis();
+        afterCommit(() -> delayedTaskQueue.schedule(DelayedTaskConstant.ORDER_PAY_TIMEOUT, String.valueOf(orderId), deadline));
+    }
+
+    /**
+     * 订单支付成功后取消支付超时任务
+     *
+     * @param orderId 订单ID
+     */
+    public void cancelPayTimeout(Long orderId) {
+        afterCommit(() -> delayedTaskQueue.cancel(DelayedTaskConstant.ORDER_PAY_TIMEOUT, String.valueOf(orderId)));
+    }
+
+    /**
+     * 投递派送中订单的送达超时任务，从当前时间开始计时
+     *
+     * @param orderId 订单ID
+     */
+    public void scheduleDeliveryTimeout(Long orderId) {
+        long deadline = System.currentTimeMillis() + skyOrderProperties.getDeliveryTimeout().toMillis();
+        afterCommit(() -> delayedTaskQueue.schedule(DelayedTaskConstant.ORDER_DELIVERY_TIMEOUT, String.valueOf(orderId), deadline));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sky.wechat;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.sky.constant.MessageConstant;
+import com.sky.exception.LoginFailedException;
+import com.sky.properties.SkyWeChatLoginProperties;
+import com.sky.properties.WeChatProperties;
+import com.sky.utils.CircuitBreaker;
+import com.sky.utils.HttpClientPool;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.util.EntityUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 微信登录接口客户端
+ * <p>
+ * 调用微信 jscode2session 接口，用登录授权码换取用户 openid。调用在独立线程池中执行并返回 {@link CompletableFuture}，
+ * 请求线程无需等待微信响应；线程池大小与队列长度限制同时等待微信的请求数，超出时直接返回登录繁忙。
+ * </p>
+ * <p>
+ * 每次调用有总时限，超时后中止 HTTP 请求、释放线程与连接；超时、网络异常和 5xx 响应计为失败，
+ * 失败率过高时熔断打开，之后的登录不再调用微信而直接失败，直到试探调用成功。
+ * 微信返回的业务错误（如授权码无效）说明服务可用，不计为失败。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Component
+@Slf4j
+public class WeChatLoginClient {
+
+    @Resource
+    private WeChatProperties weChatProperties;
+
+    @Resource
+    private SkyWeChatLoginProperties skyWeChatLoginProperties;
+
+    @Resource
+    private HttpClientPool httpClientPool;
+
+    @Resource
+    private ThreadPoolTaskExecutor wechatLoginExecutor;
+
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    public void init() {
+        SkyWeChatLoginProperties.CircuitBreaker config = skyWeChatLoginProperties.getCircuitBreaker();
+        circuitBreaker = new CircuitBreaker(config.getWindowSize(), config.getMinimumCalls(),
+                config.getFailureRateThreshold(), config.getOpenDuration().toMillis());
+    }
+
+    /**
+     * 用登录授权码换取 openid
+     *
+     * @param code 微信小程序登录授权码
+     * @return openid；授权码无效等微信业务错误时为 {@code null}；
+     * 登录繁忙、超时或微信不可用时以 {@link LoginFailedException} 异常结束
+     */
+    public CompletableFuture<String> getOpenid(String code) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new LoginFailedException(MessageConstant.LOGIN_SERVICE_UNAVAILABLE));
+        }
+
+        long deadlineMillis = skyWeChatLoginProperties.getDeadline().toMillis();
+        HttpGet httpGet;
+        try {
+            httpGet = new HttpGet(new URIBuilder(skyWeChatLoginProperties.getUrl())
+                    .addParameter("appid", weChatProperties.getAppid())
+                    .addParameter("secret", weChatProperties.getSecret())
+                    .addParameter("js_code", code)
+                    .addParameter("grant_type", "authorization_code")
+                    .build());
+        } catch (URISyntaxException e) {
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new IllegalStateException("微信登录接口地址无效", e));
+        }
+        RequestConfig defaults = httpClientPool.getRequestConfig();
+        httpGet.setConfig(RequestConfig.copy(defaults)
+                .setConnectionRequestTimeout((int) Math.min(defaults.getConnectionRequestTimeout(), deadlineMillis))
+                .setConnectTimeout((int) Math.min(defaults.getConnectTimeout(), deadlineMillis))
+                .setSocketTimeout((int) Math.min(defaults.getSocketTimeout(), deadlineMillis))
+                .build());
+
+        CompletableFuture<String> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> execute(httpGet), wechatLoginExecutor);
+        } catch (TaskRejectedException e) {
+            circuitBreaker.release();
+            log.warn("微信登录调用排队已满，拒绝本次登录");
+            return CompletableFuture.failedFuture(new LoginFailedException(MessageConstant.LOGIN_BUSY));
+        }
+
+        return call.orTimeout(deadlineMillis, TimeUnit.MILLISECONDS)
+                .handle((openid, e) -> {
+                    if (e == null) {
+                        circuitBreaker.onSuccess();
+                        return openid;
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        // 中止仍在排队或等待响应的请求，释放线程与连接
+                        httpGet.abort();
+                        log.warn("微信登录接口调用超过 {} 毫秒", deadlineMillis);
+                    } else {
+                        log.warn("微信登录接口调用失败：{}", cause.toString());
+                    }
+                    if (circuitBreaker.onFailure()) {
+                        log.warn("微信登录接口熔断已打开，{} 内直接拒绝登录",
+                                skyWeChatLoginProperties.getCircuitBreaker().getOpenDuration());
+                    }
+                    throw new LoginFailedException(MessageConstant.LOGIN_SERVICE_UNAVAILABLE);
+                });
+    }
+
+    /**
+     * 当前熔断器状态
+     *
+     * @return 熔断器状态
+     */
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private String execute(HttpGet httpGet) {
+        if (httpGet.isAborted()) {
+            // 排队期间已超时，不再发起请求
+            throw new CompletionException(new TimeoutException());
+        }
+        try (CloseableHttpResponse response = httpClientPool.getHttpClient().execute(httpGet)) {
+            int status = response.getStatusLine().getStatusCode();
+            String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+            if (status >= 500) {
+                throw new CompletionException(new IOException("微信登录接口响应状态 " + status));
+            }
+            JSONObject jsonObject = status == 200 ? JSON.parseObject(body) : null;
+            String openid = jsonObject == null ? null : jsonObject.getString("openid");
+            if (openid == null && jsonObject != null) {
+                log.info("微信登录接口返回错误，errcode={}，errmsg={}",
+                        jsonObject.getInteger("errcode"), jsonObject.getString("errmsg"));
+            }
+            return openid;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sky.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sky.constant.CacheConstant;
+import com.sky.constant.StatusConstant;
+import com.sky.entity.Dish;
+import com.sky.entity.Setmeal;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.SetmealMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 商品目录测试
+ * 查询只读内存，整体重新加载期间按ID完成的更新与删除不会被更早开始查询的整表结果覆盖或恢复
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class ItemCatalogTest {
+
+    private DishMapper dishMapper;
+
+    private SetmealMapper setmealMapper;
+
+    private ItemCatalog itemCatalog;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 未启动 Spring 时注册实体元数据，供 Lambda 条件解析列名
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Dish.class);
+        TableInfoHelper.initTableInfo(assistant, Setmeal.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        dishMapper = mock(DishMapper.class);
+        setmealMapper = mock(SetmealMapper.class);
+        itemCatalog = new ItemCatalog();
+        ReflectionTestUtils.setField(itemCatalog, "dishMapper", dishMapper);
+        ReflectionTestUtils.setField(itemCatalog, "setmealMapper", setmealMapper);
+        ReflectionTestUtils.setField(itemCatalog, "cacheInvalidationPublisher", mock(CacheInvalidationPublisher.class));
+        when(setmealMapper.selectList(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void lookupsAfterPreloadNeverQueryDatabase() {
+        when(dishMapper.selectList(any())).thenReturn(List.of(dish(1L, "10")));
+        itemCatalog.preload();
+        clearInvocations(dishMapper);
+
+        assertThat(itemCatalog.getDish(1L).getPrice()).isEqualByComparingTo("10");
+        // 目录完整，不存在的ID不回查数据库
+        assertThat(itemCatalog.getDish(2L)).isNull();
+        verify(dishMapper, never()).selectList(any());
+        verify(dishMapper, never()).selectById(any());
+    }
+
+    @Test
+    void lookupBeforeFirstLoadQueriesOnlyThatId() {
+        when(dishMapper.selectById(1L)).thenReturn(dish(1L, "10"));
+
+        assertThat(itemCatalog.getDish(1L).getPrice()).isEqualByComparingTo("10");
+        verify(dishMapper, never()).selectList(any());
+    }
+
+    @Test
+    void olderFullSnapshotDoesNotOverwriteNewerUpdate() {
+        when(dishMapper.selectList(any())).thenReturn(List.of(dish(1L, "10")));
+        itemCatalog.preload();
+
+        // 整表查询已读到旧价格，返回前另一节点改价的广播先完成按ID加载
+        when(dishMapper.selectById(1L)).thenReturn(dish(1L, "12"));
+        when(dishMapper.selectList(any())).thenAnswer(invocation -> {
+            itemCatalog.onCacheInvalidated(new CacheInvalidationMessage(CacheConstant.ITEM_CATALOG,
+                    CacheConstant.CATALOG_DISH_KEY_PREFIX + 1));
+            return List.of(dish(1L, "10"));
+        });
+        itemCatalog.scheduledReload();
+
+        assertThat(itemCatalog.getDish(1L).getPrice()).isEqualByComparingTo("12");
+    }
+
+    @Test
+    void olderFullSnapshotDoesNotResurrectDeletedOrDropAddedItem() {
+        when(dishMapper.selectList(any())).thenReturn(List.of(dish(1L, "10")));
+        itemCatalog.preload();
+
+        // 整表查询期间菜品 1 被删除、菜品 2 被新增
+        when(dishMapper.selectById(1L)).thenReturn(null);
+        when(dishMapper.selectById(2L)).thenReturn(dish(2L, "8"));
+        when(dishMapper.selectList(any())).thenAnswer(invocation -> {
+            itemCatalog.refreshDishes(List.of(1L, 2L));
+            return List.of(dish(1L, "10"));
+        });
+        itemCatalog.scheduledReload();
+
+        assertThat(itemCatalog.getDish(1L)).isNull();
+        assertThat(itemCatalog.getDish(2L).getPrice()).isEqualByComparingTo("8");
+    }
+
+    @Test
+    void newerFullSnapshotReplacesEntries() {
+        when(dishMapper.selectList(any())).thenReturn(List.of(dish(1L, "10"), dish(2L, "8")));
+        itemCatalog.preload();
+
+        when(dishMapper.selectList(any())).thenReturn(List.of(dish(1L, "11")));
+        itemCatalog.scheduledReload();
+
+        assertThat(itemCatalog.getDish(1L).getPrice()).isEqualByComparingTo("11");
+        assertThat(itemCatalog.getDish(2L)).isNull();
+    }
+
+    private static Dish dish(Long id, String price) {
+        return Dish.builder().id(id).name("菜品" + id).price(new BigDecimal(price)).status(StatusConstant.ENABLE).build();
+    }
+}
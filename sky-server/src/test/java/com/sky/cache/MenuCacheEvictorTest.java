@@ -0,0 +1,139 @@
+package com.sky.cache;
+
+import com.sky.constant.CacheConstant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 菜单缓存精确清除器测试
+ * 同一事务内的多次清除在提交后只自增一次菜单版本号，版本号随本节点事件与失效广播下发，本节点事件由缓存清除时发布且只发布一次；回滚时不清除也不自增
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class MenuCacheEvictorTest {
+
+    private TwoLevelCache dishCache;
+
+    private TwoLevelCache setmealCache;
+
+    private CacheManager cacheManager;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValueOperations<String, String> valueOperations;
+
+    private MenuCacheEvictor evictor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        dishCache = mock(TwoLevelCache.class);
+        setmealCache = mock(TwoLevelCache.class);
+        cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(CacheConstant.DISH_CACHE)).thenReturn(dishCache);
+        when(cacheManager.getCache(CacheConstant.SETMEAL_CACHE)).thenReturn(setmealCache);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(CacheConstant.MENU_SNAPSHOT_VERSION_KEY)).thenReturn(7L);
+
+        evictor = new MenuCacheEvictor();
+        ReflectionTestUtils.setField(evictor, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(evictor, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(evictor, "stringRedisTemplate", stringRedisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(evictor);
+    }
+
+    @Test
+    void oneVersionPerCommittedTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        evictor.evictDishCategories(List.of(1L, 2L));
+        evictor.evictSetmealCategories(List.of(3L));
+        evictor.evictSetmealDishItems(List.of(4L));
+        verify(dishCache, never()).evict(any(), any());
+        verify(valueOperations, never()).increment(any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(valueOperations, times(1)).increment(CacheConstant.MENU_SNAPSHOT_VERSION_KEY);
+        verify(dishCache).evict("1", 7L);
+        verify(dishCache).evict("2", 7L);
+        verify(setmealCache).evict("3", 7L);
+        verify(setmealCache).evict(CacheConstant.SETMEAL_DISH_ITEMS_KEY_PREFIX + 4, 7L);
+        // 两级缓存清除时自行发布本节点事件，清除器不重复发布
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(TransactionSynchronizationManager.hasResource(evictor)).isFalse();
+    }
+
+    @Test
+    void rollbackNeitherEvictsNorBumpsVersion() {
+        TransactionSynchronizationManager.initSynchronization();
+        evictor.evictDishCategories(List.of(1L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(valueOperations, never()).increment(any());
+        verify(dishCache, never()).evict(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(TransactionSynchronizationManager.hasResource(evictor)).isFalse();
+    }
+
+    @Test
+    void withoutTransactionEvictsImmediately() {
+        evictor.evictDishCategories(List.of(1L));
+
+        verify(valueOperations).increment(CacheConstant.MENU_SNAPSHOT_VERSION_KEY);
+        verify(dishCache).evict("1", 7L);
+    }
+
+    @Test
+    void plainCacheEvictionNotifiesLocalListeners() {
+        Cache categoryCache = mock(Cache.class);
+        when(cacheManager.getCache(CacheConstant.CATEGORY_CACHE)).thenReturn(categoryCache);
+
+        evictor.evictCategoryTypes(List.of(1));
+
+        verify(categoryCache).evict(CacheConstant.CATEGORY_TYPE_KEY_PREFIX + 1);
+        ArgumentCaptor<CacheInvalidationMessage> events = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(CacheInvalidationMessage::getVersion).containsOnly(7L);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
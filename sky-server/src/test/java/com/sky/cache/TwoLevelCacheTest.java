@@ -0,0 +1,326 @@
+package com.sky.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sky.properties.SkyCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 两级缓存测试
+ * 同一键的并发未命中只回源一次，加载结果与异常传递给全部等待者；加载期间该键被清除或整个缓存被清空时不写入旧值，
+ * 其他键的清除不影响；清除与清空直接发布本节点失效事件；陈旧条目直接返回并异步刷新，刷新线程池已满时继续返回旧值；XFetch 按剩余新鲜时间决定是否提前刷新
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class TwoLevelCacheTest {
+
+    private static final int CONCURRENT_MISSES = 32;
+
+    private RedisCache remoteCache;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = mock(RedisCache.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        cache = new TwoLevelCache("dish",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                remoteCache,
+                mock(CacheInvalidationPublisher.class),
+                eventPublisher,
+                null,
+                Runnable::run,
+                new SkyCacheProperties());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loaderCalls = new AtomicInteger();
+        List<Object> results = runConcurrently(() -> cache.get("1", () -> {
+            loaderCalls.incrementAndGet();
+            // 模拟慢查询，保证其余线程在加载期间到达
+            Thread.sleep(200);
+            return "宫保鸡丁";
+        }));
+
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(results).hasSize(CONCURRENT_MISSES).containsOnly("宫保鸡丁");
+        verify(remoteCache, times(1)).put(eq("1"), any());
+        assertThat(cache.stats().getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderFailureReachesAllWaitersAndLoadsOnce() throws Exception {
+        AtomicInteger loaderCalls = new AtomicInteger();
+        List<Object> results = runConcurrently(() -> {
+            try {
+                return cache.get("2", () -> {
+                    loaderCalls.incrementAndGet();
+                    Thread.sleep(200);
+                    throw new IllegalStateException("数据库不可用");
+                });
+            } catch (RuntimeException e) {
+                return e;
+            }
+        });
+
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(results).hasSize(CONCURRENT_MISSES).allMatch(RuntimeException.class::isInstance);
+        verify(remoteCache, times(0)).put(any(), any());
+    }
+
+    @Test
+    void loadOverlappingEvictIsNotCached() {
+        Object result = cache.get("3", () -> {
+            // 加载读到旧数据之后，管理端修改提交并清除缓存
+            cache.evict("3");
+            return "旧菜单";
+        });
+
+        assertThat(result).isEqualTo("旧菜单");
+        verify(remoteCache, times(0)).put(any(), any());
+
+        Object reloaded = cache.get("3", () -> "新菜单");
+        assertThat(reloaded).isEqualTo("新菜单");
+        verify(remoteCache, times(1)).put(eq("3"), any());
+    }
+
+    @Test
+    void evictOfAnotherKeyDoesNotDiscardLoad() {
+        cache.get("5", () -> {
+            cache.evict("6");
+            cache.evictLocal("7");
+            return "宫保鸡丁";
+        });
+
+        verify(remoteCache, times(1)).put(eq("5"), any());
+    }
+
+    @Test
+    void loadOverlappingClearIsNotCached() {
+        cache.get("8", () -> {
+            cache.clear();
+            return "旧菜单";
+        });
+
+        verify(remoteCache, times(0)).put(any(), any());
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() {
+        MutableClock clock = new MutableClock();
+        List<Runnable> refreshTasks = new ArrayList<>();
+        TwoLevelCache staleCache = cacheWith(spec(Duration.ofMinutes(1), Duration.ofMinutes(1), 0.0),
+                refreshTasks::add, clock);
+        AtomicInteger version = new AtomicInteger();
+        Callable<Object> loader = () -> "菜单 v" + version.incrementAndGet();
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+
+        // 新鲜期内直接命中
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+        assertThat(refreshTasks).isEmpty();
+
+        // 陈旧期内返回旧值，只提交一次异步刷新
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+        assertThat(refreshTasks).hasSize(1);
+        assertThat(version.get()).isEqualTo(1);
+        assertThat(staleCache.stats().getStaleHits()).isEqualTo(2);
+
+        refreshTasks.get(0).run();
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v2");
+
+        // 超过陈旧期后同步回源
+        clock.advance(Duration.ofMinutes(3));
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v3");
+    }
+
+    @Test
+    void rejectedRefreshKeepsServingStaleValue() {
+        MutableClock clock = new MutableClock();
+        AtomicInteger submitted = new AtomicInteger();
+        TwoLevelCache staleCache = cacheWith(spec(Duration.ofMinutes(1), Duration.ofMinutes(1), 0.0), task -> {
+            submitted.incrementAndGet();
+            throw new RejectedExecutionException("刷新线程池已满");
+        }, clock);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        Callable<Object> loader = () -> "菜单 v" + loaderCalls.incrementAndGet();
+        staleCache.get("1", loader);
+
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+        // 被拒绝的刷新不残留进行中的标记，下次读取再次尝试
+        assertThat(staleCache.get("1", loader)).isEqualTo("菜单 v1");
+
+        assertThat(submitted.get()).isEqualTo(2);
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(staleCache.stats().getRefreshes()).isZero();
+    }
+
+    @Test
+    void xfetchRefreshesEarlyOnlyNearExpiry() {
+        MutableClock clock = new MutableClock();
+        List<Runnable> refreshTasks = new ArrayList<>();
+        TwoLevelCache xfetchCache = cacheWith(spec(Duration.ofMinutes(1), Duration.ZERO, 1.0),
+                refreshTasks::add, clock);
+        // 加载耗时 100ms：提前刷新概率为 exp(-剩余毫秒 / 100)
+        xfetchCache.get("1", () -> {
+            clock.advance(Duration.ofMillis(100));
+            return "菜单";
+        });
+        Callable<Object> loader = () -> "菜单";
+
+        // 剩余 10 秒：概率 exp(-100)，不会提前刷新
+        clock.advance(Duration.ofSeconds(50));
+        for (int i = 0; i < 1000; i++) {
+            xfetchCache.get("1", loader);
+        }
+        assertThat(refreshTasks).isEmpty();
+
+        // 剩余 1ms：每次读取的提前刷新概率约 99%
+        clock.advance(Duration.ofMillis(9_999));
+        for (int i = 0; i < 100 && refreshTasks.isEmpty(); i++) {
+            assertThat(xfetchCache.get("1", loader)).isEqualTo("菜单");
+        }
+        assertThat(refreshTasks).hasSize(1);
+        assertThat(xfetchCache.stats().getStaleHits()).isZero();
+    }
+
+    @Test
+    void loadOverlappingRemoteInvalidationIsNotCached() {
+        cache.get("4", () -> {
+            // 其他节点广播的清除
+            cache.evictLocal("4");
+            return "旧菜单";
+        });
+
+        verify(remoteCache, times(0)).put(any(), any());
+    }
+
+    @Test
+    void evictAndClearNotifyLocalListenersDirectly() {
+        cache.evict("5", 9L);
+        cache.clear();
+
+        ArgumentCaptor<CacheInvalidationMessage> events = ArgumentCaptor.forClass(CacheInvalidationMessage.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(CacheInvalidationMessage::getCacheName).containsOnly("dish");
+        assertThat(events.getAllValues()).extracting(CacheInvalidationMessage::getKey).containsExactly("5", null);
+        assertThat(events.getAllValues().get(0).getVersion()).isEqualTo(9L);
+    }
+
+    private TwoLevelCache cacheWith(SkyCacheProperties.Spec spec, Executor refreshExecutor, Clock clock) {
+        SkyCacheProperties properties = new SkyCacheProperties();
+        properties.getSpecs().put("dish", spec);
+        return new TwoLevelCache("dish",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                remoteCache,
+                mock(CacheInvalidationPublisher.class),
+                eventPublisher,
+                null,
+                refreshExecutor,
+                properties,
+                clock);
+    }
+
+    private static SkyCacheProperties.Spec spec(Duration ttl, Duration maxStale, double earlyRefreshBeta) {
+        SkyCacheProperties.Spec spec = new SkyCacheProperties.Spec();
+        spec.setTtl(ttl);
+        spec.setMaxStale(maxStale);
+        spec.setEarlyRefreshBeta(earlyRefreshBeta);
+        return spec;
+    }
+
+    /**
+     * 可手动推进的时钟
+     */
+    private static final class MutableClock extends Clock {
+
+        private long millis = Instant.parse("2025-10-20T00:00:00Z").toEpochMilli();
+
+        private void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /**
+     * 所有线程就绪后同时执行，返回各线程的结果
+     */
+    private static List<Object> runConcurrently(Callable<Object> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+        CountDownLatch ready = new CountDownLatch(CONCURRENT_MISSES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_MISSES; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return task.call();
+                }));
+            }
+            ready.await();
+            start.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
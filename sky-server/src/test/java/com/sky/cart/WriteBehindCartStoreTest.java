@@ -0,0 +1,281 @@
+package com.sky.cart;
+
+import com.sky.constant.ShoppingCartConstant;
+import com.sky.entity.ShoppingCart;
+import com.sky.mapper.ShoppingCartMapper;
+import com.sky.properties.SkyCartProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 写合并购物车存储测试
+ * <p>
+ * 在内嵌 Redis 上执行缓冲脚本，数据库以内存中的份数表模拟（与 ShoppingCartMapper.xml 中各语句的条件一致）：
+ * 同一行的多次加减合并为一条语句写入净变化量，加减相互抵消时不写库；查看购物车前立即写入缓冲；
+ * 写库期间的新点击保留在缓冲中由下一次写入，写库失败时缓冲不变，变化量既不丢失也不重复写入；应用关闭时写入全部缓冲。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class WriteBehindCartStoreTest {
+
+    private static final long USER_ID = 7L;
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 模拟的数据库：行字段到份数
+     */
+    private final Map<String, Integer> database = new ConcurrentHashMap<>();
+
+    private ShoppingCartMapper shoppingCartMapper;
+
+    private SkyCartProperties skyCartProperties;
+
+    private WriteBehindCartStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).setting("bind 127.0.0.1").build();
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        shoppingCartMapper = mock(ShoppingCartMapper.class);
+        when(shoppingCartMapper.selectNumber(any())).thenAnswer(invocation ->
+                database.get(RedisCartStore.fieldOf(invocation.getArgument(0))));
+        when(shoppingCartMapper.insertOrAddNumber(any())).thenAnswer(invocation -> {
+            ShoppingCart change = invocation.getArgument(0);
+            database.merge(RedisCartStore.fieldOf(change), change.getNumber(), Integer::sum);
+            return 1;
+        });
+        when(shoppingCartMapper.addNumber(any())).thenAnswer(invocation -> {
+            ShoppingCart change = invocation.getArgument(0);
+            String field = RedisCartStore.fieldOf(change);
+            Integer number = database.get(field);
+            if (number == null || number + change.getNumber() <= 0) {
+                return 0;
+            }
+            database.put(field, number + change.getNumber());
+            return 1;
+        });
+        when(shoppingCartMapper.deleteIfNotPositive(any())).thenAnswer(invocation -> {
+            ShoppingCart change = invocation.getArgument(0);
+            String field = RedisCartStore.fieldOf(change);
+            Integer number = database.get(field);
+            return number != null && number + change.getNumber() <= 0 && database.remove(field) != null ? 1 : 0;
+        });
+        MysqlCartStore mysqlCartStore = mock(MysqlCartStore.class);
+        when(mysqlCartStore.list(any())).thenAnswer(invocation -> database.entrySet().stream()
+                .map(entry -> ShoppingCart.builder().name(entry.getKey()).number(entry.getValue()).build())
+                .toList());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        skyCartProperties = new SkyCartProperties();
+        skyCartProperties.getWriteBehind().setDebounce(Duration.ZERO);
+        store = new WriteBehindCartStore();
+        ReflectionTestUtils.setField(store, "mysqlCartStore", mysqlCartStore);
+        ReflectionTestUtils.setField(store, "shoppingCartMapper", shoppingCartMapper);
+        ReflectionTestUtils.setField(store, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(store, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(store, "skyCartProperties", skyCartProperties);
+    }
+
+    @Test
+    void tapsOnNewLineCoalesceIntoOneInsert() {
+        store.add(dish(1L));
+        for (int i = 0; i < 5; i++) {
+            assertThat(store.increment(dish(1L))).isTrue();
+        }
+        for (int i = 0; i < 3; i++) {
+            store.decrement(dish(1L));
+        }
+
+        store.flushDue();
+
+        assertThat(database).containsExactly(Map.entry(fieldOf(1L), 3));
+        assertThat(store.stats().getMutations()).isEqualTo(9);
+        assertThat(store.stats().getStatements()).isEqualTo(1);
+        assertBufferEmpty();
+    }
+
+    @Test
+    void tapsOnExistingLineWriteNetDeltaAndCancellingTapsWriteNothing() {
+        database.put(fieldOf(1L), 2);
+        database.put(fieldOf(2L), 4);
+        store.increment(dish(1L));
+        store.increment(dish(1L));
+        store.decrement(dish(1L));
+        store.increment(dish(2L));
+        store.decrement(dish(2L));
+
+        store.flushDue();
+
+        assertThat(database).containsEntry(fieldOf(1L), 3).containsEntry(fieldOf(2L), 4);
+        // 只查询一次数据库份数，之后的加减都在缓冲中完成
+        verify(shoppingCartMapper).addNumber(any());
+        assertThat(store.stats().getStatements()).isEqualTo(1);
+        assertBufferEmpty();
+    }
+
+    @Test
+    void decrementToZeroDeletesLineAndBelowZeroIsRejected() {
+        database.put(fieldOf(1L), 1);
+        store.decrement(dish(1L));
+        assertThat(store.increment(dish(3L))).isFalse();
+
+        store.flushDue();
+
+        assertThat(database).isEmpty();
+        assertBufferEmpty();
+    }
+
+    @Test
+    void listFlushesBufferBeforeReading() {
+        // 防抖窗口未结束，定时任务不会写入
+        skyCartProperties.getWriteBehind().setDebounce(Duration.ofHours(1));
+        store.add(dish(1L));
+        store.increment(dish(1L));
+        store.flushDue();
+        assertThat(database).isEmpty();
+
+        List<ShoppingCart> cart = store.list(USER_ID);
+
+        assertThat(cart).extracting(ShoppingCart::getNumber).containsExactly(2);
+        assertBufferEmpty();
+    }
+
+    @Test
+    void tapDuringFlushIsKeptForNextFlushAndNotDoubleApplied() {
+        store.add(dish(1L));
+        store.increment(dish(1L));
+        AtomicBoolean tapped = new AtomicBoolean();
+        doAnswer(invocation -> {
+            ShoppingCart change = invocation.getArgument(0);
+            database.merge(RedisCartStore.fieldOf(change), change.getNumber(), Integer::sum);
+            // 读取缓冲之后、扣除已写入变化量之前，用户又点了一次
+            if (tapped.compareAndSet(false, true)) {
+                store.increment(dish(1L));
+            }
+            return 1;
+        }).when(shoppingCartMapper).insertOrAddNumber(any());
+
+        store.flushDue();
+        assertThat(database).containsEntry(fieldOf(1L), 2);
+        assertThat(stringRedisTemplate.opsForHash().get(pendingKey(), fieldOf(1L))).isEqualTo("1");
+
+        store.flushDue();
+        assertThat(database).containsEntry(fieldOf(1L), 3);
+        assertBufferEmpty();
+
+        store.flushDue();
+        assertThat(database).containsEntry(fieldOf(1L), 3);
+    }
+
+    @Test
+    void failedFlushKeepsBufferAndRetriesOnce() {
+        database.put(fieldOf(1L), 2);
+        store.increment(dish(1L));
+        doThrow(new IllegalStateException("deadlock")).when(shoppingCartMapper).addNumber(any());
+
+        assertThatThrownBy(() -> store.list(USER_ID)).isInstanceOf(IllegalStateException.class);
+        store.flushDue();
+        assertThat(database).containsEntry(fieldOf(1L), 2);
+        assertThat(store.stats().getFailures()).isEqualTo(2);
+
+        doAnswer(invocation -> {
+            ShoppingCart change = invocation.getArgument(0);
+            database.merge(RedisCartStore.fieldOf(change), change.getNumber(), Integer::sum);
+            return 1;
+        }).when(shoppingCartMapper).addNumber(any());
+        store.flushDue();
+        store.flushDue();
+
+        assertThat(database).containsEntry(fieldOf(1L), 3);
+        assertBufferEmpty();
+    }
+
+    @Test
+    void flushAllWritesEveryBufferOnShutdown() {
+        skyCartProperties.getWriteBehind().setDebounce(Duration.ofHours(1));
+        store.add(dish(1L));
+        store.add(ShoppingCart.builder().userId(USER_ID + 1).dishId(1L).name("菜品1").amount(BigDecimal.TEN).build());
+
+        store.flushAll();
+
+        verify(shoppingCartMapper, never()).addNumber(any());
+        assertThat(database).containsEntry(fieldOf(1L), 2);
+        assertThat(stringRedisTemplate.opsForZSet().zCard(ShoppingCartConstant.DIRTY_USERS_KEY)).isZero();
+    }
+
+    private void assertBufferEmpty() {
+        assertThat(stringRedisTemplate.hasKey(pendingKey())).isFalse();
+        assertThat(stringRedisTemplate.opsForZSet().zCard(ShoppingCartConstant.DIRTY_USERS_KEY)).isZero();
+    }
+
+    private static ShoppingCart dish(Long dishId) {
+        return ShoppingCart.builder().userId(USER_ID).dishId(dishId).name("菜品" + dishId).amount(BigDecimal.TEN).build();
+    }
+
+    private static String fieldOf(Long dishId) {
+        return RedisCartStore.fieldOf(dish(dishId));
+    }
+
+    private static String pendingKey() {
+        return ShoppingCartConstant.PENDING_KEY_PREFIX + USER_ID;
+    }
+}
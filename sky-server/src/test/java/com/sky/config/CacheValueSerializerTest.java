@@ -0,0 +1,130 @@
+package com.sky.config;
+
+import com.sky.cache.CacheEnvelope;
+import com.sky.constant.CacheConstant;
+import com.sky.entity.DishFlavor;
+import com.sky.properties.SkyCacheProperties;
+import com.sky.result.Result;
+import com.sky.vo.DishVO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Redis 缓存值编码测试
+ * <p>
+ * 以 50 个菜品（每个 2 种口味）的 {@code Result<List<DishVO>>} 比较三种编码：按类型编码（dish、categoryCache 使用）、
+ * 记录类型信息的通用 JSON 编码（setmealCache 使用）与 JDK 序列化（sky.cache.codec=jdk）。
+ * 体积与往返还原始终校验；编解码耗时为基准测试，指定迭代次数时运行：
+ * {@code mvn test -pl sky-server -am -Dtest=CacheValueSerializerTest -Dsurefire.failIfNoSpecifiedTests=false
+ * -Dsky.benchmark.codec-iterations=20000}。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+class CacheValueSerializerTest {
+
+    private static final int DISHES = 50;
+
+    @Test
+    void typedCodecRoundTripsAndIsSmallerThanGenericJson() {
+        CacheEnvelope envelope = envelope();
+        Map<String, RedisSerializer<Object>> serializers = serializers();
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        serializers.forEach((codec, serializer) -> {
+            CacheEnvelope decoded = (CacheEnvelope) serializer.deserialize(serializer.serialize(envelope));
+            assertThat(decoded).as(codec).usingRecursiveComparison().isEqualTo(envelope);
+            sizes.put(codec, serializer.serialize(envelope).length);
+        });
+        log.info("50 个菜品的缓存值体积（字节）：{}", sizes);
+
+        // JSON 的每个对象都重复字段名，体积仍大于 JDK 序列化；按类型编码省去类名后明显小于通用编码
+        assertThat(sizes.get("typed")).as(sizes.toString()).isLessThan(sizes.get("generic") * 3 / 4);
+    }
+
+    @Test
+    void typedCodecKeepsCachedNull() {
+        RedisSerializer<Object> typed = serializers().get("typed");
+        CacheEnvelope decoded = (CacheEnvelope) typed.deserialize(typed.serialize(new CacheEnvelope(NullValue.INSTANCE, 1L, 2L)));
+
+        assertThat(decoded.getValue()).isSameAs(NullValue.INSTANCE);
+        assertThat(decoded.getFreshUntil()).isEqualTo(1L);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "sky.benchmark.codec-iterations", matches = "\\d+")
+    void encodeDecodeBenchmark() {
+        int iterations = Integer.getInteger("sky.benchmark.codec-iterations");
+        CacheEnvelope envelope = envelope();
+        serializers().forEach((codec, serializer) -> {
+            byte[] bytes = serializer.serialize(envelope);
+            // 预热
+            for (int i = 0; i < iterations; i++) {
+                serializer.deserialize(serializer.serialize(envelope));
+            }
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                bytes = serializer.serialize(envelope);
+            }
+            long encodeNanos = (System.nanoTime() - startedAt) / iterations;
+            startedAt = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                serializer.deserialize(bytes);
+            }
+            long decodeNanos = (System.nanoTime() - startedAt) / iterations;
+            log.info("编码基准 {}：{} 字节，编码 {} µs，解码 {} µs", codec, bytes.length,
+                    String.format("%.1f", encodeNanos / 1000.0), String.format("%.1f", decodeNanos / 1000.0));
+        });
+    }
+
+    /**
+     * 与应用一致的三种编码器
+     */
+    private static Map<String, RedisSerializer<Object>> serializers() {
+        SkyCacheProperties json = new SkyCacheProperties();
+        SkyCacheProperties jdk = new SkyCacheProperties();
+        jdk.setCodec(SkyCacheProperties.Codec.JDK);
+        RedisSerializer<Object> generic = CacheConfiguration.cacheValueSerializer(json);
+        Map<String, RedisSerializer<Object>> serializers = new LinkedHashMap<>();
+        serializers.put("typed", CacheConfiguration.cacheValueSerializer(json, CacheConstant.DISH_CACHE, generic));
+        serializers.put("generic", generic);
+        serializers.put("jdk", CacheConfiguration.cacheValueSerializer(jdk));
+        return serializers;
+    }
+
+    private static CacheEnvelope envelope() {
+        List<DishVO> dishes = new ArrayList<>(DISHES);
+        LocalDateTime updateTime = LocalDateTime.of(2025, 10, 20, 12, 0, 0);
+        for (long id = 1; id <= DISHES; id++) {
+            DishVO dish = new DishVO();
+            dish.setId(id);
+            dish.setName("菜品" + id);
+            dish.setCategoryId(11L);
+            dish.setPrice(new BigDecimal("38.00"));
+            dish.setImage("https://sky-take-out.oss-cn-beijing.aliyuncs.com/dish/" + id + ".png");
+            dish.setDescription("精选食材，现点现做");
+            dish.setStatus(1);
+            dish.setUpdateTime(updateTime);
+            dish.setCategoryName("热菜");
+            dish.setFlavors(List.of(
+                    DishFlavor.builder().id(id * 2).dishId(id).name("辣度").value("[\"不辣\",\"微辣\",\"中辣\"]").build(),
+                    DishFlavor.builder().id(id * 2 + 1).dishId(id).name("忌口").value("[\"不要葱\",\"不要蒜\"]").build()));
+            dishes.add(dish);
+        }
+        return new CacheEnvelope(Result.success(dishes), 1_760_000_000_000L, 12L);
+    }
+}
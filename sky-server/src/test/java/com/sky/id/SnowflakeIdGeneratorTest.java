@@ -0,0 +1,188 @@
+package com.sky.id;
+
+import com.sky.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 雪花算法 ID 生成器测试
+ * 多线程并发分配的唯一性与单线程内递增、时钟回拨的等待与拒绝、工作节点号不可用时拒绝分配。
+ * 吞吐量为基准测试，指定每线程分配数时运行：
+ * {@code mvn test -pl sky-server -am -Dtest=SnowflakeIdGeneratorTest -Dsurefire.failIfNoSpecifiedTests=false
+ * -Dsky.benchmark.ids=20000000}，可选 sky.benchmark.id-threads（默认 CPU 核数）。
+ * 单个工作节点号每毫秒最多 4096 个序列号，理论上限约 409.6 万个/秒。
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@Slf4j
+class SnowflakeIdGeneratorTest {
+
+    private static final long EPOCH = 1735689600000L;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, EPOCH, 5000);
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> all = new HashSet<>(threads * perThread * 2);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertThat(ids[i]).isPositive();
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idCarriesWorkerIdAndTimestamp() {
+        AtomicLong clock = new AtomicLong(EPOCH + 123_456);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1023, EPOCH, 10, clock::get);
+
+        long id = generator.nextId();
+
+        assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID).isEqualTo(1023);
+        assertThat(generator.timestampOf(id)).isEqualTo(EPOCH + 123_456);
+    }
+
+    @Test
+    void smallClockRollbackWaitsAndStaysMonotonic() {
+        AtomicLong clock = new AtomicLong(EPOCH + 10_000);
+        // 每次读取时钟前进 1 毫秒，模拟回拨后系统时钟继续走动
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1, EPOCH, 1000,
+                () -> clock.getAndIncrement());
+        long before = generator.nextId();
+
+        clock.addAndGet(-50);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        // 等待到系统时钟追上到允许的领先范围内才分配
+        assertThat(generator.timestampOf(after) - clock.get()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void clockRollbackBeyondToleranceIsRejected() {
+        AtomicLong clock = new AtomicLong(EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1, EPOCH, 20, clock::get);
+        long before = generator.nextId();
+
+        clock.addAndGet(-100);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+        // 时钟恢复后继续分配，且仍大于回拨前的 ID
+        clock.addAndGet(101);
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void sequenceExhaustionBorrowsNextMillisecond() {
+        AtomicLong clock = new AtomicLong(EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1, EPOCH, 1000, clock::get);
+        int perMillis = 1 << SnowflakeIdGenerator.SEQUENCE_BITS;
+
+        long last = 0;
+        for (int i = 0; i < perMillis + 1; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        assertThat(generator.timestampOf(last)).isEqualTo(EPOCH + 10_001);
+    }
+
+    @Test
+    void unavailableWorkerIdIsRejected() {
+        AtomicLong workerId = new AtomicLong(3);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(workerId::get, EPOCH, 1000, System::currentTimeMillis);
+        generator.nextId();
+
+        workerId.set(-1);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "sky.benchmark.ids", matches = "\\d+")
+    void throughputBenchmark() throws Exception {
+        int perThread = Integer.getInteger("sky.benchmark.ids");
+        int threads = Integer.getInteger("sky.benchmark.id-threads", Runtime.getRuntime().availableProcessors());
+        for (int round = 0; round < 2; round++) {
+            // 第一轮为预热
+            double single = idsPerSecond(1, perThread);
+            double concurrent = idsPerSecond(threads, perThread);
+            if (round == 1) {
+                log.info("ID 分配吞吐量：1 线程 {} 万个/秒，{} 线程 {} 万个/秒",
+                        String.format("%.1f", single / 10_000), threads, String.format("%.1f", concurrent / 10_000));
+            }
+        }
+    }
+
+    /**
+     * 多个线程同时分配，返回总吞吐量（个/秒）
+     */
+    private static double idsPerSecond(int threads, int perThread) throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, EPOCH, 5000);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long checksum = 0;
+                    for (int i = 0; i < perThread; i++) {
+                        checksum ^= generator.nextId();
+                    }
+                    return checksum;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+            return (double) threads * perThread / ((System.nanoTime() - startedAt) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
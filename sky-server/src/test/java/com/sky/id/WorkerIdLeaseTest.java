@@ -0,0 +1,98 @@
+package com.sky.id;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工作节点号租约测试
+ * 续期成功时保持有效；续期失败至租约到期、或节点号被其他节点占用时返回 -1，并重新占用空闲节点号
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class WorkerIdLeaseTest {
+
+    private StringRedisTemplate stringRedisTemplate;
+
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("sky:id:worker-cursor")).thenReturn(5L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+    }
+
+    @Test
+    void renewedLeaseStaysValid() {
+        WorkerIdLease lease = new WorkerIdLease(stringRedisTemplate, Duration.ofMinutes(1));
+        renewReturns(1L);
+
+        lease.renew();
+
+        assertThat(lease.getAsLong()).isEqualTo(5);
+    }
+
+    @Test
+    void leaseExpiresWhenRenewalKeepsFailing() throws InterruptedException {
+        WorkerIdLease lease = new WorkerIdLease(stringRedisTemplate, Duration.ofMillis(100));
+        when(stringRedisTemplate.execute(anyScript(), anyList(), any(), any()))
+                .thenThrow(new IllegalStateException("Redis 不可用"));
+
+        lease.renew();
+        assertThat(lease.getAsLong()).isEqualTo(5);
+        Thread.sleep(150);
+
+        assertThat(lease.getAsLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void lostLeaseFailsClosedAndSwitchesToFreeWorkerId() {
+        WorkerIdLease lease = new WorkerIdLease(stringRedisTemplate, Duration.ofMinutes(1));
+        renewReturns(0L);
+        when(valueOperations.increment("sky:id:worker-cursor")).thenReturn(9L);
+        when(valueOperations.setIfAbsent(eq("sky:id:worker:9"), anyString(), any(Duration.class))).thenReturn(false);
+
+        lease.renew();
+
+        assertThat(lease.getAsLong()).isEqualTo(10);
+    }
+
+    @Test
+    void lostLeaseWithoutFreeWorkerIdStaysInvalid() {
+        WorkerIdLease lease = new WorkerIdLease(stringRedisTemplate, Duration.ofMinutes(1));
+        renewReturns(0L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        lease.renew();
+
+        assertThat(lease.getAsLong()).isEqualTo(-1);
+        assertThat(lease.getWorkerId()).isEqualTo(5);
+    }
+
+    private void renewReturns(Long result) {
+        when(stringRedisTemplate.execute(anyScript(), eq(List.of("sky:id:worker:5")), any(), any()))
+                .thenReturn(result);
+    }
+
+    private static RedisScript<Long> anyScript() {
+        return any();
+    }
+}
@@ -0,0 +1,90 @@
+package com.sky.interceptor;
+
+import com.sky.cache.CacheInvalidationPublisher;
+import com.sky.cache.ResponseBodyCache;
+import com.sky.handler.ResponseCacheBodyAdvice;
+import com.sky.properties.SkyCacheProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 响应体缓存写入过滤器测试
+ * 缓存的字节与 ETag 取自实际发送的响应；未标记可缓存或状态非 200 的响应原样输出且不缓存
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"code\":1,\"msg\":null,\"data\":[{\"name\":\"宫保鸡丁\"}]}";
+
+    private ResponseBodyCache responseBodyCache;
+
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        responseBodyCache = new ResponseBodyCache(new SkyCacheProperties(), mock(CacheInvalidationPublisher.class));
+        filter = new ResponseCacheFilter(responseBodyCache);
+    }
+
+    @Test
+    void cachesExactlyTheBytesSent() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, controller(true, 200));
+
+        ResponseBodyCache.Entry entry = responseBodyCache.get(ResponseCacheInterceptor.keyOf(request));
+        assertThat(entry).isNotNull();
+        assertThat(entry.getBody()).isEqualTo(response.getContentAsByteArray());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(entry.getEtag());
+        assertThat(response.getContentLength()).isEqualTo(entry.getBody().length);
+    }
+
+    @Test
+    void unmarkedOrFailedResponsesPassThroughUncached() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller(false, 200));
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+
+        MockHttpServletRequest failed = request();
+        filter.doFilter(failed, new MockHttpServletResponse(), controller(true, 500));
+
+        assertThat(responseBodyCache.get(ResponseCacheInterceptor.keyOf(request))).isNull();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/dish/list");
+        request.setQueryString("categoryId=1");
+        request.setAttribute(ResponseCacheInterceptor.GENERATION_ATTRIBUTE, 0L);
+        return request;
+    }
+
+    /**
+     * 模拟控制器与消息转换器：按需标记可缓存并输出响应体
+     */
+    private static FilterChain controller(boolean cacheable, int status) {
+        return (request, response) -> {
+            if (cacheable) {
+                request.setAttribute(ResponseCacheBodyAdvice.CACHE_NAME_ATTRIBUTE, "dish");
+            }
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            response.flushBuffer();
+        };
+    }
+}
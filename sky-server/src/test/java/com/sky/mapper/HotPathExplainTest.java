@@ -0,0 +1,265 @@
+package com.sky.mapper;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisXMLMapperBuilder;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.constant.StatusConstant;
+import com.sky.dto.OrdersPageQueryDTO;
+import com.sky.entity.Dish;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Setmeal;
+import com.sky.entity.ShoppingCart;
+import com.sky.entity.User;
+import com.sky.order.OrderCursor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * 热点查询执行计划回归测试
+ * <p>
+ * 从 Mapper 接口与 XML 解析出各热点查询实际执行的 SQL（MyBatis-Plus 条件构造器的查询按服务层的写法构造），
+ * 在 MySQL 上执行 EXPLAIN，要求目标表使用期望的索引且不为全表扫描；修改 Mapper 查询或索引后若不再命中索引则测试失败。
+ * </p>
+ * <p>
+ * 执行计划检查需要按 sql/sky.sql 建库并执行 sql/migration 全部迁移的 MySQL，通过系统属性指定连接，未指定时跳过：
+ * {@code mvn test -pl sky-server -am -Dtest=HotPathExplainTest -Dsurefire.failIfNoSpecifiedTests=false
+ * -Dsky.explain.url=jdbc:mysql://localhost:3306/sky_take_out -Dsky.explain.username=root -Dsky.explain.password=...}
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class HotPathExplainTest {
+
+    private static MybatisConfiguration configuration;
+
+    /**
+     * 一条热点查询：Mapper 方法、调用参数，以及执行计划中目标表应使用的索引
+     */
+    private static final class HotPath {
+
+        private final String description;
+
+        private final Class<?> mapper;
+
+        private final String method;
+
+        private final Object[] args;
+
+        private final String table;
+
+        private final String key;
+
+        private HotPath(String description, Class<?> mapper, String method, Object[] args, String table, String key) {
+            this.description = description;
+            this.mapper = mapper;
+            this.method = method;
+            this.args = args;
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    @BeforeAll
+    static void parseMappers() throws IOException {
+        configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        // 与 mybatis-plus 默认的 mapper-locations 一致
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath*:/mapper/**/*.xml");
+        for (Resource resource : resources) {
+            try (InputStream in = resource.getInputStream()) {
+                new MybatisXMLMapperBuilder(in, configuration, resource.toString(), configuration.getSqlFragments()).parse();
+            }
+        }
+        for (Class<?> mapper : List.of(DishMapper.class, SetmealMapper.class, UserMapper.class, ShoppingCartMapper.class,
+                OrderMapper.class, OrderDetailMapper.class, DishFlavorMapper.class, SetmealDishMapper.class,
+                ReportDailyMapper.class)) {
+            if (!configuration.hasMapper(mapper)) {
+                configuration.addMapper(mapper);
+            }
+        }
+    }
+
+    static List<HotPath> hotPaths() {
+        ShoppingCart cartLine = ShoppingCart.builder().userId(1L).dishId(46L).number(1).build();
+        Wrapper<ShoppingCart> cartOfUser = Wrappers.lambdaQuery(ShoppingCart.class)
+                .eq(ShoppingCart::getUserId, 1L)
+                .orderByAsc(ShoppingCart::getCreateTime);
+        Wrapper<ShoppingCart> cartIdsOfUser = Wrappers.lambdaQuery(ShoppingCart.class)
+                .select(ShoppingCart::getId)
+                .eq(ShoppingCart::getUserId, 1L);
+        Wrapper<OrderDetail> detailsOfOrder = Wrappers.<OrderDetail>lambdaQuery()
+                .select(OrderDetail::getName, OrderDetail::getNumber)
+                .eq(OrderDetail::getOrderId, 1L);
+        Wrapper<OrderDetail> detailsOfOrders = Wrappers.<OrderDetail>lambdaQuery()
+                .select(OrderDetail::getOrderId, OrderDetail::getName, OrderDetail::getNumber)
+                .in(OrderDetail::getOrderId, List.of(1L, 2L, 3L));
+        Wrapper<Dish> dishesOfCategory = Wrappers.<Dish>lambdaQuery()
+                .eq(Dish::getCategoryId, 11L)
+                .eq(Dish::getStatus, StatusConstant.ENABLE);
+        Wrapper<Setmeal> setmealsOfCategory = Wrappers.lambdaQuery(Setmeal.class)
+                .eq(Setmeal::getCategoryId, 13L)
+                .eq(Setmeal::getStatus, StatusConstant.ENABLE);
+        Wrapper<User> userOfOpenid = Wrappers.<User>lambdaQuery().eq(User::getOpenid, "openid");
+        LocalDateTime begin = LocalDate.of(2025, 1, 1).atStartOfDay();
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2025, 10, 20, 12, 0), 1000L);
+        OrdersPageQueryDTO allOrders = new OrdersPageQueryDTO();
+        OrdersPageQueryDTO ordersOfStatus = new OrdersPageQueryDTO();
+        ordersOfStatus.setStatus(2);
+        OrdersPageQueryDTO ordersOfUser = new OrdersPageQueryDTO();
+        ordersOfUser.setUserId(1L);
+        ordersOfUser.setStatus(5);
+
+        return List.of(
+                new HotPath("购物车列表 MysqlCartStore.list", ShoppingCartMapper.class, "selectList",
+                        args(cartOfUser), "shopping_cart", "uk_shopping_cart_line"),
+                new HotPath("购物车清空 MysqlCartStore.clear", ShoppingCartMapper.class, "selectObjs",
+                        args(cartIdsOfUser), "shopping_cart", "uk_shopping_cart_line"),
+                new HotPath("购物车数量加一 ShoppingCartMapper.incrementNumber", ShoppingCartMapper.class, "incrementNumber",
+                        args(cartLine), "shopping_cart", "uk_shopping_cart_line"),
+                new HotPath("购物车数量合并 ShoppingCartMapper.addNumber", ShoppingCartMapper.class, "addNumber",
+                        args(cartLine), "shopping_cart", "uk_shopping_cart_line"),
+                new HotPath("订单完成汇总明细 ReportRollup.orderCompleted", OrderDetailMapper.class, "selectList",
+                        args(detailsOfOrder), "order_detail", "idx_order_detail_order"),
+                new HotPath("订单列表菜品摘要 OrderServiceImpl.fillOrderDishes", OrderDetailMapper.class, "selectList",
+                        args(detailsOfOrders), "order_detail", "idx_order_detail_order"),
+                new HotPath("菜品口味批量查询 DishFlavorMapper.listByDishIds", DishFlavorMapper.class, "listByDishIds",
+                        args(List.of(46L, 47L, 48L)), "dish_flavor", "idx_dish_flavor_dish"),
+                new HotPath("菜品口味批量删除 DishFlavorMapper.deleteByDishIds", DishFlavorMapper.class, "deleteByDishIds",
+                        args(List.of(46L, 47L, 48L)), "dish_flavor", "idx_dish_flavor_dish"),
+                new HotPath("套餐菜品 SetmealDishMapper.listBySetmealId", SetmealDishMapper.class, "listBySetmealId",
+                        args(1L), "setmeal_dish", "idx_setmeal_dish_setmeal"),
+                new HotPath("套餐菜品批量查询 SetmealDishMapper.listBySetmealIds", SetmealDishMapper.class, "listBySetmealIds",
+                        args(List.of(1L, 2L, 3L)), "setmeal_dish", "idx_setmeal_dish_setmeal"),
+                new HotPath("菜品所属套餐 SetmealDishMapper.getSetmealIdsByDishIds", SetmealDishMapper.class, "getSetmealIdsByDishIds",
+                        args(List.of(46L, 47L, 48L)), "setmeal_dish", "idx_setmeal_dish_dish"),
+                new HotPath("用户端菜品列表 DishServiceImpl.listWithFlavor", DishMapper.class, "selectList",
+                        args(dishesOfCategory), "dish", "idx_dish_category_status"),
+                new HotPath("用户端套餐列表 SetmealServiceImpl.list", SetmealMapper.class, "selectList",
+                        args(setmealsOfCategory), "setmeal", "idx_setmeal_category_status"),
+                new HotPath("微信登录查询用户 UserServiceImpl.loginByOpenid", UserMapper.class, "selectList",
+                        args(userOfOpenid), "user", "idx_user_openid"),
+                new HotPath("报表回填订单汇总 ReportDailyMapper.rebuildOrders", ReportDailyMapper.class, "rebuildOrders",
+                        args(begin, begin.plusDays(7)), "orders", "idx_orders_order_time"),
+                new HotPath("报表回填新增用户 ReportDailyMapper.rebuildNewUsers", ReportDailyMapper.class, "rebuildNewUsers",
+                        args(begin, begin.plusDays(7)), "user", "idx_user_create_time"),
+                new HotPath("订单搜索翻页 OrderMapper.search", OrderMapper.class, "search",
+                        args(allOrders, cursor, 0L, 11), "orders", "idx_orders_order_time"),
+                new HotPath("按状态订单搜索翻页 OrderMapper.search", OrderMapper.class, "search",
+                        args(ordersOfStatus, cursor, 0L, 11), "orders", "idx_orders_status_time"),
+                new HotPath("用户历史订单 OrderMapper.search", OrderMapper.class, "search",
+                        args(ordersOfUser, null, 0L, 11), "orders", "idx_orders_user_status_time"));
+    }
+
+    /**
+     * 不连接数据库也执行：每条热点查询都能从 Mapper 解析出 SQL，Mapper 方法改名或删除时及时发现
+     */
+    @Test
+    void hotPathStatementsResolve() {
+        for (HotPath hotPath : hotPaths()) {
+            BoundSql boundSql = boundSql(hotPath);
+            assertThat(boundSql.getSql()).as(hotPath.description).containsIgnoringCase(hotPath.table);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotPaths")
+    @EnabledIfSystemProperty(named = "sky.explain.url", matches = ".+")
+    void hotPathUsesExpectedIndex(HotPath hotPath) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(System.getProperty("sky.explain.url"),
+                System.getProperty("sky.explain.username", "root"), System.getProperty("sky.explain.password", ""));
+             PreparedStatement statement = explain(connection, hotPath);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                String table = resultSet.getString("table");
+                String type = resultSet.getString("type");
+                String key = resultSet.getString("key");
+                plan.add(table + " type=" + type + " key=" + key + " extra=" + resultSet.getString("Extra"));
+                if (hotPath.table.equals(table)) {
+                    assertThat(key).as("%s 的执行计划 %s", hotPath.description, plan).isEqualTo(hotPath.key);
+                    assertThat(type).as("%s 的执行计划 %s", hotPath.description, plan).isNotEqualTo("ALL");
+                    return;
+                }
+            }
+        }
+        fail("%s 的执行计划中没有表 %s：%s", hotPath.description, hotPath.table, plan);
+    }
+
+    private static PreparedStatement explain(Connection connection, HotPath hotPath) throws SQLException {
+        MappedStatement mappedStatement = mappedStatement(hotPath);
+        Object parameter = parameter(hotPath);
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        PreparedStatement statement = connection.prepareStatement("explain " + boundSql.getSql());
+        new DefaultParameterHandler(mappedStatement, parameter, boundSql).setParameters(statement);
+        return statement;
+    }
+
+    private static BoundSql boundSql(HotPath hotPath) {
+        return mappedStatement(hotPath).getBoundSql(parameter(hotPath));
+    }
+
+    private static MappedStatement mappedStatement(HotPath hotPath) {
+        return configuration.getMappedStatement(hotPath.mapper.getName() + "." + hotPath.method);
+    }
+
+    /**
+     * 按 MyBatis 调用 Mapper 方法时的规则把实参包装为语句参数
+     */
+    private static Object parameter(HotPath hotPath) {
+        Method method = Arrays.stream(hotPath.mapper.getMethods())
+                .filter(candidate -> candidate.getName().equals(hotPath.method) && accepts(candidate, hotPath.args))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("找不到 Mapper 方法：" + hotPath));
+        return new ParamNameResolver(configuration, method).getNamedParams(hotPath.args);
+    }
+
+    private static boolean accepts(Method method, Object[] args) {
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (args[i] != null && !types[i].isInstance(args[i]) && !types[i].isPrimitive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object[] args(Object... args) {
+        return args;
+    }
+}
@@ -0,0 +1,100 @@
+package com.sky.report;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sky.entity.ReportDaily;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.properties.SkyReportProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 运营数据导出基准测试
+ * <p>
+ * 以按序号生成的游标代替数据库，导出指定行数的订单明细到临时文件，记录耗时、文件大小与堆内存峰值，
+ * 并校验工作表数量符合按 1,048,576 行（含表头）续写的规则。行数由系统属性指定，未指定时跳过：
+ * {@code mvn test -pl sky-server -am -Dtest=BusinessDataExportBenchmarkTest -Dsurefire.failIfNoSpecifiedTests=false
+ * -Dsky.benchmark.export-rows=1000000}；超过单表上限的行数（如 2000000）可验证续写。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@EnabledIfSystemProperty(named = "sky.benchmark.export-rows", matches = "\\d+")
+@Slf4j
+class BusinessDataExportBenchmarkTest {
+
+    private static final long ROWS = Long.getLong("sky.benchmark.export-rows", 0L);
+
+    @Test
+    void exportRows(@TempDir Path dir) throws Exception {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ReportDaily.class);
+        OrderDetailMapper orderDetailMapper = mock(OrderDetailMapper.class);
+        when(orderDetailMapper.streamForExport(any(), any()))
+                .thenReturn(new BusinessDataExporterTest.GeneratedCursor(ROWS));
+        BusinessDataExporter exporter = new BusinessDataExporter();
+        ReflectionTestUtils.setField(exporter, "reportDailyMapper", mock(ReportDailyMapper.class));
+        ReflectionTestUtils.setField(exporter, "orderDetailMapper", orderDetailMapper);
+        ReflectionTestUtils.setField(exporter, "skyReportProperties", new SkyReportProperties());
+
+        System.gc();
+        resetPeakUsage();
+        Path file = dir.resolve("export.xlsx");
+        long startedAt = System.nanoTime();
+        long exported;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            LocalDate day = LocalDate.of(2025, 10, 20);
+            exported = exporter.export(day, day, out);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long detailSheets = (ROWS + SpreadsheetVersion.EXCEL2007.getMaxRows() - 2) / (SpreadsheetVersion.EXCEL2007.getMaxRows() - 1);
+        String result = String.format("rows=%d, sheets=%d, time=%.1f s, %.0f rows/s, file=%.1f MB, heap peak=%.0f MB",
+                exported, countSheets(file), seconds, exported / seconds, Files.size(file) / 1048576.0,
+                peakHeapUsage() / 1048576.0);
+        log.info("导出基准：{}", result);
+        assertThat(exported).as(result).isEqualTo(ROWS);
+        assertThat(countSheets(file)).as(result).isEqualTo(1 + Math.max(1, detailSheets));
+    }
+
+    /**
+     * 统计 xlsx 中的工作表数量，不加载工作表内容
+     */
+    private static long countSheets(Path file) throws Exception {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            return zip.stream().filter(entry -> entry.getName().startsWith("xl/worksheets/sheet")).count();
+        }
+    }
+
+    private static void resetPeakUsage() {
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static long peakHeapUsage() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+}
@@ -0,0 +1,168 @@
+package com.sky.report;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sky.entity.ReportDaily;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.properties.SkyReportProperties;
+import com.sky.vo.OrderDetailExportVO;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 运营数据导出测试
+ * 订单明细超出单个工作表的行数上限时续写到“订单明细-2”等工作表，每个工作表带表头，行不丢失也不重复
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class BusinessDataExporterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 20);
+
+    private OrderDetailMapper orderDetailMapper;
+
+    private BusinessDataExporter exporter;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 未启动 Spring 时注册实体元数据，供 Lambda 条件解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ReportDaily.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderDetailMapper = mock(OrderDetailMapper.class);
+        exporter = new BusinessDataExporter();
+        ReflectionTestUtils.setField(exporter, "reportDailyMapper", mock(ReportDailyMapper.class));
+        ReflectionTestUtils.setField(exporter, "orderDetailMapper", orderDetailMapper);
+        ReflectionTestUtils.setField(exporter, "skyReportProperties", new SkyReportProperties());
+    }
+
+    @Test
+    void detailsRollOverToNumberedSheets() throws Exception {
+        // 每个工作表 3 行：表头 + 2 行明细
+        exporter.maxRowsPerSheet = 3;
+        when(orderDetailMapper.streamForExport(any(), any())).thenReturn(new GeneratedCursor(5));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(exporter.export(DAY, DAY, out)).isEqualTo(5);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(4);
+            assertThat(workbook.getSheetName(1)).isEqualTo("订单明细");
+            assertThat(workbook.getSheetName(2)).isEqualTo("订单明细-2");
+            assertThat(workbook.getSheetName(3)).isEqualTo("订单明细-3");
+            assertThat(numbers(workbook.getSheetAt(1))).containsExactly("订单号", "0", "1");
+            assertThat(numbers(workbook.getSheetAt(2))).containsExactly("订单号", "2", "3");
+            assertThat(numbers(workbook.getSheetAt(3))).containsExactly("订单号", "4");
+        }
+    }
+
+    @Test
+    void fullSheetWithoutMoreRowsDoesNotCreateEmptySheet() throws Exception {
+        exporter.maxRowsPerSheet = 3;
+        when(orderDetailMapper.streamForExport(any(), any())).thenReturn(new GeneratedCursor(2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(DAY, DAY, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(workbook.getNumberOfSheets()).isEqualTo(2);
+        }
+    }
+
+    private static String[] numbers(Sheet sheet) {
+        String[] numbers = new String[sheet.getLastRowNum() + 1];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = sheet.getRow(i).getCell(0).getStringCellValue();
+        }
+        return numbers;
+    }
+
+    /**
+     * 按序号生成订单明细的游标，不占用与行数成正比的内存
+     */
+    static final class GeneratedCursor implements Cursor<OrderDetailExportVO> {
+
+        private static final LocalDateTime ORDER_TIME = DAY.atTime(12, 0);
+
+        private final long rows;
+
+        private long index = -1;
+
+        GeneratedCursor(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return index < rows - 1;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return index >= rows - 1;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return (int) index;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Iterator<OrderDetailExportVO> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return index < rows - 1;
+                }
+
+                @Override
+                public OrderDetailExportVO next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    index++;
+                    return OrderDetailExportVO.builder()
+                            .number(String.valueOf(index))
+                            .orderTime(ORDER_TIME)
+                            .status(5)
+                            .consignee("张三")
+                            .phone("13800000000")
+                            .address("北京市海淀区中关村大街" + index % 100 + "号")
+                            .orderAmount(new BigDecimal("58.00"))
+                            .name("宫保鸡丁")
+                            .dishFlavor("微辣")
+                            .quantity(2)
+                            .amount(new BigDecimal("29.00"))
+                            .build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sky.report;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.ReportDailyMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 报表汇总增量维护测试
+ * 增量在事务提交后才记入内存，多次变化合并为每天每张表一条语句写入，商品行按名称排序，写入失败的增量下一轮重试且不重复累加
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class ReportRollupTest {
+
+    private static final LocalDateTime ORDER_TIME = LocalDateTime.of(2025, 10, 20, 12, 0);
+
+    private static final LocalDate REPORT_DATE = ORDER_TIME.toLocalDate();
+
+    private ReportDailyMapper reportDailyMapper;
+
+    private OrderDetailMapper orderDetailMapper;
+
+    private ReportRollup reportRollup;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // 未启动 Spring 时注册实体元数据，供 Lambda 条件解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), OrderDetail.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        reportDailyMapper = mock(ReportDailyMapper.class);
+        orderDetailMapper = mock(OrderDetailMapper.class);
+        reportRollup = new ReportRollup();
+        ReflectionTestUtils.setField(reportRollup, "reportDailyMapper", reportDailyMapper);
+        ReflectionTestUtils.setField(reportRollup, "orderDetailMapper", orderDetailMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void nothingIsRecordedBeforeCommitOrAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        reportRollup.orderCreated(ORDER_TIME);
+        reportRollup.flush();
+        verifyNoInteractions(reportDailyMapper);
+
+        // 回滚：不记入
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        reportRollup.flush();
+        verifyNoInteractions(reportDailyMapper);
+
+        // 提交：记入
+        TransactionSynchronizationManager.initSynchronization();
+        reportRollup.orderCreated(ORDER_TIME);
+        commit();
+        reportRollup.flush();
+        verify(reportDailyMapper).addOrders(REPORT_DATE, 1, 0, BigDecimal.ZERO);
+    }
+
+    @Test
+    void changesAreMergedIntoOneStatementPerTable() {
+        when(orderDetailMapper.selectList(any())).thenReturn(List.of(detail("宫保鸡丁", 2), detail("水煮鱼", 1)));
+        for (int i = 0; i < 5; i++) {
+            reportRollup.orderCreated(ORDER_TIME);
+        }
+        reportRollup.orderCompleted(completed(new BigDecimal("30")));
+        reportRollup.orderCompleted(completed(new BigDecimal("20")));
+        reportRollup.userRegistered(ORDER_TIME);
+
+        reportRollup.flush();
+
+        ArgumentCaptor<BigDecimal> turnover = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(reportDailyMapper).addOrders(eq(REPORT_DATE), eq(5), eq(2), turnover.capture());
+        assertThat(turnover.getValue()).isEqualByComparingTo("50");
+        verify(reportDailyMapper).addNewUsers(REPORT_DATE, 1);
+        ArgumentCaptor<List<OrderDetail>> items = itemsCaptor();
+        verify(reportDailyMapper).addItems(eq(REPORT_DATE), items.capture());
+        assertThat(items.getValue()).extracting(OrderDetail::getName).isSorted();
+        assertThat(items.getValue()).extracting(OrderDetail::getNumber).containsExactly(4, 2);
+
+        // 已写入的增量不再重复写入
+        reset(reportDailyMapper);
+        reportRollup.flush();
+        verifyNoInteractions(reportDailyMapper);
+    }
+
+    @Test
+    void failedStatementIsRetriedWithoutDoubleCounting() {
+        when(orderDetailMapper.selectList(any())).thenReturn(List.of(detail("宫保鸡丁", 1)));
+        doThrow(new RuntimeException("deadlock")).when(reportDailyMapper).addItems(any(), any());
+        reportRollup.orderCompleted(completed(BigDecimal.TEN));
+        reportRollup.flush();
+        verify(reportDailyMapper).addOrders(eq(REPORT_DATE), eq(0), eq(1), any());
+
+        reset(reportDailyMapper);
+        reportRollup.flush();
+
+        verify(reportDailyMapper, never()).addOrders(any(), anyInt(), anyInt(), any());
+        ArgumentCaptor<List<OrderDetail>> items = itemsCaptor();
+        verify(reportDailyMapper).addItems(eq(REPORT_DATE), items.capture());
+        assertThat(items.getValue()).extracting(OrderDetail::getNumber).containsExactly(1);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Orders completed(BigDecimal amount) {
+        return Orders.builder().id(1L).orderTime(ORDER_TIME).amount(amount).build();
+    }
+
+    private static OrderDetail detail(String name, int number) {
+        return OrderDetail.builder().name(name).number(number).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<OrderDetail>> itemsCaptor() {
+        return ArgumentCaptor.forClass((Class<List<OrderDetail>>) (Class<?>) List.class);
+    }
+}
@@ -0,0 +1,176 @@
+package com.sky.service.impl;
+
+import com.sky.cache.CatalogItem;
+import com.sky.cache.ItemCatalog;
+import com.sky.cart.CartStore;
+import com.sky.constant.MessageConstant;
+import com.sky.constant.StatusConstant;
+import com.sky.context.BaseContext;
+import com.sky.dto.OrdersSubmitDTO;
+import com.sky.entity.AddressBook;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.entity.ShoppingCart;
+import com.sky.exception.OrderBusinessException;
+import com.sky.mapper.AddressBookMapper;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.properties.SkyOrderProperties;
+import com.sky.report.ReportRollup;
+import com.sky.task.OrderTimeoutScheduler;
+import com.sky.utils.SnowflakeIdGenerator;
+import com.sky.vo.OrderSubmitVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户下单测试
+ * 订单金额由服务端按商品目录单价计算，客户端金额不一致时拒绝；订单明细无论多少行都只批量写入一次
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class OrderServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private static final Long ADDRESS_BOOK_ID = 3L;
+
+    private OrderMapper orderMapper;
+
+    private OrderDetailMapper orderDetailMapper;
+
+    private CartStore cartStore;
+
+    private ItemCatalog itemCatalog;
+
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = mock(OrderMapper.class);
+        orderDetailMapper = mock(OrderDetailMapper.class);
+        cartStore = mock(CartStore.class);
+        itemCatalog = mock(ItemCatalog.class);
+        AddressBookMapper addressBookMapper = mock(AddressBookMapper.class);
+        when(addressBookMapper.selectById(ADDRESS_BOOK_ID)).thenReturn(AddressBook.builder()
+                .id(ADDRESS_BOOK_ID).userId(USER_ID).consignee("张三").phone("13800138000")
+                .provinceName("北京市").cityName("北京市").districtName("海淀区").detail("某某路1号")
+                .build());
+        // 模拟自增主键回填
+        doAnswer(invocation -> {
+            invocation.<Orders>getArgument(0).setId(100L);
+            return 1;
+        }).when(orderMapper).insert(any(Orders.class));
+
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(orderService, "orderDetailMapper", orderDetailMapper);
+        ReflectionTestUtils.setField(orderService, "addressBookMapper", addressBookMapper);
+        ReflectionTestUtils.setField(orderService, "cartStore", cartStore);
+        ReflectionTestUtils.setField(orderService, "itemCatalog", itemCatalog);
+        ReflectionTestUtils.setField(orderService, "snowflakeIdGenerator", new SnowflakeIdGenerator(1, 0, 5));
+        ReflectionTestUtils.setField(orderService, "orderTimeoutScheduler", mock(OrderTimeoutScheduler.class));
+        ReflectionTestUtils.setField(orderService, "reportRollup", mock(ReportRollup.class));
+        ReflectionTestUtils.setField(orderService, "skyOrderProperties", new SkyOrderProperties());
+        BaseContext.setCurrentId(USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        BaseContext.removeCurrentId();
+    }
+
+    @Test
+    void amountIsPricedFromCatalog() {
+        when(itemCatalog.getDish(1L)).thenReturn(item(1L, "宫保鸡丁", "20"));
+        when(itemCatalog.getSetmeal(2L)).thenReturn(item(2L, "商务套餐", "50"));
+        // 购物车中的金额已过期，按商品目录当前单价计价
+        when(cartStore.list(USER_ID)).thenReturn(List.of(
+                ShoppingCart.builder().name("宫保鸡丁").dishId(1L).number(2).amount(new BigDecimal("18")).build(),
+                ShoppingCart.builder().name("商务套餐").setmealId(2L).number(1).amount(new BigDecimal("45")).build()));
+
+        // 商品 20×2 + 50×1 = 90，打包费 3 件×1 = 3，配送费 6
+        OrderSubmitVO result = orderService.submit(submitDTO(new BigDecimal("99")));
+
+        ArgumentCaptor<Orders> orders = ArgumentCaptor.forClass(Orders.class);
+        verify(orderMapper).insert(orders.capture());
+        assertThat(orders.getValue().getAmount()).isEqualByComparingTo("99");
+        assertThat(orders.getValue().getPackAmount()).isEqualTo(3);
+        assertThat(result.getOrderAmount()).isEqualByComparingTo("99");
+
+        ArgumentCaptor<List<OrderDetail>> details = detailCaptor();
+        verify(orderDetailMapper).insertBatch(details.capture());
+        assertThat(details.getValue()).extracting(OrderDetail::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("20"), new BigDecimal("50"));
+        assertThat(details.getValue()).extracting(OrderDetail::getOrderId).containsOnly(100L);
+        verify(cartStore).clear(USER_ID);
+    }
+
+    @Test
+    void mismatchedClientAmountIsRejected() {
+        when(itemCatalog.getDish(1L)).thenReturn(item(1L, "宫保鸡丁", "20"));
+        when(cartStore.list(USER_ID)).thenReturn(List.of(
+                ShoppingCart.builder().name("宫保鸡丁").dishId(1L).number(1).build()));
+
+        assertThatThrownBy(() -> orderService.submit(submitDTO(new BigDecimal("0.01"))))
+                .isInstanceOf(OrderBusinessException.class)
+                .hasMessage(MessageConstant.ORDER_AMOUNT_CHANGED);
+        verify(orderMapper, never()).insert(any(Orders.class));
+        verify(orderDetailMapper, never()).insertBatch(anyList());
+        verify(cartStore, never()).clear(any());
+    }
+
+    @Test
+    void orderDetailsAreWrittenInOneBatch() {
+        List<ShoppingCart> cartItems = new ArrayList<>();
+        for (long dishId = 1; dishId <= 50; dishId++) {
+            when(itemCatalog.getDish(dishId)).thenReturn(item(dishId, "菜品" + dishId, "10"));
+            cartItems.add(ShoppingCart.builder().name("菜品" + dishId).dishId(dishId).number(1).build());
+        }
+        when(cartStore.list(USER_ID)).thenReturn(cartItems);
+
+        orderService.submit(submitDTO(null));
+
+        ArgumentCaptor<List<OrderDetail>> details = detailCaptor();
+        verify(orderMapper, times(1)).insert(any(Orders.class));
+        verify(orderDetailMapper, times(1)).insertBatch(details.capture());
+        assertThat(details.getValue()).hasSize(50);
+    }
+
+    private static OrdersSubmitDTO submitDTO(BigDecimal amount) {
+        OrdersSubmitDTO dto = new OrdersSubmitDTO();
+        dto.setAddressBookId(ADDRESS_BOOK_ID);
+        dto.setPayMethod(1);
+        dto.setAmount(amount);
+        return dto;
+    }
+
+    private static CatalogItem item(Long id, String name, String price) {
+        return new CatalogItem(id, name, null, new BigDecimal(price), StatusConstant.ENABLE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<OrderDetail>> detailCaptor() {
+        return ArgumentCaptor.forClass((Class<List<OrderDetail>>) (Class<?>) List.class);
+    }
+}
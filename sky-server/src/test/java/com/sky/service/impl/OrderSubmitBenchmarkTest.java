@@ -0,0 +1,313 @@
+package com.sky.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.MybatisXMLMapperBuilder;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.sky.cache.ItemCatalog;
+import com.sky.cart.MysqlCartStore;
+import com.sky.constant.StatusConstant;
+import com.sky.context.BaseContext;
+import com.sky.dto.OrdersSubmitDTO;
+import com.sky.entity.AddressBook;
+import com.sky.entity.Dish;
+import com.sky.entity.OrderDetail;
+import com.sky.entity.Orders;
+import com.sky.entity.ShoppingCart;
+import com.sky.mapper.AddressBookMapper;
+import com.sky.mapper.DishMapper;
+import com.sky.mapper.OrderDetailMapper;
+import com.sky.mapper.OrderMapper;
+import com.sky.mapper.ReportDailyMapper;
+import com.sky.mapper.SetmealMapper;
+import com.sky.mapper.ShoppingCartMapper;
+import com.sky.properties.SkyOrderProperties;
+import com.sky.report.ReportRollup;
+import com.sky.task.OrderTimeoutScheduler;
+import com.sky.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 用户下单吞吐量基准测试
+ * <p>
+ * 以真实的 Mapper（MyBatis-Plus 配置与 XML 与应用一致）和 MySQL 购物车驱动 {@link OrderServiceImpl#submit}，
+ * 多个线程模拟不同用户并发下单：每轮先写入购物车，再在一个事务中下单（校验地址簿、读购物车、写订单、
+ * 批量写明细、清空购物车），提交后记入报表汇总增量，并与应用一样每秒合并写入一次报表日汇总。
+ * 支付超时任务依赖 Redis，以 Mock 代替。
+ * </p>
+ * <p>
+ * 需要按 sql/sky.sql 建库的 MySQL（sql/migration 仅用于升级已有库），通过系统属性指定连接，未指定时跳过：
+ * {@code mvn test -pl sky-server -am -Dtest=OrderSubmitBenchmarkTest -Dsurefire.failIfNoSpecifiedTests=false
+ * -Dsky.benchmark.url=jdbc:mysql://localhost:3306/sky_take_out -Dsky.benchmark.username=root -Dsky.benchmark.password=...}；
+ * 可选 sky.benchmark.threads（默认 16）、sky.benchmark.submits（每线程下单次数，默认 200）、
+ * sky.benchmark.target（最低吞吐量，次/秒，默认 300）。测试数据使用独立的用户ID段，结束后删除，并回退报表汇总中的订单数。
+ * </p>
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+@EnabledIfSystemProperty(named = "sky.benchmark.url", matches = ".+")
+@Slf4j
+class OrderSubmitBenchmarkTest {
+
+    /**
+     * 基准测试用户ID起点，避免与真实用户冲突
+     */
+    private static final long USER_ID_BASE = 9_000_000_000L;
+
+    /**
+     * 每个购物车包含的菜品数
+     */
+    private static final int CART_LINES = 3;
+
+    /**
+     * 每个线程预热的下单次数，不计入结果
+     */
+    private static final int WARM_UP_SUBMITS = 20;
+
+    private static final int THREADS = Integer.getInteger("sky.benchmark.threads", 16);
+
+    private static final int SUBMITS_PER_THREAD = Integer.getInteger("sky.benchmark.submits", 200);
+
+    private static final int TARGET_PER_SECOND = Integer.getInteger("sky.benchmark.target", 300);
+
+    private static PooledDataSource dataSource;
+
+    private static SqlSessionManager sessionManager;
+
+    private static OrderServiceImpl orderService;
+
+    private static ReportRollup reportRollup;
+
+    private static ShoppingCartMapper shoppingCartMapper;
+
+    private static List<Dish> dishes;
+
+    private static final List<Long> addressBookIds = Collections.synchronizedList(new ArrayList<>());
+
+    private static int submitted;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        dataSource = new PooledDataSource("com.mysql.cj.jdbc.Driver", System.getProperty("sky.benchmark.url"),
+                System.getProperty("sky.benchmark.username", "root"), System.getProperty("sky.benchmark.password", ""));
+        dataSource.setPoolMaximumActiveConnections(THREADS);
+        dataSource.setPoolMaximumIdleConnections(THREADS);
+
+        MybatisConfiguration configuration = new MybatisConfiguration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:/mapper/**/*.xml")) {
+            try (InputStream in = resource.getInputStream()) {
+                new MybatisXMLMapperBuilder(in, configuration, resource.toString(), configuration.getSqlFragments()).parse();
+            }
+        }
+        for (Class<?> mapper : List.of(AddressBookMapper.class, DishMapper.class, SetmealMapper.class)) {
+            if (!configuration.hasMapper(mapper)) {
+                configuration.addMapper(mapper);
+            }
+        }
+        // 线程开启受管会话后，Mapper 调用都在该会话的事务中执行，相当于 @Transactional
+        sessionManager = SqlSessionManager.newInstance(new MybatisSqlSessionFactoryBuilder().build(configuration));
+
+        shoppingCartMapper = sessionManager.getMapper(ShoppingCartMapper.class);
+        OrderDetailMapper orderDetailMapper = sessionManager.getMapper(OrderDetailMapper.class);
+
+        ItemCatalog itemCatalog = new ItemCatalog();
+        ReflectionTestUtils.setField(itemCatalog, "dishMapper", sessionManager.getMapper(DishMapper.class));
+        ReflectionTestUtils.setField(itemCatalog, "setmealMapper", sessionManager.getMapper(SetmealMapper.class));
+        itemCatalog.preload();
+
+        MysqlCartStore cartStore = new MysqlCartStore();
+        ReflectionTestUtils.setField(cartStore, "shoppingCartMapper", shoppingCartMapper);
+
+        reportRollup = new ReportRollup();
+        ReflectionTestUtils.setField(reportRollup, "reportDailyMapper", sessionManager.getMapper(ReportDailyMapper.class));
+        ReflectionTestUtils.setField(reportRollup, "orderDetailMapper", orderDetailMapper);
+
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderMapper", sessionManager.getMapper(OrderMapper.class));
+        ReflectionTestUtils.setField(orderService, "orderDetailMapper", orderDetailMapper);
+        ReflectionTestUtils.setField(orderService, "addressBookMapper", sessionManager.getMapper(AddressBookMapper.class));
+        ReflectionTestUtils.setField(orderService, "cartStore", cartStore);
+        ReflectionTestUtils.setField(orderService, "itemCatalog", itemCatalog);
+        ReflectionTestUtils.setField(orderService, "snowflakeIdGenerator", new SnowflakeIdGenerator(1, 0, 5));
+        ReflectionTestUtils.setField(orderService, "orderTimeoutScheduler", mock(OrderTimeoutScheduler.class));
+        ReflectionTestUtils.setField(orderService, "reportRollup", reportRollup);
+        ReflectionTestUtils.setField(orderService, "skyOrderProperties", new SkyOrderProperties());
+
+        dishes = sessionManager.getMapper(DishMapper.class).selectList(Wrappers.<Dish>lambdaQuery()
+                        .eq(Dish::getStatus, StatusConstant.ENABLE)
+                        .orderByAsc(Dish::getId))
+                .stream()
+                .limit(CART_LINES)
+                .toList();
+        assertThat(dishes).as("基准测试需要至少 %d 个启售菜品", CART_LINES).hasSize(CART_LINES);
+    }
+
+    @AfterAll
+    static void cleanUp() {
+        if (sessionManager == null) {
+            return;
+        }
+        reportRollup.flush();
+        sessionManager.getMapper(OrderDetailMapper.class).delete(Wrappers.<OrderDetail>lambdaQuery()
+                .inSql(OrderDetail::getOrderId, "select id from orders where user_id >= " + USER_ID_BASE));
+        sessionManager.getMapper(OrderMapper.class).delete(Wrappers.<Orders>lambdaQuery()
+                .ge(Orders::getUserId, USER_ID_BASE));
+        shoppingCartMapper.delete(Wrappers.lambdaQuery(ShoppingCart.class)
+                .ge(ShoppingCart::getUserId, USER_ID_BASE));
+        if (!addressBookIds.isEmpty()) {
+            sessionManager.getMapper(AddressBookMapper.class).deleteByIds(addressBookIds);
+        }
+        if (submitted > 0) {
+            sessionManager.getMapper(ReportDailyMapper.class).addOrders(LocalDate.now(), -submitted, 0, BigDecimal.ZERO);
+        }
+        dataSource.forceCloseAll();
+    }
+
+    @Test
+    void concurrentSubmitThroughput() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        // 与 sky.report.rollup.flush-interval 默认值一致
+        ScheduledExecutorService rollupFlusher = Executors.newSingleThreadScheduledExecutor();
+        rollupFlusher.scheduleWithFixedDelay(reportRollup::flush, 1, 1, TimeUnit.SECONDS);
+        CountDownLatch warmedUp = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            long userId = USER_ID_BASE + i;
+            Callable<long[]> user = () -> {
+                BaseContext.setCurrentId(userId);
+                try {
+                    Long addressBookId = createAddressBook(userId);
+                    for (int n = 0; n < WARM_UP_SUBMITS; n++) {
+                        submit(addressBookId);
+                    }
+                    warmedUp.countDown();
+                    start.await();
+                    long[] latencies = new long[SUBMITS_PER_THREAD];
+                    for (int n = 0; n < SUBMITS_PER_THREAD; n++) {
+                        latencies[n] = submit(addressBookId);
+                    }
+                    return latencies;
+                } finally {
+                    BaseContext.removeCurrentId();
+                }
+            };
+            futures.add(executor.submit(user));
+        }
+
+        // 等全部线程完成预热后同时开始
+        assertThat(warmedUp.await(5, TimeUnit.MINUTES)).as("预热超时").isTrue();
+        long begin = System.nanoTime();
+        start.countDown();
+        List<Long> latencies = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get(10, TimeUnit.MINUTES)) {
+                latencies.add(latency);
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        rollupFlusher.shutdown();
+
+        Collections.sort(latencies);
+        double perSecond = latencies.size() * 1_000_000_000.0 / elapsed;
+        String result = String.format("下单 %d 次，%d 线程，耗时 %d ms，吞吐量 %.0f 次/秒（含每轮写入购物车），"
+                        + "submit 延迟 p50 %.2f ms，p99 %.2f ms",
+                latencies.size(), THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed), perSecond,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+        log.info(result);
+        assertThat(perSecond).as(result).isGreaterThanOrEqualTo(TARGET_PER_SECOND);
+    }
+
+    private static Long createAddressBook(long userId) {
+        AddressBook addressBook = AddressBook.builder()
+                .userId(userId).consignee("基准测试").phone("13800138000").sex("1")
+                .provinceName("北京市").cityName("北京市").districtName("海淀区").detail("某某路1号")
+                .isDefault(1)
+                .build();
+        sessionManager.getMapper(AddressBookMapper.class).insert(addressBook);
+        addressBookIds.add(addressBook.getId());
+        return addressBook.getId();
+    }
+
+    /**
+     * 写入购物车后在一个事务中下单，提交后执行事务同步回调（与 Spring 事务一致）
+     *
+     * @return 下单耗时（纳秒），不含写入购物车
+     */
+    private static long submit(Long addressBookId) {
+        Long userId = BaseContext.getCurrentId();
+        for (Dish dish : dishes) {
+            shoppingCartMapper.insertOrIncrement(ShoppingCart.builder()
+                    .name(dish.getName()).image(dish.getImage()).userId(userId).dishId(dish.getId())
+                    .amount(dish.getPrice()).createTime(LocalDateTime.now())
+                    .build());
+        }
+        OrdersSubmitDTO dto = new OrdersSubmitDTO();
+        dto.setAddressBookId(addressBookId);
+        dto.setPayMethod(1);
+
+        long begin = System.nanoTime();
+        sessionManager.startManagedSession(false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            orderService.submit(dto);
+            sessionManager.commit();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } catch (RuntimeException e) {
+            sessionManager.rollback();
+            throw e;
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            sessionManager.close();
+        }
+        synchronized (OrderSubmitBenchmarkTest.class) {
+            submitted++;
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+}
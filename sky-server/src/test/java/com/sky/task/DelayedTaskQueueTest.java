@@ -0,0 +1,127 @@
+package com.sky.task;
+
+import com.sky.constant.DelayedTaskConstant;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 延时队列测试
+ * 在内嵌 Redis 上执行领取脚本：到期任务只被领取一次，超时未确认的任务重新投递，
+ * 领取次数超过上限的任务转入死信集合，确认与取消清除领取次数
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class DelayedTaskQueueTest {
+
+    private static final String TOPIC = "test";
+
+    private static final String KEY = DelayedTaskConstant.QUEUE_KEY_PREFIX + TOPIC;
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private DelayedTaskQueue queue;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = RedisServer.newRedisServer().port(port).setting("bind 127.0.0.1").build();
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        queue = new DelayedTaskQueue();
+        ReflectionTestUtils.setField(queue, "stringRedisTemplate", stringRedisTemplate);
+    }
+
+    @Test
+    void dueTaskIsClaimedOnceUntilVisibilityTimeout() {
+        long now = System.currentTimeMillis();
+        queue.schedule(TOPIC, "1", now - 1);
+        queue.schedule(TOPIC, "2", now + 60_000);
+
+        assertThat(queue.claim(TOPIC, 10, 60_000, 5)).containsExactly("1");
+        assertThat(queue.claim(TOPIC, 10, 60_000, 5)).isEmpty();
+        assertThat(queue.size(TOPIC)).isEqualTo(2);
+
+        queue.ack(TOPIC, "1");
+        assertThat(queue.size(TOPIC)).isEqualTo(1);
+        assertThat(stringRedisTemplate.opsForHash().hasKey(KEY + DelayedTaskConstant.ATTEMPTS_SUFFIX, "1")).isFalse();
+    }
+
+    @Test
+    void unacknowledgedTaskIsRedeliveredAfterVisibilityTimeout() {
+        queue.schedule(TOPIC, "1", System.currentTimeMillis() - 1);
+
+        // 可见超时为 0：领取后立即视为超时未确认
+        assertThat(queue.claim(TOPIC, 10, 0, 5)).containsExactly("1");
+        assertThat(queue.claim(TOPIC, 10, 0, 5)).containsExactly("1");
+        assertThat(stringRedisTemplate.opsForHash().get(KEY + DelayedTaskConstant.ATTEMPTS_SUFFIX, "1")).isEqualTo("2");
+    }
+
+    @Test
+    void taskFailingMaxAttemptsTimesIsDeadLettered() {
+        long now = System.currentTimeMillis();
+        queue.schedule(TOPIC, "not-a-number", now - 1);
+        queue.schedule(TOPIC, "2", now - 1);
+        assertThat(queue.claim(TOPIC, 10, 0, 3)).containsExactlyInAnyOrder("not-a-number", "2");
+        // 正常任务执行成功并确认，无法解析的任务每次执行都失败、不确认
+        queue.ack(TOPIC, "2");
+
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            assertThat(queue.claim(TOPIC, 10, 0, 3)).as("第 %d 次领取", attempt).containsExactly("not-a-number");
+        }
+        assertThat(queue.claim(TOPIC, 10, 0, 3)).isEmpty();
+
+        assertThat(queue.size(TOPIC)).isZero();
+        assertThat(stringRedisTemplate.opsForZSet().score(KEY + DelayedTaskConstant.DEAD_SUFFIX, "not-a-number")).isNotNull();
+        assertThat(stringRedisTemplate.hasKey(KEY + DelayedTaskConstant.ATTEMPTS_SUFFIX)).isFalse();
+        // 后续领取不再返回死信任务
+        assertThat(queue.claim(TOPIC, 10, 0, 3)).isEmpty();
+    }
+
+    @Test
+    void cancelClearsAttempts() {
+        queue.schedule(TOPIC, "1", System.currentTimeMillis() - 1);
+        queue.claim(TOPIC, 10, 60_000, 5);
+
+        queue.cancel(TOPIC, "1");
+
+        assertThat(queue.size(TOPIC)).isZero();
+        assertThat(stringRedisTemplate.hasKey(KEY + DelayedTaskConstant.ATTEMPTS_SUFFIX)).isFalse();
+    }
+}
@@ -0,0 +1,220 @@
+package com.sky.wechat;
+
+import com.sky.constant.MessageConstant;
+import com.sky.exception.LoginFailedException;
+import com.sky.properties.SkyHttpClientProperties;
+import com.sky.properties.SkyWeChatLoginProperties;
+import com.sky.properties.WeChatProperties;
+import com.sky.utils.CircuitBreaker;
+import com.sky.utils.HttpClientPool;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * 微信登录接口客户端测试
+ * 以本地 HTTP 桩服务代替微信 jscode2session 接口，验证超时、排队已满与熔断时的降级行为
+ *
+ * @author NecoOcean
+ * @date 2025/10/20
+ */
+class WeChatLoginClientTest {
+
+    /**
+     * 桩服务的响应方式
+     */
+    private enum Mode {
+        OK, ERRCODE, SLOW, SERVER_ERROR
+    }
+
+    private volatile Mode mode = Mode.OK;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private SkyWeChatLoginProperties properties;
+
+    private HttpClientPool httpClientPool;
+
+    private ThreadPoolTaskExecutor wechatLoginExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/sns/jscode2session", exchange -> {
+            requests.incrementAndGet();
+            int status = 200;
+            String body = "{\"openid\":\"openid-1\",\"session_key\":\"key\"}";
+            switch (mode) {
+                case ERRCODE -> body = "{\"errcode\":40029,\"errmsg\":\"invalid code\"}";
+                case SERVER_ERROR -> {
+                    status = 500;
+                    body = "error";
+                }
+                case SLOW -> {
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                default -> {
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(status, bytes.length);
+                out.write(bytes);
+            } catch (IOException e) {
+                // 客户端已中止请求
+            }
+        });
+        server.start();
+
+        properties = new SkyWeChatLoginProperties();
+        properties.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/sns/jscode2session");
+        properties.setDeadline(Duration.ofSeconds(2));
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(300));
+        httpClientPool = new HttpClientPool(new SkyHttpClientProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (wechatLoginExecutor != null) {
+            wechatLoginExecutor.shutdown();
+        }
+        httpClientPool.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void returnsOpenid() throws Exception {
+        WeChatLoginClient client = client(2, 10);
+
+        assertThat(client.getOpenid("code").get(5, TimeUnit.SECONDS)).isEqualTo("openid-1");
+        assertThat(client.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void errcodeReplyIsNotCountedAsFailure() throws Exception {
+        WeChatLoginClient client = client(2, 10);
+        mode = Mode.ERRCODE;
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(client.getOpenid("bad-code").get(5, TimeUnit.SECONDS)).isNull();
+        }
+        assertThat(client.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowReplyFailsAtDeadline() {
+        properties.setDeadline(Duration.ofMillis(300));
+        WeChatLoginClient client = client(2, 10);
+        mode = Mode.SLOW;
+
+        long start = System.nanoTime();
+        assertLoginFails(client.getOpenid("code"), MessageConstant.LOGIN_SERVICE_UNAVAILABLE);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMillis).isLessThan(2000);
+    }
+
+    @Test
+    void fullBulkheadRejectsImmediately() {
+        WeChatLoginClient client = client(1, 1);
+        mode = Mode.SLOW;
+
+        // 一个调用占用线程，一个排队，第三个直接被拒绝
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(client.getOpenid("code"));
+        }
+
+        assertThat(calls.get(2)).isCompletedExceptionally();
+        assertLoginFails(calls.get(2), MessageConstant.LOGIN_BUSY);
+    }
+
+    @Test
+    void repeatedServerErrorsOpenBreakerAndProbeClosesIt() throws Exception {
+        WeChatLoginClient client = client(2, 10);
+        mode = Mode.SERVER_ERROR;
+
+        int minimumCalls = properties.getCircuitBreaker().getMinimumCalls();
+        for (int i = 0; i < minimumCalls; i++) {
+            assertLoginFails(client.getOpenid("code"), MessageConstant.LOGIN_SERVICE_UNAVAILABLE);
+        }
+        assertThat(client.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // 熔断打开期间不再调用微信
+        int requestsWhenOpened = requests.get();
+        CompletableFuture<String> rejected = client.getOpenid("code");
+        assertThat(rejected).isCompletedExceptionally();
+        assertLoginFails(rejected, MessageConstant.LOGIN_SERVICE_UNAVAILABLE);
+        assertThat(requests.get()).isEqualTo(requestsWhenOpened);
+
+        // 打开时间过后放行一次试探调用，成功后关闭
+        Thread.sleep(properties.getCircuitBreaker().getOpenDuration().toMillis() + 100);
+        mode = Mode.OK;
+        assertThat(client.getOpenid("code").get(5, TimeUnit.SECONDS)).isEqualTo("openid-1");
+        assertThat(client.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private WeChatLoginClient client(int concurrency, int queueCapacity) {
+        wechatLoginExecutor = new ThreadPoolTaskExecutor();
+        wechatLoginExecutor.setCorePoolSize(concurrency);
+        wechatLoginExecutor.setMaxPoolSize(concurrency);
+        wechatLoginExecutor.setQueueCapacity(queueCapacity);
+        wechatLoginExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        wechatLoginExecutor.initialize();
+
+        WeChatProperties weChatProperties = new WeChatProperties();
+        weChatProperties.setAppid("appid");
+        weChatProperties.setSecret("secret");
+
+        WeChatLoginClient client = new WeChatLoginClient();
+        ReflectionTestUtils.setField(client, "weChatProperties", weChatProperties);
+        ReflectionTestUtils.setField(client, "skyWeChatLoginProperties", properties);
+        ReflectionTestUtils.setField(client, "httpClientPool", httpClientPool);
+        ReflectionTestUtils.setField(client, "wechatLoginExecutor", wechatLoginExecutor);
+        client.init();
+        return client;
+    }
+
+    private static void assertLoginFails(CompletableFuture<String> call, String message) {
+        try {
+            call.get(5, TimeUnit.SECONDS);
+            fail("登录应失败：" + message);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(LoginFailedException.class).hasMessage(message);
+        } catch (Exception e) {
+            fail("登录未在时限内结束", e);
+        }
+    }
+}
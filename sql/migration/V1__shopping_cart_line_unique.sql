@@ -0,0 +1,27 @@
+-- 购物车行唯一键：同一用户的同一菜品+口味（或同一套餐）只能有一行
+-- dish_id / setmeal_id / dish_flavor 均可能为 NULL，而唯一索引不约束 NULL，
+-- 因此通过生成列 line_key 把三者拼接为非空字符串后再建唯一索引
+USE `sky_take_out`;
+
+-- 1. 合并已存在的重复行：保留 id 最小的一行并累加份数
+UPDATE `shopping_cart` keep_row
+    JOIN (SELECT MIN(`id`) AS `id`, SUM(`number`) AS `total`
+          FROM `shopping_cart`
+          GROUP BY `user_id`, `dish_id`, `setmeal_id`, `dish_flavor`
+          HAVING COUNT(*) > 1) dup ON keep_row.`id` = dup.`id`
+SET keep_row.`number` = dup.`total`;
+
+DELETE extra_row FROM `shopping_cart` extra_row
+    JOIN `shopping_cart` keep_row
+      ON keep_row.`user_id` = extra_row.`user_id`
+     AND keep_row.`dish_id` <=> extra_row.`dish_id`
+     AND keep_row.`setmeal_id` <=> extra_row.`setmeal_id`
+     AND keep_row.`dish_flavor` <=> extra_row.`dish_flavor`
+     AND keep_row.`id` < extra_row.`id`;
+
+-- 2. 新增生成列与唯一索引
+ALTER TABLE `shopping_cart`
+    ADD COLUMN `line_key` varchar(100) COLLATE utf8_bin
+        GENERATED ALWAYS AS (concat(ifnull(`dish_id`,''),'|',ifnull(`setmeal_id`,''),'|',ifnull(`dish_flavor`,''))) STORED
+        COMMENT '购物车行标识（菜品id|套餐id|口味）',
+    ADD UNIQUE KEY `uk_shopping_cart_line` (`user_id`, `line_key`);
@@ -0,0 +1,35 @@
+-- 热点查询索引：各表此前只有主键，按用户、菜品、套餐、订单查询均为全表扫描
+-- shopping_cart 按 user_id 的查询已由 V1 的唯一键 uk_shopping_cart_line (user_id, line_key) 的最左前缀覆盖，无需另建
+-- 各索引对应的查询与期望的执行计划见 sky-server 测试 HotPathExplainTest
+USE `sky_take_out`;
+
+-- 用户下单、订单列表：按用户 + 状态筛选、按下单时间排序
+ALTER TABLE `orders`
+    ADD KEY `idx_orders_user_status_time` (`user_id`, `status`, `order_time`);
+
+-- 订单详情：按订单查询明细
+ALTER TABLE `order_detail`
+    ADD KEY `idx_order_detail_order` (`order_id`);
+
+-- 地址簿列表、默认地址：按用户（+ 是否默认）查询
+ALTER TABLE `address_book`
+    ADD KEY `idx_address_book_user` (`user_id`, `is_default`);
+
+-- 菜品口味：按菜品批量查询、删除
+ALTER TABLE `dish_flavor`
+    ADD KEY `idx_dish_flavor_dish` (`dish_id`);
+
+-- 套餐菜品关系：按套餐查菜品（套餐详情、修改比对），按菜品查套餐（删除菜品校验、停售级联）
+ALTER TABLE `setmeal_dish`
+    ADD KEY `idx_setmeal_dish_setmeal` (`setmeal_id`, `dish_id`),
+    ADD KEY `idx_setmeal_dish_dish` (`dish_id`, `setmeal_id`);
+
+-- 用户端菜品、套餐列表：按分类 + 起售状态查询
+ALTER TABLE `dish`
+    ADD KEY `idx_dish_category_status` (`category_id`, `status`);
+ALTER TABLE `setmeal`
+    ADD KEY `idx_setmeal_category_status` (`category_id`, `status`);
+
+-- 微信登录：按 openid 查询用户
+ALTER TABLE `user`
+    ADD KEY `idx_user_openid` (`openid`);
@@ -0,0 +1,26 @@
+-- 报表日汇总：营业额、订单数、有效订单数、新增用户数按天汇总，商品销量按天 + 商品名称汇总
+-- 下单、订单完成、新用户注册时在同一事务内增量累加，报表接口只读取日期范围内的汇总行
+-- 历史数据由管理端“重建报表汇总”接口（POST /admin/report/rollup/rebuild）按日期分段并行回填
+USE `sky_take_out`;
+
+CREATE TABLE `report_daily` (
+  `report_date` date NOT NULL COMMENT '统计日期',
+  `turnover` decimal(12,2) NOT NULL DEFAULT '0.00' COMMENT '营业额（已完成订单实收金额）',
+  `order_count` int NOT NULL DEFAULT '0' COMMENT '订单数（按下单时间）',
+  `valid_order_count` int NOT NULL DEFAULT '0' COMMENT '有效订单数（已完成）',
+  `new_user_count` int NOT NULL DEFAULT '0' COMMENT '新增用户数',
+  PRIMARY KEY (`report_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='报表日汇总';
+
+CREATE TABLE `report_daily_item` (
+  `report_date` date NOT NULL COMMENT '统计日期',
+  `name` varchar(32) COLLATE utf8_bin NOT NULL COMMENT '商品名称',
+  `number` int NOT NULL DEFAULT '0' COMMENT '销量（已完成订单）',
+  PRIMARY KEY (`report_date`, `name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='报表商品销量日汇总';
+
+-- 回填按下单时间、注册时间分段扫描
+ALTER TABLE `orders`
+    ADD KEY `idx_orders_order_time` (`order_time`);
+ALTER TABLE `user`
+    ADD KEY `idx_user_create_time` (`create_time`);
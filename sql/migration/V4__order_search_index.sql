@@ -0,0 +1,6 @@
+-- 管理端订单搜索（游标分页）：按订单状态筛选时沿 (status, order_time, id) 顺序读取，无需排序
+-- 不按状态筛选时使用 V3 的 idx_orders_order_time；执行计划见 sky-server 测试 HotPathExplainTest
+USE `sky_take_out`;
+
+ALTER TABLE `orders`
+    ADD KEY `idx_orders_status_time` (`status`, `order_time`);
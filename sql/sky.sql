@@ -17,7 +17,8 @@ CREATE TABLE `address_book` (
   `detail` varchar(200) CHARACTER SET utf8mb4  DEFAULT NULL COMMENT '详细地址',
   `label` varchar(100) CHARACTER SET utf8mb4  DEFAULT NULL COMMENT '标签',
   `is_default` tinyint(1) NOT NULL DEFAULT '0' COMMENT '默认 0 否 1是',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_address_book_user` (`user_id`,`is_default`)
 ) ENGINE=InnoDB AUTO_INCREMENT=2 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='地址簿';
 
 DROP TABLE IF EXISTS `category`;
@@ -60,7 +61,8 @@ CREATE TABLE `dish` (
   `create_user` bigint DEFAULT NULL COMMENT '创建人',
   `update_user` bigint DEFAULT NULL COMMENT '修改人',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `idx_dish_name` (`name`)
+  UNIQUE KEY `idx_dish_name` (`name`),
+  KEY `idx_dish_category_status` (`category_id`,`status`)
 ) ENGINE=InnoDB AUTO_INCREMENT=70 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='菜品';
 
 INSERT INTO `dish` VALUES (46,'王老吉',11,6.00,'https://sky-itcast.oss-cn-beijing.aliyuncs.com/41bfcacf-7ad4-4927-8b26-df366553a94c.png','',1,'2022-06-09 22:40:47','2022-06-09 22:40:47',1,1);
@@ -94,7 +96,8 @@ CREATE TABLE `dish_flavor` (
   `dish_id` bigint NOT NULL COMMENT '菜品',
   `name` varchar(32) COLLATE utf8_bin DEFAULT NULL COMMENT '口味名称',
   `value` varchar(255) COLLATE utf8_bin DEFAULT NULL COMMENT '口味数据list',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_dish_flavor_dish` (`dish_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=104 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='菜品口味关系表';
 
 INSERT INTO `dish_flavor` VALUES (40,10,'甜味','[\"无糖\",\"少糖\",\"半糖\",\"多糖\",\"全糖\"]');
@@ -153,7 +156,8 @@ CREATE TABLE `order_detail` (
   `dish_flavor` varchar(50) COLLATE utf8_bin DEFAULT NULL COMMENT '口味',
   `number` int NOT NULL DEFAULT '1' COMMENT '数量',
   `amount` decimal(10,2) NOT NULL COMMENT '金额',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_order_detail_order` (`order_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=5 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='订单明细表';
 
 DROP TABLE IF EXISTS `orders`;
@@ -182,9 +186,30 @@ CREATE TABLE `orders` (
   `pack_amount` int DEFAULT NULL COMMENT '打包费',
   `tableware_number` int DEFAULT NULL COMMENT '餐具数量',
   `tableware_status` tinyint(1) NOT NULL DEFAULT '1' COMMENT '餐具数量状态  1按餐量提供  0选择具体数量',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_orders_user_status_time` (`user_id`,`status`,`order_time`),
+  KEY `idx_orders_order_time` (`order_time`),
+  KEY `idx_orders_status_time` (`status`,`order_time`)
 ) ENGINE=InnoDB AUTO_INCREMENT=4 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='订单表';
 
+DROP TABLE IF EXISTS `report_daily`;
+CREATE TABLE `report_daily` (
+  `report_date` date NOT NULL COMMENT '统计日期',
+  `turnover` decimal(12,2) NOT NULL DEFAULT '0.00' COMMENT '营业额（已完成订单实收金额）',
+  `order_count` int NOT NULL DEFAULT '0' COMMENT '订单数（按下单时间）',
+  `valid_order_count` int NOT NULL DEFAULT '0' COMMENT '有效订单数（已完成）',
+  `new_user_count` int NOT NULL DEFAULT '0' COMMENT '新增用户数',
+  PRIMARY KEY (`report_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='报表日汇总';
+
+DROP TABLE IF EXISTS `report_daily_item`;
+CREATE TABLE `report_daily_item` (
+  `report_date` date NOT NULL COMMENT '统计日期',
+  `name` varchar(32) COLLATE utf8_bin NOT NULL COMMENT '商品名称',
+  `number` int NOT NULL DEFAULT '0' COMMENT '销量（已完成订单）',
+  PRIMARY KEY (`report_date`, `name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='报表商品销量日汇总';
+
 DROP TABLE IF EXISTS `setmeal`;
 CREATE TABLE `setmeal` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',
@@ -199,7 +224,8 @@ CREATE TABLE `setmeal` (
   `create_user` bigint DEFAULT NULL COMMENT '创建人',
   `update_user` bigint DEFAULT NULL COMMENT '修改人',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `idx_setmeal_name` (`name`)
+  UNIQUE KEY `idx_setmeal_name` (`name`),
+  KEY `idx_setmeal_category_status` (`category_id`,`status`)
 ) ENGINE=InnoDB AUTO_INCREMENT=32 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='套餐';
 
 DROP TABLE IF EXISTS `setmeal_dish`;
@@ -210,7 +236,9 @@ CREATE TABLE `setmeal_dish` (
   `name` varchar(32) COLLATE utf8_bin DEFAULT NULL COMMENT '菜品名称 （冗余字段）',
   `price` decimal(10,2) DEFAULT NULL COMMENT '菜品单价（冗余字段）',
   `copies` int DEFAULT NULL COMMENT '菜品份数',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_setmeal_dish_setmeal` (`setmeal_id`,`dish_id`),
+  KEY `idx_setmeal_dish_dish` (`dish_id`,`setmeal_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=47 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='套餐菜品关系';
 
 DROP TABLE IF EXISTS `shopping_cart`;
@@ -225,7 +253,9 @@ CREATE TABLE `shopping_cart` (
   `number` int NOT NULL DEFAULT '1' COMMENT '数量',
   `amount` decimal(10,2) NOT NULL COMMENT '金额',
   `create_time` datetime DEFAULT NULL COMMENT '创建时间',
-  PRIMARY KEY (`id`)
+  `line_key` varchar(100) COLLATE utf8_bin GENERATED ALWAYS AS (concat(ifnull(`dish_id`,''),'|',ifnull(`setmeal_id`,''),'|',ifnull(`dish_flavor`,''))) STORED COMMENT '购物车行标识（菜品id|套餐id|口味）',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_shopping_cart_line` (`user_id`,`line_key`)
 ) ENGINE=InnoDB AUTO_INCREMENT=9 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='购物车';
 
 DROP TABLE IF EXISTS `user`;
@@ -238,5 +268,7 @@ CREATE TABLE `user` (
   `id_number` varchar(18) COLLATE utf8_bin DEFAULT NULL COMMENT '身份证号',
   `avatar` varchar(500) COLLATE utf8_bin DEFAULT NULL COMMENT '头像',
   `create_time` datetime DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_user_openid` (`openid`),
+  KEY `idx_user_create_time` (`create_time`)
 ) ENGINE=InnoDB AUTO_INCREMENT=4 DEFAULT CHARSET=utf8mb3 COLLATE=utf8_bin COMMENT='用户信息';
\ No newline at end of file